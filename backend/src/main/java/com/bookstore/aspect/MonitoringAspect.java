@@ -164,4 +164,4 @@ public class MonitoringAspect {
             MDC.clear();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,121 @@
+package com.bookstore.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces single-key lookups into batch requests, DataLoader style.
+ *
+ * Keys requested within one window are deduplicated and handed to the batch fetcher together;
+ * each caller then receives the value for its own key, or an empty Mono when the batch result
+ * has no entry for it. A batch is dispatched early once it reaches the maximum size. An error
+ * from the fetcher is propagated to every caller waiting on that batch.
+ */
+public class BatchLoader<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchLoader.class);
+
+    private final String name;
+    private final Function<Set<K>, Mono<Map<K, V>>> batchFetcher;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Scheduler scheduler;
+
+    private final Object lock = new Object();
+    private Map<K, Sinks.One<V>> pending = new LinkedHashMap<>();
+
+    public BatchLoader(String name, Function<Set<K>, Mono<Map<K, V>>> batchFetcher,
+                       Duration window, int maxBatchSize) {
+        this(name, batchFetcher, window, maxBatchSize, Schedulers.parallel());
+    }
+
+    BatchLoader(String name, Function<Set<K>, Mono<Map<K, V>>> batchFetcher,
+                Duration window, int maxBatchSize, Scheduler scheduler) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.name = name;
+        this.batchFetcher = batchFetcher;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Load one key through the next batch. Nothing is queued until the returned Mono is subscribed.
+     */
+    public Mono<V> load(K key) {
+        return Mono.defer(() -> {
+            Sinks.One<V> sink;
+            Map<K, Sinks.One<V>> full = null;
+            boolean startWindow = false;
+
+            synchronized (lock) {
+                sink = pending.get(key);
+                if (sink == null) {
+                    sink = Sinks.one();
+                    pending.put(key, sink);
+                    if (pending.size() >= maxBatchSize) {
+                        full = pending;
+                        pending = new LinkedHashMap<>();
+                    } else {
+                        startWindow = pending.size() == 1;
+                    }
+                }
+            }
+
+            if (full != null) {
+                dispatch(full);
+            } else if (startWindow) {
+                scheduler.schedule(this::flush, window.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return sink.asMono();
+        });
+    }
+
+    /**
+     * Dispatch whatever is pending right away.
+     */
+    public void flush() {
+        Map<K, Sinks.One<V>> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<K, Sinks.One<V>> batch) {
+        logger.debug("Dispatching {} batch of {} keys", name, batch.size());
+        Mono.defer(() -> batchFetcher.apply(Collections.unmodifiableSet(batch.keySet())))
+                .defaultIfEmpty(Collections.emptyMap())
+                .subscribe(
+                        results -> batch.forEach((key, sink) -> {
+                            V value = results.get(key);
+                            if (value != null) {
+                                sink.tryEmitValue(value);
+                            } else {
+                                sink.tryEmitEmpty();
+                            }
+                        }),
+                        error -> {
+                            logger.debug("{} batch of {} keys failed: {}", name, batch.size(), error.getMessage());
+                            batch.values().forEach(sink -> sink.tryEmitError(error));
+                        });
+    }
+}
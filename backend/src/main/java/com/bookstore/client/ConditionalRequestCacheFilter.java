@@ -0,0 +1,179 @@
+package com.bookstore.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side HTTP cache for GET requests based on conditional revalidation.
+ *
+ * Successful responses carrying an {@code ETag} or {@code Last-Modified} header are kept in a bounded
+ * LRU store. The next GET for the same URL is sent with {@code If-None-Match} / {@code If-Modified-Since};
+ * a {@code 304 Not Modified} answer is turned back into a {@code 200} carrying the stored body, so callers
+ * never see the difference. Bodies are captured while they stream to the caller, and bodies larger than
+ * the per-entry limit are not cached.
+ */
+public class ConditionalRequestCacheFilter implements ExchangeFilterFunction {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalRequestCacheFilter.class);
+
+    private final int maxEntries;
+    private final int maxEntryBytes;
+    private final Map<String, CachedResponse> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ConditionalRequestCacheFilter(int maxEntries, int maxEntryBytes) {
+        this.maxEntries = maxEntries;
+        this.maxEntryBytes = maxEntryBytes;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > ConditionalRequestCacheFilter.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.method() != HttpMethod.GET) {
+            return next.exchange(request);
+        }
+
+        String key = cacheKey(request);
+        CachedResponse cached = lookup(key);
+        ClientRequest outgoing = cached == null ? request : ClientRequest.from(request)
+                .headers(headers -> {
+                    if (cached.etag() != null) {
+                        headers.setIfNoneMatch(cached.etag());
+                    }
+                    if (cached.lastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+                    }
+                })
+                .build();
+
+        return next.exchange(outgoing).map(response -> {
+            if (cached != null && response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                hits.incrementAndGet();
+                logger.debug("Serving {} from conditional cache (304)", key);
+                return response.mutate()
+                        .statusCode(HttpStatus.OK)
+                        .headers(headers -> {
+                            headers.clear();
+                            headers.addAll(cached.headers());
+                        })
+                        .body(Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(cached.body()))))
+                        .build();
+            }
+            misses.incrementAndGet();
+            if (response.statusCode().value() != HttpStatus.OK.value() || !isCacheable(response.headers().asHttpHeaders())) {
+                if (cached != null) {
+                    evict(key);
+                }
+                return response;
+            }
+            HttpHeaders headers = HttpHeaders.readOnlyHttpHeaders(new HttpHeaders(response.headers().asHttpHeaders()));
+            return response.mutate()
+                    .body(body -> captureBody(key, headers, body))
+                    .build();
+        });
+    }
+
+    /**
+     * Number of requests answered from the store after a 304
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Number of GET requests that needed a full response
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Flux<DataBuffer> captureBody(String key, HttpHeaders headers, Flux<DataBuffer> body) {
+        AtomicBoolean stored = new AtomicBoolean();
+        return Flux.defer(() -> {
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            AtomicBoolean oversized = new AtomicBoolean();
+            return body
+                    .doOnNext(buffer -> {
+                        int readable = buffer.readableByteCount();
+                        if (oversized.get() || copy.size() + readable > maxEntryBytes) {
+                            oversized.set(true);
+                            return;
+                        }
+                        int start = buffer.readPosition();
+                        for (int i = 0; i < readable; i++) {
+                            copy.write(buffer.getByte(start + i));
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        // WebClient may resubscribe to a drained body; only the read that saw bytes counts
+                        if (!oversized.get() && copy.size() > 0 && stored.compareAndSet(false, true)) {
+                            store(key, new CachedResponse(headers.getETag(),
+                                    headers.getFirst(HttpHeaders.LAST_MODIFIED), headers, copy.toByteArray()));
+                        }
+                    });
+        });
+    }
+
+    private static boolean isCacheable(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && cacheControl.contains("no-store")) {
+            return false;
+        }
+        return headers.getETag() != null || headers.getFirst(HttpHeaders.LAST_MODIFIED) != null;
+    }
+
+    private static String cacheKey(ClientRequest request) {
+        String accept = request.headers().getFirst(HttpHeaders.ACCEPT);
+        return request.url() + (accept != null ? "|" + accept : "");
+    }
+
+    private CachedResponse lookup(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void store(String key, CachedResponse response) {
+        synchronized (entries) {
+            entries.put(key, response);
+        }
+    }
+
+    private void evict(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    private record CachedResponse(String etag, String lastModified, HttpHeaders headers, byte[] body) {}
+}
@@ -0,0 +1,10 @@
+package com.bookstore.client;
+
+/**
+ * A client whose idempotent reads go through a {@link HedgingPolicy}. The client registers the
+ * policy's metrics once, when it is created, tagged with its class name like its call timers.
+ */
+public interface HedgedClient {
+
+    HedgingPolicy getHedgingPolicy();
+}
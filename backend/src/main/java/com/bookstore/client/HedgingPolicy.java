@@ -0,0 +1,400 @@
+package com.bookstore.client;
+
+import com.bookstore.config.HedgingProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests for idempotent reads.
+ *
+ * The first attempt is sent immediately. If it has not produced a value after the hedge delay, a second,
+ * identical attempt is sent and whichever returns a value first wins; the other is cancelled. The delay
+ * tracks a percentile (p95 by default) of recently observed attempt latencies, so only the slow tail is
+ * hedged. Each operation (the endpoint template it calls) keeps its own latency window, so a slow
+ * search does not push out the delay of a fast lookup by id. A token budget, shared by the client's
+ * operations, caps the extra load: every request earns a fraction of a token, every hedge
+ * spends a whole one, so hedges stay below that fraction of traffic even when the downstream is slow
+ * across the board.
+ *
+ * Failures are not hedged: an attempt that errors or completes empty before the hedge fires settles the
+ * call, leaving retries to the caller's retry operator.
+ */
+public class HedgingPolicy {
+
+    /**
+     * How an attempt ended, the outcome tag of its latency timer
+     */
+    public enum AttemptOutcome {
+        /** Its value answered the call */
+        WON,
+        /** The other attempt answered first; timed until this one was cancelled or its value arrived */
+        LOST,
+        /** Errored or completed empty */
+        FAILED,
+        /** The caller cancelled the call before any attempt answered */
+        CANCELLED
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgingPolicy.class);
+    private static final int LATENCY_WINDOW = 256;
+
+    private final String name;
+    private final HedgingProperties properties;
+    private final Scheduler scheduler;
+
+    private final Object lock = new Object();
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private double budgetTokens;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+
+    private volatile Map<AttemptOutcome, Timer> attemptTimers = Map.of();
+    private volatile MeterRegistry registry;
+    private volatile String client;
+
+    public HedgingPolicy(String name, HedgingProperties properties) {
+        this(name, properties, Schedulers.parallel());
+    }
+
+    HedgingPolicy(String name, HedgingProperties properties, Scheduler scheduler) {
+        this.name = name;
+        this.properties = properties;
+        this.scheduler = scheduler;
+        this.budgetTokens = properties.getMaxBudgetTokens();
+    }
+
+    /**
+     * Run an idempotent request with hedging. The supplier is invoked once per attempt; the operation,
+     * usually the endpoint template, picks the latency window the hedge delay is taken from.
+     */
+    public <T> Mono<T> hedge(String operation, Supplier<Mono<T>> attempt) {
+        if (!properties.isEnabled()) {
+            return Mono.defer(attempt);
+        }
+        return Mono.defer(() -> {
+            requests.incrementAndGet();
+            depositBudget();
+            LatencyWindow window = window(operation);
+            return new HedgedCall<>(attempt, window, window.hedgeDelay()).start();
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Publish this policy's counters, and a latency timer per attempt outcome, tagged with the client's
+     * name. Called once by the client that owns the policy; the counters read the policy's own totals.
+     * The hedge delay gauge is registered per operation, when the operation is first called.
+     */
+    public void registerMetrics(MeterRegistry registry, String client) {
+        FunctionCounter.builder("bookstore.external.hedge.requests", this, HedgingPolicy::getRequestCount)
+                .description("Hedgeable requests issued")
+                .tag("client", client)
+                .register(registry);
+        FunctionCounter.builder("bookstore.external.hedge.issued", this, HedgingPolicy::getHedgeCount)
+                .description("Hedge requests sent after the hedge delay elapsed")
+                .tag("client", client)
+                .register(registry);
+        FunctionCounter.builder("bookstore.external.hedge.won", this, HedgingPolicy::getHedgeWinCount)
+                .description("Hedge requests that answered before the original")
+                .tag("client", client)
+                .register(registry);
+        FunctionCounter.builder("bookstore.external.hedge.budget.exhausted", this, HedgingPolicy::getBudgetExhaustedCount)
+                .description("Hedges skipped because the hedge budget was spent")
+                .tag("client", client)
+                .register(registry);
+        Gauge.builder("bookstore.external.hedge.rate", this, HedgingPolicy::getHedgeRate)
+                .description("Fraction of requests that were hedged")
+                .tag("client", client)
+                .register(registry);
+
+        Map<AttemptOutcome, Timer> timers = new EnumMap<>(AttemptOutcome.class);
+        for (AttemptOutcome outcome : AttemptOutcome.values()) {
+            timers.put(outcome, Timer.builder("bookstore.external.hedge.attempts")
+                    .description("Latency of each hedged attempt, by how it ended")
+                    .tag("client", client)
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(registry));
+        }
+        this.attemptTimers = timers;
+        this.client = client;
+        this.registry = registry;
+        windows.values().forEach(this::registerDelayGauge);
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    /**
+     * Hedges whose value arrived before the original attempt's
+     */
+    public long getHedgeWinCount() {
+        return hedgeWins.get();
+    }
+
+    /**
+     * Hedges that were due but skipped because the budget was spent
+     */
+    public long getBudgetExhaustedCount() {
+        return budgetExhausted.get();
+    }
+
+    /**
+     * Fraction of requests that issued a hedge
+     */
+    public double getHedgeRate() {
+        long total = requests.get();
+        return total == 0 ? 0.0 : (double) hedges.get() / total;
+    }
+
+    /**
+     * Delay after which the operation's next request would be hedged
+     */
+    public Duration currentHedgeDelay(String operation) {
+        LatencyWindow window = windows.get(operation);
+        return window == null ? properties.getDefaultDelay() : window.hedgeDelay();
+    }
+
+    void recordLatency(String operation, long nanos) {
+        window(operation).record(nanos);
+    }
+
+    private LatencyWindow window(String operation) {
+        LatencyWindow window = windows.get(operation);
+        if (window != null) {
+            return window;
+        }
+        LatencyWindow created = new LatencyWindow(operation);
+        window = windows.putIfAbsent(operation, created);
+        if (window != null) {
+            return window;
+        }
+        registerDelayGauge(created);
+        return created;
+    }
+
+    private void registerDelayGauge(LatencyWindow window) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            Gauge.builder("bookstore.external.hedge.delay", window, w -> w.hedgeDelay().toMillis())
+                    .description("Current hedge delay in milliseconds")
+                    .tag("client", client)
+                    .tag("operation", window.operation)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    private void depositBudget() {
+        synchronized (lock) {
+            budgetTokens = Math.min(properties.getMaxBudgetTokens(), budgetTokens + properties.getBudgetRatio());
+        }
+    }
+
+    private void recordAttempt(AttemptOutcome outcome, long startedAt) {
+        Timer timer = attemptTimers.get(outcome);
+        if (timer != null) {
+            timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean tryAcquireBudget() {
+        synchronized (lock) {
+            if (budgetTokens >= 1.0) {
+                budgetTokens -= 1.0;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The most recent attempt latencies of one operation
+     */
+    private final class LatencyWindow {
+
+        private final String operation;
+        private final long[] latencies = new long[LATENCY_WINDOW];
+        private int count;
+        private int cursor;
+
+        LatencyWindow(String operation) {
+            this.operation = operation;
+        }
+
+        Duration hedgeDelay() {
+            long[] samples;
+            synchronized (this) {
+                if (count < properties.getMinSamples()) {
+                    return properties.getDefaultDelay();
+                }
+                samples = Arrays.copyOf(latencies, count);
+            }
+            Arrays.sort(samples);
+            int index = (int) Math.ceil(properties.getPercentile() * samples.length) - 1;
+            long nanos = samples[Math.max(0, Math.min(index, samples.length - 1))];
+            Duration delay = Duration.ofNanos(nanos);
+            return delay.compareTo(properties.getMinDelay()) < 0 ? properties.getMinDelay() : delay;
+        }
+
+        synchronized void record(long nanos) {
+            latencies[cursor] = nanos;
+            cursor = (cursor + 1) % LATENCY_WINDOW;
+            count = Math.min(count + 1, LATENCY_WINDOW);
+        }
+    }
+
+    /**
+     * State of one hedged call: at most two attempts racing for a single result
+     */
+    private final class HedgedCall<T> {
+
+        private final Supplier<Mono<T>> attempt;
+        private final LatencyWindow window;
+        private final Duration delay;
+        private final Sinks.One<T> result = Sinks.one();
+        private final Disposable.Composite inFlight = Disposables.composite();
+
+        private int outstanding;
+        private boolean settled;
+
+        HedgedCall(Supplier<Mono<T>> attempt, LatencyWindow window, Duration delay) {
+            this.attempt = attempt;
+            this.window = window;
+            this.delay = delay;
+        }
+
+        Mono<T> start() {
+            synchronized (this) {
+                outstanding++;
+            }
+            launch(false);
+            inFlight.add(scheduler.schedule(this::launchHedge, delay.toNanos(), TimeUnit.NANOSECONDS));
+            return result.asMono().doOnCancel(inFlight::dispose);
+        }
+
+        /**
+         * The hedge counts as outstanding in the same step that finds the call unsettled, so an original
+         * failing meanwhile waits for the hedge instead of failing the call under it.
+         */
+        private void launchHedge() {
+            synchronized (this) {
+                if (settled) {
+                    return;
+                }
+                if (!tryAcquireBudget()) {
+                    budgetExhausted.incrementAndGet();
+                    return;
+                }
+                outstanding++;
+            }
+            hedges.incrementAndGet();
+            logger.debug("Hedging {} request after {} ms", name, delay.toMillis());
+            launch(true);
+        }
+
+        /**
+         * Subscribe to one attempt, already counted as outstanding
+         */
+        private void launch(boolean isHedge) {
+            long startedAt = System.nanoTime();
+            // Each attempt's latency is recorded once, by the first signal that ends it
+            AtomicBoolean ended = new AtomicBoolean();
+            inFlight.add(Mono.defer(attempt)
+                    .doOnCancel(() -> {
+                        if (ended.compareAndSet(false, true)) {
+                            recordAttempt(isSettled() ? AttemptOutcome.LOST : AttemptOutcome.CANCELLED, startedAt);
+                        }
+                    })
+                    .subscribe(
+                        value -> {
+                            boolean first = ended.compareAndSet(false, true);
+                            window.record(System.nanoTime() - startedAt);
+                            boolean won = settle();
+                            if (first) {
+                                recordAttempt(won ? AttemptOutcome.WON : AttemptOutcome.LOST, startedAt);
+                            }
+                            if (won) {
+                                if (isHedge) {
+                                    hedgeWins.incrementAndGet();
+                                }
+                                result.tryEmitValue(value);
+                                inFlight.dispose();
+                            }
+                        },
+                        error -> {
+                            if (ended.compareAndSet(false, true)) {
+                                recordAttempt(AttemptOutcome.FAILED, startedAt);
+                            }
+                            if (failed()) {
+                                result.tryEmitError(error);
+                                inFlight.dispose();
+                            }
+                        },
+                        () -> {
+                            if (ended.compareAndSet(false, true)) {
+                                recordAttempt(AttemptOutcome.FAILED, startedAt);
+                            }
+                            if (failed()) {
+                                result.tryEmitEmpty();
+                                inFlight.dispose();
+                            }
+                        }));
+        }
+
+        private synchronized boolean isSettled() {
+            return settled;
+        }
+
+        private synchronized boolean settle() {
+            if (settled) {
+                return false;
+            }
+            settled = true;
+            return true;
+        }
+
+        /**
+         * An attempt ended without a value. The call fails only when no other attempt is still running;
+         * a hedge that has not been sent yet is not waited for.
+         */
+        private synchronized boolean failed() {
+            outstanding--;
+            if (settled || outstanding > 0) {
+                return false;
+            }
+            settled = true;
+            return true;
+        }
+    }
+}
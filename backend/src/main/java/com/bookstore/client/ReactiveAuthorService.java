@@ -2,13 +2,19 @@ package com.bookstore.client;
 
 import com.bookstore.entity.Author;
 import com.bookstore.entity.Book;
+import com.bookstore.config.HedgingProperties;
+import com.bookstore.service.AuthorService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
@@ -16,32 +22,58 @@ import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Reactive service for author operations using WebClient
+ * Reactive service for author operations using WebClient. Idempotent reads are hedged.
  */
 @Service
-public class ReactiveAuthorService {
+public class ReactiveAuthorService implements HedgedClient {
 
     private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthorService.class);
+    static final long DEFAULT_BATCH_WINDOW_MS = 10;
+    static final int DEFAULT_BATCH_MAX_SIZE = AuthorService.MAX_BATCH_IDS;
     private final WebClient webClient;
+    private final HedgingPolicy hedging;
+    private final BatchLoader<Long, Author> authorLoader;
 
-    public ReactiveAuthorService(@Qualifier("authorServiceWebClient") WebClient webClient) {
+    public ReactiveAuthorService(WebClient webClient) {
+        this(webClient, DEFAULT_BATCH_WINDOW_MS, DEFAULT_BATCH_MAX_SIZE, new HedgingProperties(), null);
+    }
+
+    @Autowired
+    public ReactiveAuthorService(@Qualifier("authorServiceWebClient") WebClient webClient,
+            @Value("${webclient.batch.window:" + DEFAULT_BATCH_WINDOW_MS + "}") long batchWindowMs,
+            @Value("${webclient.batch.max-size:" + DEFAULT_BATCH_MAX_SIZE + "}") int maxBatchSize,
+            HedgingProperties hedgingProperties, MeterRegistry meterRegistry) {
+        if (maxBatchSize > AuthorService.MAX_BATCH_IDS) {
+            // Larger batches would be rejected by the batch endpoint, failing every lookup in them
+            throw new IllegalArgumentException("webclient.batch.max-size must not exceed "
+                    + AuthorService.MAX_BATCH_IDS + ", the most ids /api/authors/batch accepts, but was " + maxBatchSize);
+        }
         this.webClient = webClient;
+        this.hedging = new HedgingPolicy("author-service", hedgingProperties);
+        if (meterRegistry != null) {
+            hedging.registerMetrics(meterRegistry, ReactiveAuthorService.class.getSimpleName());
+        }
+        this.authorLoader = new BatchLoader<>("author", this::fetchAuthorsByIds,
+                Duration.ofMillis(batchWindowMs), maxBatchSize);
     }
 
     /**
      * Get all authors with reactive pagination
      */
     public Mono<PagedModel<Author>> getAllAuthors(int page, int size) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/api/authors")
-                        .queryParam("page", page)
-                        .queryParam("size", size)
-                        .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PagedModel<Author>>() {})
+        return hedging.hedge("/api/authors", () -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/authors")
+                                .queryParam("page", page)
+                                .queryParam("size", size)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<PagedModel<Author>>() {}))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
                 .onErrorResume(this::handleError)
@@ -51,39 +83,67 @@ public class ReactiveAuthorService {
     }
 
     /**
-     * Get author by ID reactively
+     * Get author by ID reactively. Concurrent lookups are coalesced into one batch request.
      */
     public Mono<Author> getAuthorById(Long id) {
-        return webClient.get()
-                .uri("/api/authors/{id}", id)
-                .retrieve()
-                .bodyToMono(Author.class)
+        return authorLoader.load(id)
+                .doOnSuccess(author -> {
+                    if (author != null) {
+                        logger.debug("Successfully retrieved author: {} {}",
+                                author.getFirstName(), author.getLastName());
+                    } else {
+                        logger.warn("Author not found with id: {}", id);
+                    }
+                })
+                .doOnError(error -> logger.error("Error retrieving author {}: {}", id, error.getMessage()));
+    }
+
+    /**
+     * Get several authors by ID, keyed by ID. Missing authors are absent from the map.
+     */
+    public Mono<Map<Long, Author>> getAuthorsByIds(Collection<Long> ids) {
+        return Flux.fromIterable(ids)
+                .distinct()
+                .flatMap(authorLoader::load)
+                .collectMap(Author::getId);
+    }
+
+    /**
+     * One request to the batch endpoint, with the same retry and fallback behaviour as single lookups
+     */
+    private Mono<Map<Long, Author>> fetchAuthorsByIds(Set<Long> ids) {
+        return hedging.hedge("/api/authors/batch", () -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/authors/batch")
+                                .queryParam("ids", StringUtils.collectionToCommaDelimitedString(ids))
+                                .build())
+                        .retrieve()
+                        .bodyToFlux(Author.class)
+                        .collectMap(Author::getId))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
                 .onErrorResume(error -> {
                     if (error instanceof WebClientResponseException.NotFound) {
-                        logger.warn("Author not found with id: {}", id);
+                        logger.warn("Authors not found with ids: {}", ids);
                         return Mono.empty();
                     }
                     return handleError(error);
                 })
-                .doOnSuccess(author -> logger.debug("Successfully retrieved author: {} {}", 
-                        author != null ? author.getFirstName() : "null",
-                        author != null ? author.getLastName() : "null"))
-                .doOnError(error -> logger.error("Error retrieving author {}: {}", id, error.getMessage()));
+                .doOnSuccess(authors -> logger.debug("Retrieved {} of {} requested authors",
+                        authors != null ? authors.size() : 0, ids.size()));
     }
 
     /**
      * Search authors by name reactively
      */
     public Mono<PagedModel<Author>> findAuthorsByName(String name) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/api/authors/search/findByName")
-                        .queryParam("name", name)
-                        .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PagedModel<Author>>() {})
+        return hedging.hedge("/api/authors/search/findByName", () -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/authors/search/findByName")
+                                .queryParam("name", name)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<PagedModel<Author>>() {}))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
                 .onErrorResume(this::handleError)
@@ -96,13 +156,13 @@ public class ReactiveAuthorService {
      * Search authors by first name reactively
      */
     public Mono<PagedModel<Author>> findAuthorsByFirstName(String firstName) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/api/authors/search/findByFirstName")
-                        .queryParam("firstName", firstName)
-                        .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PagedModel<Author>>() {})
+        return hedging.hedge("/api/authors/search/findByFirstName", () -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/authors/search/findByFirstName")
+                                .queryParam("firstName", firstName)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<PagedModel<Author>>() {}))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
                 .onErrorResume(this::handleError)
@@ -115,13 +175,13 @@ public class ReactiveAuthorService {
      * Search authors by last name reactively
      */
     public Mono<PagedModel<Author>> findAuthorsByLastName(String lastName) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/api/authors/search/findByLastName")
-                        .queryParam("lastName", lastName)
-                        .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PagedModel<Author>>() {})
+        return hedging.hedge("/api/authors/search/findByLastName", () -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/authors/search/findByLastName")
+                                .queryParam("lastName", lastName)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<PagedModel<Author>>() {}))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
                 .onErrorResume(this::handleError)
@@ -134,10 +194,10 @@ public class ReactiveAuthorService {
      * Get books by author with reactive streams
      */
     public Flux<Book> getBooksByAuthor(Long authorId) {
-        return webClient.get()
-                .uri("/api/authors/{id}/books", authorId)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PagedModel<Book>>() {})
+        return hedging.hedge("/api/authors/{id}/books", () -> webClient.get()
+                        .uri("/api/authors/{id}/books", authorId)
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<PagedModel<Book>>() {}))
                 .flatMapMany(pagedModel -> Flux.fromIterable(pagedModel.getContent()))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
@@ -153,13 +213,13 @@ public class ReactiveAuthorService {
      * Get authors by nationality with reactive streams
      */
     public Flux<Author> getAuthorsByNationality(String nationality) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/api/authors/search/findByNationality")
-                        .queryParam("nationality", nationality)
-                        .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PagedModel<Author>>() {})
+        return hedging.hedge("/api/authors/search/findByNationality", () -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/authors/search/findByNationality")
+                                .queryParam("nationality", nationality)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<PagedModel<Author>>() {}))
                 .flatMapMany(pagedModel -> Flux.fromIterable(pagedModel.getContent()))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
@@ -261,6 +321,11 @@ public class ReactiveAuthorService {
                 .onErrorReturn(author); // Return original author if enrichment fails
     }
 
+    @Override
+    public HedgingPolicy getHedgingPolicy() {
+        return hedging;
+    }
+
     /**
      * Determines if an exception is retryable
      */
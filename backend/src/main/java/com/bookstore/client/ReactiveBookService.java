@@ -1,13 +1,20 @@
 package com.bookstore.client;
 
 import com.bookstore.entity.Book;
+import com.bookstore.config.HedgingProperties;
+import com.bookstore.service.AdvancedBookService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
@@ -15,32 +22,58 @@ import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Reactive service for book operations using WebClient
+ * Reactive service for book operations using WebClient. Idempotent reads are hedged.
  */
 @Service
-public class ReactiveBookService {
+public class ReactiveBookService implements HedgedClient {
 
     private static final Logger logger = LoggerFactory.getLogger(ReactiveBookService.class);
+    static final long DEFAULT_BATCH_WINDOW_MS = 10;
+    static final int DEFAULT_BATCH_MAX_SIZE = AdvancedBookService.MAX_BATCH_IDS;
     private final WebClient webClient;
+    private final HedgingPolicy hedging;
+    private final BatchLoader<Long, Book> bookLoader;
 
-    public ReactiveBookService(@Qualifier("bookServiceWebClient") WebClient webClient) {
+    public ReactiveBookService(WebClient webClient) {
+        this(webClient, DEFAULT_BATCH_WINDOW_MS, DEFAULT_BATCH_MAX_SIZE, new HedgingProperties(), null);
+    }
+
+    @Autowired
+    public ReactiveBookService(@Qualifier("bookServiceWebClient") WebClient webClient,
+            @Value("${webclient.batch.window:" + DEFAULT_BATCH_WINDOW_MS + "}") long batchWindowMs,
+            @Value("${webclient.batch.max-size:" + DEFAULT_BATCH_MAX_SIZE + "}") int maxBatchSize,
+            HedgingProperties hedgingProperties, MeterRegistry meterRegistry) {
+        if (maxBatchSize > AdvancedBookService.MAX_BATCH_IDS) {
+            // Larger batches would be rejected by the batch endpoint, failing every lookup in them
+            throw new IllegalArgumentException("webclient.batch.max-size must not exceed "
+                    + AdvancedBookService.MAX_BATCH_IDS + ", the most ids /api/books/batch accepts, but was " + maxBatchSize);
+        }
         this.webClient = webClient;
+        this.hedging = new HedgingPolicy("book-service", hedgingProperties);
+        if (meterRegistry != null) {
+            hedging.registerMetrics(meterRegistry, ReactiveBookService.class.getSimpleName());
+        }
+        this.bookLoader = new BatchLoader<>("book", this::fetchBooksByIds,
+                Duration.ofMillis(batchWindowMs), maxBatchSize);
     }
 
     /**
      * Get all books with reactive pagination
      */
     public Mono<PagedModel<Book>> getAllBooks(int page, int size) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/api/books")
-                        .queryParam("page", page)
-                        .queryParam("size", size)
-                        .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PagedModel<Book>>() {})
+        return hedging.hedge("/api/books", () -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/books")
+                                .queryParam("page", page)
+                                .queryParam("size", size)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<PagedModel<Book>>() {}))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
                 .onErrorResume(this::handleError)
@@ -50,38 +83,66 @@ public class ReactiveBookService {
     }
 
     /**
-     * Get book by ID reactively
+     * Get book by ID reactively. Concurrent lookups are coalesced into one batch request.
      */
     public Mono<Book> getBookById(Long id) {
-        return webClient.get()
-                .uri("/api/books/{id}", id)
-                .retrieve()
-                .bodyToMono(Book.class)
+        return bookLoader.load(id)
+                .doOnSuccess(book -> {
+                    if (book != null) {
+                        logger.debug("Successfully retrieved book: {}", book.getTitle());
+                    } else {
+                        logger.warn("Book not found with id: {}", id);
+                    }
+                })
+                .doOnError(error -> logger.error("Error retrieving book {}: {}", id, error.getMessage()));
+    }
+
+    /**
+     * Get several books by ID, keyed by ID. Missing books are absent from the map.
+     */
+    public Mono<Map<Long, Book>> getBooksByIds(Collection<Long> ids) {
+        return Flux.fromIterable(ids)
+                .distinct()
+                .flatMap(bookLoader::load)
+                .collectMap(Book::getId);
+    }
+
+    /**
+     * One request to the batch endpoint, with the same retry and fallback behaviour as single lookups
+     */
+    private Mono<Map<Long, Book>> fetchBooksByIds(Set<Long> ids) {
+        return hedging.hedge("/api/books/batch", () -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/books/batch")
+                                .queryParam("ids", StringUtils.collectionToCommaDelimitedString(ids))
+                                .build())
+                        .retrieve()
+                        .bodyToFlux(Book.class)
+                        .collectMap(Book::getId))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
                 .onErrorResume(error -> {
                     if (error instanceof WebClientResponseException.NotFound) {
-                        logger.warn("Book not found with id: {}", id);
+                        logger.warn("Books not found with ids: {}", ids);
                         return Mono.empty();
                     }
                     return handleError(error);
                 })
-                .doOnSuccess(book -> logger.debug("Successfully retrieved book: {}", 
-                        book != null ? book.getTitle() : "null"))
-                .doOnError(error -> logger.error("Error retrieving book {}: {}", id, error.getMessage()));
+                .doOnSuccess(books -> logger.debug("Retrieved {} of {} requested books",
+                        books != null ? books.size() : 0, ids.size()));
     }
 
     /**
      * Search books by title reactively
      */
     public Mono<PagedModel<Book>> findBooksByTitle(String title) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/api/books/search/findByTitle")
-                        .queryParam("title", title)
-                        .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PagedModel<Book>>() {})
+        return hedging.hedge("/api/books/search/findByTitle", () -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/books/search/findByTitle")
+                                .queryParam("title", title)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<PagedModel<Book>>() {}))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
                 .onErrorResume(this::handleError)
@@ -94,13 +155,13 @@ public class ReactiveBookService {
      * Search books by author reactively
      */
     public Mono<PagedModel<Book>> findBooksByAuthor(String author) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/api/books/search/findByAuthor")
-                        .queryParam("author", author)
-                        .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PagedModel<Book>>() {})
+        return hedging.hedge("/api/books/search/findByAuthor", () -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/books/search/findByAuthor")
+                                .queryParam("author", author)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<PagedModel<Book>>() {}))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
                 .onErrorResume(this::handleError)
@@ -113,13 +174,13 @@ public class ReactiveBookService {
      * Search books by ISBN reactively
      */
     public Mono<PagedModel<Book>> findBooksByIsbn(String isbn) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/api/books/search/findByIsbn")
-                        .queryParam("isbn", isbn)
-                        .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PagedModel<Book>>() {})
+        return hedging.hedge("/api/books/search/findByIsbn", () -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/books/search/findByIsbn")
+                                .queryParam("isbn", isbn)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<PagedModel<Book>>() {}))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
                 .onErrorResume(this::handleError)
@@ -132,13 +193,13 @@ public class ReactiveBookService {
      * Get books by genre with reactive streams
      */
     public Flux<Book> getBooksByGenre(String genre) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/api/books/search/findByGenre")
-                        .queryParam("genre", genre)
-                        .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PagedModel<Book>>() {})
+        return hedging.hedge("/api/books/search/findByGenre", () -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/books/search/findByGenre")
+                                .queryParam("genre", genre)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<PagedModel<Book>>() {}))
                 .flatMapMany(pagedModel -> Flux.fromIterable(pagedModel.getContent()))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
                         .filter(this::isRetryableException))
@@ -150,6 +211,24 @@ public class ReactiveBookService {
                 .doOnComplete(() -> logger.debug("Completed processing books for genre: {}", genre));
     }
 
+    /**
+     * Stream every book from the NDJSON endpoint. Books are emitted as their lines arrive and the
+     * connection is only read as fast as downstream requests, so the catalogue is never held in memory.
+     * Not retried: a partially consumed stream would be replayed from the start.
+     */
+    public Flux<Book> streamAllBooks() {
+        return webClient.get()
+                .uri("/api/books/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(Book.class)
+                .onErrorResume(error -> {
+                    logger.error("Error streaming books: {}", error.getMessage());
+                    return Flux.empty();
+                })
+                .doOnComplete(() -> logger.debug("Completed streaming books"));
+    }
+
     /**
      * Create a new book reactively
      */
@@ -205,6 +284,11 @@ public class ReactiveBookService {
                 .doOnError(error -> logger.error("Error deleting book {}: {}", id, error.getMessage()));
     }
 
+    @Override
+    public HedgingPolicy getHedgingPolicy() {
+        return hedging;
+    }
+
     /**
      * Determines if an exception is retryable
      */
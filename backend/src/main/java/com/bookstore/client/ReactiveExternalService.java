@@ -24,6 +24,7 @@ import java.util.Map;
 public class ReactiveExternalService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReactiveExternalService.class);
+    private static final int ENRICHMENT_CONCURRENCY = 50;
     private final ReactiveBookService bookService;
     private final ReactiveAuthorService authorService;
     private final WebClient genericWebClient;
@@ -133,7 +134,8 @@ public class ReactiveExternalService {
      */
     public Flux<Map<String, Object>> processBooksWithAuthors(List<Long> bookIds) {
         return Flux.fromIterable(bookIds)
-                .flatMap(this::getCompleteBookInfo, 5) // Limit concurrency to 5
+                // Enough lookups in flight for the book and author clients to coalesce them into batches
+                .flatMap(this::getCompleteBookInfo, ENRICHMENT_CONCURRENCY)
                 .filter(bookInfo -> !bookInfo.containsKey("error"))
                 .doOnNext(bookInfo -> logger.debug("Processed book with authors"))
                 .doOnComplete(() -> logger.info("Completed batch processing of {} books", bookIds.size()))
@@ -61,6 +61,9 @@ public class CacheConfig {
         // Book search results - 15 minutes TTL
         cacheConfigurations.put("bookSearch", defaultConfig.entryTtl(Duration.ofMinutes(15)));
         
+        // Book search facet counts - 5 minutes TTL
+        cacheConfigurations.put("bookFacets", defaultConfig.entryTtl(Duration.ofMinutes(5)));
+        
         // Author search results - 15 minutes TTL
         cacheConfigurations.put("authorSearch", defaultConfig.entryTtl(Duration.ofMinutes(15)));
         
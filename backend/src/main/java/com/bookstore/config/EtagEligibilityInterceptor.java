@@ -0,0 +1,64 @@
+package com.bookstore.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Keeps the shallow ETag filter to JSON reads. Before the handler runs, the body caching is switched
+ * off for handlers that produce something other than JSON or return a body that is written as it is
+ * produced (images and other resources, byte arrays, streaming bodies, emitters), so those responses
+ * go straight to the client instead of being buffered whole to be hashed.
+ */
+public class EtagEligibilityInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod && !isJsonRead(handlerMethod)) {
+            ShallowEtagHeaderFilter.disableContentCaching(request);
+        }
+        return true;
+    }
+
+    static boolean isJsonRead(HandlerMethod handlerMethod) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(
+                handlerMethod.getMethod(), RequestMapping.class);
+        if (mapping != null) {
+            for (String produces : mapping.produces()) {
+                if (!MediaType.parseMediaType(produces).isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return false;
+                }
+            }
+        }
+        return !isWrittenAsProduced(bodyType(handlerMethod.getReturnType()));
+    }
+
+    /**
+     * The body type of the handler's return value, unwrapping ResponseEntity and HttpEntity
+     */
+    private static Class<?> bodyType(MethodParameter returnType) {
+        ResolvableType type = ResolvableType.forMethodParameter(returnType);
+        if (HttpEntity.class.isAssignableFrom(type.toClass())) {
+            type = type.as(HttpEntity.class).getGeneric(0);
+        }
+        return type.toClass();
+    }
+
+    private static boolean isWrittenAsProduced(Class<?> bodyType) {
+        return Resource.class.isAssignableFrom(bodyType)
+                || byte[].class.equals(bodyType)
+                || StreamingResponseBody.class.isAssignableFrom(bodyType)
+                || ResponseBodyEmitter.class.isAssignableFrom(bodyType);
+    }
+}
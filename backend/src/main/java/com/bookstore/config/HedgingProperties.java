@@ -0,0 +1,84 @@
+package com.bookstore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Hedged-request settings for the reactive book and author clients
+ */
+@Configuration
+@ConfigurationProperties(prefix = "webclient.hedge")
+public class HedgingProperties {
+
+    private boolean enabled = true;
+    // Latency percentile after which an attempt is hedged
+    private double percentile = 0.95;
+    // Hedge delay until enough latencies have been observed
+    private Duration defaultDelay = Duration.ofMillis(250);
+    // Floor for the percentile-based delay
+    private Duration minDelay = Duration.ofMillis(20);
+    private int minSamples = 20;
+    // Tokens earned per request; one hedge costs one token, so this caps the hedge rate
+    private double budgetRatio = 0.1;
+    // Burst of hedges allowed after a quiet period
+    private double maxBudgetTokens = 10;
+
+    // Getters and setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public Duration getDefaultDelay() {
+        return defaultDelay;
+    }
+
+    public void setDefaultDelay(Duration defaultDelay) {
+        this.defaultDelay = defaultDelay;
+    }
+
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+
+    public void setMinDelay(Duration minDelay) {
+        this.minDelay = minDelay;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+
+    public double getMaxBudgetTokens() {
+        return maxBudgetTokens;
+    }
+
+    public void setMaxBudgetTokens(double maxBudgetTokens) {
+        this.maxBudgetTokens = maxBudgetTokens;
+    }
+}
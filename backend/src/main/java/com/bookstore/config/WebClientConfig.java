@@ -1,22 +1,32 @@
 package com.bookstore.config;
 
+import com.bookstore.client.ConditionalRequestCacheFilter;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import reactor.util.retry.Retry;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Configuration for WebClient beans used for reactive HTTP communication
@@ -39,12 +49,81 @@ public class WebClientConfig {
     @Value("${webclient.timeout.write:10000}")
     private int writeTimeout;
 
+    @Value("${webclient.pool.book.max-connections:50}")
+    private int bookPoolMaxConnections = 50;
+
+    @Value("${webclient.pool.book.pending-acquire-max:100}")
+    private int bookPoolPendingAcquireMax = 100;
+
+    @Value("${webclient.pool.author.max-connections:50}")
+    private int authorPoolMaxConnections = 50;
+
+    @Value("${webclient.pool.author.pending-acquire-max:100}")
+    private int authorPoolPendingAcquireMax = 100;
+
+    @Value("${webclient.pool.generic.max-connections:20}")
+    private int genericPoolMaxConnections = 20;
+
+    @Value("${webclient.pool.generic.pending-acquire-max:40}")
+    private int genericPoolPendingAcquireMax = 40;
+
+    @Value("${webclient.pool.pending-acquire-timeout:5000}")
+    private long pendingAcquireTimeout = 5000;
+
+    @Value("${webclient.pool.max-idle-time:30000}")
+    private long maxIdleTime = 30000;
+
+    @Value("${webclient.pool.max-life-time:300000}")
+    private long maxLifeTime = 300000;
+
+    @Value("${webclient.pool.evict-interval:60000}")
+    private long evictInterval = 60000;
+
+    @Value("${webclient.http2.enabled:true}")
+    private boolean http2Enabled = true;
+
+    @Value("${webclient.error-body.max-log-bytes:2048}")
+    private int maxErrorBodyLogBytes = 2048;
+
+    @Value("${webclient.http-cache.enabled:true}")
+    private boolean httpCacheEnabled = true;
+
+    @Value("${webclient.http-cache.max-entries:500}")
+    private int httpCacheMaxEntries = 500;
+
+    @Value("${webclient.http-cache.max-entry-bytes:1048576}")
+    private int httpCacheMaxEntryBytes = 1048576;
+
+    /**
+     * Connection pool for book service calls
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider bookServiceConnectionProvider() {
+        return createConnectionProvider("book-service", bookPoolMaxConnections, bookPoolPendingAcquireMax);
+    }
+
+    /**
+     * Connection pool for author service calls
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider authorServiceConnectionProvider() {
+        return createConnectionProvider("author-service", authorPoolMaxConnections, authorPoolPendingAcquireMax);
+    }
+
+    /**
+     * Connection pool for external API calls
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider genericConnectionProvider() {
+        return createConnectionProvider("generic", genericPoolMaxConnections, genericPoolPendingAcquireMax);
+    }
+
     /**
      * WebClient for book service communication
      */
     @Bean("bookServiceWebClient")
     public WebClient bookServiceWebClient() {
-        return createWebClient(bookServiceUrl);
+        return createWebClient(bookServiceUrl, bookServiceConnectionProvider(), httpCacheEnabled);
     }
 
     /**
@@ -52,7 +131,7 @@ public class WebClientConfig {
      */
     @Bean("authorServiceWebClient")
     public WebClient authorServiceWebClient() {
-        return createWebClient(authorServiceUrl);
+        return createWebClient(authorServiceUrl, authorServiceConnectionProvider(), httpCacheEnabled);
     }
 
     /**
@@ -60,30 +139,65 @@ public class WebClientConfig {
      */
     @Bean("genericWebClient")
     public WebClient genericWebClient() {
-        return createWebClient("");
+        return createWebClient("", genericConnectionProvider(), false);
+    }
+
+    /**
+     * Creates a named, bounded connection pool. Pool gauges (total, active, idle, pending) and the
+     * acquire-time timer are published to Micrometer under reactor.netty.connection.provider.*,
+     * tagged with the pool name, so starvation shows up as pending acquires and acquire latency.
+     */
+    private ConnectionProvider createConnectionProvider(String name, int maxConnections, int pendingAcquireMax) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeout))
+                .maxIdleTime(Duration.ofMillis(maxIdleTime))
+                .maxLifeTime(Duration.ofMillis(maxLifeTime))
+                .evictInBackground(Duration.ofMillis(evictInterval))
+                .metrics(true)
+                .build();
     }
 
     /**
-     * Creates a configured WebClient with timeout, retry, and error handling
+     * Creates a configured WebClient with timeout, retry, and error handling, optionally revalidating
+     * GET responses against a local ETag / Last-Modified cache
      */
-    private WebClient createWebClient(String baseUrl) {
-        HttpClient httpClient = HttpClient.create()
+    private WebClient createWebClient(String baseUrl, ConnectionProvider connectionProvider, boolean conditionalCache) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .protocol(protocolsFor(baseUrl))
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectionTimeout)
                 .doOnConnected(conn ->
                         conn.addHandlerLast(new ReadTimeoutHandler(readTimeout, TimeUnit.MILLISECONDS))
                                 .addHandlerLast(new WriteTimeoutHandler(writeTimeout, TimeUnit.MILLISECONDS)));
 
-        return WebClient.builder()
+        WebClient.Builder builder = WebClient.builder()
                 .baseUrl(baseUrl)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        if (conditionalCache) {
+            // Outermost, so the logging filters still see the real 304 before it is turned into a 200
+            builder.filter(new ConditionalRequestCacheFilter(httpCacheMaxEntries, httpCacheMaxEntryBytes));
+        }
+        return builder
                 .filter(logRequest())
                 .filter(logResponse())
                 .filter(errorHandlingFilter())
                 .build();
     }
 
+    /**
+     * HTTP/2 is negotiated through TLS ALPN, falling back to HTTP/1.1 when the server does not offer it.
+     * Plain-text and scheme-less base URLs stay on HTTP/1.1.
+     */
+    private HttpProtocol[] protocolsFor(String baseUrl) {
+        if (http2Enabled && baseUrl != null && baseUrl.startsWith("https://")) {
+            return new HttpProtocol[] {HttpProtocol.H2, HttpProtocol.HTTP11};
+        }
+        return new HttpProtocol[] {HttpProtocol.HTTP11};
+    }
+
     /**
      * Filter to log outgoing requests
      */
@@ -111,19 +225,47 @@ public class WebClientConfig {
     }
 
     /**
-     * Filter for centralized error handling
+     * Filter for centralized error handling. The error body is logged as it streams through to the
+     * caller, capped at a fixed number of bytes, so it stays readable downstream and large bodies are
+     * never buffered just for logging.
      */
     private ExchangeFilterFunction errorHandlingFilter() {
         return ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
             if (clientResponse.statusCode().isError()) {
-                return clientResponse.bodyToMono(String.class)
-                        .flatMap(errorBody -> {
-                            org.slf4j.LoggerFactory.getLogger(WebClientConfig.class)
-                                    .error("Error response: {} - {}", clientResponse.statusCode(), errorBody);
-                            return Mono.just(clientResponse);
-                        });
+                HttpStatusCode status = clientResponse.statusCode();
+                return Mono.just(clientResponse.mutate()
+                        .body(body -> logBoundedErrorBody(status, body, maxErrorBodyLogBytes))
+                        .build());
             }
             return Mono.just(clientResponse);
         });
     }
+
+    static Flux<DataBuffer> logBoundedErrorBody(HttpStatusCode status, Flux<DataBuffer> body, int maxBytes) {
+        // WebClient may subscribe to the body again after it has been drained; only the read that saw bytes is logged
+        AtomicBoolean logged = new AtomicBoolean();
+        return Flux.defer(() -> {
+            ByteArrayOutputStream prefix = new ByteArrayOutputStream(Math.min(maxBytes, 256));
+            AtomicLong totalBytes = new AtomicLong();
+            return body
+                    .doOnNext(buffer -> {
+                        int readable = buffer.readableByteCount();
+                        int start = buffer.readPosition();
+                        int toCopy = Math.min(readable, maxBytes - prefix.size());
+                        for (int i = 0; i < toCopy; i++) {
+                            prefix.write(buffer.getByte(start + i));
+                        }
+                        totalBytes.addAndGet(readable);
+                    })
+                    .doFinally(signal -> {
+                        if (totalBytes.get() > 0 && logged.compareAndSet(false, true)) {
+                            org.slf4j.LoggerFactory.getLogger(WebClientConfig.class)
+                                    .error("Error response: {} - {}{}", status,
+                                            prefix.toString(StandardCharsets.UTF_8),
+                                            totalBytes.get() > prefix.size()
+                                                    ? " ... [" + totalBytes.get() + " bytes, truncated]" : "");
+                        }
+                    });
+        });
+    }
 }
\ No newline at end of file
@@ -1,7 +1,12 @@
 package com.bookstore.config;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -22,10 +27,33 @@ public class WebConfig implements WebMvcConfigurer {
                 .maxAge(3600);
     }
 
+    /**
+     * Shallow ETags for book and author JSON reads: the response body is hashed and a matching
+     * If-None-Match is answered with 304, which the reactive clients' conditional cache relies on.
+     * Responses that already carry an ETag (versioned Spring Data REST items) keep theirs.
+     * Writes are not filtered, and {@link EtagEligibilityInterceptor} lets images, downloads and
+     * streams through unbuffered.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter() {
+                    @Override
+                    protected boolean shouldNotFilter(HttpServletRequest request) {
+                        return !HttpMethod.GET.matches(request.getMethod());
+                    }
+                });
+        registration.addUrlPatterns("/api/books", "/api/books/*", "/api/authors", "/api/authors/*");
+        registration.setName("shallowEtagHeaderFilter");
+        return registration;
+    }
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(validationInterceptor)
                 .addPathPatterns("/api/**")
                 .excludePathPatterns("/actuator/**", "/health", "/swagger-ui/**", "/v3/api-docs/**");
+        registry.addInterceptor(new EtagEligibilityInterceptor())
+                .addPathPatterns("/api/books", "/api/books/**", "/api/authors", "/api/authors/**");
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.bookstore.controller;
 
 import com.bookstore.dto.*;
 import com.bookstore.service.AdvancedBookService;
+import com.bookstore.service.NdjsonStreamingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,12 +22,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/books")
@@ -38,6 +43,9 @@ public class AdvancedBookController {
     @Autowired
     private AdvancedBookService advancedBookService;
     
+    @Autowired
+    private NdjsonStreamingService ndjsonStreamingService;
+    
     @Operation(summary = "Bulk create books", description = "Create multiple books in a single operation")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Bulk operation completed",
@@ -98,6 +106,38 @@ public class AdvancedBookController {
         return ResponseEntity.ok(status);
     }
     
+    @Operation(summary = "Get books by ids", description = "Fetch up to 100 books in one request; ids that do not exist are left out of the response")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Books retrieved"),
+        @ApiResponse(responseCode = "400", description = "Too many ids requested"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<List<com.bookstore.entity.Book>> getBooksByIds(
+            @Parameter(description = "Comma-separated book ids", required = true, example = "1,2,3")
+            @RequestParam Set<Long> ids) {
+        
+        return ResponseEntity.ok(advancedBookService.getBooksByIds(ids));
+    }
+    
+    @Operation(summary = "Stream all books as NDJSON", description = "Writes one JSON book per line straight from a database cursor, without building the collection in memory. Use fields to keep only some properties of each book.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Books streamed",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)),
+        @ApiResponse(responseCode = "400", description = "Unknown field requested")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBooks(
+            @Parameter(description = "Comma-separated properties to include", example = "id,title,availableCopies")
+            @RequestParam(required = false) String fields,
+            HttpServletRequest request) {
+        
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(ndjsonStreamingService.streamBooks(fields));
+    }
+    
     @Operation(summary = "Get books with low stock", description = "Get all books with stock below the specified threshold")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Low stock books retrieved",
@@ -22,6 +22,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Set;
 
 @RestController
@@ -81,6 +82,18 @@ public class AuthorController {
         return ResponseEntity.ok(author);
     }
     
+    @Operation(summary = "Get authors by IDs", description = "Retrieves up to 100 authors in one request; unknown IDs are left out of the response")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Authors retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Too many IDs requested")
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<List<Author>> getAuthorsByIds(
+            @Parameter(description = "Comma-separated author IDs", required = true, example = "1,2,3")
+            @RequestParam Set<Long> ids) {
+        return ResponseEntity.ok(authorService.getAuthorsByIds(ids));
+    }
+    
     @Operation(summary = "Get all authors", description = "Retrieves all authors with pagination")
     @ApiResponse(responseCode = "200", description = "Authors retrieved successfully")
     @GetMapping
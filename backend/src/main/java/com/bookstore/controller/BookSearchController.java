@@ -1,7 +1,13 @@
 package com.bookstore.controller;
 
+import com.bookstore.dto.BookSearchFacets;
+import com.bookstore.dto.BookSuggestion;
+import com.bookstore.dto.CursorPage;
+import com.bookstore.dto.FacetedSearchResult;
 import com.bookstore.entity.Book;
 import com.bookstore.repository.BookRepository;
+import com.bookstore.service.AdvancedBookService;
+import com.bookstore.service.BookSuggestionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -20,6 +26,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -32,10 +39,37 @@ import java.util.Optional;
 public class BookSearchController {
 
     private final BookRepository bookRepository;
+    private final BookSuggestionService bookSuggestionService;
+    private final AdvancedBookService advancedBookService;
 
     @Autowired
-    public BookSearchController(BookRepository bookRepository) {
+    public BookSearchController(BookRepository bookRepository,
+                                BookSuggestionService bookSuggestionService,
+                                AdvancedBookService advancedBookService) {
         this.bookRepository = bookRepository;
+        this.bookSuggestionService = bookSuggestionService;
+        this.advancedBookService = advancedBookService;
+    }
+
+    /**
+     * Typeahead suggestions for book titles and author names.
+     * Served from the in-memory suggestion index so keystrokes never hit the database.
+     */
+    @GetMapping("/suggest")
+    @Operation(
+        summary = "Suggest titles and authors",
+        description = "Return titles and author names containing a word that starts with the given prefix, ordered by loan popularity. Intended for per-keystroke autocomplete. Example: ?q=cle&limit=10"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Suggestions returned successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid search parameters")
+    })
+    public ResponseEntity<List<BookSuggestion>> suggest(
+            @Parameter(description = "Prefix typed so far (case- and accent-insensitive)", required = true, example = "clean co")
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions", example = "10")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(25) int limit) {
+        return ResponseEntity.ok(bookSuggestionService.suggest(q, limit));
     }
 
     /**
@@ -158,13 +192,13 @@ public class BookSearchController {
     @GetMapping("/advanced")
     @Operation(
         summary = "Advanced book search",
-        description = "Search books using multiple criteria including title, author, genre, publication year, and availability. All search parameters are optional and can be combined. Example: ?title=Java&publicationYear=2020&availableOnly=true"
+        description = "Search books using multiple criteria including title, author, genre, publication year, and availability. All search parameters are optional and can be combined. With facets=true the page is wrapped together with facet counts for the same filter. Example: ?title=Java&publicationYear=2020&availableOnly=true"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Search completed successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid search parameters")
     })
-    public ResponseEntity<Page<Book>> advancedSearch(
+    public ResponseEntity<?> advancedSearch(
             @Parameter(description = "Title to search for (optional)", example = "Java")
             @RequestParam(required = false) String title,
             @Parameter(description = "Author name to search for (optional)", example = "Robert Martin")
@@ -182,14 +216,66 @@ public class BookSearchController {
             @Parameter(description = "Field to sort by", example = "title")
             @RequestParam(defaultValue = "title") String sortBy,
             @Parameter(description = "Sort direction", example = "asc")
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Also return genre, publication-decade and availability counts for the filter", example = "false")
+            @RequestParam(defaultValue = "false") boolean facets) {
         
         Sort sort = createSort(sortBy, sortDir);
         Pageable pageable = PageRequest.of(page, size, sort);
+        // The page and its facets must count the same books
+        String titleFilter = AdvancedBookService.normalizeSearchFilter(title);
+        String genreFilter = AdvancedBookService.normalizeSearchFilter(genre);
+        String authorFilter = AdvancedBookService.normalizeSearchFilter(author);
         
         Page<Book> books = bookRepository.searchBooks(
-            title, genre, author, publicationYear, availableOnly, pageable);
+            titleFilter, genreFilter, authorFilter, publicationYear, availableOnly, pageable);
+        
+        if (facets) {
+            BookSearchFacets facetCounts = advancedBookService.getSearchFacets(
+                titleFilter, genreFilter, authorFilter, publicationYear, availableOnly);
+            return ResponseEntity.ok(new FacetedSearchResult<>(books, facetCounts));
+        }
+        
+        return ResponseEntity.ok(books);
+    }
+
+    /**
+     * Advanced search with keyset (cursor) pagination.
+     * Requirements 5.1, 5.3: Same filters as /advanced without OFFSET scans or a COUNT per page
+     */
+    @GetMapping("/advanced/scroll")
+    @Operation(
+        summary = "Advanced book search with cursor pagination",
+        description = "Same criteria as /advanced, paged by an opaque continuation token on a stable sort key (id or createdAt). Pass the returned nextCursor to fetch the following slice. Totals are only computed when includeTotal=true."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search completed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid search parameters or cursor")
+    })
+    public ResponseEntity<CursorPage<Book>> advancedSearchScroll(
+            @Parameter(description = "Title to search for (optional)", example = "Java")
+            @RequestParam(required = false) String title,
+            @Parameter(description = "Author name to search for (optional)", example = "Robert Martin")
+            @RequestParam(required = false) String author,
+            @Parameter(description = "Genre to filter by (optional)", example = "Programming")
+            @RequestParam(required = false) String genre,
+            @Parameter(description = "Publication year to filter by (optional)", example = "2020")
+            @RequestParam(required = false) Integer publicationYear,
+            @Parameter(description = "Filter to show only available books", example = "true")
+            @RequestParam(required = false, defaultValue = "false") boolean availableOnly,
+            @Parameter(description = "Continuation token from a previous response (omit for the first slice)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of items per slice", example = "20")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @Parameter(description = "Stable sort key", example = "id", schema = @Schema(allowableValues = {"id", "createdAt"}))
+            @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Sort direction", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Also compute the total number of matches (runs a COUNT query)", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
+        CursorPage<Book> books = advancedBookService.scrollBooks(
+            title, genre, author, publicationYear, availableOnly, sortBy, sortDir, cursor, size, includeTotal);
         return ResponseEntity.ok(books);
     }
 
@@ -1,7 +1,10 @@
 package com.bookstore.controller;
 
+import com.bookstore.dto.ImportJobProgress;
+import com.bookstore.entity.ImportJob;
 import com.bookstore.service.BackupRestoreService;
 import com.bookstore.service.DataExportImportService;
+import com.bookstore.service.ImportJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -21,6 +24,7 @@ import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -40,6 +44,9 @@ public class DataManagementController {
     @Autowired
     private DataExportImportService dataExportImportService;
 
+    @Autowired
+    private ImportJobService importJobService;
+
     @Operation(summary = "Create database backup", description = "Creates a full database backup using pg_dump")
     @PostMapping("/backup/database")
     public CompletableFuture<ResponseEntity<Map<String, Object>>> createDatabaseBackup() {
@@ -62,6 +69,29 @@ public class DataManagementController {
             });
     }
 
+    @Operation(summary = "Create database snapshot", description = "Creates a binary database snapshot using PostgreSQL COPY, " +
+               "without the PostgreSQL client tools")
+    @PostMapping("/backup/snapshot")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> createSnapshotBackup() {
+        logger.info("Database snapshot backup requested");
+
+        return backupRestoreService.createSnapshotBackup()
+            .thenApply(backupPath -> {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Database snapshot created successfully");
+                response.put("backupPath", backupPath);
+                return ResponseEntity.ok(response);
+            })
+            .exceptionally(throwable -> {
+                logger.error("Database snapshot backup failed", throwable);
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", false);
+                response.put("message", "Database snapshot failed: " + throwable.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            });
+    }
+
     @Operation(summary = "Create application data backup", description = "Creates a backup of application data in JSON format")
     @PostMapping("/backup/data")
     public CompletableFuture<ResponseEntity<Map<String, Object>>> createDataBackup() {
@@ -107,7 +137,7 @@ public class DataManagementController {
             });
     }
 
-    @Operation(summary = "Restore database", description = "Restores database from a SQL backup file")
+    @Operation(summary = "Restore database", description = "Restores database from a SQL backup file or a COPY snapshot archive")
     @PostMapping("/restore/database")
     public CompletableFuture<ResponseEntity<Map<String, Object>>> restoreDatabase(
             @Parameter(description = "Path to the backup file") @RequestParam String backupFilePath) {
@@ -163,12 +193,16 @@ public class DataManagementController {
             });
     }
 
-    @Operation(summary = "Export all data", description = "Exports all application data to a compressed file")
+    @Operation(summary = "Export all data", description = "Exports all application data to a compressed file. " +
+               "With parallel=true each table is streamed on its own worker.")
     @PostMapping("/export/all")
-    public ResponseEntity<Map<String, Object>> exportAllData() {
+    public ResponseEntity<Map<String, Object>> exportAllData(
+            @Parameter(description = "Export tables concurrently") @RequestParam(defaultValue = "false") boolean parallel) {
         try {
-            logger.info("Data export requested");
-            String exportPath = dataExportImportService.exportAllData();
+            logger.info("Data export requested (parallel: {})", parallel);
+            String exportPath = parallel
+                ? dataExportImportService.exportAllDataParallel()
+                : dataExportImportService.exportAllData();
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -186,6 +220,35 @@ public class DataManagementController {
         }
     }
 
+    @Operation(summary = "Export changed data", description = "Exports rows changed and deleted since the latest " +
+               "archive of the export chain and appends the new archive to the chain")
+    @PostMapping("/export/delta")
+    public ResponseEntity<Map<String, Object>> exportDelta() {
+        try {
+            logger.info("Delta data export requested");
+            String exportPath = dataExportImportService.exportDelta();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Delta data exported successfully");
+            response.put("exportPath", exportPath);
+            response.put("chainLength", dataExportImportService.getExportChainLength());
+            
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (Exception e) {
+            logger.error("Delta data export failed", e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Delta data export failed: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @Operation(summary = "Export entity data", description = "Exports specific entity data to a JSON file")
     @PostMapping("/export/{entityType}")
     public ResponseEntity<Map<String, Object>> exportEntityData(
@@ -233,6 +296,29 @@ public class DataManagementController {
         }
     }
 
+    @Operation(summary = "Restore export chain", description = "Imports the full export of a chain and replays its delta exports in order")
+    @PostMapping("/import/chain")
+    public ResponseEntity<Map<String, Object>> restoreExportChain(
+            @Parameter(description = "Path to the chain manifest; defaults to the current chain")
+            @RequestParam(required = false) String manifestPath) {
+        try {
+            logger.info("Export chain restore requested from: {}", manifestPath != null ? manifestPath : "current chain");
+            dataExportImportService.restoreExportChain(manifestPath);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Export chain restored successfully");
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Export chain restore failed", e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Export chain restore failed: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @Operation(summary = "Import entity data", description = "Imports specific entity data from a JSON file")
     @PostMapping("/import/{entityType}")
     public ResponseEntity<Map<String, Object>> importEntityData(
@@ -258,10 +344,12 @@ public class DataManagementController {
         }
     }
 
-    @Operation(summary = "Upload and import data", description = "Uploads and imports data from a file")
+    @Operation(summary = "Upload and import data", description = "Uploads and imports data from a file. " +
+               "With resumable=true the import runs as a background job; the upload is kept until it completes.")
     @PostMapping("/import/upload")
     public ResponseEntity<Map<String, Object>> uploadAndImportData(
-            @Parameter(description = "File to upload and import") @RequestParam("file") MultipartFile file) {
+            @Parameter(description = "File to upload and import") @RequestParam("file") MultipartFile file,
+            @Parameter(description = "Import as a resumable job") @RequestParam(defaultValue = "false") boolean resumable) {
         try {
             logger.info("File upload and import requested: {}", file.getOriginalFilename());
             
@@ -270,6 +358,13 @@ public class DataManagementController {
             Path tempFile = Paths.get(tempDir, "import_" + System.currentTimeMillis() + "_" + file.getOriginalFilename());
             Files.copy(file.getInputStream(), tempFile);
             
+            if (resumable) {
+                ImportJob job = importJobService.createJob(tempFile.toString());
+                // A failed job keeps its upload so it can be resumed
+                importJobService.runJob(job.getId()).thenRun(() -> deleteQuietly(tempFile));
+                return jobAccepted(job.getId(), "File uploaded; import job started");
+            }
+            
             // Import the data
             dataExportImportService.importAllData(tempFile.toString());
             
@@ -291,6 +386,60 @@ public class DataManagementController {
         }
     }
 
+    @Operation(summary = "Start import job", description = "Verifies the archive's entry checksums and imports it " +
+               "in the background, checkpointing every committed chunk so a failed job can be resumed")
+    @PostMapping("/import/jobs")
+    public ResponseEntity<Map<String, Object>> startImportJob(
+            @Parameter(description = "Path to the import file") @RequestParam String filePath) {
+        try {
+            logger.info("Import job requested for: {}", filePath);
+            ImportJob job = importJobService.createJob(filePath);
+            importJobService.runJob(job.getId());
+            return jobAccepted(job.getId(), "Import job started");
+        } catch (IOException e) {
+            logger.warn("Import job rejected for {}: {}", filePath, e.getMessage());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Import file rejected: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            logger.error("Import job could not be started", e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Import job could not be started: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @Operation(summary = "Resume import job", description = "Resumes a failed import job from its last checkpoint")
+    @PostMapping("/jobs/{id}/resume")
+    public ResponseEntity<Map<String, Object>> resumeImportJob(
+            @Parameter(description = "Import job ID") @PathVariable Long id) {
+        Optional<ImportJobProgress> progress = importJobService.getProgress(id);
+        if (progress.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!progress.get().getStatus().isResumable()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Import job " + id + " is " + progress.get().getStatus());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        logger.info("Resume requested for import job {}", id);
+        importJobService.runJob(id);
+        return jobAccepted(id, "Import job resumed");
+    }
+
+    @Operation(summary = "Get import job progress", description = "Gets the checkpoint, rows per second and " +
+               "estimated time to completion of an import job")
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ImportJobProgress> getImportJob(
+            @Parameter(description = "Import job ID") @PathVariable Long id) {
+        return importJobService.getProgress(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
     @Operation(summary = "List backups", description = "Lists all available backup files")
     @GetMapping("/backups")
     public ResponseEntity<Map<String, Object>> listBackups() {
@@ -374,4 +523,21 @@ public class DataManagementController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+
+    private ResponseEntity<Map<String, Object>> jobAccepted(Long jobId, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", message);
+        response.put("jobId", jobId);
+        response.put("progressUrl", "/api/admin/data/jobs/" + jobId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete imported upload {}", file, e);
+        }
+    }
 }
\ No newline at end of file
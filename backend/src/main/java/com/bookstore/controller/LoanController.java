@@ -1,8 +1,10 @@
 package com.bookstore.controller;
 
+import com.bookstore.dto.CursorPage;
 import com.bookstore.entity.Loan;
 import com.bookstore.entity.LoanStatus;
 import com.bookstore.service.LoanService;
+import com.bookstore.service.NdjsonStreamingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -10,8 +12,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -38,10 +42,12 @@ import java.util.Optional;
 public class LoanController {
     
     private final LoanService loanService;
+    private final NdjsonStreamingService ndjsonStreamingService;
     
     @Autowired
-    public LoanController(LoanService loanService) {
+    public LoanController(LoanService loanService, NdjsonStreamingService ndjsonStreamingService) {
         this.loanService = loanService;
+        this.ndjsonStreamingService = ndjsonStreamingService;
     }
     
     /**
@@ -211,6 +217,65 @@ public class LoanController {
         return ResponseEntity.ok(loans);
     }
     
+    /**
+     * Scroll through loans with keyset (cursor) pagination
+     */
+    @GetMapping("/scroll")
+    @Operation(
+        summary = "List loans with cursor pagination",
+        description = "Keyset-paginated loan listing on a stable sort key (id, createdAt or dueDate). Pass the returned nextCursor to fetch the following slice; deep slices cost the same as the first. Totals are only computed when includeTotal=true."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Loans retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid sort key or cursor")
+    })
+    public ResponseEntity<CursorPage<Loan>> scrollLoans(
+            @Parameter(description = "Filter by loan status (optional)", example = "ACTIVE")
+            @RequestParam(required = false) LoanStatus status,
+            @Parameter(description = "Filter by borrower email (optional)")
+            @RequestParam(required = false) String borrowerEmail,
+            @Parameter(description = "Filter by book ID (optional)", example = "1")
+            @RequestParam(required = false) Long bookId,
+            @Parameter(description = "Only active loans past their due date", example = "false")
+            @RequestParam(defaultValue = "false") boolean overdueOnly,
+            @Parameter(description = "Continuation token from a previous response (omit for the first slice)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of items per slice", example = "20")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @Parameter(description = "Stable sort key", example = "dueDate", schema = @Schema(allowableValues = {"id", "createdAt", "dueDate"}))
+            @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Sort direction", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Also compute the total number of matches (runs a COUNT query)", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        CursorPage<Loan> loans = loanService.scrollLoans(
+            status, borrowerEmail, bookId, overdueOnly, sortBy, sortDir, cursor, size, includeTotal);
+        return ResponseEntity.ok(loans);
+    }
+    
+    /**
+     * Stream every loan as newline-delimited JSON
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Stream all loans as NDJSON",
+        description = "Writes one JSON loan per line straight from a database cursor, without building the collection in memory. Use fields to keep only some properties of each loan."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Loans streamed",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)),
+        @ApiResponse(responseCode = "400", description = "Unknown field requested")
+    })
+    public ResponseEntity<StreamingResponseBody> streamLoans(
+            @Parameter(description = "Comma-separated properties to include", example = "id,borrowerEmail,status,dueDate")
+            @RequestParam(required = false) String fields) {
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(ndjsonStreamingService.streamLoans(fields));
+    }
+    
     /**
      * Get loans due today
      */
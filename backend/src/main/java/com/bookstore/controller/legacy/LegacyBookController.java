@@ -2,10 +2,13 @@ package com.bookstore.controller.legacy;
 
 import com.bookstore.entity.Book;
 import com.bookstore.repository.BookRepository;
+import com.bookstore.service.NdjsonStreamingService;
 import com.bookstore.versioning.ApiVersion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,6 +25,9 @@ public class LegacyBookController {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private NdjsonStreamingService ndjsonStreamingService;
+
     @GetMapping
     @ApiVersion(value = "0.9", deprecated = true, 
                deprecatedSince = "2024-01-01", 
@@ -31,6 +37,17 @@ public class LegacyBookController {
         return ResponseEntity.ok(books);
     }
 
+    /**
+     * NDJSON variant of {@link #getAllBooks()}, chosen with {@code Accept: application/x-ndjson};
+     * rows are streamed from a cursor instead of being collected into a list first
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBooks(@RequestParam(required = false) String fields) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamingService.streamBooks(fields));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Book> getBookById(@PathVariable Long id) {
         return bookRepository.findById(id)
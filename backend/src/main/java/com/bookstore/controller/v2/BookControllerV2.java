@@ -4,6 +4,7 @@ import com.bookstore.dto.BookCreateRequest;
 import com.bookstore.dto.BookUpdateRequest;
 import com.bookstore.dto.BulkBookRequest;
 import com.bookstore.dto.BulkOperationResult;
+import com.bookstore.dto.CursorPage;
 import com.bookstore.entity.Book;
 import com.bookstore.repository.BookRepository;
 import com.bookstore.service.AdvancedBookService;
@@ -16,6 +17,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import java.util.List;
 
 /**
@@ -45,6 +48,24 @@ public class BookControllerV2 {
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<Book>> scrollBooks(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false, defaultValue = "false") boolean available,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        // Keyset pagination alongside the page/size listing above
+        CursorPage<Book> books = advancedBookService.scrollBooks(
+            title, genre, author, null, available, sortBy, sortDir, cursor, size, includeTotal);
+        return ResponseEntity.ok(books);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Book> getBookById(@PathVariable Long id) {
         return bookRepository.findById(id)
@@ -0,0 +1,69 @@
+package com.bookstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Schema(description = "Facet counts for the books matching a search filter")
+public class BookSearchFacets {
+    
+    @Schema(description = "Total number of matching books", example = "42")
+    private Long totalMatches = 0L;
+    
+    @Schema(description = "Number of matching books per genre, most frequent first")
+    private Map<String, Long> genres = new LinkedHashMap<>();
+    
+    @Schema(description = "Number of matching books per publication decade (e.g. 1990 covers 1990-1999), oldest first")
+    private Map<Integer, Long> decades = new LinkedHashMap<>();
+    
+    @Schema(description = "Number of matching books with at least one available copy", example = "30")
+    private Long available = 0L;
+    
+    @Schema(description = "Number of matching books with no available copies", example = "12")
+    private Long unavailable = 0L;
+    
+    // Constructors
+    public BookSearchFacets() {}
+    
+    // Getters and Setters
+    public Long getTotalMatches() {
+        return totalMatches;
+    }
+    
+    public void setTotalMatches(Long totalMatches) {
+        this.totalMatches = totalMatches;
+    }
+    
+    public Map<String, Long> getGenres() {
+        return genres;
+    }
+    
+    public void setGenres(Map<String, Long> genres) {
+        this.genres = genres;
+    }
+    
+    public Map<Integer, Long> getDecades() {
+        return decades;
+    }
+    
+    public void setDecades(Map<Integer, Long> decades) {
+        this.decades = decades;
+    }
+    
+    public Long getAvailable() {
+        return available;
+    }
+    
+    public void setAvailable(Long available) {
+        this.available = available;
+    }
+    
+    public Long getUnavailable() {
+        return unavailable;
+    }
+    
+    public void setUnavailable(Long unavailable) {
+        this.unavailable = unavailable;
+    }
+}
@@ -0,0 +1,62 @@
+package com.bookstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Typeahead suggestion for a book title or author name")
+public class BookSuggestion {
+
+    @Schema(description = "Kind of suggestion", example = "TITLE", allowableValues = {"TITLE", "AUTHOR"})
+    private String type;
+
+    @Schema(description = "ID of the suggested book or author", example = "1")
+    private Long id;
+
+    @Schema(description = "Text to display for the suggestion", example = "Clean Code")
+    private String text;
+
+    @Schema(description = "Popularity weight derived from loan counts", example = "42")
+    private Long weight;
+
+    // Constructors
+    public BookSuggestion() {}
+
+    public BookSuggestion(String type, Long id, String text, Long weight) {
+        this.type = type;
+        this.id = id;
+        this.text = text;
+        this.weight = weight;
+    }
+
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public Long getWeight() {
+        return weight;
+    }
+
+    public void setWeight(Long weight) {
+        this.weight = weight;
+    }
+}
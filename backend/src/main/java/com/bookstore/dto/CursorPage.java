@@ -0,0 +1,77 @@
+package com.bookstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "One slice of a keyset-paginated listing with an opaque continuation token")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+
+    @Schema(description = "Items in this slice")
+    private List<T> content = new ArrayList<>();
+
+    @Schema(description = "Number of items in this slice", example = "20")
+    private int size;
+
+    @Schema(description = "Whether more items follow this slice")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque token to pass as 'cursor' to fetch the next slice; absent on the last slice")
+    private String nextCursor;
+
+    @Schema(description = "Total number of matching items; only present when includeTotal=true")
+    private Long totalElements;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> content, boolean hasNext, String nextCursor, Long totalElements) {
+        this.content = content;
+        this.size = content.size();
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+}
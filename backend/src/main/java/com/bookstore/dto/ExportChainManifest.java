@@ -0,0 +1,167 @@
+package com.bookstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Ordered chain of one full data export followed by delta exports; restoring replays it in order")
+public class ExportChainManifest {
+
+    public static final String TYPE_FULL = "FULL";
+    public static final String TYPE_DELTA = "DELTA";
+
+    @Schema(description = "Archives in the chain, full export first")
+    private List<Archive> archives = new ArrayList<>();
+
+    // Constructors
+    public ExportChainManifest() {}
+
+    // Getters and Setters
+    public List<Archive> getArchives() {
+        return archives;
+    }
+
+    public void setArchives(List<Archive> archives) {
+        this.archives = archives;
+    }
+
+    /**
+     * Most recent archive of the chain, or null when the chain is empty
+     */
+    @JsonIgnore
+    public Archive getLatest() {
+        return archives.isEmpty() ? null : archives.get(archives.size() - 1);
+    }
+
+    @Schema(description = "One archive of an export chain")
+    public static class Archive {
+
+        @Schema(description = "Archive file name, relative to the manifest", example = "bookstore_delta_20240101_020000.zip")
+        private String archive;
+
+        @Schema(description = "FULL or DELTA", example = "DELTA")
+        private String type;
+
+        @Schema(description = "Export timestamp", example = "20240101_020000")
+        private String exportTimestamp;
+
+        @Schema(description = "Per-table high-watermark of the change timestamp after this export")
+        private Map<String, LocalDateTime> watermarks = new HashMap<>();
+
+        @Schema(description = "Id of the last deletion tombstone covered by this export")
+        private Long tombstoneWatermark;
+
+        @Schema(description = "Rows written per table")
+        private Map<String, Long> rowCounts = new HashMap<>();
+
+        @Schema(description = "Row count and SHA-256 checksum per archive entry, in archive order")
+        private Map<String, ArchiveEntry> entries = new LinkedHashMap<>();
+
+        // Constructors
+        public Archive() {}
+
+        public Archive(String archive, String type, String exportTimestamp) {
+            this.archive = archive;
+            this.type = type;
+            this.exportTimestamp = exportTimestamp;
+        }
+
+        // Getters and Setters
+        public String getArchive() {
+            return archive;
+        }
+
+        public void setArchive(String archive) {
+            this.archive = archive;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public String getExportTimestamp() {
+            return exportTimestamp;
+        }
+
+        public void setExportTimestamp(String exportTimestamp) {
+            this.exportTimestamp = exportTimestamp;
+        }
+
+        public Map<String, LocalDateTime> getWatermarks() {
+            return watermarks;
+        }
+
+        public void setWatermarks(Map<String, LocalDateTime> watermarks) {
+            this.watermarks = watermarks;
+        }
+
+        public Long getTombstoneWatermark() {
+            return tombstoneWatermark;
+        }
+
+        public void setTombstoneWatermark(Long tombstoneWatermark) {
+            this.tombstoneWatermark = tombstoneWatermark;
+        }
+
+        public Map<String, Long> getRowCounts() {
+            return rowCounts;
+        }
+
+        public void setRowCounts(Map<String, Long> rowCounts) {
+            this.rowCounts = rowCounts;
+        }
+
+        public Map<String, ArchiveEntry> getEntries() {
+            return entries;
+        }
+
+        public void setEntries(Map<String, ArchiveEntry> entries) {
+            this.entries = entries;
+        }
+    }
+
+    @Schema(description = "Integrity record of one archive entry, checked before an import job starts")
+    public static class ArchiveEntry {
+
+        @Schema(description = "JSON array elements in the entry", example = "1200")
+        private long rows;
+
+        @Schema(description = "Hex SHA-256 of the uncompressed entry")
+        private String sha256;
+
+        // Constructors
+        public ArchiveEntry() {}
+
+        public ArchiveEntry(long rows, String sha256) {
+            this.rows = rows;
+            this.sha256 = sha256;
+        }
+
+        // Getters and Setters
+        public long getRows() {
+            return rows;
+        }
+
+        public void setRows(long rows) {
+            this.rows = rows;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        public void setSha256(String sha256) {
+            this.sha256 = sha256;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bookstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.Page;
+
+@Schema(description = "Search result page together with facet counts for the same filter")
+public class FacetedSearchResult<T> {
+    
+    @Schema(description = "Requested page of matching items")
+    private Page<T> results;
+    
+    @Schema(description = "Facet counts over all matching items, not just the current page")
+    private BookSearchFacets facets;
+    
+    // Constructors
+    public FacetedSearchResult() {}
+    
+    public FacetedSearchResult(Page<T> results, BookSearchFacets facets) {
+        this.results = results;
+        this.facets = facets;
+    }
+    
+    // Getters and Setters
+    public Page<T> getResults() {
+        return results;
+    }
+    
+    public void setResults(Page<T> results) {
+        this.results = results;
+    }
+    
+    public BookSearchFacets getFacets() {
+        return facets;
+    }
+    
+    public void setFacets(BookSearchFacets facets) {
+        this.facets = facets;
+    }
+}
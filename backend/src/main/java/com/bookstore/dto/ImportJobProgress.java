@@ -0,0 +1,195 @@
+package com.bookstore.dto;
+
+import com.bookstore.entity.ImportJobStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Progress of a resumable data import job")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportJobProgress {
+
+    @Schema(description = "Import job ID", example = "12")
+    private Long id;
+
+    @Schema(description = "Job status", example = "RUNNING")
+    private ImportJobStatus status;
+
+    @Schema(description = "Archive being imported")
+    private String filePath;
+
+    @Schema(description = "Archive rows committed so far", example = "900000")
+    private long rowsProcessed;
+
+    @Schema(description = "Rows recorded in the archive metadata; absent for archives without entry checksums",
+            example = "1200000")
+    private Long totalRows;
+
+    @Schema(description = "Share of the archive processed, in percent", example = "75.0")
+    private Double percentComplete;
+
+    @Schema(description = "Rows per second during the current or last attempt", example = "8500.0")
+    private Double rowsPerSecond;
+
+    @Schema(description = "Estimated seconds until the running job completes", example = "35")
+    private Long etaSeconds;
+
+    @Schema(description = "Archive entry of the last checkpoint", example = "loans.json")
+    private String currentEntry;
+
+    @Schema(description = "Elements of the current entry behind the last checkpoint", example = "41500")
+    private long entryOffset;
+
+    @Schema(description = "Fully imported archive entries")
+    private List<String> completedEntries = new ArrayList<>();
+
+    @Schema(description = "Number of times the job was started or resumed", example = "2")
+    private int attempts;
+
+    @Schema(description = "Failure of the last attempt")
+    private String errorMessage;
+
+    @Schema(description = "When the job was created")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Time of the last checkpoint or status change")
+    private LocalDateTime updatedAt;
+
+    @Schema(description = "When the job completed")
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public ImportJobProgress() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ImportJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ImportJobStatus status) {
+        this.status = status;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public void setRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public Long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(Long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public Double getPercentComplete() {
+        return percentComplete;
+    }
+
+    public void setPercentComplete(Double percentComplete) {
+        this.percentComplete = percentComplete;
+    }
+
+    public Double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(Double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public Long getEtaSeconds() {
+        return etaSeconds;
+    }
+
+    public void setEtaSeconds(Long etaSeconds) {
+        this.etaSeconds = etaSeconds;
+    }
+
+    public String getCurrentEntry() {
+        return currentEntry;
+    }
+
+    public void setCurrentEntry(String currentEntry) {
+        this.currentEntry = currentEntry;
+    }
+
+    public long getEntryOffset() {
+        return entryOffset;
+    }
+
+    public void setEntryOffset(long entryOffset) {
+        this.entryOffset = entryOffset;
+    }
+
+    public List<String> getCompletedEntries() {
+        return completedEntries;
+    }
+
+    public void setCompletedEntries(List<String> completedEntries) {
+        this.completedEntries = completedEntries;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
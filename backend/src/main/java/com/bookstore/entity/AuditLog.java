@@ -7,10 +7,12 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "audit_logs")
+@EntityListeners(com.bookstore.service.DeletionTombstoneListener.class)
 public class AuditLog {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_log_id_generator")
+    @SequenceGenerator(name = "audit_log_id_generator", sequenceName = "audit_logs_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "user_id")
@@ -19,10 +19,13 @@ import java.util.Set;
     @Index(name = "idx_author_birth_date", columnList = "birth_date"),
     @Index(name = "idx_author_created_at", columnList = "created_at")
 })
+@EntityListeners({com.bookstore.service.BookSuggestionEntityListener.class, com.bookstore.service.BookFacetCacheEvictionListener.class,
+                  com.bookstore.service.DeletionTombstoneListener.class})
 public class Author {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_id_generator")
+    @SequenceGenerator(name = "author_id_generator", sequenceName = "authors_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "first_name", nullable = false)
@@ -19,12 +19,15 @@ import java.util.Set;
     @Index(name = "idx_book_available_copies", columnList = "available_copies"),
     @Index(name = "idx_book_created_at", columnList = "created_at")
 })
+@EntityListeners({com.bookstore.service.BookSuggestionEntityListener.class, com.bookstore.service.BookFacetCacheEvictionListener.class,
+                  com.bookstore.service.DeletionTombstoneListener.class})
 @com.bookstore.validation.ValidCopyCount(groups = {com.bookstore.validation.ValidationGroups.Create.class, com.bookstore.validation.ValidationGroups.Update.class})
 @Schema(description = "Book entity representing a book in the library system")
 public class Book {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_id_generator")
+    @SequenceGenerator(name = "book_id_generator", sequenceName = "books_id_seq", allocationSize = 50)
     @Schema(description = "Unique identifier for the book", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
     
@@ -0,0 +1,73 @@
+package com.bookstore.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone for a deleted row, used to replay deletes from delta exports
+ */
+@Entity
+@Table(name = "deleted_records", indexes = {
+    @Index(name = "idx_deleted_records_deleted_at", columnList = "deleted_at")
+})
+public class DeletedRecord {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * Export table key of the deleted row, e.g. "books" or "loan_tracking"
+     */
+    @Column(name = "entity_type", nullable = false, length = 50)
+    private String entityType;
+    
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    // Default constructor
+    public DeletedRecord() {}
+    
+    public DeletedRecord(String entityType, Long entityId, LocalDateTime deletedAt) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.deletedAt = deletedAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getEntityType() {
+        return entityType;
+    }
+    
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+    
+    public Long getEntityId() {
+        return entityId;
+    }
+    
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
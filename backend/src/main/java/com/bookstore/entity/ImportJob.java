@@ -0,0 +1,234 @@
+package com.bookstore.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Resumable data import of one archive. The checkpoint (current entry and element offset)
+ * is updated in the same transaction as each imported chunk.
+ */
+@Entity
+@Table(name = "import_jobs", indexes = {
+    @Index(name = "idx_import_jobs_status", columnList = "status")
+})
+public class ImportJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImportJobStatus status = ImportJobStatus.PENDING;
+    
+    /**
+     * Rows recorded in the archive metadata, or null for archives without entry checksums
+     */
+    @Column(name = "total_rows")
+    private Long totalRows;
+    
+    /**
+     * Archive elements behind the checkpoint, including rows the import skips on purpose
+     */
+    @Column(name = "rows_processed", nullable = false)
+    private long rowsProcessed;
+    
+    /**
+     * Archive entry the last committed chunk belongs to
+     */
+    @Column(name = "current_entry", length = 100)
+    private String currentEntry;
+    
+    /**
+     * JSON array elements of the current entry consumed by committed chunks
+     */
+    @Column(name = "entry_offset", nullable = false)
+    private long entryOffset;
+    
+    /**
+     * Comma-separated names of fully imported archive entries
+     */
+    @Column(name = "completed_entries", length = 2000)
+    private String completedEntries;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    /**
+     * Start of the current attempt and the rows processed before it, for the import rate
+     */
+    @Column(name = "run_started_at")
+    private LocalDateTime runStartedAt;
+    
+    @Column(name = "run_start_rows", nullable = false)
+    private long runStartRows;
+    
+    @Column(name = "error_message", length = 2000)
+    private String errorMessage;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    // Default constructor
+    public ImportJob() {}
+    
+    public ImportJob(String filePath, Long totalRows) {
+        this.filePath = filePath;
+        this.totalRows = totalRows;
+    }
+    
+    // Business methods
+    public Set<String> getCompletedEntrySet() {
+        Set<String> entries = new LinkedHashSet<>();
+        if (completedEntries != null && !completedEntries.isEmpty()) {
+            entries.addAll(Arrays.asList(completedEntries.split(",")));
+        }
+        return entries;
+    }
+    
+    public void markEntryCompleted(String entryName) {
+        Set<String> entries = getCompletedEntrySet();
+        entries.add(entryName);
+        this.completedEntries = String.join(",", entries);
+        this.currentEntry = null;
+        this.entryOffset = 0;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getFilePath() {
+        return filePath;
+    }
+    
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+    
+    public ImportJobStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ImportJobStatus status) {
+        this.status = status;
+    }
+    
+    public Long getTotalRows() {
+        return totalRows;
+    }
+    
+    public void setTotalRows(Long totalRows) {
+        this.totalRows = totalRows;
+    }
+    
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+    
+    public void setRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+    
+    public String getCurrentEntry() {
+        return currentEntry;
+    }
+    
+    public void setCurrentEntry(String currentEntry) {
+        this.currentEntry = currentEntry;
+    }
+    
+    public long getEntryOffset() {
+        return entryOffset;
+    }
+    
+    public void setEntryOffset(long entryOffset) {
+        this.entryOffset = entryOffset;
+    }
+    
+    public String getCompletedEntries() {
+        return completedEntries;
+    }
+    
+    public void setCompletedEntries(String completedEntries) {
+        this.completedEntries = completedEntries;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getRunStartedAt() {
+        return runStartedAt;
+    }
+    
+    public void setRunStartedAt(LocalDateTime runStartedAt) {
+        this.runStartedAt = runStartedAt;
+    }
+    
+    public long getRunStartRows() {
+        return runStartRows;
+    }
+    
+    public void setRunStartRows(long runStartRows) {
+        this.runStartRows = runStartRows;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
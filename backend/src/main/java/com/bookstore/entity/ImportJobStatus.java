@@ -0,0 +1,30 @@
+package com.bookstore.entity;
+
+public enum ImportJobStatus {
+    PENDING("Pending"),
+    RUNNING("Running"),
+    COMPLETED("Completed"),
+    FAILED("Failed");
+    
+    private final String displayName;
+    
+    ImportJobStatus(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Whether the job can be (re)started from its last checkpoint
+     */
+    public boolean isResumable() {
+        return this == PENDING || this == FAILED;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
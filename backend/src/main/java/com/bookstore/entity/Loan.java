@@ -19,11 +19,13 @@ import java.time.LocalDateTime;
     @Index(name = "idx_loan_return_date", columnList = "return_date"),
     @Index(name = "idx_loan_created_at", columnList = "created_at")
 })
+@EntityListeners({com.bookstore.service.BookSuggestionEntityListener.class, com.bookstore.service.DeletionTombstoneListener.class})
 @com.bookstore.validation.ValidDateRange(groups = {com.bookstore.validation.ValidationGroups.Create.class, com.bookstore.validation.ValidationGroups.Update.class})
 public class Loan {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_id_generator")
+    @SequenceGenerator(name = "loan_id_generator", sequenceName = "loans_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -12,10 +12,12 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "loan_tracking")
+@EntityListeners(com.bookstore.service.DeletionTombstoneListener.class)
 public class LoanTracking {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_tracking_id_generator")
+    @SequenceGenerator(name = "loan_tracking_id_generator", sequenceName = "loan_tracking_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "loan_id", nullable = false)
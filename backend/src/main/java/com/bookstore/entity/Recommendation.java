@@ -3,15 +3,18 @@ package com.bookstore.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "recommendations")
+@EntityListeners(com.bookstore.service.DeletionTombstoneListener.class)
 public class Recommendation {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recommendation_id_generator")
+    @SequenceGenerator(name = "recommendation_id_generator", sequenceName = "recommendations_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "user_id")
@@ -41,6 +44,10 @@ public class Recommendation {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
     
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
     // Default constructor
     public Recommendation() {}
     
@@ -105,6 +112,10 @@ public class Recommendation {
         return createdAt;
     }
     
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
     // Helper methods
     public boolean isHighScore() {
         return score != null && score >= 0.7;
@@ -17,10 +17,12 @@ import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(com.bookstore.service.DeletionTombstoneListener.class)
 public class User implements UserDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_id_generator")
+    @SequenceGenerator(name = "user_id_generator", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
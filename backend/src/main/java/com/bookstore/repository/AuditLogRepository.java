@@ -1,15 +1,20 @@
 package com.bookstore.repository;
 
 import com.bookstore.entity.AuditLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
@@ -29,4 +34,27 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     List<AuditLog> findByUsernameAndTimestampBetween(@Param("username") String username,
                                                     @Param("startDate") LocalDateTime startDate,
                                                     @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Stream every row in id order for export, fetched in chunks from a server-side cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT al FROM AuditLog al ORDER BY al.id")
+    @RestResource(exported = false)
+    Stream<AuditLog> streamAllForExport();
+
+    /**
+     * Stream rows whose timestamp is after the given time, for delta exports.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT al FROM AuditLog al WHERE al.timestamp > :since ORDER BY al.id")
+    @RestResource(exported = false)
+    Stream<AuditLog> streamChangedSince(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
@@ -1,16 +1,22 @@
 package com.bookstore.repository;
 
 import com.bookstore.entity.Author;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 @RepositoryRestResource(collectionResourceRel = "authors", path = "authors")
@@ -86,4 +92,37 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
     @Query("SELECT a FROM Author a WHERE " +
            "LOWER(a.firstName) = LOWER(:firstName) AND LOWER(a.lastName) = LOWER(:lastName)")
     List<Author> findByExactFullName(@Param("firstName") String firstName, @Param("lastName") String lastName);
-}
\ No newline at end of file
+    
+    // Lightweight id/name projection used to build the typeahead index
+    @RestResource(exported = false)
+    @Query("SELECT a.id, a.firstName, a.lastName FROM Author a")
+    List<Object[]> findAllIdAndName();
+    
+    // Count loans per author across all of their books
+    @RestResource(exported = false)
+    @Query("SELECT a.id, COUNT(l) FROM Author a JOIN a.books b JOIN b.loans l GROUP BY a.id")
+    List<Object[]> countLoansPerAuthor();
+
+    /**
+     * Stream every row in id order for export, fetched in chunks from a server-side cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Author a ORDER BY a.id")
+    @RestResource(exported = false)
+    Stream<Author> streamAllForExport();
+
+    /**
+     * Stream rows whose updatedAt is after the given time, for delta exports.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Author a WHERE a.updatedAt > :since ORDER BY a.id")
+    @RestResource(exported = false)
+    Stream<Author> streamChangedSince(@Param("since") LocalDateTime since);
+}
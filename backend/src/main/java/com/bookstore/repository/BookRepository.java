@@ -1,20 +1,29 @@
 package com.bookstore.repository;
 
 import com.bookstore.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 @RepositoryRestResource(collectionResourceRel = "books", path = "books")
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
     
     // Find by title (case-insensitive)
     Page<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
@@ -61,6 +70,23 @@ public interface BookRepository extends JpaRepository<Book, Long> {
                           @Param("availableOnly") boolean availableOnly,
                           Pageable pageable);
     
+    // Facet counts for the searchBooks criteria in one grouped pass: genre, year, availability, count
+    @RestResource(exported = false)
+    @Query("SELECT b.genre, b.publicationYear, CASE WHEN b.availableCopies > 0 THEN true ELSE false END, COUNT(b) " +
+           "FROM Book b WHERE " +
+           "(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+           "(:genre IS NULL OR LOWER(b.genre) LIKE LOWER(CONCAT('%', :genre, '%'))) AND " +
+           "(:authorName IS NULL OR EXISTS (SELECT a.id FROM Author a JOIN a.books ab WHERE ab.id = b.id AND " +
+           "LOWER(CONCAT(a.firstName, ' ', a.lastName)) LIKE LOWER(CONCAT('%', :authorName, '%')))) AND " +
+           "(:publicationYear IS NULL OR b.publicationYear = :publicationYear) AND " +
+           "(:availableOnly = false OR b.availableCopies > 0) " +
+           "GROUP BY b.genre, b.publicationYear, CASE WHEN b.availableCopies > 0 THEN true ELSE false END")
+    List<Object[]> countSearchFacets(@Param("title") String title,
+                                     @Param("genre") String genre,
+                                     @Param("authorName") String authorName,
+                                     @Param("publicationYear") Integer publicationYear,
+                                     @Param("availableOnly") boolean availableOnly);
+    
     // Find books with low stock (available copies <= threshold)
     @Query("SELECT b FROM Book b WHERE b.availableCopies <= :threshold AND b.availableCopies > 0")
     List<Book> findBooksWithLowStock(@Param("threshold") Integer threshold);
@@ -86,4 +112,37 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     
     // Find books by multiple ISBNs
     List<Book> findByIsbnIn(List<String> isbns);
-}
\ No newline at end of file
+    
+    // Batch lookup by id with authors fetched in the same query, backing the multi-id endpoint
+    @RestResource(exported = false)
+    @EntityGraph(attributePaths = "authors")
+    List<Book> findByIdIn(Collection<Long> ids);
+    
+    // Lightweight id/title projection used to build the typeahead index
+    @RestResource(exported = false)
+    @Query("SELECT b.id, b.title FROM Book b")
+    List<Object[]> findAllIdAndTitle();
+
+    /**
+     * Stream every row in id order for export, fetched in chunks from a server-side cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    @RestResource(exported = false)
+    Stream<Book> streamAllForExport();
+
+    /**
+     * Stream rows whose updatedAt is after the given time, for delta exports.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b WHERE b.updatedAt > :since ORDER BY b.id")
+    @RestResource(exported = false)
+    Stream<Book> streamChangedSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,73 @@
+package com.bookstore.repository;
+
+import com.bookstore.entity.Author;
+import com.bookstore.entity.Book;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria-based filters for {@link Book}, mirroring {@link BookRepository#searchBooks}.
+ * Used where the query has to be composed with keyset scrolling.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {}
+
+    /**
+     * Combine the advanced-search criteria; null or blank criteria are ignored.
+     */
+    public static Specification<Book> matching(String title, String genre, String authorName,
+                                               Integer publicationYear, boolean availableOnly) {
+        return Specification.where(titleContains(title))
+            .and(genreContains(genre))
+            .and(authorNameContains(authorName))
+            .and(publishedIn(publicationYear))
+            .and(availableOnly ? available() : null);
+    }
+
+    public static Specification<Book> titleContains(String title) {
+        if (title == null || title.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(cb.lower(root.get("title")), "%" + title.toLowerCase() + "%");
+    }
+
+    public static Specification<Book> genreContains(String genre) {
+        if (genre == null || genre.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(cb.lower(root.get("genre")), "%" + genre.toLowerCase() + "%");
+    }
+
+    public static Specification<Book> publishedIn(Integer publicationYear) {
+        if (publicationYear == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("publicationYear"), publicationYear);
+    }
+
+    public static Specification<Book> available() {
+        return (root, query, cb) -> cb.greaterThan(root.get("availableCopies"), 0);
+    }
+
+    /**
+     * Author match as an EXISTS subquery so the outer query needs no DISTINCT and stays scrollable.
+     */
+    public static Specification<Book> authorNameContains(String authorName) {
+        if (authorName == null || authorName.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<Author> author = subquery.from(Author.class);
+            Join<Author, Book> books = author.join("books");
+            subquery.select(author.get("id"))
+                .where(cb.equal(books.get("id"), root.get("id")),
+                       cb.like(cb.lower(cb.concat(cb.concat(author.get("firstName"), " "), author.get("lastName"))),
+                               "%" + authorName.toLowerCase() + "%"));
+            return cb.exists(subquery);
+        };
+    }
+}
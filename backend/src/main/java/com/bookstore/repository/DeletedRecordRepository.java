@@ -0,0 +1,34 @@
+package com.bookstore.repository;
+
+import com.bookstore.entity.DeletedRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface DeletedRecordRepository extends JpaRepository<DeletedRecord, Long> {
+    
+    /**
+     * Highest tombstone id, or null when nothing has been deleted yet.
+     */
+    @Query("SELECT MAX(d.id) FROM DeletedRecord d")
+    Long findMaxId();
+
+    /**
+     * Stream tombstones recorded after the given id, in the order the deletes happened.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM DeletedRecord d WHERE d.id > :afterId ORDER BY d.id")
+    Stream<DeletedRecord> streamRecordedAfter(@Param("afterId") Long afterId);
+}
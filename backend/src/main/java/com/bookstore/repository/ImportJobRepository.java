@@ -0,0 +1,31 @@
+package com.bookstore.repository;
+
+import com.bookstore.entity.ImportJob;
+import com.bookstore.entity.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    
+    List<ImportJob> findByStatus(ImportJobStatus status);
+
+    /**
+     * Advance a job's checkpoint; joins the transaction that commits the chunk.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.currentEntry = :entry, j.entryOffset = :offset, " +
+           "j.rowsProcessed = j.rowsProcessed + :rows, j.updatedAt = :now WHERE j.id = :id")
+    int recordCheckpoint(@Param("id") Long id, @Param("entry") String entry, @Param("offset") long offset,
+                         @Param("rows") long rows, @Param("now") LocalDateTime now);
+}
@@ -2,20 +2,27 @@ package com.bookstore.repository;
 
 import com.bookstore.entity.Loan;
 import com.bookstore.entity.LoanStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 @RepositoryRestResource(collectionResourceRel = "loans", path = "loans")
-public interface LoanRepository extends JpaRepository<Loan, Long> {
+public interface LoanRepository extends JpaRepository<Loan, Long>, JpaSpecificationExecutor<Loan> {
     
     // Find by loan status
     Page<Loan> findByStatus(LoanStatus status, Pageable pageable);
@@ -113,4 +120,33 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
     
     // Check if borrower has active loan for specific book
     boolean existsByBookAndBorrowerEmailAndStatus(com.bookstore.entity.Book book, String borrowerEmail, LoanStatus status);
-}
\ No newline at end of file
+    
+    // Count loans per book
+    @RestResource(exported = false)
+    @Query("SELECT l.book.id, COUNT(l) FROM Loan l GROUP BY l.book.id")
+    List<Object[]> countLoansPerBook();
+
+    /**
+     * Stream every row in id order for export, fetched in chunks from a server-side cursor.
+     * The book is fetched with each row so it serializes after the persistence context is cleared.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM Loan l JOIN FETCH l.book ORDER BY l.id")
+    @RestResource(exported = false)
+    Stream<Loan> streamAllForExport();
+
+    /**
+     * Stream rows whose updatedAt is after the given time, for delta exports.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM Loan l JOIN FETCH l.book WHERE l.updatedAt > :since ORDER BY l.id")
+    @RestResource(exported = false)
+    Stream<Loan> streamChangedSince(@Param("since") LocalDateTime since);
+}
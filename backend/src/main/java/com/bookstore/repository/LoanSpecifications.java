@@ -0,0 +1,55 @@
+package com.bookstore.repository;
+
+import com.bookstore.entity.Loan;
+import com.bookstore.entity.LoanStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Criteria-based filters for {@link Loan}, used where the query has to be composed with keyset scrolling.
+ */
+public final class LoanSpecifications {
+
+    private LoanSpecifications() {}
+
+    /**
+     * Combine loan listing criteria; null criteria are ignored.
+     */
+    public static Specification<Loan> matching(LoanStatus status, String borrowerEmail, Long bookId, boolean overdueOnly) {
+        return Specification.where(hasStatus(status))
+            .and(borrowedBy(borrowerEmail))
+            .and(forBook(bookId))
+            .and(overdueOnly ? overdue() : null);
+    }
+
+    public static Specification<Loan> hasStatus(LoanStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Loan> borrowedBy(String borrowerEmail) {
+        if (borrowerEmail == null || borrowerEmail.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("borrowerEmail")), borrowerEmail.toLowerCase());
+    }
+
+    public static Specification<Loan> forBook(Long bookId) {
+        if (bookId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("book").get("id"), bookId);
+    }
+
+    /**
+     * Active loans past their due date, matching {@link LoanRepository#findOverdueLoans}.
+     */
+    public static Specification<Loan> overdue() {
+        return (root, query, cb) -> cb.and(
+            cb.equal(root.get("status"), LoanStatus.ACTIVE),
+            cb.lessThan(root.get("dueDate"), LocalDate.now()));
+    }
+}
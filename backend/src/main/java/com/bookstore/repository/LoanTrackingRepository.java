@@ -1,16 +1,21 @@
 package com.bookstore.repository;
 
 import com.bookstore.entity.LoanTracking;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository for LoanTracking entity
@@ -63,6 +68,16 @@ public interface LoanTrackingRepository extends JpaRepository<LoanTracking, Long
     @Query("SELECT lt FROM LoanTracking lt ORDER BY lt.eventTimestamp DESC")
     List<LoanTracking> findRecentEvents(int limit);
     
+    /**
+     * Record deletion tombstones for the tracking records deleteByEventTimestampBefore is about to
+     * remove. A bulk delete bypasses the entity listener that records them for single deletes.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO deleted_records (entity_type, entity_id, deleted_at) " +
+                   "SELECT 'loan_tracking', id, CURRENT_TIMESTAMP FROM loan_tracking WHERE event_timestamp < :cutoffDate",
+           nativeQuery = true)
+    int insertTombstonesByEventTimestampBefore(@Param("cutoffDate") LocalDateTime cutoffDate);
+    
     /**
      * Delete old tracking records
      */
@@ -104,4 +119,27 @@ public interface LoanTrackingRepository extends JpaRepository<LoanTracking, Long
            "GROUP BY lt.eventType")
     List<Object[]> getEventTypeStatistics(@Param("startDate") LocalDateTime startDate, 
                                          @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Stream every row in id order for export, fetched in chunks from a server-side cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT lt FROM LoanTracking lt ORDER BY lt.id")
+    @RestResource(exported = false)
+    Stream<LoanTracking> streamAllForExport();
+
+    /**
+     * Stream rows whose eventTimestamp is after the given time, for delta exports.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT lt FROM LoanTracking lt WHERE lt.eventTimestamp > :since ORDER BY lt.id")
+    @RestResource(exported = false)
+    Stream<LoanTracking> streamChangedSince(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
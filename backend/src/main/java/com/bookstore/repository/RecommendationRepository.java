@@ -2,16 +2,21 @@ package com.bookstore.repository;
 
 import com.bookstore.entity.Recommendation;
 import com.bookstore.entity.RecommendationType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 @RepositoryRestResource(collectionResourceRel = "recommendations", path = "recommendations")
@@ -100,4 +105,29 @@ public interface RecommendationRepository extends JpaRepository<Recommendation,
     Page<Recommendation> findContentBasedRecommendationsByGenres(@Param("userId") String userId, 
                                                                @Param("preferredGenres") List<String> preferredGenres, 
                                                                Pageable pageable);
+
+    /**
+     * Stream every row in id order for export, fetched in chunks from a server-side cursor.
+     * The book is fetched with each row so it serializes after the persistence context is cleared.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Recommendation r JOIN FETCH r.book ORDER BY r.id")
+    @RestResource(exported = false)
+    Stream<Recommendation> streamAllForExport();
+
+    /**
+     * Stream rows whose updatedAt is after the given time, for delta exports.
+     * Rescoring updates a row in place, so createdAt would miss it.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Recommendation r JOIN FETCH r.book WHERE r.updatedAt > :since ORDER BY r.id")
+    @RestResource(exported = false)
+    Stream<Recommendation> streamChangedSince(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
@@ -1,12 +1,18 @@
 package com.bookstore.repository;
 
 import com.bookstore.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -21,4 +27,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u WHERE u.username = :username AND u.enabled = true")
     Optional<User> findActiveUserByUsername(@Param("username") String username);
+
+    /**
+     * Stream every row in id order for export, fetched in chunks from a server-side cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    @RestResource(exported = false)
+    Stream<User> streamAllForExport();
+
+    /**
+     * Stream rows whose updatedAt is after the given time, for delta exports.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u WHERE u.updatedAt > :since ORDER BY u.id")
+    @RestResource(exported = false)
+    Stream<User> streamChangedSince(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.bookstore.exception.BookNotFoundException;
 import com.bookstore.exception.DuplicateResourceException;
 import com.bookstore.repository.AuthorRepository;
 import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.BookSpecifications;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,10 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -34,6 +39,9 @@ public class AdvancedBookService {
     private static final Logger logger = LoggerFactory.getLogger(AdvancedBookService.class);
     private static final String UPLOAD_DIR = "uploads/book-images/";
     
+    /** Upper bound on ids accepted by a single batch lookup */
+    public static final int MAX_BATCH_IDS = 100;
+    
     @Autowired
     private BookRepository bookRepository;
     
@@ -43,7 +51,7 @@ public class AdvancedBookService {
     /**
      * Bulk create books
      */
-    @CacheEvict(value = {"books", "bookStats", "bookSearch"}, allEntries = true)
+    @CacheEvict(value = {"books", "bookStats", "bookSearch", "bookFacets"}, allEntries = true)
     public BulkOperationResult<Book> bulkCreateBooks(BulkBookRequest request) {
         logger.info("Starting bulk creation of {} books", request.getBooks().size());
         
@@ -81,7 +89,7 @@ public class AdvancedBookService {
     /**
      * Bulk update books
      */
-    @CacheEvict(value = {"books", "bookStats", "bookSearch"}, allEntries = true)
+    @CacheEvict(value = {"books", "bookStats", "bookSearch", "bookFacets"}, allEntries = true)
     public BulkOperationResult<Book> bulkUpdateBooks(List<BookUpdateRequest> requests) {
         logger.info("Starting bulk update of {} books", requests.size());
         
@@ -152,6 +160,21 @@ public class AdvancedBookService {
         return status;
     }
     
+    /**
+     * Fetch several books by id in one query, authors included. Unknown ids are simply absent
+     * from the result, so callers batching individual lookups can tell which ones were missing.
+     */
+    @Transactional(readOnly = true)
+    public List<Book> getBooksByIds(Collection<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " ids can be requested at once");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return bookRepository.findByIdIn(ids);
+    }
+    
     /**
      * Get books with low stock
      */
@@ -220,6 +243,104 @@ public class AdvancedBookService {
         return stats;
     }
     
+    /**
+     * Facet counts (genre, publication decade, availability) for the advanced-search criteria.
+     * Computed from a single grouped query and cached per normalized filter.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = "bookFacets",
+               key = "T(com.bookstore.service.AdvancedBookService).facetCacheKey(#title, #genre, #authorName, #publicationYear, #availableOnly)")
+    public BookSearchFacets getSearchFacets(String title, String genre, String authorName,
+                                            Integer publicationYear, boolean availableOnly) {
+        List<Object[]> rows = bookRepository.countSearchFacets(
+            normalizeSearchFilter(title), normalizeSearchFilter(genre), normalizeSearchFilter(authorName),
+            publicationYear, availableOnly);
+        
+        Map<String, Long> genres = new HashMap<>();
+        Map<Integer, Long> decades = new TreeMap<>();
+        long available = 0;
+        long unavailable = 0;
+        
+        for (Object[] row : rows) {
+            String rowGenre = (String) row[0];
+            Integer year = (Integer) row[1];
+            boolean isAvailable = Boolean.TRUE.equals(row[2]);
+            long count = ((Number) row[3]).longValue();
+            
+            if (rowGenre != null && !rowGenre.trim().isEmpty()) {
+                genres.merge(rowGenre, count, Long::sum);
+            }
+            if (year != null) {
+                decades.merge(Math.floorDiv(year, 10) * 10, count, Long::sum);
+            }
+            if (isAvailable) {
+                available += count;
+            } else {
+                unavailable += count;
+            }
+        }
+        
+        BookSearchFacets facets = new BookSearchFacets();
+        facets.setGenres(genres.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new)));
+        facets.setDecades(new LinkedHashMap<>(decades));
+        facets.setAvailable(available);
+        facets.setUnavailable(unavailable);
+        facets.setTotalMatches(available + unavailable);
+        return facets;
+    }
+    
+    /**
+     * Cache key for {@link #getSearchFacets}: trimmed, lower-cased criteria so equivalent filters share an entry.
+     */
+    public static String facetCacheKey(String title, String genre, String authorName,
+                                       Integer publicationYear, boolean availableOnly) {
+        return String.join("|",
+            String.valueOf(normalizeSearchFilter(title)),
+            String.valueOf(normalizeSearchFilter(genre)),
+            String.valueOf(normalizeSearchFilter(authorName)),
+            String.valueOf(publicationYear),
+            String.valueOf(availableOnly));
+    }
+    
+    /**
+     * A search filter as the search and facet queries both take it: trimmed and lower-cased, blank as none
+     */
+    public static String normalizeSearchFilter(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Scroll through books matching the advanced-search criteria using keyset pagination.
+     * Unlike offset paging, later slices cost the same as the first and no COUNT query runs
+     * unless {@code includeTotal} is set.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Book> scrollBooks(String title, String genre, String authorName, Integer publicationYear,
+                                        boolean availableOnly, String sortBy, String sortDir,
+                                        String cursor, int size, boolean includeTotal) {
+        String sortKey = resolveBookScrollKey(sortBy);
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = "id".equals(sortKey)
+            ? Sort.by(direction, "id")
+            : Sort.by(direction, sortKey).and(Sort.by(direction, "id"));
+
+        Specification<Book> spec = BookSpecifications.matching(title, genre, authorName, publicationYear, availableOnly);
+        // Decoded before querying, so a bad cursor surfaces as-is rather than translated into a data access error
+        ScrollPosition position = CursorCodec.decode(cursor, sortKey, direction);
+        Window<Book> window = bookRepository.findBy(spec, query -> query
+            .sortBy(sort)
+            .limit(size)
+            .scroll(position));
+
+        Long total = includeTotal ? bookRepository.count(spec) : null;
+        return CursorCodec.toCursorPage(window, sortKey, direction, total);
+    }
+    
     /**
      * Upload book image
      */
@@ -289,6 +410,21 @@ public class AdvancedBookService {
         }
     }
     
+    private String resolveBookScrollKey(String sortBy) {
+        if (sortBy == null) {
+            return "id";
+        }
+        switch (sortBy.toLowerCase()) {
+            case "createdat":
+            case "created_at":
+                return "createdAt";
+            case "id":
+                return "id";
+            default:
+                throw new IllegalArgumentException("Cursor pagination supports sorting by id or createdAt only");
+        }
+    }
+    
     private Book createBookFromRequest(BookCreateRequest request) {
         Book book = new Book();
         book.setTitle(request.getTitle());
@@ -18,6 +18,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -28,6 +29,9 @@ public class AuthorService {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthorService.class);
     
+    /** Upper bound on IDs accepted by a single batch lookup */
+    public static final int MAX_BATCH_IDS = 100;
+    
     private final AuthorRepository authorRepository;
     private final BookRepository bookRepository;
     
@@ -106,6 +110,20 @@ public class AuthorService {
             .orElseThrow(() -> new AuthorNotFoundException("Author not found with ID: " + authorId));
     }
     
+    /**
+     * Get several authors by ID in one query; unknown IDs are left out of the result
+     */
+    @Transactional(readOnly = true)
+    public List<Author> getAuthorsByIds(Collection<Long> authorIds) {
+        if (authorIds.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " ids can be requested at once");
+        }
+        if (authorIds.isEmpty()) {
+            return List.of();
+        }
+        return authorRepository.findAllById(authorIds);
+    }
+    
     /**
      * Get all authors with pagination
      */
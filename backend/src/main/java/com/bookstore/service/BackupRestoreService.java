@@ -41,17 +41,41 @@ public class BackupRestoreService {
     @Value("${spring.datasource.password}")
     private String databasePassword;
 
+    /**
+     * pg_dump forks the PostgreSQL client tools; copy streams a binary snapshot in-process
+     */
+    @Value("${backup.database.engine:pg_dump}")
+    private String databaseBackupEngine;
+
+    @Value("${data.export.parallel.enabled:false}")
+    private boolean parallelDataBackup;
+
+    @Value("${data.export.delta.enabled:false}")
+    private boolean deltaDataBackup;
+
+    /**
+     * Archives per export chain (one full export plus deltas) before a new full export is taken.
+     */
+    @Value("${data.export.delta.max-chain-length:7}")
+    private int maxExportChainLength;
+
     @Autowired
     private DataExportImportService dataExportImportService;
 
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private CopySnapshotEngine copySnapshotEngine;
+
     /**
-     * Create a full database backup using pg_dump
+     * Create a full database backup using pg_dump, or a COPY snapshot when that engine is configured
      */
     @Async
     public CompletableFuture<String> createDatabaseBackup() {
+        if ("copy".equalsIgnoreCase(databaseBackupEngine)) {
+            return createSnapshotBackup();
+        }
         try {
             logger.info("Starting database backup");
             
@@ -102,6 +126,27 @@ public class BackupRestoreService {
         }
     }
 
+    /**
+     * Create a binary database snapshot using COPY, without the PostgreSQL client tools
+     */
+    @Async
+    public CompletableFuture<String> createSnapshotBackup() {
+        try {
+            logger.info("Starting database snapshot backup");
+
+            String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+            String backupFileName = String.format("database_snapshot_%s.zip", timestamp);
+            Path backupPath = createBackupDirectory().resolve(backupFileName);
+
+            copySnapshotEngine.createSnapshot(backupPath);
+            logger.info("Database snapshot backup completed successfully: {}", backupPath.toString());
+            return CompletableFuture.completedFuture(backupPath.toString());
+        } catch (Exception e) {
+            logger.error("Error creating database snapshot backup", e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Create an application-level data backup
      */
@@ -109,7 +154,15 @@ public class BackupRestoreService {
     public CompletableFuture<String> createDataBackup() {
         try {
             logger.info("Starting application data backup");
-            String backupPath = dataExportImportService.exportAllData();
+            String backupPath;
+            int chainLength = dataExportImportService.getExportChainLength();
+            if (deltaDataBackup && chainLength > 0 && chainLength < maxExportChainLength) {
+                backupPath = dataExportImportService.exportDelta();
+            } else {
+                backupPath = parallelDataBackup
+                    ? dataExportImportService.exportAllDataParallel()
+                    : dataExportImportService.exportAllData();
+            }
             logger.info("Application data backup completed: {}", backupPath);
             return CompletableFuture.completedFuture(backupPath);
         } catch (Exception e) {
@@ -159,7 +212,7 @@ public class BackupRestoreService {
     }
 
     /**
-     * Restore database from SQL backup file
+     * Restore database from SQL backup file or COPY snapshot archive
      */
     @Async
     public CompletableFuture<Boolean> restoreDatabase(String backupFilePath) {
@@ -171,6 +224,12 @@ public class BackupRestoreService {
                 throw new IllegalArgumentException("Backup file not found: " + backupFilePath);
             }
 
+            if (isSnapshotArchive(backupPath.getFileName().toString())) {
+                copySnapshotEngine.restoreSnapshot(backupPath);
+                logger.info("Database snapshot restore completed successfully");
+                return CompletableFuture.completedFuture(true);
+            }
+
             // Extract database connection details
             String databaseName = extractDatabaseName(databaseUrl);
             String host = extractHost(databaseUrl);
@@ -358,9 +417,15 @@ public class BackupRestoreService {
         return error.toString();
     }
 
+    private boolean isSnapshotArchive(String fileName) {
+        return fileName.contains("database_snapshot") && fileName.endsWith(".zip");
+    }
+
     private String determineBackupType(String fileName) {
         if (fileName.contains("database_backup") && fileName.endsWith(".sql")) {
             return "DATABASE";
+        } else if (isSnapshotArchive(fileName)) {
+            return "DATABASE_SNAPSHOT";
         } else if (fileName.contains("bookstore_export") && fileName.endsWith(".zip")) {
             return "APPLICATION_DATA";
         } else {
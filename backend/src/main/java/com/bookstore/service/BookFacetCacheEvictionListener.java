@@ -0,0 +1,199 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Author;
+import com.bookstore.entity.Book;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clears the "bookFacets" cache after book and author writes that can change a facet count, whichever
+ * path made them: the service layer, Spring Data REST or the v2 controllers. Inserts and deletes are
+ * seen through the JPA callbacks. Updates are seen through Hibernate's update events, which carry the
+ * changed properties, so only writes to a filtered or counted field clear the cache: a loan borrow or
+ * return adjusting a book's available copies clears it only when the book runs out or comes back.
+ * Changes to which authors wrote which books clear it too.
+ *
+ * The cache is cleared once per transaction, after it commits, so a bulk write does not clear it
+ * per row and a reader cannot re-cache counts from before the commit.
+ */
+@Component
+public class BookFacetCacheEvictionListener implements PostUpdateEventListener, PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener, HibernatePropertiesCustomizer {
+
+    static final String CACHE_NAME = "bookFacets";
+
+    // Properties the facet query filters or groups on; availableCopies only counts as available or not
+    private static final Set<String> BOOK_FACET_PROPERTIES = Set.of("title", "genre", "publicationYear");
+    private static final Set<String> AUTHOR_FACET_PROPERTIES = Set.of("firstName", "lastName");
+    private static final String AVAILABLE_COPIES = "availableCopies";
+
+    private static final Object EVICTION_SCHEDULED = new Object();
+
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    public BookFacetCacheEvictionListener(ObjectProvider<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @PostPersist
+    @PostRemove
+    public void onWrite(Object entity) {
+        if (entity instanceof Book || entity instanceof Author) {
+            evictAfterCommit();
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (changesFacets(event.getEntity(), event.getPersister().getPropertyNames(),
+                event.getDirtyProperties(), event.getOldState(), event.getState())) {
+            evictAfterCommit();
+        }
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onAuthorshipChange(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onAuthorshipChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onAuthorshipChange(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * The authors of a book or the books of an author changed; other collections, such as a book's
+     * loans, do not affect the facets
+     */
+    private void onAuthorshipChange(AbstractCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        if (role != null && (role.endsWith(".authors") || role.endsWith(".books"))) {
+            onWrite(event.getAffectedOwnerOrNull());
+        }
+    }
+
+    /**
+     * Registers this listener for Hibernate's update events when the entity manager factory is built
+     */
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(new Integrator() {
+                    @Override
+                    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                                          SessionFactoryImplementor sessionFactory) {
+                        EventListenerRegistry registry =
+                                sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+                        BookFacetCacheEvictionListener listener = BookFacetCacheEvictionListener.this;
+                        registry.appendListeners(EventType.POST_UPDATE, listener);
+                        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+                        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+                        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+                    }
+
+                    @Override
+                    public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                             SessionFactoryServiceRegistry serviceRegistry) {
+                    }
+                }));
+    }
+
+    /**
+     * Whether an update changed something the facet counts depend on. Without the dirty properties
+     * or the old state the update is assumed to change them.
+     */
+    static boolean changesFacets(Object entity, String[] propertyNames, int[] dirtyProperties,
+                                 Object[] oldState, Object[] state) {
+        Set<String> facetProperties;
+        if (entity instanceof Book) {
+            facetProperties = BOOK_FACET_PROPERTIES;
+        } else if (entity instanceof Author) {
+            facetProperties = AUTHOR_FACET_PROPERTIES;
+        } else {
+            return false;
+        }
+        if (dirtyProperties == null) {
+            return true;
+        }
+        for (int index : dirtyProperties) {
+            String property = propertyNames[index];
+            if (facetProperties.contains(property)) {
+                return true;
+            }
+            if (entity instanceof Book && AVAILABLE_COPIES.equals(property)
+                    && (oldState == null || isAvailable(oldState[index]) != isAvailable(state[index]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAvailable(Object availableCopies) {
+        return availableCopies instanceof Integer copies && copies > 0;
+    }
+
+    private void evictAfterCommit() {
+        CacheManager manager = cacheManager.getIfAvailable();
+        Cache cache = manager != null ? manager.getCache(CACHE_NAME) : null;
+        if (cache == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.clear();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(EVICTION_SCHEDULED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(EVICTION_SCHEDULED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(EVICTION_SCHEDULED);
+                if (status == STATUS_COMMITTED) {
+                    cache.clear();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Author;
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Loan;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * JPA entity listener that keeps the {@link BookSuggestionService} index in sync with
+ * book, author and loan writes. Changes are applied after the surrounding transaction
+ * commits so rolled-back writes never show up as suggestions.
+ */
+@Component
+public class BookSuggestionEntityListener {
+
+    private final ObjectProvider<BookSuggestionService> suggestionService;
+
+    public BookSuggestionEntityListener(ObjectProvider<BookSuggestionService> suggestionService) {
+        this.suggestionService = suggestionService;
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        if (entity instanceof Loan loan) {
+            Long bookId = loan.getBook() != null ? loan.getBook().getId() : null;
+            afterCommit(service -> service.recordLoan(bookId));
+        } else {
+            onUpdate(entity);
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        if (entity instanceof Book book) {
+            Long id = book.getId();
+            String title = book.getTitle();
+            afterCommit(service -> service.indexBook(id, title));
+        } else if (entity instanceof Author author) {
+            Long id = author.getId();
+            String fullName = author.getFullName();
+            afterCommit(service -> service.indexAuthor(id, fullName));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Book book) {
+            Long id = book.getId();
+            afterCommit(service -> service.removeBook(id));
+        } else if (entity instanceof Author author) {
+            Long id = author.getId();
+            afterCommit(service -> service.removeAuthor(id));
+        }
+    }
+
+    private void afterCommit(Consumer<BookSuggestionService> action) {
+        BookSuggestionService service = suggestionService.getIfAvailable();
+        if (service == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.accept(service);
+                }
+            });
+        } else {
+            action.accept(service);
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.BookSuggestion;
+import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.LoanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory typeahead index over book titles and author full names.
+ *
+ * Every word position of a normalized name is stored as a key in a sorted skip list,
+ * so a prefix lookup is a range scan rather than a LIKE query. Entries are weighted
+ * by loan counts, kept current by {@link BookSuggestionEntityListener} and fully
+ * rebuilt on startup and on a fixed schedule to refresh popularity weights.
+ *
+ * A lookup scans at most search.suggest.max-scan keys of the prefix range. A prefix matching
+ * more than that keeps its ranked top entries once computed, updated in place as entries and
+ * weights change, so later keystrokes on it do not scan at all.
+ */
+@Service
+public class BookSuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSuggestionService.class);
+
+    public static final String TYPE_TITLE = "TITLE";
+    public static final String TYPE_AUTHOR = "AUTHOR";
+
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int MAX_INDEXED_WORDS = 8;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]+");
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final LoanRepository loanRepository;
+    private final Object rebuildLock = new Object();
+
+    @Value("${search.suggest.max-scan:2000}")
+    private int maxScan = 2000;
+
+    @Value("${search.suggest.max-limit:25}")
+    private int maxLimit = 25;
+
+    /** Index keys visited by prefix scans */
+    private final LongAdder scannedKeys = new LongAdder();
+
+    private volatile IndexState state = new IndexState(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+    /** Changes applied while a rebuild reads the database, replayed onto the rebuilt state; guarded by this */
+    private List<Consumer<IndexState>> changesDuringRebuild;
+
+    @Autowired
+    public BookSuggestionService(BookRepository bookRepository,
+                                 AuthorRepository authorRepository,
+                                 LoanRepository loanRepository) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.loanRepository = loanRepository;
+    }
+
+    /**
+     * Return up to {@code limit} suggestions whose title or author name contains a word
+     * starting with the given prefix, most borrowed first.
+     */
+    public List<BookSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        int effectiveLimit = Math.max(1, Math.min(limit, maxLimit));
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        IndexState current = state;
+        List<Entry> ranked = topFor(current, normalized);
+
+        List<BookSuggestion> suggestions = new ArrayList<>(Math.min(ranked.size(), effectiveLimit));
+        for (Entry entry : ranked.subList(0, Math.min(ranked.size(), effectiveLimit))) {
+            suggestions.add(new BookSuggestion(entry.type, entry.id, entry.text, current.weightOf(entry)));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Add or replace the suggestion entry for a book title.
+     */
+    public void indexBook(Long bookId, String title) {
+        apply(s -> put(s, TYPE_TITLE, bookId, title));
+    }
+
+    /**
+     * Remove the suggestion entry for a deleted book.
+     */
+    public void removeBook(Long bookId) {
+        apply(s -> {
+            remove(s, TYPE_TITLE, bookId);
+            s.bookLoanCounts.remove(bookId);
+        });
+    }
+
+    /**
+     * Add or replace the suggestion entry for an author's full name.
+     */
+    public void indexAuthor(Long authorId, String fullName) {
+        apply(s -> put(s, TYPE_AUTHOR, authorId, fullName));
+    }
+
+    /**
+     * Remove the suggestion entry for a deleted author.
+     */
+    public void removeAuthor(Long authorId) {
+        apply(s -> {
+            remove(s, TYPE_AUTHOR, authorId);
+            s.authorLoanCounts.remove(authorId);
+        });
+    }
+
+    /**
+     * Bump the popularity of a book after a new loan. Author weights catch up on the next rebuild.
+     */
+    public void recordLoan(Long bookId) {
+        if (bookId != null) {
+            apply(s -> {
+                s.bookLoanCounts.merge(bookId, 1L, Long::sum);
+                Entry entry = s.entries.get(TYPE_TITLE + ':' + bookId);
+                if (entry != null) {
+                    offer(s, entry);
+                }
+            });
+        }
+    }
+
+    /**
+     * Rebuild the whole index from the database and swap it in atomically. Changes made while
+     * the database is read are applied to the new index as well, so none are lost; a loan
+     * committed just before its count was read may be counted twice until the next rebuild.
+     */
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${search.suggest.rebuild-interval-ms:3600000}",
+               initialDelayString = "${search.suggest.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            synchronized (this) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            try {
+                IndexState newState = new IndexState(
+                    toCountMap(loanRepository.countLoansPerBook()),
+                    toCountMap(authorRepository.countLoansPerAuthor()));
+                for (Object[] row : bookRepository.findAllIdAndTitle()) {
+                    put(newState, TYPE_TITLE, (Long) row[0], (String) row[1]);
+                }
+                for (Object[] row : authorRepository.findAllIdAndName()) {
+                    put(newState, TYPE_AUTHOR, (Long) row[0], row[1] + " " + row[2]);
+                }
+
+                int replayed;
+                synchronized (this) {
+                    replayed = changesDuringRebuild.size();
+                    changesDuringRebuild.forEach(change -> change.accept(newState));
+                    this.state = newState;
+                }
+
+                logger.info("Rebuilt suggestion index with {} entries ({} keys, {} changes replayed) in {} ms",
+                           newState.entries.size(), newState.index.size(), replayed,
+                           System.currentTimeMillis() - start);
+            } finally {
+                synchronized (this) {
+                    changesDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Could not build suggestion index on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Number of distinct titles and authors currently indexed.
+     */
+    public int size() {
+        return state.entries.size();
+    }
+
+    /**
+     * Index keys visited by prefix scans since startup
+     */
+    long scannedKeys() {
+        return scannedKeys.sum();
+    }
+
+    /**
+     * Normalize text for indexing and lookup: strip accents, lower-case and collapse punctuation.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private synchronized void apply(Consumer<IndexState> change) {
+        change.accept(state);
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+    }
+
+    /**
+     * The ranked top max-limit entries for a prefix. A prefix with a kept list is answered from it.
+     * Otherwise its range is scanned up to max-scan keys; a range longer than that is ranked once
+     * in full and its list kept.
+     */
+    private List<Entry> topFor(IndexState current, String prefix) {
+        List<Entry> top = current.topByPrefix.get(prefix);
+        if (top != null) {
+            return top;
+        }
+        List<Entry> ranked = rank(current, prefix, maxScan);
+        if (ranked != null) {
+            return ranked;
+        }
+        synchronized (this) {
+            if (current != state) {
+                return rank(current, prefix, Integer.MAX_VALUE);
+            }
+            return current.topByPrefix.computeIfAbsent(prefix, p -> rank(current, p, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * The max-limit highest ranked entries with a word starting with the prefix, best first, or
+     * null if the range holds more than {@code scanLimit} keys
+     */
+    private List<Entry> rank(IndexState current, String prefix, int scanLimit) {
+        ConcurrentNavigableMap<String, Entry> range =
+            current.index.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+
+        Comparator<Entry> ranking = current.ranking();
+        PriorityQueue<Entry> top = new PriorityQueue<>(maxLimit + 1, ranking.reversed());
+        Set<String> seen = new HashSet<>();
+        int scanned = 0;
+        try {
+            for (Entry entry : range.values()) {
+                if (++scanned > scanLimit) {
+                    return null;
+                }
+                if (!seen.add(entry.key)) {
+                    continue;
+                }
+                top.offer(entry);
+                if (top.size() > maxLimit) {
+                    top.poll();
+                }
+            }
+        } finally {
+            scannedKeys.add(scanned);
+        }
+
+        List<Entry> ranked = new ArrayList<>(top);
+        ranked.sort(ranking);
+        return List.copyOf(ranked);
+    }
+
+    private void put(IndexState s, String type, Long id, String text) {
+        if (id == null) {
+            return;
+        }
+        String entryKey = type + ':' + id;
+        Entry previous = s.entries.remove(entryKey);
+        if (previous != null) {
+            unlink(s, previous);
+        }
+
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+
+        String[] words = normalized.split(" ");
+        List<String> suffixes = new ArrayList<>(Math.min(words.length, MAX_INDEXED_WORDS));
+        for (int i = 0; i < words.length && i < MAX_INDEXED_WORDS; i++) {
+            suffixes.add(String.join(" ", Arrays.asList(words).subList(i, words.length)));
+        }
+        Entry entry = new Entry(entryKey, type, id, text.trim(), suffixes);
+        for (String suffix : suffixes) {
+            s.index.put(suffix + KEY_SEPARATOR + entryKey, entry);
+        }
+        s.entries.put(entryKey, entry);
+        offer(s, entry);
+    }
+
+    private void remove(IndexState s, String type, Long id) {
+        Entry existing = s.entries.remove(type + ':' + id);
+        if (existing != null) {
+            unlink(s, existing);
+        }
+    }
+
+    /**
+     * Drop an entry's index keys. A cached top list holding it is dropped as well, since the
+     * entry that moves up into it is only known after a new scan.
+     */
+    private void unlink(IndexState s, Entry entry) {
+        for (String suffix : entry.suffixes) {
+            s.index.remove(suffix + KEY_SEPARATOR + entry.key);
+        }
+        for (String prefix : cachedPrefixes(s, entry)) {
+            s.topByPrefix.computeIfPresent(prefix, (p, top) -> top.contains(entry) ? null : top);
+        }
+    }
+
+    /**
+     * Place a new or heavier entry into the cached top lists of its prefixes
+     */
+    private void offer(IndexState s, Entry entry) {
+        Comparator<Entry> ranking = s.ranking();
+        for (String prefix : cachedPrefixes(s, entry)) {
+            s.topByPrefix.computeIfPresent(prefix, (p, top) -> {
+                List<Entry> updated = new ArrayList<>(top.size() + 1);
+                for (Entry other : top) {
+                    if (!other.key.equals(entry.key)) {
+                        updated.add(other);
+                    }
+                }
+                updated.add(entry);
+                updated.sort(ranking);
+                return List.copyOf(updated.subList(0, Math.min(updated.size(), maxLimit)));
+            });
+        }
+    }
+
+    /**
+     * Prefixes of the entry that have a kept top list
+     */
+    private Set<String> cachedPrefixes(IndexState s, Entry entry) {
+        Set<String> prefixes = new HashSet<>();
+        if (s.topByPrefix.isEmpty()) {
+            return prefixes;
+        }
+        for (String suffix : entry.suffixes) {
+            for (int length = 1; length <= suffix.length(); length++) {
+                String prefix = suffix.substring(0, length);
+                if (s.topByPrefix.containsKey(prefix)) {
+                    prefixes.add(prefix);
+                }
+            }
+        }
+        return prefixes;
+    }
+
+    private static Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new ConcurrentHashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                counts.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * One generation of the index, replaced as a whole by a rebuild
+     */
+    private static final class IndexState {
+        private final ConcurrentNavigableMap<String, Entry> index = new ConcurrentSkipListMap<>();
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        private final Map<String, List<Entry>> topByPrefix = new ConcurrentHashMap<>();
+        private final Map<Long, Long> bookLoanCounts;
+        private final Map<Long, Long> authorLoanCounts;
+
+        private IndexState(Map<Long, Long> bookLoanCounts, Map<Long, Long> authorLoanCounts) {
+            this.bookLoanCounts = bookLoanCounts;
+            this.authorLoanCounts = authorLoanCounts;
+        }
+
+        private long weightOf(Entry entry) {
+            Map<Long, Long> counts = TYPE_TITLE.equals(entry.type) ? bookLoanCounts : authorLoanCounts;
+            return counts.getOrDefault(entry.id, 0L);
+        }
+
+        /**
+         * Most borrowed first, then shorter names, then by key so equal entries keep a stable order
+         */
+        private Comparator<Entry> ranking() {
+            return Comparator.comparingLong(this::weightOf).reversed()
+                .thenComparingInt((Entry e) -> e.text.length())
+                .thenComparing(e -> e.key);
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final String type;
+        private final Long id;
+        private final String text;
+        private final List<String> suffixes;
+
+        private Entry(String key, String type, Long id, String text, List<String> suffixes) {
+            this.key = key;
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.suffixes = suffixes;
+        }
+    }
+}
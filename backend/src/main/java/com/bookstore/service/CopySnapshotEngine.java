@@ -0,0 +1,358 @@
+package com.bookstore.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * In-JVM database snapshot engine built on the PostgreSQL COPY protocol.
+ *
+ * A snapshot streams every table with {@code COPY ... TO STDOUT (FORMAT binary)} from one
+ * REPEATABLE READ transaction straight into a ZIP archive, one entry per table plus a manifest.
+ * Restore truncates the tables and loads them with {@code COPY ... FROM STDIN}, one foreign-key
+ * dependency level at a time with the tables of a level loaded in parallel, then resets the
+ * sequences behind serial and identity columns. Each table commits on its own, so a failed
+ * restore leaves the database partially loaded and should simply be re-run.
+ */
+@Component
+public class CopySnapshotEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(CopySnapshotEngine.class);
+    static final String MANIFEST_ENTRY = "snapshot.json";
+    static final int FORMAT_VERSION = 1;
+    private static final Set<String> EXCLUDED_TABLES = Set.of("flyway_schema_history");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${backup.database.copy.restore-workers:4}")
+    private int restoreWorkers;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Stream a consistent binary snapshot of all application tables into the given archive
+     */
+    public SnapshotManifest createSnapshot(Path archivePath) throws IOException, SQLException {
+        long started = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection()) {
+            requirePostgres(connection);
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setReadOnly(true);
+            try {
+                Map<String, Set<String>> references = readReferences(connection);
+                List<List<String>> levels = dependencyLevels(references);
+                Map<String, List<String>> columns = readColumns(connection, references.keySet());
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+                List<TableSnapshot> tables = new ArrayList<>();
+                try (ZipOutputStream zipOut = new ZipOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(archivePath)))) {
+                    for (int level = 0; level < levels.size(); level++) {
+                        for (String table : levels.get(level)) {
+                            long tableStarted = System.currentTimeMillis();
+                            zipOut.putNextEntry(new ZipEntry(entryName(table)));
+                            long rows = copyManager.copyOut(
+                                copySql(table, columns.get(table), "TO STDOUT"), zipOut);
+                            zipOut.closeEntry();
+                            tables.add(new TableSnapshot(table, level, columns.get(table), rows));
+                            logger.info("Snapshot of {}: {} rows in {} ms",
+                                table, rows, System.currentTimeMillis() - tableStarted);
+                        }
+                    }
+
+                    SnapshotManifest manifest =
+                        new SnapshotManifest(FORMAT_VERSION, LocalDateTime.now().toString(), tables);
+                    zipOut.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+                    zipOut.write(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(manifest));
+                    zipOut.closeEntry();
+
+                    logger.info("Database snapshot of {} tables completed in {} ms: {}",
+                        tables.size(), System.currentTimeMillis() - started, archivePath);
+                    return manifest;
+                } catch (IOException | SQLException | RuntimeException e) {
+                    Files.deleteIfExists(archivePath);
+                    throw e;
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    /**
+     * Replace the contents of all tables in the snapshot with the archived rows
+     */
+    public SnapshotManifest restoreSnapshot(Path archivePath) throws IOException, SQLException {
+        long started = System.currentTimeMillis();
+        try (ZipFile zip = new ZipFile(archivePath.toFile())) {
+            ZipEntry manifestEntry = zip.getEntry(MANIFEST_ENTRY);
+            if (manifestEntry == null) {
+                throw new IllegalArgumentException("Not a database snapshot archive: " + archivePath);
+            }
+            SnapshotManifest manifest;
+            try (InputStream in = zip.getInputStream(manifestEntry)) {
+                manifest = objectMapper.readValue(in, SnapshotManifest.class);
+            }
+            if (manifest.version() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot format version: " + manifest.version());
+            }
+
+            truncateTables(manifest.tables());
+
+            Map<Integer, List<TableSnapshot>> levels = manifest.tables().stream()
+                .collect(Collectors.groupingBy(TableSnapshot::level, TreeMap::new, Collectors.toList()));
+            for (List<TableSnapshot> level : levels.values()) {
+                restoreLevel(zip, level);
+            }
+
+            resetSequences(manifest.tables());
+            logger.info("Database snapshot restore of {} tables completed in {} ms",
+                manifest.tables().size(), System.currentTimeMillis() - started);
+            return manifest;
+        }
+    }
+
+    /**
+     * Group tables into levels so that every table only references tables of earlier levels.
+     * Self references are ignored; COPY loads a whole table before its constraints are checked.
+     *
+     * @param references referenced tables per table
+     * @throws IllegalStateException if the foreign keys form a cycle
+     */
+    static List<List<String>> dependencyLevels(Map<String, Set<String>> references) {
+        List<List<String>> levels = new ArrayList<>();
+        Set<String> placed = new TreeSet<>();
+        Set<String> remaining = new TreeSet<>(references.keySet());
+
+        while (!remaining.isEmpty()) {
+            List<String> level = new ArrayList<>();
+            for (String table : remaining) {
+                boolean ready = references.get(table).stream()
+                    .allMatch(target -> target.equals(table) || placed.contains(target)
+                        || !references.containsKey(target));
+                if (ready) {
+                    level.add(table);
+                }
+            }
+            if (level.isEmpty()) {
+                throw new IllegalStateException("Cyclic foreign keys between tables: " + remaining);
+            }
+            placed.addAll(level);
+            level.forEach(remaining::remove);
+            levels.add(level);
+        }
+        return levels;
+    }
+
+    private void requirePostgres(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        if (!"PostgreSQL".equalsIgnoreCase(product) || !connection.isWrapperFor(PGConnection.class)) {
+            throw new IllegalStateException("COPY snapshots require PostgreSQL, connected to " + product);
+        }
+    }
+
+    private Map<String, Set<String>> readReferences(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String schema = connection.getSchema();
+        Map<String, Set<String>> references = new LinkedHashMap<>();
+
+        try (ResultSet tables = metaData.getTables(null, schema, "%", new String[]{"TABLE"})) {
+            while (tables.next()) {
+                String table = tables.getString("TABLE_NAME");
+                if (!EXCLUDED_TABLES.contains(table)) {
+                    references.put(table, new TreeSet<>());
+                }
+            }
+        }
+        for (Map.Entry<String, Set<String>> table : references.entrySet()) {
+            try (ResultSet keys = metaData.getImportedKeys(null, schema, table.getKey())) {
+                while (keys.next()) {
+                    table.getValue().add(keys.getString("PKTABLE_NAME"));
+                }
+            }
+        }
+        return references;
+    }
+
+    private Map<String, List<String>> readColumns(Connection connection, Set<String> tables) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String schema = connection.getSchema();
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+
+        for (String table : tables) {
+            Map<Integer, String> ordered = new TreeMap<>();
+            try (ResultSet rs = metaData.getColumns(null, schema, table, "%")) {
+                while (rs.next()) {
+                    ordered.put(rs.getInt("ORDINAL_POSITION"), rs.getString("COLUMN_NAME"));
+                }
+            }
+            columns.put(table, new ArrayList<>(ordered.values()));
+        }
+        return columns;
+    }
+
+    private void truncateTables(List<TableSnapshot> tables) throws SQLException {
+        String tableList = tables.stream()
+            .map(table -> quote(table.table()))
+            .collect(Collectors.joining(", "));
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            requirePostgres(connection);
+            statement.execute("TRUNCATE TABLE " + tableList + " RESTART IDENTITY CASCADE");
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+    }
+
+    private void restoreLevel(ZipFile zip, List<TableSnapshot> level) throws IOException, SQLException {
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, Math.min(restoreWorkers, level.size())));
+        try {
+            List<Future<Long>> loads = new ArrayList<>();
+            for (TableSnapshot table : level) {
+                loads.add(workers.submit(() -> restoreTable(zip, table)));
+            }
+            for (Future<Long> load : loads) {
+                try {
+                    load.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while restoring snapshot", e);
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException io) {
+                        throw io;
+                    }
+                    if (cause instanceof SQLException sql) {
+                        throw sql;
+                    }
+                    throw new IllegalStateException("Snapshot restore failed", cause);
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private long restoreTable(ZipFile zip, TableSnapshot table) throws IOException, SQLException {
+        ZipEntry entry = zip.getEntry(entryName(table.table()));
+        if (entry == null) {
+            throw new IllegalArgumentException("Snapshot archive has no data for table " + table.table());
+        }
+        long tableStarted = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection();
+             InputStream in = zip.getInputStream(entry)) {
+            connection.setAutoCommit(false);
+            try {
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                long rows = copyManager.copyIn(copySql(table.table(), table.columns(), "FROM STDIN"), in);
+                connection.commit();
+                if (rows != table.rows()) {
+                    logger.warn("Restored {} rows into {}, snapshot recorded {}", rows, table.table(), table.rows());
+                }
+                logger.info("Restored {}: {} rows in {} ms",
+                    table.table(), rows, System.currentTimeMillis() - tableStarted);
+                return rows;
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Move every serial/identity sequence past the highest restored value
+     */
+    private void resetSequences(List<TableSnapshot> tables) throws SQLException {
+        Set<String> restored = tables.stream().map(TableSnapshot::table).collect(Collectors.toSet());
+        try (Connection connection = dataSource.getConnection()) {
+            List<String[]> sequenceColumns = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT table_name, column_name FROM information_schema.columns " +
+                    "WHERE table_schema = current_schema() " +
+                    "AND (column_default LIKE 'nextval(%' OR is_identity = 'YES')");
+                 ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    if (restored.contains(rs.getString(1))) {
+                        sequenceColumns.add(new String[]{rs.getString(1), rs.getString(2)});
+                    }
+                }
+            }
+
+            for (String[] sequenceColumn : sequenceColumns) {
+                String table = quote(sequenceColumn[0]);
+                String column = quote(sequenceColumn[1]);
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT setval(pg_get_serial_sequence(?, ?), COALESCE(MAX(" + column + "), 0) + 1, false) " +
+                        "FROM " + table)) {
+                    statement.setString(1, table);
+                    statement.setString(2, sequenceColumn[1]);
+                    statement.execute();
+                }
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            logger.info("Reset {} sequences after snapshot restore", sequenceColumns.size());
+        }
+    }
+
+    private static String copySql(String table, List<String> columns, String direction) {
+        String columnList = columns.stream().map(CopySnapshotEngine::quote).collect(Collectors.joining(", "));
+        return "COPY " + quote(table) + " (" + columnList + ") " + direction + " (FORMAT binary)";
+    }
+
+    private static String entryName(String table) {
+        return table + ".bin";
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Contents of a snapshot archive, in restore order
+     */
+    public record SnapshotManifest(int version, String createdAt, List<TableSnapshot> tables) {}
+
+    /**
+     * One table of a snapshot: its dependency level, column order and row count
+     */
+    public record TableSnapshot(String table, int level, List<String> columns, long rows) {}
+}
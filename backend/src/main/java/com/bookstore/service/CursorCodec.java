@@ -0,0 +1,129 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.CursorPage;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes Spring Data keyset scroll positions as opaque, URL-safe continuation tokens.
+ *
+ * A token records the sort key and direction it was issued for, so replaying it against a
+ * differently sorted listing is rejected instead of silently skipping rows.
+ */
+public final class CursorCodec {
+
+    private static final String VERSION = "v1";
+    private static final String FIELD_SEPARATOR = "|";
+    private static final String KEY_SEPARATOR = ";";
+
+    private CursorCodec() {}
+
+    /**
+     * Build a {@link CursorPage} from a scrolled window, encoding the position after its last element.
+     */
+    public static <T> CursorPage<T> toCursorPage(Window<T> window, String sortBy, Sort.Direction direction, Long total) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = encode(window.positionAt(window.size() - 1), sortBy, direction);
+        }
+        return new CursorPage<>(window.getContent(), window.hasNext(), nextCursor, total);
+    }
+
+    /**
+     * Encode a keyset position issued for the given sort into an opaque token.
+     */
+    public static String encode(ScrollPosition position, String sortBy, Sort.Direction direction) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded as cursors");
+        }
+        StringBuilder payload = new StringBuilder()
+            .append(VERSION).append(FIELD_SEPARATOR)
+            .append(sortBy).append(FIELD_SEPARATOR)
+            .append(direction.name()).append(FIELD_SEPARATOR);
+
+        boolean first = true;
+        for (Map.Entry<String, ?> key : keyset.getKeys().entrySet()) {
+            if (!first) {
+                payload.append(KEY_SEPARATOR);
+            }
+            payload.append(key.getKey()).append('=').append(encodeValue(key.getValue()));
+            first = false;
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token into a forward keyset position. A missing token starts from the beginning.
+     *
+     * @throws IllegalArgumentException if the token is malformed or was issued for another sort
+     */
+    public static ScrollPosition decode(String cursor, String sortBy, Sort.Direction direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] fields = payload.split("\\" + FIELD_SEPARATOR, 4);
+            if (fields.length != 4 || !VERSION.equals(fields[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (!fields[1].equals(sortBy) || !fields[2].equals(direction.name())) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String pair : fields[3].split(KEY_SEPARATOR)) {
+                int eq = pair.indexOf('=');
+                keys.put(pair.substring(0, eq), decodeValue(pair.substring(eq + 1)));
+            }
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static String encodeValue(Object value) {
+        if (value instanceof Long) {
+            return "L:" + value;
+        }
+        if (value instanceof Integer) {
+            return "I:" + value;
+        }
+        if (value instanceof LocalDateTime) {
+            return "T:" + value;
+        }
+        if (value instanceof LocalDate) {
+            return "D:" + value;
+        }
+        throw new IllegalArgumentException("Unsupported cursor key type: " +
+            (value != null ? value.getClass().getSimpleName() : "null"));
+    }
+
+    private static Object decodeValue(String encoded) {
+        String value = encoded.substring(2);
+        switch (encoded.charAt(0)) {
+            case 'L':
+                return Long.valueOf(value);
+            case 'I':
+                return Integer.valueOf(value);
+            case 'T':
+                return LocalDateTime.parse(value);
+            case 'D':
+                return LocalDate.parse(value);
+            default:
+                throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
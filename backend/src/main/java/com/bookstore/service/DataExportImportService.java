@@ -1,25 +1,83 @@
 package com.bookstore.service;
 
+import com.bookstore.dto.ExportChainManifest;
 import com.bookstore.entity.*;
 import com.bookstore.repository.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
@@ -33,6 +91,10 @@ public class DataExportImportService {
     private static final Logger logger = LoggerFactory.getLogger(DataExportImportService.class);
     private static final String EXPORT_DIR = "exports";
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final String CHAIN_MANIFEST = "export_chain.json";
+    private static final String TOMBSTONES_ENTRY = "tombstones.json";
+    private static final String METADATA_ENTRY = "metadata.json";
+    private static final LocalDateTime DELTA_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
 
     @Autowired
     private AuthorRepository authorRepository;
@@ -55,11 +117,59 @@ public class DataExportImportService {
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private DeletedRecordRepository deletedRecordRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Rows written between persistence context clears while streaming an export.
+     */
+    @Value("${data.export.clear-interval:500}")
+    private int clearInterval;
+
+    /**
+     * Rows persisted per import transaction.
+     */
+    @Value("${data.import.batch-size:500}")
+    private int importBatchSize;
+
+    /**
+     * Overlap subtracted from each watermark when scanning for changed rows.
+     */
+    @Value("${data.export.delta.overlap-seconds:60}")
+    private long deltaOverlapSeconds;
+
+    @Value("${data.export.parallel.workers:4}")
+    private int parallelWorkers;
+
+    @Value("${data.export.parallel.snapshot:SHARED}")
+    private SnapshotMode snapshotMode = SnapshotMode.SHARED;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
     private final ObjectMapper objectMapper;
 
     public DataExportImportService() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper = archiveObjectMapper();
+    }
+
+    /**
+     * Mapper for archive rows. The rules that let the import read back what the export wrote are
+     * mix-ins on this mapper only, so the entities' REST representation is left as it is.
+     */
+    static ObjectMapper archiveObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.setAnnotationIntrospector(new PlainReferenceIntrospector());
+        mapper.addMixIn(Author.class, AuthorArchiveMixin.class);
+        mapper.addMixIn(User.class, UserArchiveMixin.class);
+        return mapper;
     }
 
     /**
@@ -73,21 +183,189 @@ public class DataExportImportService {
         String exportFileName = String.format("bookstore_export_%s.zip", timestamp);
         Path exportPath = createExportDirectory().resolve(exportFileName);
 
+        ExportChainManifest.Archive archive =
+            new ExportChainManifest.Archive(exportFileName, ExportChainManifest.TYPE_FULL, timestamp);
+        archive.setTombstoneWatermark(deletedRecordRepository.findMaxId());
+
         try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(exportPath))) {
-            exportAuthors(zipOut);
-            exportBooks(zipOut);
-            exportUsers(zipOut);
-            exportLoans(zipOut);
-            exportRecommendations(zipOut);
-            exportLoanTracking(zipOut);
-            exportAuditLogs(zipOut);
-            exportMetadata(zipOut, timestamp);
+            for (ExportTable table : exportTables()) {
+                logger.debug("Exporting {}", table.fileName());
+                try (Stream<?> rows = table.rows().get()) {
+                    recordTable(archive, table, exportTable(zipOut, table, rows));
+                }
+            }
+            exportMetadata(zipOut, archive, null, null);
         }
+        startExportChain(archive);
 
         logger.info("Data export completed: {}", exportPath.toString());
         return exportPath.toString();
     }
 
+    /**
+     * Export only the rows changed since the latest archive of the export chain, plus
+     * tombstones for rows deleted since then, and append the archive to the chain.
+     *
+     * Each table is scanned from its previous high-watermark minus
+     * {@code data.export.delta.overlap-seconds}, so rows whose change timestamp was taken
+     * before a late commit are exported again rather than missed.
+     *
+     * @throws IllegalStateException if no full export has started a chain yet
+     */
+    @Transactional(readOnly = true)
+    public String exportDelta() throws IOException {
+        ExportChainManifest chain = readExportChain()
+            .orElseThrow(() -> new IllegalStateException("No full export to base a delta export on"));
+        ExportChainManifest.Archive previous = chain.getLatest();
+        logger.info("Starting delta data export after {}", previous.getArchive());
+
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        String exportFileName = String.format("bookstore_delta_%s.zip", timestamp);
+        Path exportPath = createExportDirectory().resolve(exportFileName);
+
+        ExportChainManifest.Archive archive =
+            new ExportChainManifest.Archive(exportFileName, ExportChainManifest.TYPE_DELTA, timestamp);
+        archive.getWatermarks().putAll(previous.getWatermarks());
+        long lastTombstone = previous.getTombstoneWatermark() != null ? previous.getTombstoneWatermark() : 0L;
+
+        try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(exportPath))) {
+            for (ExportTable table : exportTables()) {
+                LocalDateTime since = previous.getWatermarks().getOrDefault(table.key(), DELTA_EPOCH)
+                    .minusSeconds(deltaOverlapSeconds);
+                logger.debug("Exporting {} changed since {}", table.fileName(), since);
+                try (Stream<?> rows = table.changedSince().apply(since)) {
+                    recordTable(archive, table, exportTable(zipOut, table, rows));
+                }
+            }
+
+            AtomicLong tombstoneWatermark = new AtomicLong(lastTombstone);
+            try (Stream<DeletedRecord> tombstones = deletedRecordRepository.streamRecordedAfter(lastTombstone)) {
+                TableExport written = writeZipEntry(zipOut, TOMBSTONES_ENTRY,
+                    tombstones.peek(tombstone -> tombstoneWatermark.accumulateAndGet(tombstone.getId(), Math::max)));
+                archive.getRowCounts().put("tombstoneCount", written.rowCount());
+                archive.getEntries().put(TOMBSTONES_ENTRY,
+                    new ExportChainManifest.ArchiveEntry(written.rowCount(), written.sha256()));
+            }
+            archive.setTombstoneWatermark(tombstoneWatermark.get());
+            exportMetadata(zipOut, archive, previous.getArchive(), null);
+        }
+        chain.getArchives().add(archive);
+        writeExportChain(chain);
+
+        logger.info("Delta data export completed: {}", exportPath.toString());
+        return exportPath.toString();
+    }
+
+    /**
+     * Number of archives in the current export chain; 0 when no full export has been made.
+     */
+    public int getExportChainLength() {
+        try {
+            return readExportChain().map(chain -> chain.getArchives().size()).orElse(0);
+        } catch (IOException e) {
+            logger.warn("Could not read export chain manifest", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Restore the given export chain, or the current one when no manifest is given
+     */
+    public void restoreExportChain(String manifestPath) throws IOException {
+        restoreExportChain(manifestPath, this::logProgress);
+    }
+
+    /**
+     * Restore an export chain: import the full archive, then replay every delta in order,
+     * applying its tombstones after its changed rows.
+     *
+     * @param manifestPath chain manifest to replay, or null for the current chain
+     */
+    public void restoreExportChain(String manifestPath, ImportProgressListener progressListener) throws IOException {
+        Path manifest = manifestPath != null ? Paths.get(manifestPath) : Paths.get(EXPORT_DIR, CHAIN_MANIFEST);
+        if (!Files.exists(manifest)) {
+            throw new FileNotFoundException("Export chain manifest not found: " + manifest);
+        }
+        ExportChainManifest chain = objectMapper.readValue(manifest.toFile(), ExportChainManifest.class);
+        if (chain.getArchives().isEmpty()
+                || !ExportChainManifest.TYPE_FULL.equals(chain.getArchives().get(0).getType())) {
+            throw new IllegalArgumentException("Export chain must start with a full export");
+        }
+
+        logger.info("Restoring export chain of {} archives from {}", chain.getArchives().size(), manifest);
+        for (ExportChainManifest.Archive archive : chain.getArchives()) {
+            importAllData(manifest.resolveSibling(archive.getArchive()).toString(), progressListener);
+        }
+        logger.info("Export chain restore completed");
+    }
+
+    /**
+     * Export all data to a compressed ZIP file, streaming each table on its own worker.
+     *
+     * Every worker reads in its own read-only transaction and deflates its table into a temporary
+     * part file, so compression runs on all workers at once. The assembling thread only copies the
+     * compressed parts into the archive, in {@link #exportTables()} order, which the import replays
+     * to restore referenced rows first. With {@link SnapshotMode#SHARED} on
+     * PostgreSQL, all workers import one exported snapshot and see the same database state.
+     */
+    public String exportAllDataParallel() throws IOException {
+        logger.info("Starting parallel data export with {} workers, snapshot mode {}", parallelWorkers, snapshotMode);
+
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        String exportFileName = String.format("bookstore_export_%s.zip", timestamp);
+        Path exportDir = createExportDirectory();
+        Path exportPath = exportDir.resolve(exportFileName);
+        List<ExportTable> tables = exportTables();
+        ExportChainManifest.Archive archive =
+            new ExportChainManifest.Archive(exportFileName, ExportChainManifest.TYPE_FULL, timestamp);
+        archive.setTombstoneWatermark(deletedRecordRepository.findMaxId());
+
+        try (SnapshotHolder snapshot = openSnapshot()) {
+            ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelWorkers, tables.size())));
+            List<Path> parts = new ArrayList<>();
+            try {
+                List<Future<ExportPart>> pending = new ArrayList<>();
+                for (ExportTable table : tables) {
+                    Path part = Files.createTempFile(exportDir, table.fileName() + "-", ".part");
+                    parts.add(part);
+                    pending.add(workers.submit(() -> exportTableToPart(table, part, snapshot.id())));
+                }
+
+                try (ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(exportPath.toFile())) {
+                    for (Future<ExportPart> future : pending) {
+                        ExportPart done = awaitPart(future);
+                        ZipArchiveEntry entry = new ZipArchiveEntry(done.table().fileName());
+                        entry.setMethod(ZipEntry.DEFLATED);
+                        entry.setCrc(done.crc());
+                        entry.setSize(done.size());
+                        entry.setCompressedSize(done.compressedSize());
+                        try (InputStream compressed = Files.newInputStream(done.path())) {
+                            zipOut.addRawArchiveEntry(entry, compressed);
+                        }
+                        Files.deleteIfExists(done.path());
+                        recordTable(archive, done.table(), done.result());
+                    }
+                    zipOut.putArchiveEntry(new ZipArchiveEntry(METADATA_ENTRY));
+                    zipOut.write(metadataJson(archive, null, snapshot.description()));
+                    zipOut.closeArchiveEntry();
+                }
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(exportPath);
+                throw e;
+            } finally {
+                workers.shutdownNow();
+                for (Path part : parts) {
+                    Files.deleteIfExists(part);
+                }
+            }
+        }
+
+        startExportChain(archive);
+
+        logger.info("Parallel data export completed: {}", exportPath.toString());
+        return exportPath.toString();
+    }
+
     /**
      * Export specific entity type to a JSON file
      */
@@ -99,8 +377,10 @@ public class DataExportImportService {
         String exportFileName = String.format("%s_export_%s.json", entityType.toLowerCase(), timestamp);
         Path exportPath = createExportDirectory().resolve(exportFileName);
 
-        Object data = getEntityData(entityType);
-        objectMapper.writeValue(exportPath.toFile(), data);
+        try (Stream<?> rows = streamEntityData(entityType);
+             OutputStream out = Files.newOutputStream(exportPath)) {
+            writeJsonArray(out, rows);
+        }
 
         logger.info("Entity export completed: {}", exportPath.toString());
         return exportPath.toString();
@@ -109,8 +389,26 @@ public class DataExportImportService {
     /**
      * Import data from a ZIP file
      */
-    @Transactional
     public void importAllData(String filePath) throws IOException {
+        importAllData(filePath, this::logProgress);
+    }
+
+    /**
+     * Import data from a ZIP file, streaming each entry and persisting it in bounded
+     * chunks of {@code data.import.batch-size} rows, each in its own transaction.
+     * A failure leaves the chunks committed so far in place.
+     */
+    public void importAllData(String filePath, ImportProgressListener progressListener) throws IOException {
+        importAllData(filePath, ImportCheckpoint.NONE, progressListener);
+    }
+
+    /**
+     * Import data from a ZIP file, resuming from the given checkpoint. Entries the checkpoint
+     * reports complete are skipped, the entry in progress resumes after its last committed
+     * element, and every chunk records its position in the transaction that commits it.
+     */
+    public void importAllData(String filePath, ImportCheckpoint checkpoint,
+                              ImportProgressListener progressListener) throws IOException {
         logger.info("Starting data import from: {}", filePath);
         
         Path importPath = Paths.get(filePath);
@@ -118,23 +416,76 @@ public class DataExportImportService {
             throw new FileNotFoundException("Import file not found: " + filePath);
         }
 
-        try (ZipInputStream zipIn = new ZipInputStream(Files.newInputStream(importPath))) {
-            ZipEntry entry;
-            while ((entry = zipIn.getNextEntry()) != null) {
-                if (!entry.isDirectory()) {
-                    importEntityFromZip(entry.getName(), zipIn);
+        try (ZipFile zip = new ZipFile(importPath.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory() || checkpoint.isEntryCompleted(entry.getName())) {
+                    continue;
                 }
-                zipIn.closeEntry();
+                try (InputStream in = zip.getInputStream(entry)) {
+                    importEntityFromZip(entry.getName(), in, checkpoint, progressListener);
+                }
+                checkpoint.entryCompleted(entry.getName());
             }
         }
 
         logger.info("Data import completed successfully");
     }
 
+    /**
+     * Check every entry of an archive against the SHA-256 recorded in its metadata.
+     * Archives written before checksums were recorded pass with an empty result.
+     *
+     * @return row count and checksum per entry, in archive order
+     * @throws IOException if the archive cannot be read or an entry does not match its checksum
+     */
+    public Map<String, ExportChainManifest.ArchiveEntry> verifyArchive(String filePath) throws IOException {
+        Path archivePath = Paths.get(filePath);
+        if (!Files.exists(archivePath)) {
+            throw new FileNotFoundException("Import file not found: " + filePath);
+        }
+
+        try (ZipFile zip = new ZipFile(archivePath.toFile())) {
+            ZipEntry metadataEntry = zip.getEntry(METADATA_ENTRY);
+            if (metadataEntry == null) {
+                throw new IOException("Archive has no " + METADATA_ENTRY + ": " + filePath);
+            }
+            JsonNode entriesNode;
+            try (InputStream in = zip.getInputStream(metadataEntry)) {
+                entriesNode = objectMapper.readTree(in).path("entries");
+            }
+            if (!entriesNode.isObject()) {
+                logger.warn("Archive {} records no entry checksums; skipping verification", filePath);
+                return new LinkedHashMap<>();
+            }
+            Map<String, ExportChainManifest.ArchiveEntry> entries = objectMapper.convertValue(entriesNode,
+                new TypeReference<LinkedHashMap<String, ExportChainManifest.ArchiveEntry>>() {});
+
+            for (Map.Entry<String, ExportChainManifest.ArchiveEntry> expected : entries.entrySet()) {
+                ZipEntry entry = zip.getEntry(expected.getKey());
+                if (entry == null) {
+                    throw new IOException("Archive is missing entry " + expected.getKey());
+                }
+                if (expected.getValue().getSha256() == null) {
+                    continue;
+                }
+                MessageDigest digest = newSha256();
+                try (InputStream in = new DigestInputStream(zip.getInputStream(entry), digest)) {
+                    in.transferTo(OutputStream.nullOutputStream());
+                }
+                if (!expected.getValue().getSha256().equalsIgnoreCase(HexFormat.of().formatHex(digest.digest()))) {
+                    throw new IOException("Checksum mismatch for archive entry " + expected.getKey());
+                }
+            }
+            logger.debug("Verified {} entries of {}", entries.size(), filePath);
+            return entries;
+        }
+    }
+
     /**
      * Import specific entity data from a JSON file
      */
-    @Transactional
     public void importEntityData(String entityType, String filePath) throws IOException {
         logger.info("Starting import for entity type: {} from: {}", entityType, filePath);
         
@@ -143,8 +494,10 @@ public class DataExportImportService {
             throw new FileNotFoundException("Import file not found: " + filePath);
         }
 
-        byte[] jsonData = Files.readAllBytes(importPath);
-        importEntityData(entityType, jsonData);
+        try (InputStream in = Files.newInputStream(importPath)) {
+            importEntityStream(entityType, in,
+                new EntryCursor(importPath.getFileName().toString(), ImportCheckpoint.NONE), this::logProgress);
+        }
 
         logger.info("Entity import completed for: {}", entityType);
     }
@@ -157,64 +510,127 @@ public class DataExportImportService {
         return exportDir;
     }
 
-    private void exportAuthors(ZipOutputStream zipOut) throws IOException {
-        logger.debug("Exporting authors");
-        List<Author> authors = authorRepository.findAll();
-        addZipEntry(zipOut, "authors.json", objectMapper.writeValueAsBytes(authors));
-    }
-
-    private void exportBooks(ZipOutputStream zipOut) throws IOException {
-        logger.debug("Exporting books");
-        List<Book> books = bookRepository.findAll();
-        addZipEntry(zipOut, "books.json", objectMapper.writeValueAsBytes(books));
+    /**
+     * Tables included in a full export, in archive order. Users are redacted on the way out.
+     */
+    private List<ExportTable> exportTables() {
+        return List.of(
+            new ExportTable("authors.json", "authorCount",
+                authorRepository::streamAllForExport, authorRepository::streamChangedSince,
+                row -> ((Author) row).getUpdatedAt()),
+            new ExportTable("books.json", "bookCount",
+                bookRepository::streamAllForExport, bookRepository::streamChangedSince,
+                row -> ((Book) row).getUpdatedAt()),
+            // Remove sensitive password information for export
+            new ExportTable("users.json", "userCount",
+                () -> userRepository.streamAllForExport().map(this::redactPassword),
+                since -> userRepository.streamChangedSince(since).map(this::redactPassword),
+                row -> ((User) row).getUpdatedAt()),
+            new ExportTable("loans.json", "loanCount",
+                loanRepository::streamAllForExport, loanRepository::streamChangedSince,
+                row -> ((Loan) row).getUpdatedAt()),
+            new ExportTable("recommendations.json", "recommendationCount",
+                recommendationRepository::streamAllForExport, recommendationRepository::streamChangedSince,
+                row -> ((Recommendation) row).getUpdatedAt()),
+            new ExportTable("loan_tracking.json", "loanTrackingCount",
+                loanTrackingRepository::streamAllForExport, loanTrackingRepository::streamChangedSince,
+                row -> ((LoanTracking) row).getEventTimestamp()),
+            new ExportTable("audit_logs.json", "auditLogCount",
+                auditLogRepository::streamAllForExport, auditLogRepository::streamChangedSince,
+                row -> ((AuditLog) row).getTimestamp())
+        );
     }
 
-    private void exportUsers(ZipOutputStream zipOut) throws IOException {
-        logger.debug("Exporting users");
-        List<User> users = userRepository.findAll();
-        // Remove sensitive password information for export
-        users.forEach(user -> user.setPassword("[REDACTED]"));
-        addZipEntry(zipOut, "users.json", objectMapper.writeValueAsBytes(users));
+    private TableExport exportTable(ZipOutputStream zipOut, ExportTable table, Stream<?> rows) throws IOException {
+        zipOut.putNextEntry(new ZipEntry(table.fileName()));
+        TableExport result = writeTable(zipOut, table, rows);
+        zipOut.closeEntry();
+        logger.debug("Exported {} rows to {}", result.rowCount(), table.fileName());
+        return result;
     }
 
-    private void exportLoans(ZipOutputStream zipOut) throws IOException {
-        logger.debug("Exporting loans");
-        List<Loan> loans = loanRepository.findAll();
-        addZipEntry(zipOut, "loans.json", objectMapper.writeValueAsBytes(loans));
+    /**
+     * Write a table's rows as a JSON array, tracking the latest change timestamp seen.
+     */
+    private TableExport writeTable(OutputStream out, ExportTable table, Stream<?> rows) throws IOException {
+        AtomicReference<LocalDateTime> watermark = new AtomicReference<>();
+        TableExport written = writeDigestedJsonArray(out, rows.peek(row -> {
+            LocalDateTime changedAt = table.watermarkOf().apply(row);
+            if (changedAt != null) {
+                watermark.accumulateAndGet(changedAt, DataExportImportService::latest);
+            }
+        }));
+        return new TableExport(written.rowCount(), watermark.get(), written.sha256());
     }
 
-    private void exportRecommendations(ZipOutputStream zipOut) throws IOException {
-        logger.debug("Exporting recommendations");
-        List<Recommendation> recommendations = recommendationRepository.findAll();
-        addZipEntry(zipOut, "recommendations.json", objectMapper.writeValueAsBytes(recommendations));
+    private static void recordTable(ExportChainManifest.Archive archive, ExportTable table, TableExport result) {
+        archive.getRowCounts().put(table.countKey(), result.rowCount());
+        archive.getEntries().put(table.fileName(),
+            new ExportChainManifest.ArchiveEntry(result.rowCount(), result.sha256()));
+        if (result.watermark() != null) {
+            archive.getWatermarks().merge(table.key(), result.watermark(), DataExportImportService::latest);
+        }
     }
 
-    private void exportLoanTracking(ZipOutputStream zipOut) throws IOException {
-        logger.debug("Exporting loan tracking");
-        List<LoanTracking> loanTracking = loanTrackingRepository.findAll();
-        addZipEntry(zipOut, "loan_tracking.json", objectMapper.writeValueAsBytes(loanTracking));
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.isAfter(a) ? b : a;
     }
 
-    private void exportAuditLogs(ZipOutputStream zipOut) throws IOException {
-        logger.debug("Exporting audit logs");
-        List<AuditLog> auditLogs = auditLogRepository.findAll();
-        addZipEntry(zipOut, "audit_logs.json", objectMapper.writeValueAsBytes(auditLogs));
+    /**
+     * Write the metadata entry. Row counts are the ones actually written, so they always
+     * match the archive contents.
+     */
+    private void exportMetadata(ZipOutputStream zipOut, ExportChainManifest.Archive archive, String basedOn,
+                                String snapshot) throws IOException {
+        addZipEntry(zipOut, METADATA_ENTRY, metadataJson(archive, basedOn, snapshot));
     }
 
-    private void exportMetadata(ZipOutputStream zipOut, String timestamp) throws IOException {
+    private byte[] metadataJson(ExportChainManifest.Archive archive, String basedOn, String snapshot) throws IOException {
         logger.debug("Exporting metadata");
         Map<String, Object> metadata = new HashMap<>();
-        metadata.put("exportTimestamp", timestamp);
+        metadata.put("exportTimestamp", archive.getExportTimestamp());
         metadata.put("exportVersion", "1.0");
-        metadata.put("authorCount", authorRepository.count());
-        metadata.put("bookCount", bookRepository.count());
-        metadata.put("userCount", userRepository.count());
-        metadata.put("loanCount", loanRepository.count());
-        metadata.put("recommendationCount", recommendationRepository.count());
-        metadata.put("loanTrackingCount", loanTrackingRepository.count());
-        metadata.put("auditLogCount", auditLogRepository.count());
+        metadata.put("exportType", archive.getType());
+        metadata.putAll(archive.getRowCounts());
+        metadata.put("watermarks", archive.getWatermarks());
+        metadata.put("tombstoneWatermark", archive.getTombstoneWatermark());
+        metadata.put("entries", archive.getEntries());
+        if (basedOn != null) {
+            metadata.put("basedOn", basedOn);
+        }
+        if (snapshot != null) {
+            metadata.put("snapshot", snapshot);
+        }
         
-        addZipEntry(zipOut, "metadata.json", objectMapper.writeValueAsBytes(metadata));
+        return objectMapper.writeValueAsBytes(metadata);
+    }
+
+    private Optional<ExportChainManifest> readExportChain() throws IOException {
+        Path manifest = Paths.get(EXPORT_DIR, CHAIN_MANIFEST);
+        if (!Files.exists(manifest)) {
+            return Optional.empty();
+        }
+        ExportChainManifest chain = objectMapper.readValue(manifest.toFile(), ExportChainManifest.class);
+        return chain.getArchives().isEmpty() ? Optional.empty() : Optional.of(chain);
+    }
+
+    /**
+     * A full export starts a new chain; deltas are only ever based on the latest full export.
+     */
+    private void startExportChain(ExportChainManifest.Archive fullExport) throws IOException {
+        ExportChainManifest chain = new ExportChainManifest();
+        chain.getArchives().add(fullExport);
+        writeExportChain(chain);
+    }
+
+    private void writeExportChain(ExportChainManifest chain) throws IOException {
+        Path manifest = createExportDirectory().resolve(CHAIN_MANIFEST);
+        Path temp = manifest.resolveSibling(CHAIN_MANIFEST + ".tmp");
+        objectMapper.writeValue(temp.toFile(), chain);
+        Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 
     private void addZipEntry(ZipOutputStream zipOut, String fileName, byte[] data) throws IOException {
@@ -224,81 +640,234 @@ public class DataExportImportService {
         zipOut.closeEntry();
     }
 
-    private Object getEntityData(String entityType) {
-        return switch (entityType.toLowerCase()) {
-            case "authors" -> authorRepository.findAll();
-            case "books" -> bookRepository.findAll();
-            case "users" -> {
-                List<User> users = userRepository.findAll();
-                users.forEach(user -> user.setPassword("[REDACTED]"));
-                yield users;
+    private TableExport writeZipEntry(ZipOutputStream zipOut, String fileName, Stream<?> rows) throws IOException {
+        zipOut.putNextEntry(new ZipEntry(fileName));
+        TableExport written = writeDigestedJsonArray(zipOut, rows);
+        zipOut.closeEntry();
+        logger.debug("Exported {} rows to {}", written.rowCount(), fileName);
+        return written;
+    }
+
+    /**
+     * Write rows as a JSON array while computing the SHA-256 of the written bytes,
+     * which the archive metadata records so imports can verify each entry up front.
+     */
+    private TableExport writeDigestedJsonArray(OutputStream out, Stream<?> rows) throws IOException {
+        MessageDigest digest = newSha256();
+        long count = writeJsonArray(new DigestOutputStream(out, digest), rows);
+        return new TableExport(count, null, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Write rows as a JSON array one element at a time, clearing the persistence context
+     * every {@code clearInterval} rows so memory stays flat regardless of table size.
+     * The target stream is left open.
+     */
+    private long writeJsonArray(OutputStream out, Stream<?> rows) throws IOException {
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            Iterator<?> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(generator, iterator.next());
+                count++;
+                if (clearInterval > 0 && count % clearInterval == 0) {
+                    entityManager.clear();
+                }
             }
-            case "loans" -> loanRepository.findAll();
-            case "recommendations" -> recommendationRepository.findAll();
-            case "loantracking" -> loanTrackingRepository.findAll();
-            case "auditlogs" -> auditLogRepository.findAll();
+            generator.writeEndArray();
+        }
+        return count;
+    }
+
+    private Stream<?> streamEntityData(String entityType) {
+        return switch (entityType.toLowerCase()) {
+            case "authors" -> authorRepository.streamAllForExport();
+            case "books" -> bookRepository.streamAllForExport();
+            case "users" -> userRepository.streamAllForExport().map(this::redactPassword);
+            case "loans" -> loanRepository.streamAllForExport();
+            case "recommendations" -> recommendationRepository.streamAllForExport();
+            case "loantracking" -> loanTrackingRepository.streamAllForExport();
+            case "auditlogs" -> auditLogRepository.streamAllForExport();
             default -> throw new IllegalArgumentException("Unknown entity type: " + entityType);
         };
     }
 
-    private void importEntityFromZip(String fileName, ZipInputStream zipIn) throws IOException {
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-        byte[] data = new byte[1024];
-        int bytesRead;
-        while ((bytesRead = zipIn.read(data)) != -1) {
-            buffer.write(data, 0, bytesRead);
+    /**
+     * Export one table into a part file of raw deflate data, ready to be copied into the archive as is
+     */
+    private ExportPart exportTableToPart(ExportTable table, Path part, String snapshotId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        if (snapshotMode != SnapshotMode.NONE) {
+            transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        }
+        CRC32 crc = new CRC32();
+        // nowrap: plain deflate data without zlib header or trailer, as a ZIP entry stores it
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try (DeflaterOutputStream deflated = new DeflaterOutputStream(Files.newOutputStream(part), deflater, 64 * 1024)) {
+            TableExport result = transaction.execute(status -> {
+                if (snapshotId != null) {
+                    // Must be the first statement of the transaction
+                    entityManager.createNativeQuery("SET TRANSACTION SNAPSHOT '" + snapshotId + "'").executeUpdate();
+                }
+                logger.debug("Exporting {} on {}", table.fileName(), Thread.currentThread().getName());
+                try (Stream<?> rows = table.rows().get()) {
+                    return writeTable(new CheckedOutputStream(deflated, crc), table, rows);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            deflated.finish();
+            return new ExportPart(table, part, result != null ? result : new TableExport(0L, null, null),
+                crc.getValue(), deflater.getBytesRead(), deflater.getBytesWritten());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
         }
-
-        String entityType = fileName.replace(".json", "").replace("_", "");
-        importEntityData(entityType, buffer.toByteArray());
     }
 
-    private void importEntityData(String entityType, byte[] jsonData) throws IOException {
-        switch (entityType.toLowerCase()) {
-            case "authors" -> {
-                List<Author> authors = objectMapper.readValue(jsonData, 
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, Author.class));
-                authorRepository.saveAll(authors);
-                logger.debug("Imported {} authors", authors.size());
-            }
-            case "books" -> {
-                List<Book> books = objectMapper.readValue(jsonData, 
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, Book.class));
-                bookRepository.saveAll(books);
-                logger.debug("Imported {} books", books.size());
-            }
-            case "users" -> {
-                List<User> users = objectMapper.readValue(jsonData, 
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, User.class));
-                // Skip users with redacted passwords
-                users.removeIf(user -> "[REDACTED]".equals(user.getPassword()));
-                userRepository.saveAll(users);
-                logger.debug("Imported {} users", users.size());
-            }
-            case "loans" -> {
-                List<Loan> loans = objectMapper.readValue(jsonData, 
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, Loan.class));
-                loanRepository.saveAll(loans);
-                logger.debug("Imported {} loans", loans.size());
-            }
-            case "recommendations" -> {
-                List<Recommendation> recommendations = objectMapper.readValue(jsonData, 
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, Recommendation.class));
-                recommendationRepository.saveAll(recommendations);
-                logger.debug("Imported {} recommendations", recommendations.size());
+    private ExportPart awaitPart(Future<ExportPart> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Parallel export interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
             }
-            case "loantracking" -> {
-                List<LoanTracking> loanTracking = objectMapper.readValue(jsonData, 
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, LoanTracking.class));
-                loanTrackingRepository.saveAll(loanTracking);
-                logger.debug("Imported {} loan tracking events", loanTracking.size());
+            throw new IOException("Parallel export worker failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Open the shared snapshot for a parallel export. Only {@link SnapshotMode#SHARED} on
+     * PostgreSQL exports one; elsewhere workers fall back to their own REPEATABLE READ view.
+     * The exporting transaction is kept open until the holder is closed.
+     */
+    private SnapshotHolder openSnapshot() throws IOException {
+        if (snapshotMode != SnapshotMode.SHARED) {
+            return new SnapshotHolder(null, null, snapshotMode.name());
+        }
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                connection.close();
+                logger.info("Shared snapshots need PostgreSQL; each export worker uses its own REPEATABLE READ snapshot");
+                return new SnapshotHolder(null, null, SnapshotMode.REPEATABLE_READ.name());
             }
-            case "auditlogs" -> {
-                List<AuditLog> auditLogs = objectMapper.readValue(jsonData, 
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, AuditLog.class));
-                auditLogRepository.saveAll(auditLogs);
-                logger.debug("Imported {} audit logs", auditLogs.size());
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT pg_export_snapshot()")) {
+                resultSet.next();
+                String snapshotId = resultSet.getString(1);
+                logger.debug("Exported snapshot {} for parallel export", snapshotId);
+                return new SnapshotHolder(connection, snapshotId, SnapshotMode.SHARED.name() + ":" + snapshotId);
             }
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new IOException("Could not open export snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.debug("Rollback of snapshot transaction failed", e);
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to close snapshot connection", e);
+        }
+    }
+
+    /**
+     * How parallel export workers see the database.
+     */
+    public enum SnapshotMode {
+        /** Plain read-committed reads; tables may reflect slightly different points in time. */
+        NONE,
+        /** Each worker reads one table from its own REPEATABLE READ snapshot. */
+        REPEATABLE_READ,
+        /** All workers share one exported snapshot (PostgreSQL only). */
+        SHARED
+    }
+
+    private record ExportTable(String fileName, String countKey, Supplier<Stream<?>> rows,
+                               Function<LocalDateTime, Stream<?>> changedSince,
+                               Function<Object, LocalDateTime> watermarkOf) {
+        /** Table key used in watermarks and tombstones, e.g. "loan_tracking" */
+        String key() {
+            return fileName.substring(0, fileName.length() - ".json".length());
+        }
+    }
+
+    private record TableExport(long rowCount, LocalDateTime watermark, String sha256) {}
+
+    private record ExportPart(ExportTable table, Path path, TableExport result, long crc, long size,
+                              long compressedSize) {}
+
+    private record SnapshotHolder(Connection connection, String id, String description) implements AutoCloseable {
+        @Override
+        public void close() {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Export streams load users read-only, so the redacted password is never flushed back.
+     */
+    private User redactPassword(User user) {
+        user.setPassword("[REDACTED]");
+        return user;
+    }
+
+    private void importEntityFromZip(String fileName, InputStream in, ImportCheckpoint checkpoint,
+                                     ImportProgressListener progressListener) throws IOException {
+        String entityType = fileName.replace(".json", "").replace("_", "");
+        importEntityStream(entityType, in, new EntryCursor(fileName, checkpoint), progressListener);
+    }
+
+    private void importEntityStream(String entityType, InputStream in, EntryCursor cursor,
+                                    ImportProgressListener progressListener) throws IOException {
+        switch (entityType.toLowerCase()) {
+            case "authors" -> importEntities(entityType, in, Author.class, author -> true,
+                chunk -> upsertChunk(chunk, authorRepository, Author::getId), cursor, progressListener);
+            case "books" -> importEntities(entityType, in, Book.class, book -> true,
+                chunk -> upsertChunk(chunk, bookRepository, Book::getId), cursor, progressListener);
+            // Skip users with redacted passwords
+            case "users" -> importEntities(entityType, in, User.class, user -> !"[REDACTED]".equals(user.getPassword()),
+                chunk -> upsertChunk(chunk, userRepository, User::getId), cursor, progressListener);
+            case "loans" -> importEntities(entityType, in, Loan.class, loan -> true,
+                chunk -> upsertChunk(chunk, loanRepository, Loan::getId), cursor, progressListener);
+            case "recommendations" -> importEntities(entityType, in, Recommendation.class, recommendation -> true,
+                chunk -> upsertChunk(chunk, recommendationRepository, Recommendation::getId), cursor, progressListener);
+            case "loantracking" -> importEntities(entityType, in, LoanTracking.class, tracking -> true,
+                chunk -> upsertChunk(chunk, loanTrackingRepository, LoanTracking::getId), cursor, progressListener);
+            case "auditlogs" -> importEntities(entityType, in, AuditLog.class, auditLog -> true,
+                chunk -> upsertChunk(chunk, auditLogRepository, AuditLog::getId), cursor, progressListener);
+            case "tombstones" -> importEntities(entityType, in, DeletedRecord.class, tombstone -> true,
+                this::applyTombstones, cursor, progressListener);
             case "metadata" -> {
                 // Metadata is informational only, no import needed
                 logger.debug("Skipping metadata import");
@@ -307,6 +876,164 @@ public class DataExportImportService {
         }
     }
 
+    /**
+     * Read a JSON array one element at a time and hand it to the chunk writer in chunks,
+     * so neither the document nor the persistence context grows with the size of the input.
+     * Elements up to the cursor's resume offset are skipped without being bound.
+     * The source stream is left open.
+     */
+    private <T> long importEntities(String entityType, InputStream in, Class<T> type, Predicate<T> accept,
+                                    Consumer<List<T>> chunkWriter, EntryCursor cursor,
+                                    ImportProgressListener progressListener) throws IOException {
+        int batchSize = Math.max(1, importBatchSize);
+        List<T> chunk = new ArrayList<>(batchSize);
+        long resumeAfter = cursor.checkpoint().resumeOffset(cursor.entryName());
+        long position = 0;
+        long imported = 0;
+        long skipped = 0;
+
+        if (resumeAfter > 0) {
+            logger.info("Resuming {} after element {}", cursor.entryName(), resumeAfter);
+        }
+        // Exports also carry derived getters (Author.fullName, Loan.daysOverdue) that have no field to restore
+        ObjectReader rowReader = objectMapper.readerFor(type)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array for " + entityType);
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                position++;
+                if (position <= resumeAfter) {
+                    parser.skipChildren();
+                    continue;
+                }
+                T entity = rowReader.readValue(parser);
+                if (!accept.test(entity)) {
+                    skipped++;
+                    continue;
+                }
+                chunk.add(entity);
+                if (chunk.size() >= batchSize) {
+                    imported += persistChunk(chunk, chunkWriter, cursor, position);
+                    progressListener.onProgress(entityType, imported);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += persistChunk(chunk, chunkWriter, cursor, position);
+            progressListener.onProgress(entityType, imported);
+        }
+
+        logger.info("Imported {} {} ({} skipped)", imported, entityType, skipped);
+        return imported;
+    }
+
+    /**
+     * Write one chunk in its own transaction, then flush and clear the persistence context.
+     * The checkpoint is recorded in the same transaction, so it never runs ahead of the rows.
+     *
+     * @param position array elements of the entry consumed once this chunk is committed
+     */
+    private <T> int persistChunk(List<T> chunk, Consumer<List<T>> chunkWriter, EntryCursor cursor, long position) {
+        int size = chunk.size();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            chunkWriter.accept(chunk);
+            entityManager.flush();
+            cursor.checkpoint().recordChunk(cursor.entryName(), position);
+            entityManager.clear();
+        });
+        chunk.clear();
+        return size;
+    }
+
+    /**
+     * Rows that already exist are loaded with a single query first, so merging them
+     * needs no per-row select.
+     */
+    private <T> void upsertChunk(List<T> chunk, JpaRepository<T, Long> repository, Function<T, Long> idOf) {
+        List<Long> ids = chunk.stream().map(idOf).filter(Objects::nonNull).toList();
+        if (!ids.isEmpty()) {
+            repository.findAllById(ids);
+        }
+        repository.saveAll(chunk);
+    }
+
+    /**
+     * Replay deletes in the order they happened. Rows that are already gone are ignored.
+     * The replayed deletes record no tombstones of their own, so restoring an archive again
+     * does not add copies of the ones it carries. They are flushed before the suppression ends.
+     */
+    private void applyTombstones(List<DeletedRecord> tombstones) {
+        DeletionTombstoneListener.withoutTombstones(() -> {
+            for (DeletedRecord tombstone : tombstones) {
+                JpaRepository<?, Long> repository = repositoryFor(tombstone.getEntityType());
+                if (repository == null) {
+                    logger.warn("Skipping tombstone for unknown entity type: {}", tombstone.getEntityType());
+                    continue;
+                }
+                repository.deleteById(tombstone.getEntityId());
+            }
+            entityManager.flush();
+        });
+    }
+
+    private JpaRepository<?, Long> repositoryFor(String tableKey) {
+        return switch (tableKey) {
+            case "authors" -> authorRepository;
+            case "books" -> bookRepository;
+            case "users" -> userRepository;
+            case "loans" -> loanRepository;
+            case "recommendations" -> recommendationRepository;
+            case "loan_tracking" -> loanTrackingRepository;
+            case "audit_logs" -> auditLogRepository;
+            default -> null;
+        };
+    }
+
+    private void logProgress(String entityType, long rowsImported) {
+        logger.debug("Imported {} {} so far", rowsImported, entityType);
+    }
+
+    /**
+     * Receives the running row count of an import after each committed chunk.
+     */
+    @FunctionalInterface
+    public interface ImportProgressListener {
+        void onProgress(String entityType, long rowsImported);
+    }
+
+    /**
+     * Position of a resumable import. Offsets count JSON array elements of an archive entry,
+     * including elements that were read but not imported.
+     */
+    public interface ImportCheckpoint {
+
+        /** Checkpoint of an import that starts from the beginning and records nothing. */
+        ImportCheckpoint NONE = new ImportCheckpoint() {};
+
+        default boolean isEntryCompleted(String entryName) {
+            return false;
+        }
+
+        default long resumeOffset(String entryName) {
+            return 0;
+        }
+
+        /**
+         * Called inside the transaction that commits a chunk.
+         *
+         * @param offset elements of the entry consumed including this chunk
+         */
+        default void recordChunk(String entryName, long offset) {}
+
+        /** Called once every element of the entry has been committed. */
+        default void entryCompleted(String entryName) {}
+    }
+
+    private record EntryCursor(String entryName, ImportCheckpoint checkpoint) {}
+
     /**
      * Get export statistics
      */
@@ -351,7 +1078,7 @@ public class DataExportImportService {
             ZipEntry entry;
             boolean hasMetadata = false;
             while ((entry = zipIn.getNextEntry()) != null) {
-                if ("metadata.json".equals(entry.getName())) {
+                if (METADATA_ENTRY.equals(entry.getName())) {
                     hasMetadata = true;
                 }
                 zipIn.closeEntry();
@@ -368,4 +1095,29 @@ public class DataExportImportService {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads Book.authors and Author.books as plain properties rather than a managed/back reference
+     * pair: Jackson cannot deserialize a collection back reference. Author.books stays out of the
+     * archive through {@link AuthorArchiveMixin}, as it does as a back reference.
+     */
+    private static final class PlainReferenceIntrospector extends JacksonAnnotationIntrospector {
+        @Override
+        public ReferenceProperty findReferenceType(AnnotatedMember member) {
+            return null;
+        }
+    }
+
+    private abstract static class AuthorArchiveMixin {
+        @JsonIgnore
+        private Set<Book> books;
+    }
+
+    /**
+     * Authorities are derived from the roles, which are archived themselves
+     */
+    private abstract static class UserArchiveMixin {
+        @JsonIgnore
+        public abstract Collection<? extends GrantedAuthority> getAuthorities();
+    }
+}
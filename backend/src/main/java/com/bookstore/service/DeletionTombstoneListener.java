@@ -0,0 +1,103 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.*;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA entity listener that records a {@link DeletedRecord} tombstone for every exported
+ * entity that is removed, so delta exports can replay deletes.
+ *
+ * The tombstone is inserted through JDBC on the connection of the surrounding transaction:
+ * it commits or rolls back with the delete, without touching the persistence context
+ * while Hibernate is flushing it.
+ *
+ * Deletes replayed from a restored archive record nothing: their tombstones are already in the
+ * archive, and recording them again would add a copy on every restore.
+ */
+@Component
+public class DeletionTombstoneListener {
+
+    private static final String INSERT_TOMBSTONE =
+        "INSERT INTO deleted_records (entity_type, entity_id, deleted_at) VALUES (?, ?, ?)";
+
+    private static final ThreadLocal<Boolean> SUPPRESSED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+
+    public DeletionTombstoneListener(ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Run the given deletes without recording tombstones for them
+     */
+    public static void withoutTombstones(Runnable deletes) {
+        boolean previous = SUPPRESSED.get();
+        SUPPRESSED.set(Boolean.TRUE);
+        try {
+            deletes.run();
+        } finally {
+            SUPPRESSED.set(previous);
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (SUPPRESSED.get()) {
+            return;
+        }
+        String entityType = exportKey(entity);
+        Long id = idOf(entity);
+        JdbcTemplate jdbc = jdbcTemplate.getIfAvailable();
+        if (entityType == null || id == null || jdbc == null) {
+            return;
+        }
+        jdbc.update(INSERT_TOMBSTONE, entityType, id, LocalDateTime.now());
+    }
+
+    /**
+     * Export table key for an entity, matching the entry names of data export archives.
+     */
+    static String exportKey(Object entity) {
+        if (entity instanceof Author) {
+            return "authors";
+        } else if (entity instanceof Book) {
+            return "books";
+        } else if (entity instanceof User) {
+            return "users";
+        } else if (entity instanceof Loan) {
+            return "loans";
+        } else if (entity instanceof Recommendation) {
+            return "recommendations";
+        } else if (entity instanceof LoanTracking) {
+            return "loan_tracking";
+        } else if (entity instanceof AuditLog) {
+            return "audit_logs";
+        }
+        return null;
+    }
+
+    private static Long idOf(Object entity) {
+        if (entity instanceof Author author) {
+            return author.getId();
+        } else if (entity instanceof Book book) {
+            return book.getId();
+        } else if (entity instanceof User user) {
+            return user.getId();
+        } else if (entity instanceof Loan loan) {
+            return loan.getId();
+        } else if (entity instanceof Recommendation recommendation) {
+            return recommendation.getId();
+        } else if (entity instanceof LoanTracking tracking) {
+            return tracking.getId();
+        } else if (entity instanceof AuditLog auditLog) {
+            return auditLog.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,229 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.ExportChainManifest;
+import com.bookstore.dto.ImportJobProgress;
+import com.bookstore.entity.ImportJob;
+import com.bookstore.entity.ImportJobStatus;
+import com.bookstore.repository.ImportJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs data imports as resumable jobs. The archive's entry checksums are verified before
+ * every attempt, each committed chunk advances the job's checkpoint in the same transaction,
+ * and a failed or interrupted job resumes from its last checkpoint instead of starting over.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private DataExportImportService dataExportImportService;
+
+    /**
+     * Jobs with an attempt running in this instance
+     */
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Verify the archive and register a pending import job for it
+     *
+     * @throws IOException if the archive cannot be read or fails its checksums
+     */
+    public ImportJob createJob(String filePath) throws IOException {
+        Map<String, ExportChainManifest.ArchiveEntry> entries = dataExportImportService.verifyArchive(filePath);
+        Long totalRows = entries.isEmpty() ? null
+            : entries.values().stream().mapToLong(ExportChainManifest.ArchiveEntry::getRows).sum();
+
+        ImportJob job = importJobRepository.save(new ImportJob(filePath, totalRows));
+        logger.info("Created import job {} for {} ({} rows)", job.getId(), filePath, totalRows);
+        return job;
+    }
+
+    /**
+     * Run or resume an import job from its last checkpoint
+     *
+     * @throws IllegalArgumentException if the job does not exist
+     * @throws IllegalStateException if the job is running or already completed
+     */
+    @Async
+    public CompletableFuture<ImportJob> runJob(Long jobId) {
+        ImportJob job = importJobRepository.findById(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Import job not found: " + jobId));
+        if (!job.getStatus().isResumable() || !runningJobs.add(jobId)) {
+            return CompletableFuture.failedFuture(
+                new IllegalStateException("Import job " + jobId + " is " + job.getStatus()));
+        }
+
+        try {
+            job.setStatus(ImportJobStatus.RUNNING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setRunStartedAt(LocalDateTime.now());
+            job.setRunStartRows(job.getRowsProcessed());
+            job.setErrorMessage(null);
+            job = importJobRepository.save(job);
+            logger.info("Starting import job {} attempt {} at {} {}", jobId, job.getAttempts(),
+                job.getCurrentEntry() != null ? job.getCurrentEntry() : "the first entry", job.getEntryOffset());
+
+            // The archive may have been replaced since the job was created or last attempted
+            dataExportImportService.verifyArchive(job.getFilePath());
+            dataExportImportService.importAllData(job.getFilePath(), new JobCheckpoint(job),
+                (entityType, rows) -> logger.debug("Import job {}: {} {} imported", jobId, rows, entityType));
+
+            ImportJob completed = reload(jobId);
+            completed.setStatus(ImportJobStatus.COMPLETED);
+            completed.setCompletedAt(LocalDateTime.now());
+            completed = importJobRepository.save(completed);
+            logger.info("Import job {} completed: {} rows", jobId, completed.getRowsProcessed());
+            return CompletableFuture.completedFuture(completed);
+        } catch (Exception e) {
+            logger.error("Import job {} failed", jobId, e);
+            ImportJob failed = reload(jobId);
+            failed.setStatus(ImportJobStatus.FAILED);
+            failed.setErrorMessage(truncate(e.getMessage()));
+            importJobRepository.save(failed);
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    /**
+     * Progress of an import job, including its import rate and estimated time to completion
+     */
+    public Optional<ImportJobProgress> getProgress(Long jobId) {
+        return importJobRepository.findById(jobId).map(job -> toProgress(job, LocalDateTime.now()));
+    }
+
+    /**
+     * Attempts that were running when the application stopped can only be resumed,
+     * so they are marked failed on startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        for (ImportJob job : importJobRepository.findByStatus(ImportJobStatus.RUNNING)) {
+            if (runningJobs.contains(job.getId())) {
+                continue;
+            }
+            job.setStatus(ImportJobStatus.FAILED);
+            job.setErrorMessage("Interrupted before completion; resume to continue from the last checkpoint");
+            importJobRepository.save(job);
+            logger.warn("Import job {} was interrupted at {} {}", job.getId(), job.getCurrentEntry(), job.getEntryOffset());
+        }
+    }
+
+    ImportJobProgress toProgress(ImportJob job, LocalDateTime now) {
+        ImportJobProgress progress = new ImportJobProgress();
+        progress.setId(job.getId());
+        progress.setStatus(job.getStatus());
+        progress.setFilePath(job.getFilePath());
+        progress.setRowsProcessed(job.getRowsProcessed());
+        progress.setTotalRows(job.getTotalRows());
+        progress.setCurrentEntry(job.getCurrentEntry());
+        progress.setEntryOffset(job.getEntryOffset());
+        progress.setCompletedEntries(new ArrayList<>(job.getCompletedEntrySet()));
+        progress.setAttempts(job.getAttempts());
+        progress.setErrorMessage(job.getErrorMessage());
+        progress.setCreatedAt(job.getCreatedAt());
+        progress.setUpdatedAt(job.getUpdatedAt());
+        progress.setCompletedAt(job.getCompletedAt());
+
+        if (job.getTotalRows() != null && job.getTotalRows() > 0) {
+            progress.setPercentComplete(Math.min(100.0, job.getRowsProcessed() * 100.0 / job.getTotalRows()));
+        }
+
+        if (job.getRunStartedAt() != null) {
+            LocalDateTime end = job.getStatus() == ImportJobStatus.RUNNING ? now
+                : job.getCompletedAt() != null ? job.getCompletedAt() : job.getUpdatedAt();
+            long millis = end != null ? Duration.between(job.getRunStartedAt(), end).toMillis() : 0;
+            if (millis > 0) {
+                double rate = (job.getRowsProcessed() - job.getRunStartRows()) * 1000.0 / millis;
+                progress.setRowsPerSecond(rate);
+                if (job.getStatus() == ImportJobStatus.RUNNING && job.getTotalRows() != null && rate > 0) {
+                    long remaining = Math.max(0, job.getTotalRows() - job.getRowsProcessed());
+                    progress.setEtaSeconds(Math.round(remaining / rate));
+                }
+            }
+        }
+        return progress;
+    }
+
+    private ImportJob reload(Long jobId) {
+        return importJobRepository.findById(jobId)
+            .orElseThrow(() -> new IllegalStateException("Import job disappeared: " + jobId));
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Checkpoint backed by the job row. Chunk positions are written with a bulk update that
+     * joins the chunk's transaction; completed entries are saved once the entry is done.
+     */
+    private final class JobCheckpoint implements DataExportImportService.ImportCheckpoint {
+
+        private final Long jobId;
+        private final Set<String> completedEntries;
+        private String currentEntry;
+        private long currentOffset;
+
+        JobCheckpoint(ImportJob job) {
+            this.jobId = job.getId();
+            this.completedEntries = job.getCompletedEntrySet();
+            this.currentEntry = job.getCurrentEntry();
+            this.currentOffset = job.getEntryOffset();
+        }
+
+        @Override
+        public boolean isEntryCompleted(String entryName) {
+            return completedEntries.contains(entryName);
+        }
+
+        @Override
+        public long resumeOffset(String entryName) {
+            return entryName.equals(currentEntry) ? currentOffset : 0;
+        }
+
+        @Override
+        public void recordChunk(String entryName, long offset) {
+            long processed = offset - resumeOffset(entryName);
+            importJobRepository.recordCheckpoint(jobId, entryName, offset, processed, LocalDateTime.now());
+            currentEntry = entryName;
+            currentOffset = offset;
+        }
+
+        @Override
+        public void entryCompleted(String entryName) {
+            ImportJob job = reload(jobId);
+            job.markEntryCompleted(entryName);
+            importJobRepository.save(job);
+            completedEntries.add(entryName);
+            currentEntry = null;
+            currentOffset = 0;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.bookstore.entity.Loan;
 import com.bookstore.entity.LoanStatus;
 import com.bookstore.repository.BookRepository;
 import com.bookstore.repository.LoanRepository;
+import com.bookstore.repository.LoanSpecifications;
+import com.bookstore.dto.CursorPage;
 import com.bookstore.exception.BookNotAvailableException;
 import com.bookstore.exception.BookNotFoundException;
 import com.bookstore.exception.LoanNotFoundException;
@@ -12,6 +14,10 @@ import com.bookstore.exception.InvalidLoanOperationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -226,6 +232,31 @@ public class LoanService {
         return loanRepository.searchLoans(borrowerEmail, borrowerName, status, startDate, endDate, pageable);
     }
     
+    /**
+     * Scroll through loans using keyset pagination on a stable sort key (id, createdAt or dueDate).
+     * No COUNT query runs unless {@code includeTotal} is set.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Loan> scrollLoans(LoanStatus status, String borrowerEmail, Long bookId, boolean overdueOnly,
+                                        String sortBy, String sortDir, String cursor, int size, boolean includeTotal) {
+        String sortKey = resolveLoanScrollKey(sortBy);
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = "id".equals(sortKey)
+            ? Sort.by(direction, "id")
+            : Sort.by(direction, sortKey).and(Sort.by(direction, "id"));
+
+        Specification<Loan> spec = LoanSpecifications.matching(status, borrowerEmail, bookId, overdueOnly);
+        // Decoded before querying, so a bad cursor surfaces as-is rather than translated into a data access error
+        ScrollPosition position = CursorCodec.decode(cursor, sortKey, direction);
+        Window<Loan> window = loanRepository.findBy(spec, query -> query
+            .sortBy(sort)
+            .limit(size)
+            .scroll(position));
+
+        Long total = includeTotal ? loanRepository.count(spec) : null;
+        return CursorCodec.toCursorPage(window, sortKey, direction, total);
+    }
+    
     /**
      * Get loans due today
      */
@@ -302,6 +333,24 @@ public class LoanService {
         return loanRepository.findMostActiveBorrowers(pageable);
     }
     
+    private String resolveLoanScrollKey(String sortBy) {
+        if (sortBy == null) {
+            return "id";
+        }
+        switch (sortBy.toLowerCase()) {
+            case "createdat":
+            case "created_at":
+                return "createdAt";
+            case "duedate":
+            case "due_date":
+                return "dueDate";
+            case "id":
+                return "id";
+            default:
+                throw new IllegalArgumentException("Cursor pagination supports sorting by id, createdAt or dueDate only");
+        }
+    }
+    
     /**
      * Inner class for loan statistics
      */
@@ -323,4 +372,4 @@ public class LoanService {
         public Long getReturnedLoans() { return returnedLoans; }
         public Long getTotalLoans() { return totalLoans; }
     }
-}
\ No newline at end of file
+}
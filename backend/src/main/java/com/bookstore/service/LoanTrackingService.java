@@ -169,10 +169,12 @@ public class LoanTrackingService {
     }
     
     /**
-     * Clean up old tracking records (older than specified days)
+     * Clean up old tracking records (older than specified days), leaving tombstones so delta
+     * exports replay the purge
      */
     public int cleanupOldTrackingRecords(int daysToKeep) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
+        loanTrackingRepository.insertTombstonesByEventTimestampBefore(cutoffDate);
         return loanTrackingRepository.deleteByEventTimestampBefore(cutoffDate);
     }
 }
\ No newline at end of file
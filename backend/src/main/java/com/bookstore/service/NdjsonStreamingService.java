@@ -0,0 +1,175 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Loan;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.LoanRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams large collections as newline-delimited JSON, one row per line, straight from a database cursor.
+ *
+ * Rows are written as they are read, so memory stays flat regardless of table size. The servlet output
+ * stream blocks while the client is not reading, which in turn stops the cursor from being advanced, so a
+ * slow consumer throttles the query instead of the server buffering the collection for it. An optional
+ * field projection writes only the named JSON properties of each row.
+ */
+@Service
+public class NdjsonStreamingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NdjsonStreamingService.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Rows written between flushes to the client.
+     */
+    @Value("${data.stream.flush-interval:100}")
+    private int flushInterval = 100;
+
+    /**
+     * Rows written between persistence context clears.
+     */
+    @Value("${data.stream.clear-interval:500}")
+    private int clearInterval = 500;
+
+    /**
+     * Stream every book in id order.
+     *
+     * @param fields comma-separated JSON properties to include, or null for whole rows
+     * @throws IllegalArgumentException if a requested field is not a property of a book
+     */
+    public StreamingResponseBody streamBooks(String fields) {
+        return stream(Book.class, bookRepository::streamAllForExport, fields);
+    }
+
+    /**
+     * Stream every loan in id order, with its book.
+     *
+     * @param fields comma-separated JSON properties to include, or null for whole rows
+     * @throws IllegalArgumentException if a requested field is not a property of a loan
+     */
+    public StreamingResponseBody streamLoans(String fields) {
+        return stream(Loan.class, loanRepository::streamAllForExport, fields);
+    }
+
+    private <T> StreamingResponseBody stream(Class<T> type, Supplier<Stream<T>> rows, String fields) {
+        // Resolved up front so an unknown field is a 400 rather than a broken stream
+        Map<String, AnnotatedMember> projection = resolveProjection(type, fields);
+        return out -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            Long written = transaction.execute(status -> {
+                try (Stream<T> stream = rows.get()) {
+                    return writeRows(out, stream, projection);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            logger.debug("Streamed {} {} rows as NDJSON", written, type.getSimpleName());
+        };
+    }
+
+    private long writeRows(OutputStream out, Stream<?> rows, Map<String, AnnotatedMember> projection) throws IOException {
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<?> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object row = iterator.next();
+                if (projection == null) {
+                    rowWriter.writeValue(generator, row);
+                } else {
+                    generator.writeStartObject();
+                    for (Map.Entry<String, AnnotatedMember> field : projection.entrySet()) {
+                        generator.writeFieldName(field.getKey());
+                        rowWriter.writeValue(generator, field.getValue().getValue(row));
+                    }
+                    generator.writeEndObject();
+                }
+                generator.writeRaw('\n');
+                count++;
+                if (flushInterval > 0 && count % flushInterval == 0) {
+                    generator.flush();
+                }
+                if (clearInterval > 0 && count % clearInterval == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Map requested field names to the accessors Jackson would use for them, honouring @JsonIgnore.
+     * Returns null when no projection was requested.
+     */
+    Map<String, AnnotatedMember> resolveProjection(Class<?> type, String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        BeanDescription description = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(type));
+        Map<String, AnnotatedMember> accessors = new LinkedHashMap<>();
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            if (property.couldSerialize() && property.getAccessor() != null) {
+                accessors.put(property.getName(), property.getAccessor());
+            }
+        }
+
+        Map<String, AnnotatedMember> projection = new LinkedHashMap<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            AnnotatedMember accessor = accessors.get(name);
+            if (accessor == null) {
+                throw new IllegalArgumentException("Unknown field '" + name + "' for " + type.getSimpleName());
+            }
+            accessor.fixAccess(true);
+            projection.put(name, accessor);
+        }
+        return projection.isEmpty() ? null : projection;
+    }
+}
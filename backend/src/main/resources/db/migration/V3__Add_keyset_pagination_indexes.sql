@@ -0,0 +1,8 @@
+-- Composite indexes backing keyset (cursor) pagination
+-- Each index matches a stable sort key followed by the id tie-breaker
+
+CREATE INDEX IF NOT EXISTS idx_books_created_at_id ON books(created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_loans_created_at_id ON loans(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_loans_due_date_id ON loans(due_date, id);
+CREATE INDEX IF NOT EXISTS idx_loans_status_due_date_id ON loans(status, due_date, id);
@@ -0,0 +1,18 @@
+-- Support for incremental (delta) data exports
+
+-- Tombstones for deleted rows, written by DeletionTombstoneListener
+CREATE TABLE IF NOT EXISTS deleted_records (
+    id BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_deleted_records_deleted_at ON deleted_records(deleted_at);
+
+-- Watermark columns scanned by delta exports
+CREATE INDEX IF NOT EXISTS idx_authors_updated_at ON authors(updated_at);
+CREATE INDEX IF NOT EXISTS idx_books_updated_at ON books(updated_at);
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users(updated_at);
+CREATE INDEX IF NOT EXISTS idx_loans_updated_at ON loans(updated_at);
+CREATE INDEX IF NOT EXISTS idx_recommendations_created_at ON recommendations(created_at);
@@ -0,0 +1,21 @@
+-- Resumable data import jobs with per-chunk checkpoints
+
+CREATE TABLE IF NOT EXISTS import_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    file_path VARCHAR(500) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_rows BIGINT,
+    rows_processed BIGINT NOT NULL DEFAULT 0,
+    current_entry VARCHAR(100),
+    entry_offset BIGINT NOT NULL DEFAULT 0,
+    completed_entries VARCHAR(2000),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    run_started_at TIMESTAMP,
+    run_start_rows BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(2000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_import_jobs_status ON import_jobs(status);
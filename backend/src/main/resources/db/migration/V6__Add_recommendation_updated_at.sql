@@ -0,0 +1,7 @@
+-- Recommendations are rescored in place, so delta exports need a modification time rather than created_at
+
+ALTER TABLE recommendations ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+UPDATE recommendations SET updated_at = created_at;
+
+DROP INDEX IF EXISTS idx_recommendations_created_at;
+CREATE INDEX IF NOT EXISTS idx_recommendations_updated_at ON recommendations(updated_at);
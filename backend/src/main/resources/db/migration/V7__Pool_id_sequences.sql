@@ -0,0 +1,11 @@
+-- Ids of the tables a data import writes are allocated by Hibernate's pooled optimizer in blocks
+-- of 50 (see the entities' @SequenceGenerator), which lets imported rows be inserted in JDBC
+-- batches. Each BIGSERIAL sequence must advance by the same amount.
+
+ALTER SEQUENCE authors_id_seq INCREMENT BY 50;
+ALTER SEQUENCE books_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE loans_id_seq INCREMENT BY 50;
+ALTER SEQUENCE loan_tracking_id_seq INCREMENT BY 50;
+ALTER SEQUENCE recommendations_id_seq INCREMENT BY 50;
+ALTER SEQUENCE audit_logs_id_seq INCREMENT BY 50;
@@ -0,0 +1,129 @@
+package com.bookstore.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchLoaderTest {
+
+    private final List<Set<Long>> requestedBatches = new CopyOnWriteArrayList<>();
+
+    private Mono<Map<Long, String>> fetchNames(Set<Long> ids) {
+        requestedBatches.add(Set.copyOf(ids));
+        Map<Long, String> names = new HashMap<>();
+        ids.stream().filter(id -> id < 100).forEach(id -> names.put(id, "name-" + id));
+        return Mono.just(names);
+    }
+
+    @Test
+    void load_ShouldCoalesceConcurrentKeysIntoOneDeduplicatedBatch() {
+        // Given
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", this::fetchNames, Duration.ofMillis(20), 50);
+
+        // When
+        Mono<List<String>> results = Flux.just(1L, 2L, 1L, 3L)
+                .flatMapSequential(loader::load)
+                .collectList();
+
+        // Then
+        StepVerifier.create(results)
+                .assertNext(names -> assertThat(names).containsExactly("name-1", "name-2", "name-1", "name-3"))
+                .verifyComplete();
+        assertThat(requestedBatches).containsExactly(Set.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void load_ShouldCompleteEmptyForKeysMissingFromBatchResult() {
+        // Given
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", this::fetchNames, Duration.ofMillis(20), 50);
+
+        // When
+        Mono<String> present = loader.load(1L);
+        Mono<String> missing = loader.load(404L);
+
+        // Then
+        StepVerifier.create(Mono.zip(present, missing.defaultIfEmpty("absent")))
+                .assertNext(pair -> {
+                    assertThat(pair.getT1()).isEqualTo("name-1");
+                    assertThat(pair.getT2()).isEqualTo("absent");
+                })
+                .verifyComplete();
+        assertThat(requestedBatches).hasSize(1);
+    }
+
+    @Test
+    void load_ShouldDispatchEarlyWhenBatchIsFull() {
+        // Given a window far longer than the test
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", this::fetchNames, Duration.ofMinutes(1), 2);
+
+        // When
+        Mono<List<String>> results = Flux.just(1L, 2L)
+                .flatMap(loader::load)
+                .collectList();
+
+        // Then
+        StepVerifier.create(results)
+                .assertNext(names -> assertThat(names).containsExactlyInAnyOrder("name-1", "name-2"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertThat(requestedBatches).containsExactly(Set.of(1L, 2L));
+    }
+
+    @Test
+    void load_ShouldSplitKeysAcrossBatchesOfMaxSize() {
+        // Given
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", this::fetchNames, Duration.ofMillis(20), 2);
+
+        // When
+        Mono<List<String>> results = Flux.just(1L, 2L, 3L)
+                .flatMap(loader::load)
+                .collectList();
+
+        // Then
+        StepVerifier.create(results)
+                .assertNext(names -> assertThat(names).hasSize(3))
+                .verifyComplete();
+        assertThat(requestedBatches).hasSize(2);
+        List<Long> requested = new ArrayList<>();
+        requestedBatches.forEach(requested::addAll);
+        assertThat(requested).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void load_ShouldPropagateFetcherErrorToEveryCallerInBatch() {
+        // Given
+        BatchLoader<Long, String> loader = new BatchLoader<>("test",
+                ids -> Mono.error(new IllegalStateException("boom")), Duration.ofMillis(20), 50);
+
+        // When
+        Mono<List<String>> results = Flux.just(1L, 2L)
+                .flatMap(id -> loader.load(id).onErrorResume(e -> Mono.just(id + ":" + e.getMessage())))
+                .collectList();
+
+        // Then
+        StepVerifier.create(results)
+                .assertNext(outcomes -> assertThat(outcomes).containsExactlyInAnyOrder("1:boom", "2:boom"))
+                .verifyComplete();
+    }
+
+    @Test
+    void load_ShouldCompleteEmptyWhenFetcherReturnsNothing() {
+        // Given
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", ids -> Mono.empty(), Duration.ofMillis(20), 50);
+
+        // When & Then
+        StepVerifier.create(loader.load(1L))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,149 @@
+package com.bookstore.client;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalRequestCacheFilterTest {
+
+    private static final String BOOKS_JSON = "{\"content\":[{\"id\":1,\"title\":\"Dune\"}]}";
+
+    private MockWebServer mockWebServer;
+    private ConditionalRequestCacheFilter cacheFilter;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        cacheFilter = new ConditionalRequestCacheFilter(2, 1024);
+        webClient = WebClient.builder()
+                .baseUrl(String.format("http://localhost:%s", mockWebServer.getPort()))
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .filter(cacheFilter)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    private String get(String path) {
+        return webClient.get().uri(path).retrieve().bodyToMono(String.class).block();
+    }
+
+    @Test
+    void filter_ShouldRevalidateWithEtagAndServeNotModifiedFromStore() throws InterruptedException {
+        // Given
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(BOOKS_JSON)
+                .addHeader(HttpHeaders.ETAG, "\"v1\"")
+                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304).addHeader(HttpHeaders.ETAG, "\"v1\""));
+
+        // When
+        String first = get("/api/books");
+
+        // Then
+        StepVerifier.create(webClient.get().uri("/api/books").retrieve().toEntity(String.class))
+                .assertNext(entity -> {
+                    assertThat(entity.getStatusCode().value()).isEqualTo(200);
+                    assertThat(entity.getBody()).isEqualTo(BOOKS_JSON);
+                    assertThat(entity.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+                })
+                .verifyComplete();
+        assertThat(first).isEqualTo(BOOKS_JSON);
+
+        RecordedRequest initial = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        RecordedRequest revalidation = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(initial.getHeader(HttpHeaders.IF_NONE_MATCH)).isNull();
+        assertThat(revalidation.getHeader(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"v1\"");
+        assertThat(cacheFilter.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void filter_ShouldRevalidateWithLastModified() throws InterruptedException {
+        // Given
+        String lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(BOOKS_JSON)
+                .addHeader(HttpHeaders.LAST_MODIFIED, lastModified));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+
+        // When
+        get("/api/authors");
+        String second = get("/api/authors");
+
+        // Then
+        assertThat(second).isEqualTo(BOOKS_JSON);
+        mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(mockWebServer.takeRequest(1, TimeUnit.SECONDS).getHeader(HttpHeaders.IF_MODIFIED_SINCE))
+                .isEqualTo(lastModified);
+    }
+
+    @Test
+    void filter_ShouldReplaceStoredEntryWhenResourceChanged() {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setBody("old").addHeader(HttpHeaders.ETAG, "\"v1\""));
+        mockWebServer.enqueue(new MockResponse().setBody("new").addHeader(HttpHeaders.ETAG, "\"v2\""));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+
+        // When
+        get("/api/books/1");
+        String changed = get("/api/books/1");
+        String revalidated = get("/api/books/1");
+
+        // Then
+        assertThat(changed).isEqualTo("new");
+        assertThat(revalidated).isEqualTo("new");
+        assertThat(cacheFilter.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void filter_ShouldNotStoreUncacheableOrOversizedResponses() throws InterruptedException {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setBody(BOOKS_JSON)
+                .addHeader(HttpHeaders.ETAG, "\"v1\"")
+                .addHeader(HttpHeaders.CACHE_CONTROL, "no-store"));
+        mockWebServer.enqueue(new MockResponse().setBody("x".repeat(2048)).addHeader(HttpHeaders.ETAG, "\"big\""));
+        mockWebServer.enqueue(new MockResponse().setBody(BOOKS_JSON));
+
+        // When
+        get("/api/books/private");
+        get("/api/books/large");
+        get("/api/books/plain");
+
+        // Then
+        assertThat(cacheFilter.size()).isZero();
+    }
+
+    @Test
+    void filter_ShouldEvictLeastRecentlyUsedEntryWhenFull() {
+        // Given
+        for (int i = 1; i <= 3; i++) {
+            mockWebServer.enqueue(new MockResponse().setBody("book " + i).addHeader(HttpHeaders.ETAG, "\"" + i + "\""));
+        }
+
+        // When
+        get("/api/books/1");
+        get("/api/books/2");
+        get("/api/books/3");
+
+        // Then
+        assertThat(cacheFilter.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,207 @@
+package com.bookstore.client;
+
+import com.bookstore.config.HedgingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgingPolicyTest {
+
+    private HedgingProperties properties;
+    private AtomicInteger attempts;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HedgingProperties();
+        properties.setDefaultDelay(Duration.ofMillis(50));
+        attempts = new AtomicInteger();
+    }
+
+    @Test
+    void hedge_ShouldNotHedgeWhenFirstAttemptAnswersInTime() {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy("test", properties);
+
+        // When & Then
+        StepVerifier.create(policy.hedge("/api/books/{id}", () -> {
+                    attempts.incrementAndGet();
+                    return Mono.just("fast");
+                }))
+                .expectNext("fast")
+                .verifyComplete();
+        assertThat(attempts).hasValue(1);
+        assertThat(policy.getHedgeCount()).isZero();
+        assertThat(policy.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void hedge_ShouldTakeHedgeWhenFirstAttemptIsSlow() {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy("test", properties);
+        AtomicBoolean slowCancelled = new AtomicBoolean();
+
+        // When & Then
+        StepVerifier.create(policy.hedge("/api/books/{id}", () -> attempts.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofSeconds(5)).thenReturn("slow").doOnCancel(() -> slowCancelled.set(true))
+                        : Mono.just("hedged")))
+                .expectNext("hedged")
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        assertThat(attempts).hasValue(2);
+        assertThat(slowCancelled).isTrue();
+        assertThat(policy.getHedgeCount()).isEqualTo(1);
+        assertThat(policy.getHedgeWinCount()).isEqualTo(1);
+        assertThat(policy.getHedgeRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    void hedge_ShouldSkipHedgeWhenBudgetIsSpent() {
+        // Given
+        properties.setMaxBudgetTokens(0);
+        HedgingPolicy policy = new HedgingPolicy("test", properties);
+
+        // When & Then
+        StepVerifier.create(policy.hedge("/api/books/{id}", () -> {
+                    attempts.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(200)).thenReturn("slow");
+                }))
+                .expectNext("slow")
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        assertThat(attempts).hasValue(1);
+        assertThat(policy.getHedgeCount()).isZero();
+        assertThat(policy.getBudgetExhaustedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void hedge_ShouldPropagateFailureWithoutHedging() {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy("test", properties);
+
+        // When & Then
+        StepVerifier.create(policy.hedge("/api/books/{id}", () -> {
+                    attempts.incrementAndGet();
+                    return Mono.<String>error(new IllegalStateException("down"));
+                }))
+                .expectErrorMessage("down")
+                .verify(Duration.ofSeconds(2));
+        assertThat(attempts).hasValue(1);
+        assertThat(policy.getHedgeCount()).isZero();
+    }
+
+    @Test
+    void hedge_ShouldWaitForOriginalWhenHedgeFails() {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy("test", properties);
+
+        // When & Then
+        StepVerifier.create(policy.hedge("/api/books/{id}", () -> attempts.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofMillis(300)).thenReturn("original")
+                        : Mono.<String>error(new IllegalStateException("hedge failed"))))
+                .expectNext("original")
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        assertThat(policy.getHedgeCount()).isEqualTo(1);
+        assertThat(policy.getHedgeWinCount()).isZero();
+    }
+
+    @Test
+    void registerMetrics_ShouldTimeEveryAttemptByOutcome() {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy("test", properties);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        policy.registerMetrics(registry, "TestClient");
+
+        // When - the hedge fails, then the original is outrun by the next call's hedge
+        StepVerifier.create(policy.hedge("/api/books/{id}", () -> attempts.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofMillis(300)).thenReturn("original")
+                        : Mono.<String>error(new IllegalStateException("hedge failed"))))
+                .expectNext("original")
+                .verifyComplete();
+        StepVerifier.create(policy.hedge("/api/books/{id}", () -> attempts.incrementAndGet() == 3
+                        ? Mono.delay(Duration.ofSeconds(5)).thenReturn("slow")
+                        : Mono.just("hedged")))
+                .expectNext("hedged")
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+        // Then
+        assertThat(attemptCount(registry, "won")).isEqualTo(2);
+        assertThat(attemptCount(registry, "failed")).isEqualTo(1);
+        assertThat(attemptCount(registry, "lost")).isEqualTo(1);
+        assertThat(attemptCount(registry, "cancelled")).isZero();
+        assertThat(registry.get("bookstore.external.hedge.issued").tag("client", "TestClient")
+                .functionCounter().count()).isEqualTo(2);
+    }
+
+    private long attemptCount(MeterRegistry registry, String outcome) {
+        return registry.get("bookstore.external.hedge.attempts")
+                .tag("client", "TestClient")
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+
+    @Test
+    void currentHedgeDelay_ShouldTrackConfiguredPercentileOnceEnoughSamples() {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy("test", properties);
+        for (int i = 1; i < properties.getMinSamples(); i++) {
+            policy.recordLatency("/api/books/{id}", Duration.ofMillis(i).toNanos());
+        }
+        assertThat(policy.currentHedgeDelay("/api/books/{id}")).isEqualTo(properties.getDefaultDelay());
+
+        // When
+        for (int i = properties.getMinSamples(); i <= 100; i++) {
+            policy.recordLatency("/api/books/{id}", Duration.ofMillis(i).toNanos());
+        }
+
+        // Then
+        assertThat(policy.currentHedgeDelay("/api/books/{id}")).isEqualTo(Duration.ofMillis(95));
+    }
+
+    @Test
+    void currentHedgeDelay_ShouldKeepAWindowPerOperation() {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy("test", properties);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        policy.registerMetrics(registry, "TestClient");
+
+        // When - a slow search and a fast lookup share the client
+        for (int i = 1; i <= 100; i++) {
+            policy.recordLatency("/api/books/search/findByTitle", Duration.ofMillis(400 + i).toNanos());
+            policy.recordLatency("/api/books/{id}", Duration.ofMillis(i).toNanos());
+        }
+
+        // Then
+        assertThat(policy.currentHedgeDelay("/api/books/{id}")).isEqualTo(Duration.ofMillis(95));
+        assertThat(policy.currentHedgeDelay("/api/books/search/findByTitle")).isEqualTo(Duration.ofMillis(495));
+        assertThat(policy.currentHedgeDelay("/api/books/batch")).isEqualTo(properties.getDefaultDelay());
+        assertThat(registry.get("bookstore.external.hedge.delay")
+                .tag("client", "TestClient")
+                .tag("operation", "/api/books/{id}")
+                .gauge().value()).isEqualTo(95.0);
+    }
+
+    @Test
+    void hedge_ShouldPassThroughWhenDisabled() {
+        // Given
+        properties.setEnabled(false);
+        HedgingPolicy policy = new HedgingPolicy("test", properties);
+
+        // When & Then
+        StepVerifier.create(policy.hedge("/api/books/{id}", () -> Mono.delay(Duration.ofMillis(150)).thenReturn("only")))
+                .expectNext("only")
+                .verifyComplete();
+        assertThat(policy.getRequestCount()).isZero();
+    }
+}
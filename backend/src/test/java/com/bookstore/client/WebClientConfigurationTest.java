@@ -1,6 +1,9 @@
 package com.bookstore.client;
 
+import com.bookstore.config.HedgingProperties;
 import com.bookstore.config.WebClientConfig;
+import com.bookstore.service.AdvancedBookService;
+import com.bookstore.service.AuthorService;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterEach;
@@ -8,9 +11,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
@@ -18,6 +23,7 @@ import java.time.Duration;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Test class for WebClient configuration and basic functionality
@@ -272,4 +278,67 @@ class WebClientConfigurationTest {
                 throwable.getMessage().contains("Book not found"))
         .verify();
     }
-}
\ No newline at end of file
+
+    @Test
+    void webClientConfig_ShouldKeepErrorBodyReadableAfterLoggingIt() {
+        // Given
+        WebClientConfig config = new WebClientConfig();
+        ReflectionTestUtils.setField(config, "bookServiceUrl",
+                String.format("http://localhost:%s", mockWebServer.getPort()));
+        ReflectionTestUtils.setField(config, "maxErrorBodyLogBytes", 16);
+        String errorBody = "{\"error\":\"Book not found\",\"code\":\"BOOK_NOT_FOUND\"}";
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(404)
+                .setBody(errorBody)
+                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+
+        // When & Then
+        StepVerifier.create(config.bookServiceWebClient().get()
+                        .uri("/api/books/999")
+                        .retrieve()
+                        .bodyToMono(Map.class))
+                .expectErrorSatisfies(error -> {
+                    assertThat(error).isInstanceOf(WebClientResponseException.NotFound.class);
+                    assertThat(((WebClientResponseException) error).getResponseBodyAsString()).isEqualTo(errorBody);
+                })
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void webClientConfig_ShouldCreateBoundedNamedConnectionPools() {
+        // Given
+        WebClientConfig config = new WebClientConfig();
+        ReflectionTestUtils.setField(config, "bookPoolMaxConnections", 7);
+
+        // When
+        ConnectionProvider bookPool = config.bookServiceConnectionProvider();
+        ConnectionProvider genericPool = config.genericConnectionProvider();
+
+        // Then
+        try {
+            assertThat(bookPool.name()).isEqualTo("book-service");
+            assertThat(bookPool.maxConnections()).isEqualTo(7);
+            assertThat(genericPool.name()).isEqualTo("generic");
+            assertThat(genericPool.maxConnections()).isEqualTo(20);
+        } finally {
+            bookPool.dispose();
+            genericPool.dispose();
+        }
+    }
+
+    @Test
+    void reactiveClients_ShouldRejectBatchSizeAboveServerLimit() {
+        // Given
+        HedgingProperties hedging = new HedgingProperties();
+
+        // When & Then
+        assertThatThrownBy(() -> new ReactiveBookService(webClient, 10, AdvancedBookService.MAX_BATCH_IDS + 1, hedging, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("webclient.batch.max-size");
+        assertThatThrownBy(() -> new ReactiveAuthorService(webClient, 10, AuthorService.MAX_BATCH_IDS + 1, hedging, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("webclient.batch.max-size");
+        assertThat(new ReactiveBookService(webClient, 10, AdvancedBookService.MAX_BATCH_IDS, hedging, null)).isNotNull();
+        assertThat(new ReactiveAuthorService(webClient, 10, AuthorService.MAX_BATCH_IDS, hedging, null)).isNotNull();
+    }
+}
@@ -0,0 +1,96 @@
+package com.bookstore.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EtagEligibilityInterceptorTest {
+
+    private static final String CACHING_DISABLED = "org.springframework.web.filter.ShallowEtagHeaderFilter.STREAMING";
+
+    private EtagEligibilityInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new EtagEligibilityInterceptor();
+        request = new MockHttpServletRequest("GET", "/api/books/1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void shouldKeepCachingForJsonReads() throws Exception {
+        // When
+        interceptor.preHandle(request, response, handler("books"));
+
+        // Then
+        assertThat(request.getAttribute(CACHING_DISABLED)).isNull();
+    }
+
+    @Test
+    void shouldDisableCachingForImageDownloads() throws Exception {
+        // When
+        interceptor.preHandle(request, response, handler("image"));
+
+        // Then
+        assertThat(request.getAttribute(CACHING_DISABLED)).isEqualTo(true);
+    }
+
+    @Test
+    void shouldDisableCachingForStreamingBodies() throws Exception {
+        // When
+        interceptor.preHandle(request, response, handler("stream"));
+
+        // Then
+        assertThat(request.getAttribute(CACHING_DISABLED)).isEqualTo(true);
+    }
+
+    @Test
+    void shouldDisableCachingForNonJsonMediaTypes() throws Exception {
+        // When
+        interceptor.preHandle(request, response, handler("csv"));
+
+        // Then
+        assertThat(request.getAttribute(CACHING_DISABLED)).isEqualTo(true);
+    }
+
+    private static HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new SampleController(), SampleController.class.getMethod(method));
+    }
+
+    static class SampleController {
+
+        @GetMapping("/api/books")
+        public ResponseEntity<List<String>> books() {
+            return ResponseEntity.ok(List.of());
+        }
+
+        @GetMapping("/api/books/{id}/image/{filename}")
+        public ResponseEntity<Resource> image() {
+            return ResponseEntity.ok(new ByteArrayResource(new byte[0]));
+        }
+
+        @GetMapping(value = "/api/books/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        public ResponseEntity<StreamingResponseBody> stream() {
+            return ResponseEntity.ok(outputStream -> { });
+        }
+
+        @GetMapping(value = "/api/books/export", produces = "text/csv")
+        public String csv() {
+            return "";
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.bookstore.dto.*;
 import com.bookstore.entity.Book;
 import com.bookstore.exception.BookNotFoundException;
 import com.bookstore.service.AdvancedBookService;
+import com.bookstore.service.NdjsonStreamingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +34,9 @@ class AdvancedBookControllerTest {
     @MockBean
     private AdvancedBookService advancedBookService;
     
+    @MockBean
+    private NdjsonStreamingService ndjsonStreamingService;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -0,0 +1,51 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.BookSearchFacets;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.service.AdvancedBookService;
+import com.bookstore.service.BookSuggestionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchControllerFacetsTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookSuggestionService bookSuggestionService;
+
+    @Mock
+    private AdvancedBookService advancedBookService;
+
+    @InjectMocks
+    private BookSearchController controller;
+
+    @Test
+    void advancedSearch_WithFacets_ShouldPassTheSameNormalizedFiltersToPageAndFacets() {
+        // Given
+        when(bookRepository.searchBooks(any(), any(), any(), any(), eq(false), any(Pageable.class)))
+            .thenReturn(Page.empty());
+        when(advancedBookService.getSearchFacets(any(), any(), any(), any(), eq(false)))
+            .thenReturn(new BookSearchFacets());
+
+        // When
+        controller.advancedSearch("  Clean Code ", " John ", "   ", null, false, 0, 20, "title", "asc", true);
+
+        // Then
+        verify(bookRepository).searchBooks(eq("clean code"), eq(null), eq("john"), eq(null), eq(false),
+            any(Pageable.class));
+        verify(advancedBookService).getSearchFacets("clean code", null, "john", null, false);
+    }
+}
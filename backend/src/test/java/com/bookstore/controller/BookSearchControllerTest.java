@@ -4,6 +4,7 @@ import com.bookstore.entity.Author;
 import com.bookstore.entity.Book;
 import com.bookstore.repository.AuthorRepository;
 import com.bookstore.repository.BookRepository;
+import com.bookstore.service.BookSuggestionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,6 +38,9 @@ class BookSearchControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private BookSuggestionService bookSuggestionService;
+
     private Book book1;
     private Book book2;
     private Book book3;
@@ -342,4 +346,25 @@ class BookSearchControllerTest {
                 .andExpect(jsonPath("$.content", hasSize(3)))
                 .andExpect(jsonPath("$.content[0].availableCopies", is(5)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSuggest_ShouldReturnTitlesAndAuthorsByPrefix() throws Exception {
+        bookSuggestionService.rebuild();
+
+        mockMvc.perform(get("/api/books/search/suggest")
+                .param("q", "myst")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].type", is("TITLE")))
+                .andExpect(jsonPath("$[0].text", is("Mystery of the Lost City")));
+
+        mockMvc.perform(get("/api/books/search/suggest")
+                .param("q", "smi")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].type", is("AUTHOR")))
+                .andExpect(jsonPath("$[0].text", is("Jane Smith")));
+    }
+}
@@ -5,6 +5,7 @@ import com.bookstore.entity.Book;
 import com.bookstore.entity.Loan;
 import com.bookstore.entity.LoanStatus;
 import com.bookstore.service.LoanService;
+import com.bookstore.service.NdjsonStreamingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -41,6 +42,9 @@ class LoanControllerTest {
     @MockBean
     private LoanService loanService;
     
+    @MockBean
+    private NdjsonStreamingService ndjsonStreamingService;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
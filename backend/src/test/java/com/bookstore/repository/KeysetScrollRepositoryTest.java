@@ -0,0 +1,171 @@
+package com.bookstore.repository;
+
+import com.bookstore.config.RestExceptionHandler;
+import com.bookstore.dto.CursorPage;
+import com.bookstore.entity.Author;
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Loan;
+import com.bookstore.entity.LoanStatus;
+import com.bookstore.service.AdvancedBookService;
+import com.bookstore.service.BookSuggestionEntityListener;
+import com.bookstore.service.BookSuggestionService;
+import com.bookstore.service.LoanService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyset scrolling over the {@link BookSpecifications} and {@link LoanSpecifications} filters,
+ * walked window by window on a sort key with ties.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@Import({AdvancedBookService.class, LoanService.class, BookSuggestionEntityListener.class, BookSuggestionService.class})
+class KeysetScrollRepositoryTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private AdvancedBookService advancedBookService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @BeforeEach
+    void setUp() {
+        Author author = authorRepository.save(new Author("Jane", "Smith"));
+        for (int i = 0; i < 23; i++) {
+            Book book = new Book("Title " + i, String.format("978-0-00000-%03d", i));
+            book.setGenre(i % 2 == 0 ? "Drama" : "Poetry");
+            book.setTotalCopies(3);
+            book.setAvailableCopies(i % 3 == 0 ? 0 : 2);
+            if (i % 5 != 0) {
+                book.addAuthor(author);
+            }
+            book = bookRepository.save(book);
+
+            Loan loan = new Loan(book, "Borrower " + i, "borrower" + i + "@example.com",
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 15).plusDays(i % 4));
+            loan.setStatus(i % 5 == 0 ? LoanStatus.RETURNED : LoanStatus.ACTIVE);
+            loanRepository.save(loan);
+        }
+        authorRepository.save(author);
+        entityManager.flush();
+
+        // Several rows share each creation time, so every window boundary can fall inside a tie
+        for (int group = 0; group < 6; group++) {
+            Timestamp createdAt = Timestamp.valueOf(BASE_TIME.plusMinutes(group));
+            jdbcTemplate.update("UPDATE books SET created_at = ? WHERE MOD(id, 6) = ?", createdAt, group);
+            jdbcTemplate.update("UPDATE loans SET created_at = ? WHERE MOD(id, 5) = ?", createdAt, group);
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void scrollBooks_ByCreatedAtWithTies_ShouldVisitEveryMatchOnce() {
+        List<Book> expected = bookRepository.findAll(BookSpecifications.matching(null, "drama", "smith", null, true));
+        expected.sort(Comparator.comparing(Book::getCreatedAt).thenComparing(Book::getId).reversed());
+        assertTrue(expected.size() > 5, "The matches should span several windows");
+
+        List<Long> scrolled = scrollAll(cursor -> advancedBookService.scrollBooks(
+            null, "drama", "smith", null, true, "createdAt", "desc", cursor, 2, false), Book::getId);
+
+        assertEquals(expected.stream().map(Book::getId).toList(), scrolled);
+    }
+
+    @Test
+    void scrollLoans_ByCreatedAtWithTies_ShouldVisitEveryMatchOnce() {
+        List<Loan> expected = loanRepository.findAll(LoanSpecifications.matching(LoanStatus.ACTIVE, null, null, false));
+        expected.sort(Comparator.comparing(Loan::getCreatedAt).thenComparing(Loan::getId));
+        assertTrue(expected.size() > 8, "The matches should span several windows");
+
+        List<Long> scrolled = scrollAll(cursor -> loanService.scrollLoans(
+            LoanStatus.ACTIVE, null, null, false, "createdAt", "asc", cursor, 4, false), Loan::getId);
+
+        assertEquals(expected.stream().map(Loan::getId).toList(), scrolled);
+    }
+
+    @Test
+    void scroll_WithUnsupportedSortKey_ShouldBeBadRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST, statusFor(() -> advancedBookService.scrollBooks(
+            null, null, null, null, false, "title", "asc", null, 10, false)));
+        assertEquals(HttpStatus.BAD_REQUEST, statusFor(() -> loanService.scrollLoans(
+            null, null, null, false, "borrowerName", "asc", null, 10, false)));
+    }
+
+    @Test
+    void scroll_WithMalformedOrMismatchedCursor_ShouldBeBadRequest() {
+        String cursor = loanService.scrollLoans(null, null, null, false, "createdAt", "asc", null, 4, false).getNextCursor();
+        assertNotNull(cursor);
+
+        assertEquals(HttpStatus.BAD_REQUEST, statusFor(() -> loanService.scrollLoans(
+            null, null, null, false, "createdAt", "asc", "not-a-cursor", 4, false)));
+        assertEquals(HttpStatus.BAD_REQUEST, statusFor(() -> loanService.scrollLoans(
+            null, null, null, false, "dueDate", "asc", cursor, 4, false)));
+        assertEquals(HttpStatus.BAD_REQUEST, statusFor(() -> advancedBookService.scrollBooks(
+            null, null, null, null, false, "createdAt", "desc", cursor, 4, false)));
+    }
+
+    /**
+     * The status the REST layer answers with for the exception the call throws
+     */
+    private HttpStatusCode statusFor(Executable call) {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, call);
+        return new RestExceptionHandler()
+            .handleIllegalArgumentException(exception, new ServletWebRequest(new MockHttpServletRequest()))
+            .getStatusCode();
+    }
+
+    private <T> List<Long> scrollAll(Function<String, CursorPage<T>> fetch, Function<T, Long> id) {
+        List<Long> ids = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int windows = 0;
+        do {
+            CursorPage<T> page = fetch.apply(cursor);
+            for (T item : page.getContent()) {
+                assertTrue(seen.add(id.apply(item)), "Row returned twice: " + id.apply(item));
+                ids.add(id.apply(item));
+            }
+            cursor = page.getNextCursor();
+            windows++;
+        } while (cursor != null);
+        assertTrue(windows > 2, "Expected several windows, got " + windows);
+        return ids;
+    }
+}
@@ -369,4 +369,38 @@ class AdvancedBookServiceTest {
         verify(bookRepository).findById(999L);
         verify(bookRepository, never()).save(any(Book.class));
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testGetSearchFacets_FoldsGroupedRows() {
+        // Arrange
+        List<Object[]> rows = Arrays.asList(
+            new Object[]{"Programming", 2008, true, 3L},
+            new Object[]{"Programming", 2019, false, 1L},
+            new Object[]{"Fiction", 1995, true, 2L},
+            new Object[]{null, null, false, 1L}
+        );
+        when(bookRepository.countSearchFacets("clean", null, null, null, false)).thenReturn(rows);
+        
+        // Act
+        BookSearchFacets facets = advancedBookService.getSearchFacets("  Clean ", " ", null, null, false);
+        
+        // Assert
+        assertEquals(7L, facets.getTotalMatches());
+        assertEquals(5L, facets.getAvailable());
+        assertEquals(2L, facets.getUnavailable());
+        assertEquals(Arrays.asList("Programming", "Fiction"), new ArrayList<>(facets.getGenres().keySet()));
+        assertEquals(4L, facets.getGenres().get("Programming"));
+        assertEquals(Arrays.asList(1990, 2000, 2010), new ArrayList<>(facets.getDecades().keySet()));
+        assertEquals(3L, facets.getDecades().get(2000));
+    }
+    
+    @Test
+    void testFacetCacheKey_NormalizesEquivalentFilters() {
+        assertEquals(
+            AdvancedBookService.facetCacheKey(" Java ", "", null, 2020, true),
+            AdvancedBookService.facetCacheKey("java", null, "  ", 2020, true));
+        assertNotEquals(
+            AdvancedBookService.facetCacheKey("java", null, null, 2020, true),
+            AdvancedBookService.facetCacheKey("java", null, null, 2020, false));
+    }
+}
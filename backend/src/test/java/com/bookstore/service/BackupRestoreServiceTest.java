@@ -3,16 +3,20 @@ package com.bookstore.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -25,6 +29,9 @@ class BackupRestoreServiceTest {
     @Mock
     private DataSource dataSource;
 
+    @Mock
+    private CopySnapshotEngine copySnapshotEngine;
+
     @InjectMocks
     private BackupRestoreService backupRestoreService;
 
@@ -49,6 +56,40 @@ class BackupRestoreServiceTest {
         verify(dataExportImportService).exportAllData();
     }
 
+    @Test
+    void shouldCreateDeltaDataBackupWhileChainIsShort() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(backupRestoreService, "deltaDataBackup", true);
+        ReflectionTestUtils.setField(backupRestoreService, "maxExportChainLength", 7);
+        String expectedPath = "exports/bookstore_delta_20241118_020000.zip";
+        when(dataExportImportService.getExportChainLength()).thenReturn(3);
+        when(dataExportImportService.exportDelta()).thenReturn(expectedPath);
+
+        // When
+        CompletableFuture<String> result = backupRestoreService.createDataBackup();
+
+        // Then
+        assertThat(result.get()).isEqualTo(expectedPath);
+        verify(dataExportImportService, never()).exportAllData();
+    }
+
+    @Test
+    void shouldStartNewChainWhenExportChainIsFull() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(backupRestoreService, "deltaDataBackup", true);
+        ReflectionTestUtils.setField(backupRestoreService, "maxExportChainLength", 7);
+        String expectedPath = "exports/bookstore_export_20241118_020000.zip";
+        when(dataExportImportService.getExportChainLength()).thenReturn(7);
+        when(dataExportImportService.exportAllData()).thenReturn(expectedPath);
+
+        // When
+        CompletableFuture<String> result = backupRestoreService.createDataBackup();
+
+        // Then
+        assertThat(result.get()).isEqualTo(expectedPath);
+        verify(dataExportImportService, never()).exportDelta();
+    }
+
     @Test
     void shouldCreateFullBackup() throws Exception {
         // Given
@@ -65,6 +106,32 @@ class BackupRestoreServiceTest {
         verify(dataExportImportService).exportAllData();
     }
 
+    @Test
+    void shouldCreateSnapshotWhenCopyEngineIsConfigured() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(backupRestoreService, "databaseBackupEngine", "copy");
+
+        // When
+        CompletableFuture<String> result = backupRestoreService.createDatabaseBackup();
+
+        // Then
+        assertThat(result.get()).contains("database_snapshot_").endsWith(".zip");
+        verify(copySnapshotEngine).createSnapshot(any(Path.class));
+    }
+
+    @Test
+    void shouldRestoreSnapshotArchiveWithCopyEngine(@TempDir Path tempDir) throws Exception {
+        // Given
+        Path snapshot = Files.createFile(tempDir.resolve("database_snapshot_20241117_120000.zip"));
+
+        // When
+        CompletableFuture<Boolean> result = backupRestoreService.restoreDatabase(snapshot.toString());
+
+        // Then
+        assertThat(result.get()).isTrue();
+        verify(copySnapshotEngine).restoreSnapshot(snapshot);
+    }
+
     @Test
     void shouldRestoreData() throws Exception {
         // Given
@@ -159,6 +226,9 @@ class BackupRestoreServiceTest {
         String dataType = ReflectionTestUtils.invokeMethod(backupRestoreService, "determineBackupType", "bookstore_export_20241117_120000.zip");
         assertThat(dataType).isEqualTo("APPLICATION_DATA");
 
+        String snapshotType = ReflectionTestUtils.invokeMethod(backupRestoreService, "determineBackupType", "database_snapshot_20241117_120000.zip");
+        assertThat(snapshotType).isEqualTo("DATABASE_SNAPSHOT");
+
         String unknownType = ReflectionTestUtils.invokeMethod(backupRestoreService, "determineBackupType", "unknown_file.txt");
         assertThat(unknownType).isEqualTo("UNKNOWN");
     }
@@ -0,0 +1,130 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Author;
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Loan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BookFacetCacheEvictionListenerTest {
+
+    private CacheManager cacheManager;
+    private BookFacetCacheEvictionListener listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(BookFacetCacheEvictionListener.CACHE_NAME);
+        ObjectProvider<CacheManager> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(cacheManager);
+        listener = new BookFacetCacheEvictionListener(provider);
+        cacheManager.getCache(BookFacetCacheEvictionListener.CACHE_NAME).put("genre=fiction", "cached facets");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private boolean facetsCached() {
+        return cacheManager.getCache(BookFacetCacheEvictionListener.CACHE_NAME).get("genre=fiction") != null;
+    }
+
+    private void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    @Test
+    void onWrite_OutsideTransaction_ShouldClearFacetsImmediately() {
+        listener.onWrite(new Book("Title", "978-0-452-28423-4"));
+
+        assertFalse(facetsCached());
+    }
+
+    @Test
+    void onWrite_InTransaction_ShouldClearFacetsOnceAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        listener.onWrite(new Book("Title", "978-0-452-28423-4"));
+        listener.onWrite(new Author("Jane", "Smith"));
+
+        assertTrue(facetsCached(), "Facets should stay cached until the write commits");
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertFalse(facetsCached());
+        assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty(), "Next transaction should evict again");
+    }
+
+    @Test
+    void onWrite_RolledBack_ShouldKeepFacets() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        listener.onWrite(new Book("Title", "978-0-452-28423-4"));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTrue(facetsCached());
+    }
+
+    private static final String[] BOOK_PROPERTIES = {"availableCopies", "description", "genre", "title"};
+
+    @Test
+    void changesFacets_WhenOnlyCopiesChangeWithinAvailability_ShouldBeFalse() {
+        Book book = new Book("Title", "978-0-452-28423-4");
+
+        assertFalse(BookFacetCacheEvictionListener.changesFacets(book, BOOK_PROPERTIES,
+            new int[] {0}, new Object[] {3, null, null, null}, new Object[] {2, null, null, null}));
+        assertFalse(BookFacetCacheEvictionListener.changesFacets(book, BOOK_PROPERTIES,
+            new int[] {1}, new Object[] {3, "old", null, null}, new Object[] {3, "new", null, null}));
+    }
+
+    @Test
+    void changesFacets_WhenBookRunsOutOrComesBack_ShouldBeTrue() {
+        Book book = new Book("Title", "978-0-452-28423-4");
+
+        assertTrue(BookFacetCacheEvictionListener.changesFacets(book, BOOK_PROPERTIES,
+            new int[] {0}, new Object[] {1, null, null, null}, new Object[] {0, null, null, null}));
+        assertTrue(BookFacetCacheEvictionListener.changesFacets(book, BOOK_PROPERTIES,
+            new int[] {0}, new Object[] {0, null, null, null}, new Object[] {1, null, null, null}));
+    }
+
+    @Test
+    void changesFacets_WhenAFilteredFieldChanges_ShouldBeTrue() {
+        Book book = new Book("Title", "978-0-452-28423-4");
+
+        assertTrue(BookFacetCacheEvictionListener.changesFacets(book, BOOK_PROPERTIES,
+            new int[] {1, 3}, new Object[4], new Object[4]));
+        assertTrue(BookFacetCacheEvictionListener.changesFacets(new Author("Jane", "Smith"),
+            new String[] {"biography", "lastName"}, new int[] {1}, new Object[2], new Object[2]));
+        assertFalse(BookFacetCacheEvictionListener.changesFacets(new Author("Jane", "Smith"),
+            new String[] {"biography", "lastName"}, new int[] {0}, new Object[2], new Object[2]));
+    }
+
+    @Test
+    void changesFacets_WithoutDirtyProperties_ShouldAssumeAChange() {
+        assertTrue(BookFacetCacheEvictionListener.changesFacets(new Book("Title", "978-0-452-28423-4"),
+            BOOK_PROPERTIES, null, null, new Object[4]));
+        assertFalse(BookFacetCacheEvictionListener.changesFacets(new Loan(), new String[0], null, null, null));
+    }
+
+    @Test
+    void onWrite_ForOtherEntities_ShouldKeepFacets() {
+        listener.onWrite(new Loan());
+
+        assertTrue(facetsCached());
+    }
+}
@@ -0,0 +1,213 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.BookSuggestion;
+import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.LoanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookSuggestionServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @InjectMocks
+    private BookSuggestionService bookSuggestionService;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findAllIdAndTitle()).thenReturn(Arrays.asList(
+            new Object[]{1L, "Clean Code"},
+            new Object[]{2L, "The Clean Coder"},
+            new Object[]{3L, "Refactoring"}
+        ));
+        when(authorRepository.findAllIdAndName()).thenReturn(Collections.singletonList(
+            new Object[]{10L, "Robert", "Martin"}
+        ));
+        when(loanRepository.countLoansPerBook()).thenReturn(Arrays.asList(
+            new Object[]{1L, 5L},
+            new Object[]{2L, 12L}
+        ));
+        when(authorRepository.countLoansPerAuthor()).thenReturn(Collections.singletonList(
+            new Object[]{10L, 17L}
+        ));
+
+        bookSuggestionService.rebuild();
+    }
+
+    @Test
+    void suggest_ShouldMatchWordPrefixesOrderedByPopularity() {
+        List<BookSuggestion> suggestions = bookSuggestionService.suggest("clea", 10);
+
+        assertEquals(2, suggestions.size());
+        assertEquals(2L, suggestions.get(0).getId());
+        assertEquals("The Clean Coder", suggestions.get(0).getText());
+        assertEquals(12L, suggestions.get(0).getWeight());
+        assertEquals(1L, suggestions.get(1).getId());
+    }
+
+    @Test
+    void suggest_ShouldMatchAuthorNamesIgnoringCaseAndAccents() {
+        List<BookSuggestion> suggestions = bookSuggestionService.suggest("MÁRT", 10);
+
+        assertEquals(1, suggestions.size());
+        assertEquals(BookSuggestionService.TYPE_AUTHOR, suggestions.get(0).getType());
+        assertEquals("Robert Martin", suggestions.get(0).getText());
+        assertEquals(17L, suggestions.get(0).getWeight());
+    }
+
+    @Test
+    void suggest_ShouldRespectLimit() {
+        List<BookSuggestion> suggestions = bookSuggestionService.suggest("c", 1);
+
+        assertEquals(1, suggestions.size());
+        assertEquals(2L, suggestions.get(0).getId());
+    }
+
+    @Test
+    void suggest_WithBlankPrefix_ShouldReturnEmptyList() {
+        assertTrue(bookSuggestionService.suggest("  ", 10).isEmpty());
+        assertTrue(bookSuggestionService.suggest(null, 10).isEmpty());
+    }
+
+    @Test
+    void indexBook_ShouldReplacePreviousTitle() {
+        bookSuggestionService.indexBook(3L, "Refactoring Databases");
+        bookSuggestionService.indexBook(1L, "Code Complete");
+
+        List<BookSuggestion> cleanCode = bookSuggestionService.suggest("clean code", 10);
+        assertEquals(1, cleanCode.size());
+        assertEquals(2L, cleanCode.get(0).getId());
+        assertEquals(1L, bookSuggestionService.suggest("complete", 10).get(0).getId());
+        assertEquals(1, bookSuggestionService.suggest("datab", 10).size());
+        assertEquals(4, bookSuggestionService.size());
+    }
+
+    @Test
+    void removeBookAndAuthor_ShouldDropSuggestions() {
+        bookSuggestionService.removeBook(2L);
+        bookSuggestionService.removeAuthor(10L);
+
+        List<BookSuggestion> suggestions = bookSuggestionService.suggest("c", 10);
+        assertEquals(1, suggestions.size());
+        assertEquals(1L, suggestions.get(0).getId());
+        assertTrue(bookSuggestionService.suggest("martin", 10).isEmpty());
+    }
+
+    @Test
+    void recordLoan_ShouldIncreaseWeight() {
+        for (int i = 0; i < 10; i++) {
+            bookSuggestionService.recordLoan(1L);
+        }
+
+        List<BookSuggestion> suggestions = bookSuggestionService.suggest("clean", 10);
+        assertEquals(1L, suggestions.get(0).getId());
+        assertEquals(15L, suggestions.get(0).getWeight());
+    }
+
+    @Test
+    void suggest_ShouldRankEveryMatchOfALargePrefix() {
+        for (long id = 100; id < 3100; id++) {
+            bookSuggestionService.indexBook(id, String.format("Tale %04d", id));
+        }
+        for (int i = 0; i < 20; i++) {
+            bookSuggestionService.recordLoan(3099L);
+        }
+
+        assertEquals(3099L, bookSuggestionService.suggest("tale", 1).get(0).getId());
+        assertEquals(3099L, bookSuggestionService.suggest("t", 1).get(0).getId());
+        assertEquals(20L, bookSuggestionService.suggest("t", 1).get(0).getWeight());
+    }
+
+    @Test
+    void suggest_ShouldScanAtMostMaxScanKeysOnceALargePrefixIsRanked() {
+        ReflectionTestUtils.setField(bookSuggestionService, "maxScan", 100);
+        for (long id = 100; id < 3100; id++) {
+            bookSuggestionService.indexBook(id, String.format("Tale %04d", id));
+        }
+        List<String> keystrokes = Arrays.asList("t", "ta", "tal", "tale", "tale 3", "tale 30", "tale 309");
+        keystrokes.forEach(prefix -> bookSuggestionService.suggest(prefix, 5));
+        // Loans and new titles update the kept lists instead of forcing a rescan
+        for (int i = 0; i < 20; i++) {
+            bookSuggestionService.recordLoan(3099L);
+        }
+        bookSuggestionService.indexBook(5000L, "Tale Extra");
+
+        for (String prefix : keystrokes) {
+            long before = bookSuggestionService.scannedKeys();
+            List<BookSuggestion> suggestions = bookSuggestionService.suggest(prefix, 5);
+            assertTrue(bookSuggestionService.scannedKeys() - before <= 101,
+                "Scanned " + (bookSuggestionService.scannedKeys() - before) + " keys for '" + prefix + "'");
+            assertEquals(3099L, suggestions.get(0).getId(), prefix);
+        }
+        assertEquals(5000L, bookSuggestionService.suggest("tale e", 5).get(0).getId());
+    }
+
+    @Test
+    void suggest_ShortPrefix_ShouldFollowLoansAndIndexChanges() {
+        assertEquals(Arrays.asList(2L, 1L), ids(bookSuggestionService.suggest("c", 10)));
+
+        for (int i = 0; i < 8; i++) {
+            bookSuggestionService.recordLoan(1L);
+        }
+        assertEquals(Arrays.asList(1L, 2L), ids(bookSuggestionService.suggest("c", 10)));
+
+        bookSuggestionService.removeBook(1L);
+        bookSuggestionService.indexBook(4L, "Code Complete");
+        bookSuggestionService.indexBook(3L, "Refactoring to Code");
+        assertEquals(Arrays.asList(2L, 4L, 3L), ids(bookSuggestionService.suggest("c", 10)));
+        assertEquals(Collections.singletonList(2L), ids(bookSuggestionService.suggest("c", 1)));
+    }
+
+    @Test
+    void rebuild_ShouldKeepChangesMadeWhileReadingTheDatabase() {
+        when(bookRepository.findAllIdAndTitle()).thenAnswer(invocation -> {
+            // Commits landing after the rebuild started but not in what it reads
+            bookSuggestionService.indexBook(4L, "Concurrent Programming");
+            bookSuggestionService.removeBook(3L);
+            bookSuggestionService.recordLoan(2L);
+            return Arrays.asList(
+                new Object[]{1L, "Clean Code"},
+                new Object[]{2L, "The Clean Coder"},
+                new Object[]{3L, "Refactoring"}
+            );
+        });
+
+        bookSuggestionService.rebuild();
+
+        assertEquals(Collections.singletonList(4L), ids(bookSuggestionService.suggest("concurrent", 10)));
+        assertTrue(bookSuggestionService.suggest("refactoring", 10).isEmpty());
+        assertEquals(13L, bookSuggestionService.suggest("coder", 10).get(0).getWeight());
+        assertEquals(4, bookSuggestionService.size());
+    }
+
+    private static List<Long> ids(List<BookSuggestion> suggestions) {
+        return suggestions.stream().map(BookSuggestion::getId).toList();
+    }
+
+    @Test
+    void normalize_ShouldStripPunctuationAndDiacritics() {
+        assertEquals("clean code a handbook", BookSuggestionService.normalize("  Clean Code: A Handbook!"));
+        assertEquals("garcia marquez", BookSuggestionService.normalize("García-Márquez"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.bookstore.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Snapshot and restore against a real PostgreSQL, which the COPY protocol requires
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CopySnapshotEnginePostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("bookstore_snapshot")
+            .withUsername("test")
+            .withPassword("test");
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private CopySnapshotEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS loan_tracking, loans, book_authors, books, authors CASCADE");
+        jdbcTemplate.execute("CREATE TABLE authors (id BIGSERIAL PRIMARY KEY, name VARCHAR(100) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE books (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+            "title VARCHAR(200) NOT NULL, price NUMERIC(10, 2), created_at TIMESTAMP NOT NULL DEFAULT now())");
+        jdbcTemplate.execute("CREATE TABLE book_authors (book_id BIGINT NOT NULL REFERENCES books(id), " +
+            "author_id BIGINT NOT NULL REFERENCES authors(id), PRIMARY KEY (book_id, author_id))");
+        jdbcTemplate.execute("CREATE TABLE loans (id BIGSERIAL PRIMARY KEY, book_id BIGINT NOT NULL REFERENCES books(id), " +
+            "borrower VARCHAR(100) NOT NULL, returned BOOLEAN NOT NULL DEFAULT false)");
+        jdbcTemplate.execute("CREATE TABLE loan_tracking (id BIGSERIAL PRIMARY KEY, " +
+            "loan_id BIGINT NOT NULL REFERENCES loans(id), note TEXT)");
+
+        engine = new CopySnapshotEngine();
+        ReflectionTestUtils.setField(engine, "dataSource", dataSource);
+        ReflectionTestUtils.setField(engine, "restoreWorkers", 4);
+    }
+
+    @Test
+    void shouldRestoreSnapshotByDependencyLevelAndResetSequences() throws Exception {
+        // Given
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.update("INSERT INTO authors (name) VALUES (?)", "Author " + i);
+        }
+        for (int i = 1; i <= 5; i++) {
+            jdbcTemplate.update("INSERT INTO books (title, price) VALUES (?, ?)", "Book " + i, 10.5 + i);
+            jdbcTemplate.update("INSERT INTO book_authors (book_id, author_id) VALUES (?, ?)", i, 1 + i % 3);
+        }
+        jdbcTemplate.update("INSERT INTO loans (book_id, borrower) VALUES (1, 'alice'), (2, 'bob'), (2, 'carol')");
+        jdbcTemplate.update("INSERT INTO loan_tracking (loan_id, note) VALUES (1, NULL), (3, 'late')");
+        // Gaps in the keys, so the restored sequences must follow the data and not the row counts
+        jdbcTemplate.update("DELETE FROM loan_tracking WHERE id = 1");
+        Map<String, Long> expectedRows = rowCounts();
+        List<Map<String, Object>> expectedBooks = jdbcTemplate.queryForList("SELECT * FROM books ORDER BY id");
+        Path archive = tempDir.resolve("database_snapshot.zip");
+
+        CopySnapshotEngine.SnapshotManifest snapshot = engine.createSnapshot(archive);
+
+        // Changes after the snapshot are rolled back by the restore
+        jdbcTemplate.update("INSERT INTO books (title) VALUES ('Written after the snapshot')");
+        jdbcTemplate.update("DELETE FROM loan_tracking");
+        jdbcTemplate.update("UPDATE loans SET returned = true");
+
+        // When
+        CopySnapshotEngine.SnapshotManifest restored = engine.restoreSnapshot(archive);
+
+        // Then - tables load after the tables they reference
+        Map<String, Integer> levels = restored.tables().stream()
+            .collect(Collectors.toMap(CopySnapshotEngine.TableSnapshot::table, CopySnapshotEngine.TableSnapshot::level));
+        assertThat(levels).containsEntry("authors", 0).containsEntry("books", 0)
+            .containsEntry("book_authors", 1).containsEntry("loans", 1)
+            .containsEntry("loan_tracking", 2);
+
+        // Every table holds the rows the manifest recorded
+        Map<String, Long> manifestRows = snapshot.tables().stream()
+            .collect(Collectors.toMap(CopySnapshotEngine.TableSnapshot::table, CopySnapshotEngine.TableSnapshot::rows));
+        assertThat(manifestRows).isEqualTo(expectedRows);
+        assertThat(rowCounts()).isEqualTo(expectedRows);
+        assertThat(jdbcTemplate.queryForList("SELECT * FROM books ORDER BY id")).isEqualTo(expectedBooks);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM loans WHERE returned", Long.class)).isZero();
+
+        // Serial and identity sequences continue after the highest restored key
+        assertThat(insertReturningId("INSERT INTO authors (name) VALUES ('New') RETURNING id")).isEqualTo(4L);
+        assertThat(insertReturningId("INSERT INTO books (title) VALUES ('New') RETURNING id")).isEqualTo(6L);
+        assertThat(insertReturningId("INSERT INTO loans (book_id, borrower) VALUES (3, 'dave') RETURNING id")).isEqualTo(4L);
+        assertThat(insertReturningId("INSERT INTO loan_tracking (loan_id) VALUES (3) RETURNING id")).isEqualTo(3L);
+    }
+
+    private Map<String, Long> rowCounts() {
+        return List.of("authors", "books", "book_authors", "loans", "loan_tracking").stream()
+            .collect(Collectors.toMap(table -> table,
+                table -> jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class)));
+    }
+
+    private Long insertReturningId(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.bookstore.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CopySnapshotEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldOrderTablesByForeignKeyDependencies() {
+        // Given - the foreign keys of the bookstore schema
+        Map<String, Set<String>> references = new LinkedHashMap<>();
+        references.put("loan_tracking", Set.of("loans"));
+        references.put("loans", Set.of("books"));
+        references.put("book_authors", Set.of("books", "authors"));
+        references.put("recommendations", Set.of("books"));
+        references.put("user_roles", Set.of("users"));
+        references.put("books", Set.of());
+        references.put("authors", Set.of());
+        references.put("users", Set.of());
+        references.put("audit_logs", Set.of());
+
+        // When
+        List<List<String>> levels = CopySnapshotEngine.dependencyLevels(references);
+
+        // Then
+        assertThat(levels).containsExactly(
+            List.of("audit_logs", "authors", "books", "users"),
+            List.of("book_authors", "loans", "recommendations", "user_roles"),
+            List.of("loan_tracking"));
+    }
+
+    @Test
+    void shouldIgnoreSelfReferencesAndTablesOutsideTheSnapshot() {
+        // Given
+        Map<String, Set<String>> references = new LinkedHashMap<>();
+        references.put("categories", Set.of("categories"));
+        references.put("books", Set.of("categories", "flyway_schema_history"));
+
+        // When
+        List<List<String>> levels = CopySnapshotEngine.dependencyLevels(references);
+
+        // Then
+        assertThat(levels).containsExactly(List.of("categories"), List.of("books"));
+    }
+
+    @Test
+    void shouldRejectCyclicForeignKeys() {
+        // Given
+        Map<String, Set<String>> references = new LinkedHashMap<>();
+        references.put("a", Set.of("b"));
+        references.put("b", Set.of("a"));
+
+        // When & Then
+        assertThatThrownBy(() -> CopySnapshotEngine.dependencyLevels(references))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Cyclic");
+    }
+
+    @Test
+    void shouldRefuseSnapshotOnNonPostgresDatabase() {
+        // Given
+        CopySnapshotEngine engine = new CopySnapshotEngine();
+        ReflectionTestUtils.setField(engine, "dataSource",
+            new DriverManagerDataSource("jdbc:h2:mem:copy_snapshot;DB_CLOSE_DELAY=-1", "sa", ""));
+        Path archive = tempDir.resolve("database_snapshot_test.zip");
+
+        // When & Then
+        assertThatThrownBy(() -> engine.createSnapshot(archive))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("require PostgreSQL");
+        assertThat(Files.exists(archive)).isFalse();
+    }
+}
@@ -0,0 +1,56 @@
+package com.bookstore.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void encodeDecode_ShouldRoundTripKeysetValues() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("dueDate", LocalDate.of(2024, 3, 15));
+        keys.put("createdAt", LocalDateTime.of(2024, 3, 1, 10, 30, 15, 123000000));
+        keys.put("id", 42L);
+
+        String cursor = CursorCodec.encode(ScrollPosition.forward(keys), "dueDate", Sort.Direction.ASC);
+        ScrollPosition decoded = CursorCodec.decode(cursor, "dueDate", Sort.Direction.ASC);
+
+        assertInstanceOf(KeysetScrollPosition.class, decoded);
+        assertEquals(keys, ((KeysetScrollPosition) decoded).getKeys());
+        assertFalse(cursor.contains("="), "Cursor should be URL-safe without padding");
+    }
+
+    @Test
+    void decode_WithoutCursor_ShouldStartFromBeginning() {
+        ScrollPosition position = CursorCodec.decode(null, "id", Sort.Direction.ASC);
+
+        assertTrue(position.isInitial());
+    }
+
+    @Test
+    void decode_WithDifferentSort_ShouldBeRejected() {
+        String cursor = CursorCodec.encode(ScrollPosition.forward(Map.of("id", 7L)), "id", Sort.Direction.ASC);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> CursorCodec.decode(cursor, "id", Sort.Direction.DESC));
+        assertThrows(IllegalArgumentException.class,
+            () -> CursorCodec.decode(cursor, "createdAt", Sort.Direction.ASC));
+    }
+
+    @Test
+    void decode_WithGarbage_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> CursorCodec.decode("not-a-cursor!", "id", Sort.Direction.ASC));
+        assertThrows(IllegalArgumentException.class,
+            () -> CursorCodec.decode("djJ8aWR8QVNDfGlkPUw6Nw", "id", Sort.Direction.ASC));
+    }
+}
@@ -1,12 +1,18 @@
 package com.bookstore.service;
 
+import com.bookstore.dto.ExportChainManifest;
 import com.bookstore.entity.*;
 import com.bookstore.repository.*;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -15,12 +21,19 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -51,6 +64,15 @@ class DataExportImportServiceTest {
     @Mock
     private AuditLogRepository auditLogRepository;
 
+    @Mock
+    private DeletedRecordRepository deletedRecordRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private DataExportImportService dataExportImportService;
 
@@ -61,28 +83,21 @@ class DataExportImportServiceTest {
 
     @BeforeEach
     void setUp() {
-        objectMapper = new ObjectMapper();
+        objectMapper = DataExportImportService.archiveObjectMapper();
         ReflectionTestUtils.setField(dataExportImportService, "objectMapper", objectMapper);
     }
 
     @Test
     void shouldExportAllDataToZipFile() throws IOException {
         // Given
-        when(authorRepository.findAll()).thenReturn(createMockAuthors());
-        when(bookRepository.findAll()).thenReturn(createMockBooks());
-        when(userRepository.findAll()).thenReturn(createMockUsers());
-        when(loanRepository.findAll()).thenReturn(createMockLoans());
-        when(recommendationRepository.findAll()).thenReturn(createMockRecommendations());
-        when(loanTrackingRepository.findAll()).thenReturn(createMockLoanTracking());
-        when(auditLogRepository.findAll()).thenReturn(createMockAuditLogs());
-
-        when(authorRepository.count()).thenReturn(2L);
-        when(bookRepository.count()).thenReturn(2L);
-        when(userRepository.count()).thenReturn(2L);
-        when(loanRepository.count()).thenReturn(1L);
-        when(recommendationRepository.count()).thenReturn(1L);
-        when(loanTrackingRepository.count()).thenReturn(1L);
-        when(auditLogRepository.count()).thenReturn(1L);
+        when(authorRepository.streamAllForExport()).thenReturn(createMockAuthors().stream());
+        when(bookRepository.streamAllForExport()).thenReturn(createMockBooks().stream());
+        when(userRepository.streamAllForExport()).thenReturn(createMockUsers().stream());
+        when(loanRepository.streamAllForExport()).thenReturn(createMockLoans().stream());
+        when(recommendationRepository.streamAllForExport()).thenReturn(createMockRecommendations().stream());
+        when(loanTrackingRepository.streamAllForExport()).thenReturn(createMockLoanTracking().stream());
+        when(auditLogRepository.streamAllForExport()).thenReturn(createMockAuditLogs().stream());
+
 
         // When
         String exportPath = dataExportImportService.exportAllData();
@@ -108,7 +123,7 @@ class DataExportImportServiceTest {
     @Test
     void shouldExportSpecificEntityData() throws IOException {
         // Given
-        when(authorRepository.findAll()).thenReturn(createMockAuthors());
+        when(authorRepository.streamAllForExport()).thenReturn(createMockAuthors().stream());
 
         // When
         String exportPath = dataExportImportService.exportEntityData("authors");
@@ -127,6 +142,146 @@ class DataExportImportServiceTest {
         assertThat(exportedAuthors).hasSize(2);
     }
 
+    @Test
+    void shouldClearPersistenceContextPeriodicallyWhileStreamingExport() throws IOException {
+        // Given
+        ObjectMapper timeAwareMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        ReflectionTestUtils.setField(dataExportImportService, "objectMapper", timeAwareMapper);
+        ReflectionTestUtils.setField(dataExportImportService, "clearInterval", 1);
+        when(authorRepository.streamAllForExport()).thenReturn(createMockAuthors().stream());
+
+        // When
+        String exportPath = dataExportImportService.exportEntityData("authors");
+
+        // Then
+        JsonNode exportedAuthors = timeAwareMapper.readTree(Path.of(exportPath).toFile());
+        assertThat(exportedAuthors.isArray()).isTrue();
+        assertThat(exportedAuthors).hasSize(2);
+        assertThat(exportedAuthors.get(1).get("lastName").asText()).isEqualTo("Austen");
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void shouldExportAllTablesInParallelWithRowCountsInMetadata() throws IOException {
+        // Given
+        ObjectMapper timeAwareMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        ReflectionTestUtils.setField(dataExportImportService, "parallelWorkers", 3);
+        ReflectionTestUtils.setField(dataExportImportService, "snapshotMode",
+            DataExportImportService.SnapshotMode.REPEATABLE_READ);
+        List<User> users = createMockUsers();
+        users.forEach(user -> user.setRoles(Set.of(Role.USER)));
+        when(authorRepository.streamAllForExport()).thenReturn(createMockAuthors().stream());
+        when(bookRepository.streamAllForExport()).thenReturn(createMockBooks().stream());
+        when(userRepository.streamAllForExport()).thenReturn(users.stream());
+        when(loanRepository.streamAllForExport()).thenReturn(createMockLoans().stream());
+        when(recommendationRepository.streamAllForExport()).thenReturn(createMockRecommendations().stream());
+        when(loanTrackingRepository.streamAllForExport()).thenReturn(createMockLoanTracking().stream());
+        when(auditLogRepository.streamAllForExport()).thenReturn(createMockAuditLogs().stream());
+
+        // When
+        String exportPath = dataExportImportService.exportAllDataParallel();
+
+        // Then
+        try (ZipFile zipFile = new ZipFile(exportPath)) {
+            assertThat(zipFile.size()).isEqualTo(8);
+            // Referenced tables come first whichever worker finishes first
+            assertThat(zipFile.stream().map(ZipEntry::getName)).containsExactly(
+                "authors.json", "books.json", "users.json", "loans.json", "recommendations.json",
+                "loan_tracking.json", "audit_logs.json", "metadata.json");
+            // Entries were deflated by the workers and copied into the archive as is
+            assertThat(zipFile.stream()).allMatch(entry -> entry.getMethod() == ZipEntry.DEFLATED);
+            ZipEntry books = zipFile.getEntry("books.json");
+            assertThat(books.getCompressedSize()).isPositive().isLessThan(books.getSize());
+            JsonNode exportedUsers = timeAwareMapper.readTree(zipFile.getInputStream(zipFile.getEntry("users.json")));
+            assertThat(exportedUsers).hasSize(2);
+            assertThat(exportedUsers.get(0).get("password").asText()).isEqualTo("[REDACTED]");
+            assertThat(exportedUsers.get(0).has("authorities")).isFalse();
+            JsonNode exportedAuthors = timeAwareMapper.readTree(zipFile.getInputStream(zipFile.getEntry("authors.json")));
+            assertThat(exportedAuthors.get(0).has("books")).isFalse();
+            JsonNode metadata = timeAwareMapper.readTree(zipFile.getInputStream(zipFile.getEntry("metadata.json")));
+            assertThat(metadata.get("authorCount").asLong()).isEqualTo(2L);
+            assertThat(metadata.get("auditLogCount").asLong()).isEqualTo(1L);
+            assertThat(metadata.get("snapshot").asText()).isEqualTo("REPEATABLE_READ");
+            assertThat(metadata.get("entries")).hasSize(7);
+            assertThat(metadata.get("entries").get("books.json").get("rows").asLong()).isEqualTo(2L);
+        }
+        assertThat(dataExportImportService.verifyArchive(exportPath)).hasSize(7);
+        try (Stream<Path> leftovers = Files.list(Path.of(exportPath).getParent())) {
+            assertThat(leftovers.map(Path::toString)).noneMatch(name -> name.endsWith(".part"));
+        }
+        verify(transactionManager, times(7)).commit(any());
+        verify(authorRepository, never()).count();
+
+        // And the archive restores referenced rows before the rows referring to them
+        dataExportImportService.importAllData(exportPath);
+        InOrder inOrder = inOrder(authorRepository, bookRepository, loanRepository, recommendationRepository);
+        inOrder.verify(authorRepository).saveAll(anyList());
+        inOrder.verify(bookRepository).saveAll(anyList());
+        inOrder.verify(loanRepository).saveAll(anyList());
+        inOrder.verify(recommendationRepository).saveAll(anyList());
+    }
+
+    @Test
+    void shouldExportOnlyChangesSinceTheChainWatermarks() throws IOException {
+        // Given
+        ObjectMapper timeAwareMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        ReflectionTestUtils.setField(dataExportImportService, "objectMapper", timeAwareMapper);
+        ReflectionTestUtils.setField(dataExportImportService, "deltaOverlapSeconds", 60L);
+        LocalDateTime lastEvent = LocalDateTime.of(2024, 3, 1, 12, 0);
+        LoanTracking tracking = new LoanTracking(1L, "LOAN_CREATED", "Loan created", lastEvent);
+        tracking.setId(1L);
+        when(deletedRecordRepository.findMaxId()).thenReturn(3L);
+        when(loanTrackingRepository.streamAllForExport()).thenReturn(Stream.of(tracking));
+        dataExportImportService.exportAllData();
+
+        DeletedRecord tombstone = new DeletedRecord("books", 7L, LocalDateTime.now());
+        tombstone.setId(4L);
+        when(loanTrackingRepository.streamChangedSince(lastEvent.minusSeconds(60))).thenReturn(Stream.empty());
+        when(deletedRecordRepository.streamRecordedAfter(3L)).thenReturn(Stream.of(tombstone));
+
+        // When
+        String deltaPath = dataExportImportService.exportDelta();
+
+        // Then
+        assertThat(deltaPath).contains("bookstore_delta_");
+        try (ZipFile zipFile = new ZipFile(deltaPath)) {
+            JsonNode tombstones = timeAwareMapper.readTree(zipFile.getInputStream(zipFile.getEntry("tombstones.json")));
+            assertThat(tombstones).hasSize(1);
+            assertThat(tombstones.get(0).get("entityId").asLong()).isEqualTo(7L);
+            JsonNode metadata = timeAwareMapper.readTree(zipFile.getInputStream(zipFile.getEntry("metadata.json")));
+            assertThat(metadata.get("exportType").asText()).isEqualTo("DELTA");
+            assertThat(metadata.get("tombstoneWatermark").asLong()).isEqualTo(4L);
+            assertThat(metadata.get("loanTrackingCount").asLong()).isZero();
+        }
+        assertThat(dataExportImportService.getExportChainLength()).isEqualTo(2);
+        verify(loanTrackingRepository).streamChangedSince(lastEvent.minusSeconds(60));
+    }
+
+    @Test
+    void shouldReplayTombstonesOnImport() throws IOException {
+        // Given
+        ObjectMapper timeAwareMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        ReflectionTestUtils.setField(dataExportImportService, "objectMapper", timeAwareMapper);
+        List<DeletedRecord> tombstones = List.of(
+            new DeletedRecord("loans", 11L, LocalDateTime.now()),
+            new DeletedRecord("books", 7L, LocalDateTime.now()),
+            new DeletedRecord("unknown", 1L, LocalDateTime.now()));
+        Path zipPath = tempDir.resolve("delta.zip");
+        try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(zipPath))) {
+            zipOut.putNextEntry(new ZipEntry("tombstones.json"));
+            zipOut.write(timeAwareMapper.writeValueAsBytes(tombstones));
+            zipOut.closeEntry();
+        }
+
+        // When
+        dataExportImportService.importAllData(zipPath.toString());
+
+        // Then
+        InOrder inOrder = inOrder(loanRepository, bookRepository);
+        inOrder.verify(loanRepository).deleteById(11L);
+        inOrder.verify(bookRepository).deleteById(7L);
+    }
+
     @Test
     void shouldThrowExceptionForUnknownEntityType() {
         // When & Then
@@ -167,6 +322,118 @@ class DataExportImportServiceTest {
         verify(authorRepository).saveAll(anyList());
     }
 
+    @Test
+    void shouldImportInBoundedChunksAndReportProgress() throws IOException {
+        // Given
+        ObjectMapper timeAwareMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        ReflectionTestUtils.setField(dataExportImportService, "objectMapper", timeAwareMapper);
+        ReflectionTestUtils.setField(dataExportImportService, "importBatchSize", 2);
+        List<LoanTracking> events = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            LoanTracking tracking = new LoanTracking();
+            tracking.setId(id);
+            tracking.setEventType("LOAN_CREATED");
+            tracking.setEventTimestamp(LocalDateTime.now());
+            events.add(tracking);
+        }
+        Path zipPath = tempDir.resolve("chunked.zip");
+        try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(zipPath))) {
+            zipOut.putNextEntry(new ZipEntry("loan_tracking.json"));
+            zipOut.write(timeAwareMapper.writeValueAsBytes(events));
+            zipOut.closeEntry();
+            zipOut.putNextEntry(new ZipEntry("metadata.json"));
+            zipOut.write("{\"loanTrackingCount\":5}".getBytes());
+            zipOut.closeEntry();
+        }
+        List<Long> progress = new ArrayList<>();
+
+        // When
+        dataExportImportService.importAllData(zipPath.toString(), (entityType, rows) -> progress.add(rows));
+
+        // Then
+        verify(loanTrackingRepository, times(3)).saveAll(anyList());
+        verify(loanTrackingRepository).findAllById(List.of(5L));
+        verify(transactionManager, times(3)).commit(any());
+        verify(entityManager, times(3)).clear();
+        assertThat(progress).containsExactly(2L, 4L, 5L);
+    }
+
+    @Test
+    void shouldResumeImportAfterCheckpointAndSkipCompletedEntries() throws IOException {
+        // Given
+        ObjectMapper timeAwareMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        ReflectionTestUtils.setField(dataExportImportService, "objectMapper", timeAwareMapper);
+        ReflectionTestUtils.setField(dataExportImportService, "importBatchSize", 2);
+        List<LoanTracking> events = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            LoanTracking tracking = new LoanTracking();
+            tracking.setId(id);
+            tracking.setEventType("LOAN_CREATED");
+            events.add(tracking);
+        }
+        Path zipPath = tempDir.resolve("resumable.zip");
+        try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(zipPath))) {
+            zipOut.putNextEntry(new ZipEntry("authors.json"));
+            zipOut.write("[{\"id\":1}]".getBytes());
+            zipOut.closeEntry();
+            zipOut.putNextEntry(new ZipEntry("loan_tracking.json"));
+            zipOut.write(timeAwareMapper.writeValueAsBytes(events));
+            zipOut.closeEntry();
+        }
+        List<Long> checkpoints = new ArrayList<>();
+        List<String> completed = new ArrayList<>();
+        DataExportImportService.ImportCheckpoint checkpoint = new DataExportImportService.ImportCheckpoint() {
+            @Override
+            public boolean isEntryCompleted(String entryName) {
+                return "authors.json".equals(entryName);
+            }
+
+            @Override
+            public long resumeOffset(String entryName) {
+                return "loan_tracking.json".equals(entryName) ? 2 : 0;
+            }
+
+            @Override
+            public void recordChunk(String entryName, long offset) {
+                checkpoints.add(offset);
+            }
+
+            @Override
+            public void entryCompleted(String entryName) {
+                completed.add(entryName);
+            }
+        };
+
+        // When
+        dataExportImportService.importAllData(zipPath.toString(), checkpoint, (entityType, rows) -> {});
+
+        // Then
+        verify(authorRepository, never()).saveAll(anyList());
+        verify(loanTrackingRepository).findAllById(List.of(3L, 4L));
+        verify(loanTrackingRepository).findAllById(List.of(5L));
+        assertThat(checkpoints).containsExactly(4L, 5L);
+        assertThat(completed).containsExactly("loan_tracking.json");
+    }
+
+    @Test
+    void shouldVerifyArchiveEntriesAgainstRecordedChecksums() throws Exception {
+        // Given
+        byte[] authors = "[{\"id\":1},{\"id\":2}]".getBytes();
+        String checksum = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(authors));
+        Path valid = writeArchiveWithChecksum(tempDir.resolve("valid.zip"), authors, checksum);
+        Path tampered = writeArchiveWithChecksum(tempDir.resolve("tampered.zip"), "[{\"id\":3}]".getBytes(), checksum);
+
+        // When
+        Map<String, ExportChainManifest.ArchiveEntry> entries = dataExportImportService.verifyArchive(valid.toString());
+
+        // Then
+        assertThat(entries).containsOnlyKeys("authors.json");
+        assertThat(entries.get("authors.json").getRows()).isEqualTo(2L);
+        assertThatThrownBy(() -> dataExportImportService.verifyArchive(tampered.toString()))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Checksum mismatch for archive entry authors.json");
+    }
+
     @Test
     void shouldThrowExceptionWhenImportFileNotFound() {
         // When & Then
@@ -179,7 +446,7 @@ class DataExportImportServiceTest {
         // Given
         List<User> users = createMockUsers();
         users.get(0).setPassword("secret_password");
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.streamAllForExport()).thenReturn(users.stream());
 
         // When
         String exportPath = dataExportImportService.exportEntityData("users");
@@ -268,23 +535,29 @@ class DataExportImportServiceTest {
         assertThat(isValid).isFalse();
     }
 
+    private Path writeArchiveWithChecksum(Path zipPath, byte[] authors, String checksum) throws IOException {
+        try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(zipPath))) {
+            zipOut.putNextEntry(new ZipEntry("authors.json"));
+            zipOut.write(authors);
+            zipOut.closeEntry();
+            zipOut.putNextEntry(new ZipEntry("metadata.json"));
+            zipOut.write(objectMapper.writeValueAsBytes(Map.of("entries",
+                Map.of("authors.json", new ExportChainManifest.ArchiveEntry(2, checksum)))));
+            zipOut.closeEntry();
+        }
+        return zipPath;
+    }
+
     private String createTestExportFile() throws IOException {
         // Mock repository data
-        when(authorRepository.findAll()).thenReturn(createMockAuthors());
-        when(bookRepository.findAll()).thenReturn(createMockBooks());
-        when(userRepository.findAll()).thenReturn(createMockUsers());
-        when(loanRepository.findAll()).thenReturn(createMockLoans());
-        when(recommendationRepository.findAll()).thenReturn(createMockRecommendations());
-        when(loanTrackingRepository.findAll()).thenReturn(createMockLoanTracking());
-        when(auditLogRepository.findAll()).thenReturn(createMockAuditLogs());
-
-        when(authorRepository.count()).thenReturn(2L);
-        when(bookRepository.count()).thenReturn(2L);
-        when(userRepository.count()).thenReturn(2L);
-        when(loanRepository.count()).thenReturn(1L);
-        when(recommendationRepository.count()).thenReturn(1L);
-        when(loanTrackingRepository.count()).thenReturn(1L);
-        when(auditLogRepository.count()).thenReturn(1L);
+        when(authorRepository.streamAllForExport()).thenReturn(createMockAuthors().stream());
+        when(bookRepository.streamAllForExport()).thenReturn(createMockBooks().stream());
+        when(userRepository.streamAllForExport()).thenReturn(createMockUsers().stream());
+        when(loanRepository.streamAllForExport()).thenReturn(createMockLoans().stream());
+        when(recommendationRepository.streamAllForExport()).thenReturn(createMockRecommendations().stream());
+        when(loanTrackingRepository.streamAllForExport()).thenReturn(createMockLoanTracking().stream());
+        when(auditLogRepository.streamAllForExport()).thenReturn(createMockAuditLogs().stream());
+
 
         return dataExportImportService.exportAllData();
     }
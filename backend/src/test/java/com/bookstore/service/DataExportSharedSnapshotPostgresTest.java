@@ -0,0 +1,230 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Author;
+import com.bookstore.entity.AuditLog;
+import com.bookstore.entity.Book;
+import com.bookstore.entity.Loan;
+import com.bookstore.entity.LoanTracking;
+import com.bookstore.entity.Recommendation;
+import com.bookstore.entity.User;
+import com.bookstore.repository.AuditLogRepository;
+import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.DeletedRecordRepository;
+import com.bookstore.repository.LoanRepository;
+import com.bookstore.repository.LoanTrackingRepository;
+import com.bookstore.repository.RecommendationRepository;
+import com.bookstore.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Parallel export with {@link DataExportImportService.SnapshotMode#SHARED} against a real PostgreSQL,
+ * which exports the snapshot the workers import, while another connection keeps writing.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DataExportImportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DataExportSharedSnapshotPostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("bookstore_export")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private DataExportImportService dataExportImportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Each table is read through the worker's transaction, so the answers see what the worker sees
+    @MockBean
+    private AuthorRepository authorRepository;
+
+    @MockBean
+    private BookRepository bookRepository;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private LoanRepository loanRepository;
+
+    @MockBean
+    private RecommendationRepository recommendationRepository;
+
+    @MockBean
+    private LoanTrackingRepository loanTrackingRepository;
+
+    @MockBean
+    private AuditLogRepository auditLogRepository;
+
+    @MockBean
+    private DeletedRecordRepository deletedRecordRepository;
+
+    private final ObjectMapper objectMapper = DataExportImportService.archiveObjectMapper();
+    private final Set<String> workerSnapshots = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final AtomicInteger written = new AtomicInteger();
+    private ExecutorService writer;
+
+    @BeforeEach
+    void setUp() {
+        inNewTransaction(() -> {
+            for (int i = 0; i < 3; i++) {
+                entityManager.persist(new Author("Author", "Before " + i));
+            }
+            for (int i = 0; i < 5; i++) {
+                entityManager.persist(new Book("Before " + i, String.format("978-0-00000-%03d", i)));
+            }
+        });
+        writer = Executors.newSingleThreadExecutor();
+
+        ReflectionTestUtils.setField(dataExportImportService, "parallelWorkers", 3);
+        ReflectionTestUtils.setField(dataExportImportService, "snapshotMode",
+            DataExportImportService.SnapshotMode.SHARED);
+        when(authorRepository.streamAllForExport()).thenAnswer(invocation -> {
+            // Committed after the snapshot was exported, before any table is read
+            writeConcurrently();
+            return rows(Author.class);
+        });
+        when(bookRepository.streamAllForExport()).thenAnswer(invocation -> {
+            writeConcurrently();
+            return rows(Book.class);
+        });
+        when(userRepository.streamAllForExport()).thenAnswer(invocation -> rows(User.class));
+        when(loanRepository.streamAllForExport()).thenAnswer(invocation -> rows(Loan.class));
+        when(recommendationRepository.streamAllForExport()).thenAnswer(invocation -> rows(Recommendation.class));
+        when(loanTrackingRepository.streamAllForExport()).thenAnswer(invocation -> rows(LoanTracking.class));
+        when(auditLogRepository.streamAllForExport()).thenAnswer(invocation -> rows(AuditLog.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdownNow();
+        inNewTransaction(() -> {
+            entityManager.createNativeQuery("DELETE FROM book_authors").executeUpdate();
+            entityManager.createQuery("DELETE FROM Book").executeUpdate();
+            entityManager.createQuery("DELETE FROM Author").executeUpdate();
+        });
+    }
+
+    @Test
+    void shouldExportOneSnapshotToEveryWorkerWhileRowsAreWritten() throws Exception {
+        // Given - a background writer keeps committing rows for the whole export
+        AtomicBoolean exporting = new AtomicBoolean(true);
+        writer.submit(() -> {
+            while (exporting.get()) {
+                insertAuthorAndBook();
+            }
+        });
+
+        // When
+        String exportPath;
+        try {
+            exportPath = dataExportImportService.exportAllDataParallel();
+        } finally {
+            exporting.set(false);
+            writer.shutdown();
+            assertThat(writer.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // Then - every worker ran in the one exported snapshot
+        assertThat(workerSnapshots).hasSize(1);
+        assertThat(written.get()).isPositive();
+        try (ZipFile zipFile = new ZipFile(exportPath)) {
+            JsonNode authors = objectMapper.readTree(zipFile.getInputStream(zipFile.getEntry("authors.json")));
+            JsonNode books = objectMapper.readTree(zipFile.getInputStream(zipFile.getEntry("books.json")));
+            JsonNode metadata = objectMapper.readTree(zipFile.getInputStream(zipFile.getEntry("metadata.json")));
+            // None of the rows committed during the export made it into the archive
+            assertThat(authors).hasSize(3);
+            assertThat(books).hasSize(5);
+            assertThat(metadata.get("authorCount").asLong()).isEqualTo(3L);
+            assertThat(metadata.get("bookCount").asLong()).isEqualTo(5L);
+            assertThat(metadata.get("snapshot").asText()).startsWith("SHARED:");
+        }
+        assertThat(count(Author.class)).isEqualTo(3L + written.get());
+        assertThat(count(Book.class)).isEqualTo(5L + written.get());
+        Files.deleteIfExists(Path.of(exportPath));
+    }
+
+    /**
+     * Record the snapshot the calling worker reads from, then read the table in it
+     */
+    private <T> Stream<T> rows(Class<T> type) {
+        workerSnapshots.add(entityManager.createNativeQuery("SELECT pg_current_snapshot()::text")
+            .getSingleResult().toString());
+        return entityManager.createQuery("SELECT e FROM " + type.getSimpleName() + " e", type).getResultStream();
+    }
+
+    private void writeConcurrently() throws Exception {
+        CompletableFuture.runAsync(this::insertAuthorAndBook).get(10, TimeUnit.SECONDS);
+    }
+
+    private void insertAuthorAndBook() {
+        inNewTransaction(() -> {
+            int n = sequence.incrementAndGet();
+            entityManager.persist(new Author("Author", "During " + n));
+            entityManager.persist(new Book("During " + n, String.format("978-1-%08d", n)));
+        });
+        written.incrementAndGet();
+    }
+
+    private long count(Class<?> type) {
+        return entityManager.createQuery("SELECT count(e) FROM " + type.getSimpleName() + " e", Long.class)
+            .getSingleResult();
+    }
+
+    private void inNewTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+}
@@ -0,0 +1,119 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Author;
+import com.bookstore.entity.Book;
+import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports an archive into the database and checks that new rows are inserted in JDBC batches
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Import({DataExportImportService.class, DeletionTombstoneListener.class,
+    BookSuggestionEntityListener.class, BookSuggestionService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DataImportBatchingTest {
+
+    private static final int AUTHORS = 200;
+    private static final int BOOKS = 120;
+
+    @Autowired
+    private DataExportImportService dataExportImportService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = DataExportImportService.archiveObjectMapper();
+    private Statistics statistics;
+    private Path archive;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        archive = Files.createTempFile("import-batching", ".zip");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        Files.deleteIfExists(archive);
+    }
+
+    @Test
+    void importAllData_ShouldInsertNewRowsInBatches() throws IOException {
+        // Given
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            authors.add(new Author("Author", "Number " + i));
+        }
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(new Book("Book " + i, String.format("978-0-00000-%03d", i)));
+        }
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            writeEntry(zip, "authors.json", authors);
+            writeEntry(zip, "books.json", books);
+        }
+        statistics.clear();
+
+        // When
+        dataExportImportService.importAllData(archive.toString(), (entityType, rows) -> { });
+
+        // Then
+        assertEquals(AUTHORS, authorRepository.count());
+        assertEquals(BOOKS, bookRepository.count());
+        assertEquals(AUTHORS + BOOKS, statistics.getEntityInsertCount());
+        // One insert statement and one id block per 50 rows, instead of a round trip per row
+        long rows = AUTHORS + BOOKS;
+        assertTrue(statistics.getPrepareStatementCount() < rows / 10,
+            "Prepared " + statistics.getPrepareStatementCount() + " statements for " + rows + " rows");
+    }
+
+    private void writeEntry(ZipOutputStream zip, String name, List<?> rows) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        OutputStream entry = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                zip.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                zip.write(b, off, len);
+            }
+        };
+        objectMapper.writeValue(entry, rows);
+        zip.closeEntry();
+    }
+}
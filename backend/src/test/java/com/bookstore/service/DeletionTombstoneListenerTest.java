@@ -0,0 +1,110 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Author;
+import com.bookstore.entity.DeletedRecord;
+import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.DeletedRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Restores archives that carry tombstones and checks which deletes record new ones
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@Import({DataExportImportService.class, DeletionTombstoneListener.class,
+    BookSuggestionEntityListener.class, BookSuggestionService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeletionTombstoneListenerTest {
+
+    @Autowired
+    private DataExportImportService dataExportImportService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private DeletedRecordRepository deletedRecordRepository;
+
+    private final ObjectMapper objectMapper = DataExportImportService.archiveObjectMapper();
+    private Path archive;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        archive = Files.createTempFile("tombstone-replay", ".zip");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        authorRepository.deleteAll();
+        deletedRecordRepository.deleteAll();
+        Files.deleteIfExists(archive);
+    }
+
+    @Test
+    void restoringTwice_ShouldNotRecordTheReplayedDeletes() throws IOException {
+        // Given
+        Author first = authorRepository.save(new Author("First", "Author"));
+        Author second = authorRepository.save(new Author("Second", "Author"));
+        List<DeletedRecord> tombstones = List.of(
+            new DeletedRecord("authors", first.getId(), LocalDateTime.now()),
+            new DeletedRecord("authors", second.getId(), LocalDateTime.now()));
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("tombstones.json"));
+            zip.write(objectMapper.writeValueAsBytes(tombstones));
+            zip.closeEntry();
+        }
+        long recorded = deletedRecordRepository.count();
+
+        // When
+        dataExportImportService.importAllData(archive.toString());
+        long afterFirstRestore = deletedRecordRepository.count();
+        dataExportImportService.importAllData(archive.toString());
+        long afterSecondRestore = deletedRecordRepository.count();
+
+        // Then
+        assertFalse(authorRepository.existsById(first.getId()));
+        assertFalse(authorRepository.existsById(second.getId()));
+        assertEquals(recorded, afterFirstRestore);
+        assertEquals(recorded, afterSecondRestore);
+    }
+
+    @Test
+    void deletesAfterARestore_ShouldStillRecordTombstones() throws IOException {
+        // Given
+        Author replayed = authorRepository.save(new Author("Replayed", "Author"));
+        Author deleted = authorRepository.save(new Author("Deleted", "Author"));
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("tombstones.json"));
+            zip.write(objectMapper.writeValueAsBytes(
+                List.of(new DeletedRecord("authors", replayed.getId(), LocalDateTime.now()))));
+            zip.closeEntry();
+        }
+        dataExportImportService.importAllData(archive.toString());
+
+        // When
+        authorRepository.deleteById(deleted.getId());
+
+        // Then
+        List<DeletedRecord> recorded = deletedRecordRepository.findAll();
+        assertEquals(1, recorded.size());
+        assertEquals("authors", recorded.get(0).getEntityType());
+        assertEquals(deleted.getId(), recorded.get(0).getEntityId());
+    }
+}
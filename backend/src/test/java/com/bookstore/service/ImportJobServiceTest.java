@@ -0,0 +1,170 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.ExportChainManifest;
+import com.bookstore.dto.ImportJobProgress;
+import com.bookstore.entity.ImportJob;
+import com.bookstore.entity.ImportJobStatus;
+import com.bookstore.repository.ImportJobRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    @Mock
+    private ImportJobRepository importJobRepository;
+
+    @Mock
+    private DataExportImportService dataExportImportService;
+
+    @InjectMocks
+    private ImportJobService importJobService;
+
+    @Test
+    void shouldCreateJobWithTotalRowsFromVerifiedArchive() throws IOException {
+        // Given
+        Map<String, ExportChainManifest.ArchiveEntry> entries = new LinkedHashMap<>();
+        entries.put("authors.json", new ExportChainManifest.ArchiveEntry(20, "a"));
+        entries.put("books.json", new ExportChainManifest.ArchiveEntry(30, "b"));
+        when(dataExportImportService.verifyArchive("exports/archive.zip")).thenReturn(entries);
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ImportJob job = importJobService.createJob("exports/archive.zip");
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(ImportJobStatus.PENDING);
+        assertThat(job.getTotalRows()).isEqualTo(50L);
+    }
+
+    @Test
+    void shouldResumeFromStoredCheckpointAndCompleteJob() throws Exception {
+        // Given
+        ImportJob job = failedJob();
+        when(importJobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doAnswer(invocation -> {
+            DataExportImportService.ImportCheckpoint checkpoint = invocation.getArgument(1);
+            assertThat(checkpoint.isEntryCompleted("authors.json")).isTrue();
+            assertThat(checkpoint.resumeOffset("loans.json")).isEqualTo(400L);
+            checkpoint.recordChunk("loans.json", 900L);
+            checkpoint.entryCompleted("loans.json");
+            return null;
+        }).when(dataExportImportService).importAllData(eq("exports/archive.zip"), any(), any());
+
+        // When
+        ImportJob result = importJobService.runJob(1L).get();
+
+        // Then
+        verify(dataExportImportService).verifyArchive("exports/archive.zip");
+        verify(importJobRepository).recordCheckpoint(eq(1L), eq("loans.json"), eq(900L), eq(500L), any());
+        assertThat(result.getStatus()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(result.getAttempts()).isEqualTo(2);
+        assertThat(result.getCompletedEntrySet()).containsExactly("authors.json", "loans.json");
+        assertThat(result.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void shouldMarkJobFailedAndKeepCheckpoint() throws Exception {
+        // Given
+        ImportJob job = failedJob();
+        job.setStatus(ImportJobStatus.PENDING);
+        when(importJobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new IOException("Checksum mismatch for archive entry loans.json"))
+            .when(dataExportImportService).verifyArchive("exports/archive.zip");
+
+        // When
+        CompletableFuture<ImportJob> result = importJobService.runJob(1L);
+
+        // Then
+        assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class);
+        assertThat(job.getStatus()).isEqualTo(ImportJobStatus.FAILED);
+        assertThat(job.getErrorMessage()).contains("Checksum mismatch");
+        assertThat(job.getEntryOffset()).isEqualTo(400L);
+        verify(dataExportImportService, never()).importAllData(any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectRunningCompletedJob() throws Exception {
+        // Given
+        ImportJob job = failedJob();
+        job.setStatus(ImportJobStatus.COMPLETED);
+        when(importJobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        // When
+        CompletableFuture<ImportJob> result = importJobService.runJob(1L);
+
+        // Then
+        assertThatThrownBy(result::get).hasCauseInstanceOf(IllegalStateException.class);
+        verify(dataExportImportService, never()).importAllData(any(), any(), any());
+        verify(importJobRepository, never()).recordCheckpoint(anyLong(), any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void shouldReportRateAndEtaOfRunningJob() {
+        // Given
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+        ImportJob job = new ImportJob("exports/archive.zip", 10_000L);
+        job.setId(1L);
+        job.setStatus(ImportJobStatus.RUNNING);
+        job.setRunStartedAt(now.minusSeconds(10));
+        job.setRunStartRows(1_000L);
+        job.setRowsProcessed(6_000L);
+
+        // When
+        ImportJobProgress progress = importJobService.toProgress(job, now);
+
+        // Then
+        assertThat(progress.getRowsPerSecond()).isEqualTo(500.0);
+        assertThat(progress.getEtaSeconds()).isEqualTo(8L);
+        assertThat(progress.getPercentComplete()).isEqualTo(60.0);
+    }
+
+    @Test
+    void shouldFailJobsInterruptedByShutdown() {
+        // Given
+        ImportJob job = failedJob();
+        job.setStatus(ImportJobStatus.RUNNING);
+        when(importJobRepository.findByStatus(ImportJobStatus.RUNNING)).thenReturn(List.of(job));
+
+        // When
+        importJobService.failInterruptedJobs();
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(ImportJobStatus.FAILED);
+        assertThat(job.getStatus().isResumable()).isTrue();
+        verify(importJobRepository).save(job);
+    }
+
+    private ImportJob failedJob() {
+        ImportJob job = new ImportJob("exports/archive.zip", 1_000L);
+        job.setId(1L);
+        job.setStatus(ImportJobStatus.FAILED);
+        job.setAttempts(1);
+        job.setCompletedEntries("authors.json");
+        job.setCurrentEntry("loans.json");
+        job.setEntryOffset(400L);
+        job.setRowsProcessed(420L);
+        return job;
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -344,6 +345,9 @@ class LoanTrackingServiceTest {
         
         // Then
         assertEquals(expectedDeletedRecords, result);
-        verify(loanTrackingRepository).deleteByEventTimestampBefore(any(LocalDateTime.class));
+        ArgumentCaptor<LocalDateTime> tombstoneCutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        InOrder inOrder = inOrder(loanTrackingRepository);
+        inOrder.verify(loanTrackingRepository).insertTombstonesByEventTimestampBefore(tombstoneCutoff.capture());
+        inOrder.verify(loanTrackingRepository).deleteByEventTimestampBefore(tombstoneCutoff.getValue());
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+import com.bookstore.repository.BookRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NdjsonStreamingServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private NdjsonStreamingService streamingService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(streamingService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(streamingService, "entityManager", entityManager);
+    }
+
+    private Book book(long id, String title) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setIsbn("978000000000" + id);
+        return book;
+    }
+
+    private String[] streamBooks(String fields) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        streamingService.streamBooks(fields).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8).split("\n");
+    }
+
+    @Test
+    void streamBooks_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Given
+        when(bookRepository.streamAllForExport()).thenReturn(Stream.of(book(1, "Dune"), book(2, "Emma")));
+
+        // When
+        String[] lines = streamBooks(null);
+
+        // Then
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("title").asText()).isEqualTo("Dune");
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2L);
+    }
+
+    @Test
+    void streamBooks_ShouldWriteOnlyProjectedFields() throws Exception {
+        // Given
+        when(bookRepository.streamAllForExport()).thenReturn(Stream.of(book(1, "Dune")));
+
+        // When
+        String[] lines = streamBooks("id, title");
+
+        // Then
+        JsonNode row = objectMapper.readTree(lines[0]);
+        assertThat(row.size()).isEqualTo(2);
+        assertThat(row.get("id").asLong()).isEqualTo(1L);
+        assertThat(row.get("title").asText()).isEqualTo("Dune");
+    }
+
+    @Test
+    void streamBooks_ShouldClearPersistenceContextPeriodically() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(streamingService, "clearInterval", 2);
+        when(bookRepository.streamAllForExport())
+                .thenReturn(Stream.of(book(1, "A"), book(2, "B"), book(3, "C"), book(4, "D"), book(5, "E")));
+
+        // When
+        String[] lines = streamBooks("id");
+
+        // Then
+        assertThat(lines).hasSize(5);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void streamBooks_ShouldRejectUnknownOrIgnoredFieldsBeforeStreaming() {
+        // When & Then
+        assertThatThrownBy(() -> streamingService.streamBooks("id,price"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("price");
+        assertThatThrownBy(() -> streamingService.streamBooks("loans"))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(bookRepository);
+    }
+}
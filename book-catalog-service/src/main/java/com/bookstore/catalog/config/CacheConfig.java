@@ -0,0 +1,41 @@
+package com.bookstore.catalog.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process caches for book lookups.
+ *
+ * The caches themselves are configured under spring.cache (Caffeine, bounded, with statistics);
+ * BookCacheInvalidator evicts entries when books change, here or on a peer instance.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String BOOKS = "books";
+    public static final String BOOKS_BY_ISBN = "booksByIsbn";
+    public static final String BOOK_AVAILABILITY = "bookAvailability";
+    public static final String GENRES = "genres";
+
+    /**
+     * Hit ratio per cache since startup, next to the hit and miss counts Spring Boot already publishes
+     * as cache.gets
+     */
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(CacheManager cacheManager) {
+        return registry -> cacheManager.getCacheNames().forEach(name -> {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                Gauge.builder("cache.hit.ratio", cache, c -> c.getNativeCache().stats().hitRate())
+                    .description("Share of lookups answered from the cache")
+                    .tag("cache", name)
+                    .register(registry);
+            }
+        });
+    }
+}
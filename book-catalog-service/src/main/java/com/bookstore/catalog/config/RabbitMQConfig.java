@@ -1,9 +1,9 @@
 package com.bookstore.catalog.config;
 
+import com.bookstore.catalog.event.EventCodec;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,22 +19,23 @@ public class RabbitMQConfig {
     public static final String BOOK_UPDATED_QUEUE = "book.updated";
     public static final String BOOK_DELETED_QUEUE = "book.deleted";
     public static final String BOOK_AVAILABILITY_QUEUE = "book.availability.changed";
+    public static final String INVENTORY_COMMAND_QUEUE = "book-catalog.inventory.commands";
 
     /**
-     * Configure message converter to use Jackson for JSON serialization
+     * Configure message converter to read and write the versioned event envelope
      */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter jsonMessageConverter(EventCodec eventCodec) {
+        return eventCodec.messageConverter();
     }
 
     /**
-     * Configure RabbitTemplate with JSON message converter
+     * Configure RabbitTemplate with the event envelope message converter
      */
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter jsonMessageConverter) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(jsonMessageConverter);
         return rabbitTemplate;
     }
 
@@ -90,6 +91,25 @@ public class RabbitMQConfig {
             .build();
     }
 
+    /**
+     * Declare the queue for inventory commands from the loan service; shared by all instances
+     */
+    @Bean
+    public Queue inventoryCommandQueue() {
+        return QueueBuilder.durable(INVENTORY_COMMAND_QUEUE)
+            .withArgument("x-message-ttl", 86400000)
+            .withArgument("x-max-length", 10000)
+            .build();
+    }
+
+    /**
+     * Declare this instance's own queue for cache invalidation; it is deleted when the instance disconnects
+     */
+    @Bean
+    public Queue bookCacheInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("book-catalog.cache."));
+    }
+
     /**
      * Bind book.created queue to exchange
      */
@@ -100,6 +120,16 @@ public class RabbitMQConfig {
             .with("book.created");
     }
 
+    /**
+     * Bind book.created queue to batched creations from bulk requests as well
+     */
+    @Bean
+    public Binding booksCreatedBatchBinding(Queue bookCreatedQueue, TopicExchange bookstoreExchange) {
+        return BindingBuilder.bind(bookCreatedQueue)
+            .to(bookstoreExchange)
+            .with("book.created.batch");
+    }
+
     /**
      * Bind book.updated queue to exchange
      */
@@ -129,4 +159,35 @@ public class RabbitMQConfig {
             .to(bookstoreExchange)
             .with("book.availability.*");
     }
+
+    /**
+     * Bind the cache invalidation queue to every book event
+     */
+    @Bean
+    public Binding bookCacheInvalidationBinding(Queue bookCacheInvalidationQueue, TopicExchange bookstoreExchange) {
+        return BindingBuilder.bind(bookCacheInvalidationQueue)
+            .to(bookstoreExchange)
+            .with("book.#");
+    }
+
+    /**
+     * Bind the cache invalidation queue to author events too, since cached books embed their authors
+     */
+    @Bean
+    public Binding authorCacheInvalidationBinding(Queue bookCacheInvalidationQueue, TopicExchange bookstoreExchange) {
+        return BindingBuilder.bind(bookCacheInvalidationQueue)
+            .to(bookstoreExchange)
+            .with("author.#");
+    }
+
+    /**
+     * Bind the inventory command queue to borrow and release commands. Commands are routed under
+     * inventory.command rather than book so they stay out of the cache invalidation queue.
+     */
+    @Bean
+    public Binding inventoryCommandBinding(Queue inventoryCommandQueue, TopicExchange bookstoreExchange) {
+        return BindingBuilder.bind(inventoryCommandQueue)
+            .to(bookstoreExchange)
+            .with("inventory.command.*");
+    }
 }
@@ -0,0 +1,12 @@
+package com.bookstore.catalog.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled jobs, such as the outbox relay
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
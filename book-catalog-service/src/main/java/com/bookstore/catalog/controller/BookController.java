@@ -2,14 +2,27 @@ package com.bookstore.catalog.controller;
 
 import com.bookstore.catalog.dto.*;
 import com.bookstore.catalog.service.BookService;
+import com.bookstore.catalog.service.InventoryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * REST controller for book catalog operations
@@ -19,11 +32,16 @@ import java.util.List;
 public class BookController {
 
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
+    private static final int NDJSON_FLUSH_INTERVAL = 100;
 
     private final BookService bookService;
+    private final InventoryService inventoryService;
+    private final ObjectMapper objectMapper;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, InventoryService inventoryService, ObjectMapper objectMapper) {
         this.bookService = bookService;
+        this.inventoryService = inventoryService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -47,10 +65,13 @@ public class BookController {
     }
 
     /**
-     * Get all books
+     * Get all books. Unpaged and capped at catalog.listing.legacy-max-results; kept for existing
+     * callers, new ones should use /page or /summaries. With ids, returns just those books (unknown
+     * IDs left out) from a single query, and the other filters are ignored.
      */
     @GetMapping
     public ResponseEntity<List<BookResponse>> getAllBooks(
+            @RequestParam(required = false) List<Long> ids,
             @RequestParam(required = false) String genre,
             @RequestParam(required = false) Long authorId,
             @RequestParam(required = false) String search,
@@ -59,6 +80,11 @@ public class BookController {
         logger.debug("GET /api/books - Fetching books with filters: genre={}, authorId={}, search={}, available={}", 
                     genre, authorId, search, available);
 
+        if (ids != null) {
+            logger.debug("GET /api/books - Fetching {} books by ID", ids.size());
+            return ResponseEntity.ok(bookService.getBooksByIds(ids));
+        }
+
         List<BookResponse> books;
 
         if (search != null && !search.trim().isEmpty()) {
@@ -76,6 +102,69 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
 
+    /**
+     * NDJSON variant of {@link #getAllBooks}, chosen with {@code Accept: application/x-ndjson}.
+     * Same filters, but uncapped: books are written one per line as they are read from a cursor,
+     * so a slow client throttles the query instead of the whole list being built first.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBooks(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean available) {
+
+        logger.debug("GET /api/books (NDJSON) - Streaming books with filters: genre={}, authorId={}, search={}, available={}",
+                    genre, authorId, search, available);
+
+        StreamingResponseBody body;
+        if (ids != null) {
+            List<BookResponse> books = bookService.getBooksByIds(ids);
+            body = out -> writeNdjson(out, action -> books.forEach(action));
+        } else {
+            // Before the response starts, so a missing author is still a 404
+            bookService.checkListingFilters(genre, authorId, search);
+            body = out -> writeNdjson(out, action -> bookService.forEachBook(genre, authorId, search, available, action));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Get one page of books with their authors, plus totals
+     */
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<BookResponse>> getBooksPage(
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean available,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+
+        logger.debug("GET /api/books/page - Fetching books page {} with filters: genre={}, authorId={}, search={}, available={}",
+                    pageable.getPageNumber(), genre, authorId, search, available);
+        return ResponseEntity.ok(PageResponse.fromPage(
+            bookService.getBooksPage(genre, authorId, search, available, pageable)));
+    }
+
+    /**
+     * Get a slice of book summaries: scalar fields only, no authors and no totals
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<PageResponse<BookSummary>> getBookSummaries(
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean available,
+            @PageableDefault(size = 50, sort = "id") Pageable pageable) {
+
+        logger.debug("GET /api/books/summaries - Fetching summaries page {} with filters: genre={}, search={}, available={}",
+                    pageable.getPageNumber(), genre, search, available);
+        return ResponseEntity.ok(PageResponse.fromSlice(
+            bookService.getBookSummaries(genre, search, available, pageable)));
+    }
+
     /**
      * Get book by ISBN
      */
@@ -118,6 +207,37 @@ public class BookController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Check the availability of several books in one call; unknown IDs are left out of the result
+     */
+    @PostMapping("/availability:batch")
+    public ResponseEntity<List<BookAvailabilityResponse>> checkBatchAvailability(@RequestBody List<Long> bookIds) {
+        logger.debug("POST /api/books/availability:batch - Checking availability for {} books", bookIds.size());
+        return ResponseEntity.ok(bookService.checkBatchAvailability(bookIds));
+    }
+
+    /**
+     * Borrow one copy of a book. Retries with the same Idempotency-Key are only applied once.
+     */
+    @PutMapping("/{id}/borrow")
+    public ResponseEntity<BookAvailabilityResponse> borrowBook(
+            @PathVariable Long id,
+            @RequestHeader(value = InventoryService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        logger.info("PUT /api/books/{}/borrow - Borrowing copy, idempotency key: {}", id, idempotencyKey);
+        return ResponseEntity.ok(inventoryService.borrowBook(id, idempotencyKey));
+    }
+
+    /**
+     * Return one copy of a book. Retries with the same Idempotency-Key are only applied once.
+     */
+    @PutMapping("/{id}/return")
+    public ResponseEntity<BookAvailabilityResponse> returnBook(
+            @PathVariable Long id,
+            @RequestHeader(value = InventoryService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        logger.info("PUT /api/books/{}/return - Returning copy, idempotency key: {}", id, idempotencyKey);
+        return ResponseEntity.ok(inventoryService.returnBook(id, idempotencyKey));
+    }
+
     /**
      * Get all genres
      */
@@ -147,4 +267,30 @@ public class BookController {
         BulkOperationResult result = bookService.bulkDeleteBooks(bookIds);
         return ResponseEntity.ok(result);
     }
+
+    /**
+     * Write each book {@code rows} produces as one line of JSON, flushing every
+     * {@link #NDJSON_FLUSH_INTERVAL} books so the client sees them as they come
+     */
+    private void writeNdjson(OutputStream out, Consumer<Consumer<BookResponse>> rows) throws IOException {
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long[] written = {0};
+            rows.accept(book -> {
+                try {
+                    rowWriter.writeValue(generator, book);
+                    generator.writeRaw('\n');
+                    if (++written[0] % NDJSON_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package com.bookstore.catalog.controller;
+
+import com.bookstore.catalog.service.OutboxRelay;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Controller for inspecting the event outbox and replaying recorded events
+ */
+@RestController
+@RequestMapping("/api/outbox")
+public class OutboxController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxController.class);
+
+    private final OutboxRelay outboxRelay;
+
+    public OutboxController(OutboxRelay outboxRelay) {
+        this.outboxRelay = outboxRelay;
+    }
+
+    /**
+     * Number of events not yet confirmed by the broker
+     */
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(Map.of("pending", outboxRelay.countPending()));
+    }
+
+    /**
+     * Publish every event recorded since the given time again. Admins only, see SecurityConfig.
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        logger.info("POST /api/outbox/replay - Replaying events since {}", since);
+        int replayed = outboxRelay.replaySince(since);
+        return ResponseEntity.ok(Map.of("replayed", replayed));
+    }
+}
@@ -0,0 +1,15 @@
+package com.bookstore.catalog.dto;
+
+/**
+ * Author-less book projection for listings. Selected column by column with a JPQL constructor
+ * expression, so neither the entity nor its author association is loaded.
+ */
+public record BookSummary(
+        Long id,
+        String title,
+        String isbn,
+        String genre,
+        Integer publicationYear,
+        Integer availableCopies,
+        Integer totalCopies) {
+}
@@ -0,0 +1,91 @@
+package com.bookstore.catalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a listing. Totals are only present for pages; slices skip the count query
+ * and only report whether another page follows.
+ */
+public class PageResponse<T> {
+
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalPages;
+
+    // Constructors
+    public PageResponse() {}
+
+    public static <T> PageResponse<T> fromSlice(Slice<T> slice) {
+        PageResponse<T> response = new PageResponse<>();
+        response.setContent(slice.getContent());
+        response.setPage(slice.getNumber());
+        response.setSize(slice.getSize());
+        response.setHasNext(slice.hasNext());
+        return response;
+    }
+
+    public static <T> PageResponse<T> fromPage(Page<T> page) {
+        PageResponse<T> response = fromSlice(page);
+        response.setTotalElements(page.getTotalElements());
+        response.setTotalPages(page.getTotalPages());
+        return response;
+    }
+
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public Integer getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(Integer totalPages) {
+        this.totalPages = totalPages;
+    }
+}
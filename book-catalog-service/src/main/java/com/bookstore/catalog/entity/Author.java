@@ -3,7 +3,9 @@ package com.bookstore.catalog.entity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -51,9 +53,15 @@ public class Author {
     private String nationality;
 
     @ManyToMany(mappedBy = "authors", fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JsonBackReference
     private Set<Book> books = new HashSet<>();
 
+    // Counted in the author's own select, so reporting it never initializes the books collection.
+    // Reflects the database when the author was loaded.
+    @Formula("(SELECT COUNT(*) FROM book_authors ba WHERE ba.author_id = id)")
+    private int bookCount;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -120,6 +128,10 @@ public class Author {
         this.nationality = nationality;
     }
 
+    public int getBookCount() {
+        return bookCount;
+    }
+
     public Set<Book> getBooks() {
         return books;
     }
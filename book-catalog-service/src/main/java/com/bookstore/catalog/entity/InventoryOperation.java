@@ -0,0 +1,9 @@
+package com.bookstore.catalog.entity;
+
+/**
+ * Inventory adjustments that can be applied to a book's available copies
+ */
+public enum InventoryOperation {
+    BORROW,
+    RETURN
+}
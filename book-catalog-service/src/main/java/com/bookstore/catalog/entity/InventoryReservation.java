@@ -0,0 +1,114 @@
+package com.bookstore.catalog.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of an applied inventory adjustment, keyed by the caller's idempotency key.
+ * A retried request with the same key and operation is answered from this record instead of
+ * adjusting the copies again.
+ */
+@Entity
+@Table(name = "inventory_reservations", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_inventory_reservation_key", columnNames = {"idempotency_key", "operation"})
+}, indexes = {
+    @Index(name = "idx_inventory_reservation_created_at", columnList = "created_at")
+})
+public class InventoryReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private InventoryOperation operation;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    // Availability right after the adjustment, returned again on replay
+    @Column(name = "available_copies", nullable = false)
+    private Integer availableCopies;
+
+    @Column(name = "total_copies", nullable = false)
+    private Integer totalCopies;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // Default constructor
+    public InventoryReservation() {}
+
+    public InventoryReservation(String idempotencyKey, InventoryOperation operation, Long bookId,
+                                Integer availableCopies, Integer totalCopies) {
+        this.idempotencyKey = idempotencyKey;
+        this.operation = operation;
+        this.bookId = bookId;
+        this.availableCopies = availableCopies;
+        this.totalCopies = totalCopies;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public InventoryOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(InventoryOperation operation) {
+        this.operation = operation;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public Integer getAvailableCopies() {
+        return availableCopies;
+    }
+
+    public void setAvailableCopies(Integer availableCopies) {
+        this.availableCopies = availableCopies;
+    }
+
+    public Integer getTotalCopies() {
+        return totalCopies;
+    }
+
+    public void setTotalCopies(Integer totalCopies) {
+        this.totalCopies = totalCopies;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,198 @@
+package com.bookstore.catalog.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Serialized book event waiting to be relayed to RabbitMQ.
+ * Written in the same transaction as the change it describes, so an event exists exactly when the
+ * change was committed; the relay sets sentAt once the broker has confirmed the message.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_event_sent_at", columnList = "sent_at"),
+    @Index(name = "idx_outbox_event_created_at", columnList = "created_at")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(name = "routing_key", nullable = false, length = 100)
+    private String routingKey;
+
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "correlation_id", length = 100)
+    private String correlationId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // The relay leaves the event alone until then; later than createdAt while changes are being coalesced
+    // and while a relay that claimed the event waits for its confirm
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    // Times the relay claimed the event for sending since it was recorded or replayed
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // Default constructor
+    public OutboxEvent() {}
+
+    public OutboxEvent(String eventType, String routingKey, Long bookId, String correlationId, String payload) {
+        this.eventType = eventType;
+        this.routingKey = routingKey;
+        this.bookId = bookId;
+        this.correlationId = correlationId;
+        this.payload = payload;
+        this.availableAt = LocalDateTime.now();
+    }
+
+    // Business methods
+    /**
+     * Take a later change of the same kind into this unsent event and hold it until the given time
+     */
+    public void coalesce(String correlationId, String payload, LocalDateTime holdUntil) {
+        this.correlationId = correlationId;
+        this.payload = payload;
+        this.availableAt = holdUntil;
+    }
+
+    /**
+     * Take the event for sending: other relays leave it alone until the lease ends, and it is no
+     * longer merged into, since the broker may deliver it from now on
+     */
+    public void claim(LocalDateTime leaseUntil) {
+        this.attempts++;
+        this.availableAt = leaseUntil;
+    }
+
+    /**
+     * Give back a claimed event that was never sent, so the next batch takes it
+     */
+    public void release() {
+        this.attempts = Math.max(0, attempts - 1);
+        this.availableAt = LocalDateTime.now();
+    }
+
+    public void markSent(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+        this.lastError = null;
+    }
+
+    /**
+     * The send failed or was not confirmed; the event is due again with the next batch
+     */
+    public void recordFailure(String error) {
+        this.availableAt = LocalDateTime.now();
+        this.lastError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public void setRoutingKey(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public void setCorrelationId(String correlationId) {
+        this.correlationId = correlationId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getAvailableAt() {
+        return availableAt;
+    }
+
+    public void setAvailableAt(LocalDateTime availableAt) {
+        this.availableAt = availableAt;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
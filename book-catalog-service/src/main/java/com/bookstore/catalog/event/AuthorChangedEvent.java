@@ -0,0 +1,24 @@
+package com.bookstore.catalog.event;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event published when an author is updated or deleted. Books embed their authors, so the change
+ * affects every book of the author; the event itself carries no book.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class AuthorChangedEvent extends BookEvent {
+    public static final String AUTHOR_UPDATED = "AUTHOR_UPDATED";
+    public static final String AUTHOR_DELETED = "AUTHOR_DELETED";
+
+    private Long authorId;
+
+    public AuthorChangedEvent(String eventType, Long authorId, String correlationId) {
+        super(eventType, null, null, correlationId);
+        this.authorId = authorId;
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
+import java.util.Set;
+
 /**
  * Event published when a book is deleted
  */
@@ -12,6 +14,7 @@ import lombok.NoArgsConstructor;
 @EqualsAndHashCode(callSuper = true)
 public class BookDeletedEvent extends BookEvent {
     private String title;
+    private Set<Long> authorIds;
     
     public BookDeletedEvent(Long bookId, String isbn, String title, String correlationId) {
         super("BOOK_DELETED", bookId, isbn, correlationId);
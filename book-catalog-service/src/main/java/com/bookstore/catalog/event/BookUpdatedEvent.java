@@ -21,6 +21,10 @@ public class BookUpdatedEvent extends BookEvent {
     private Integer availableCopies;
     private Set<Long> authorIds;
     private Integer previousAvailableCopies;
+    // Only set when the update changed the ISBN
+    private String previousIsbn;
+    // Only set when the update changed the authors
+    private Set<Long> previousAuthorIds;
     
     public BookUpdatedEvent(Long bookId, String isbn, String title, String description,
                            Integer publicationYear, String genre, Integer totalCopies,
@@ -0,0 +1,22 @@
+package com.bookstore.catalog.event;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Event published once for all books created by one bulk request
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class BooksCreatedEvent extends BookEvent {
+    private List<BookCreatedEvent> books;
+    
+    public BooksCreatedEvent(List<BookCreatedEvent> books, String correlationId) {
+        super("BOOKS_CREATED", null, null, correlationId);
+        this.books = books;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bookstore.catalog.event;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Envelope around every message on bookstore.events, as written by EventCodec.
+ * Short property names keep the header small; the event's own fields are in data.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventEnvelope {
+    @JsonProperty("v")
+    private int version;
+    @JsonProperty("type")
+    private String eventType;
+    @JsonProperty("id")
+    private String eventId;
+    @JsonProperty("cid")
+    private String correlationId;
+    @JsonProperty("ts")
+    private LocalDateTime timestamp;
+    @JsonProperty("data")
+    private JsonNode data;
+}
@@ -0,0 +1,94 @@
+package com.bookstore.catalog.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Message converter for bookstore.events.
+ *
+ * Outgoing objects are written once, as an EventCodec envelope. Incoming envelopes are bound to the
+ * listener method's parameter type, so the producer's class name never has to resolve on the consumer.
+ * Messages without the envelope content type, such as ones still queued from before the envelope,
+ * go through the plain Jackson converter. Publishers used to hand the template event JSON they had
+ * already serialized, which it wrote again as a JSON string; such a body is unwrapped first and its
+ * event JSON or envelope is bound to the listener's parameter type.
+ */
+public class EventMessageConverter implements MessageConverter {
+
+    private final EventCodec codec;
+    private final Jackson2JsonMessageConverter legacyConverter;
+
+    public EventMessageConverter(EventCodec codec) {
+        this.codec = codec;
+        this.legacyConverter = new Jackson2JsonMessageConverter(codec.getObjectMapper());
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) throws MessageConversionException {
+        if (object instanceof String || object instanceof byte[]) {
+            return legacyConverter.toMessage(object, messageProperties);
+        }
+        messageProperties.setContentType(EventCodec.CONTENT_TYPE);
+        messageProperties.setContentEncoding(StandardCharsets.UTF_8.name());
+        byte[] body = codec.encode(object);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        MessageProperties properties = message.getMessageProperties();
+        String contentType = properties.getContentType();
+        Type target = properties.getInferredArgumentType();
+        if (contentType != null && contentType.startsWith(EventCodec.CONTENT_TYPE)) {
+            return fromEnvelope(message.getBody(), target);
+        }
+        if (target != null && target != Object.class && target != String.class && isJsonString(message.getBody())) {
+            return fromDoubleEncoded(message.getBody(), target);
+        }
+        return legacyConverter.fromMessage(message);
+    }
+
+    private Object fromEnvelope(byte[] body, Type target) {
+        if (target == null || target == Object.class || target == EventEnvelope.class) {
+            return codec.readEnvelope(body);
+        }
+        if (target == String.class) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        return codec.decode(body, codec.getObjectMapper().constructType(target));
+    }
+
+    /**
+     * Bind a body holding event JSON, or an envelope, written as a JSON string
+     */
+    private Object fromDoubleEncoded(byte[] body, Type target) {
+        try {
+            String payload = codec.getObjectMapper().readValue(body, String.class);
+            JsonNode event = codec.getObjectMapper().readTree(payload);
+            if (event.has("v") && event.has("data")) {
+                return fromEnvelope(payload.getBytes(StandardCharsets.UTF_8), target);
+            }
+            return codec.getObjectMapper().treeToValue(event, codec.getObjectMapper().constructType(target));
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to read double-encoded event into " + target, e);
+        }
+    }
+
+    private static boolean isJsonString(byte[] body) {
+        for (byte b : body) {
+            if (!Character.isWhitespace(b)) {
+                return b == '"';
+            }
+        }
+        return false;
+    }
+}
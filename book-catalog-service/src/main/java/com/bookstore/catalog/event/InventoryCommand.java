@@ -0,0 +1,32 @@
+package com.bookstore.catalog.event;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Command to take or put back a copy of a book, sent by the loan service's asynchronous saga.
+ * The saga ID is the idempotency key, so a redelivered command is applied once.
+ */
+@Data
+@NoArgsConstructor
+public class InventoryCommand {
+    public static final String BORROW_BOOK = "BORROW_BOOK";
+    public static final String RELEASE_BOOK = "RELEASE_BOOK";
+
+    private String eventId;
+    private String correlationId;
+    private LocalDateTime timestamp;
+    private String eventType;
+    private String sagaId;
+    private Long bookId;
+    /**
+     * Routing key the reply is sent with
+     */
+    private String replyTo;
+    /**
+     * A borrow arriving after this is refused: the sender has stopped waiting and will release it
+     */
+    private LocalDateTime deadline;
+}
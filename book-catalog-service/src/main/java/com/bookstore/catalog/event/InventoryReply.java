@@ -0,0 +1,37 @@
+package com.bookstore.catalog.event;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outcome of an {@link InventoryCommand}, sent to the command's replyTo routing key
+ */
+@Data
+@NoArgsConstructor
+public class InventoryReply {
+    private String eventId;
+    private String correlationId;
+    private LocalDateTime timestamp;
+    private String eventType = "INVENTORY_REPLY";
+    private String sagaId;
+    private String commandType;
+    private Long bookId;
+    private boolean success;
+    private String reason;
+    private Integer availableCopies;
+    private Integer totalCopies;
+
+    public InventoryReply(InventoryCommand command, boolean success, String reason) {
+        this.eventId = UUID.randomUUID().toString();
+        this.correlationId = command.getCorrelationId();
+        this.timestamp = LocalDateTime.now();
+        this.sagaId = command.getSagaId();
+        this.commandType = command.getEventType();
+        this.bookId = command.getBookId();
+        this.success = success;
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bookstore.catalog.exception;
+
+/**
+ * Exception thrown when a book has no available copies left to borrow
+ */
+public class BookNotAvailableException extends RuntimeException {
+    
+    public BookNotAvailableException(Long id) {
+        super("No available copies left for book with id: " + id);
+    }
+}
@@ -3,6 +3,7 @@ package com.bookstore.catalog.exception;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -32,6 +33,10 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    /**
+     * Also raised by the NDJSON book listing, whose clients may accept nothing but NDJSON; the
+     * content type is set explicitly so the error is still written as JSON
+     */
     @ExceptionHandler(AuthorNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleAuthorNotFoundException(AuthorNotFoundException ex) {
         logger.error("Author not found: {}", ex.getMessage());
@@ -40,7 +45,7 @@ public class GlobalExceptionHandler {
             ex.getMessage(),
             LocalDateTime.now()
         );
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error);
     }
 
     @ExceptionHandler(DuplicateIsbnException.class)
@@ -54,6 +59,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    @ExceptionHandler(BookNotAvailableException.class)
+    public ResponseEntity<ErrorResponse> handleBookNotAvailableException(BookNotAvailableException ex) {
+        logger.warn("Book not available: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Also raised by the NDJSON book listing; see {@link #handleAuthorNotFoundException}
+     */
     @ExceptionHandler(InvalidBookOperationException.class)
     public ResponseEntity<ErrorResponse> handleInvalidBookOperationException(InvalidBookOperationException ex) {
         logger.error("Invalid book operation: {}", ex.getMessage());
@@ -62,7 +81,7 @@ public class GlobalExceptionHandler {
             ex.getMessage(),
             LocalDateTime.now()
         );
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(error);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
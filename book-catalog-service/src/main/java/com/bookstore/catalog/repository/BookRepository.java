@@ -1,19 +1,43 @@
 package com.bookstore.catalog.repository;
 
+import com.bookstore.catalog.dto.BookSummary;
 import com.bookstore.catalog.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    String SUMMARY_SELECT = "SELECT new com.bookstore.catalog.dto.BookSummary(b.id, b.title, b.isbn, b.genre, " +
+                            "b.publicationYear, b.availableCopies, b.totalCopies) FROM Book b";
+
+    @EntityGraph(attributePaths = "authors")
     Optional<Book> findByIsbn(String isbn);
 
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.authors WHERE b.id = :id")
+    Optional<Book> findWithAuthorsById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.authors WHERE b.id IN :ids")
+    List<Book> findWithAuthorsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b FROM Book b WHERE b.id IN :ids")
+    List<Book> findByIdIn(@Param("ids") Collection<Long> ids);
+
     List<Book> findByTitleContainingIgnoreCase(String title);
 
     List<Book> findByGenre(String genre);
@@ -41,9 +65,104 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 
     boolean existsByIsbn(String isbn);
 
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
     @Query("SELECT COUNT(b) FROM Book b WHERE b.availableCopies > 0")
     long countAvailableBooks();
 
+    /**
+     * ID and ISBN of every book by any of the authors, the keys their cached lookups are held under
+     */
+    @Query("SELECT DISTINCT b.id, b.isbn FROM Book b JOIN b.authors a WHERE a.id IN :authorIds")
+    List<Object[]> findIdsAndIsbnsByAuthorIdIn(@Param("authorIds") Collection<Long> authorIds);
+
+    // Paged listings
+
+    Page<Book> findByGenreIgnoreCase(String genre, Pageable pageable);
+
+    @Query(value = "SELECT b FROM Book b JOIN b.authors a WHERE a.id = :authorId",
+           countQuery = "SELECT COUNT(b) FROM Book b JOIN b.authors a WHERE a.id = :authorId")
+    Page<Book> findByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    @Query(value = "SELECT b FROM Book b WHERE b.availableCopies > 0",
+           countQuery = "SELECT COUNT(b) FROM Book b WHERE b.availableCopies > 0")
+    Page<Book> findAvailableBooks(Pageable pageable);
+
+    @Query(value = "SELECT b FROM Book b WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+                   "OR LOWER(b.description) LIKE LOWER(CONCAT('%', :keyword, '%'))",
+           countQuery = "SELECT COUNT(b) FROM Book b WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+                        "OR LOWER(b.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    Page<Book> searchBooks(@Param("keyword") String keyword, Pageable pageable);
+
+    // Summary slices: scalar columns only, no authors and no count query
+
+    @Query(SUMMARY_SELECT)
+    Slice<BookSummary> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE LOWER(b.genre) = LOWER(:genre)")
+    Slice<BookSummary> findSummariesByGenre(@Param("genre") String genre, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE b.availableCopies > 0")
+    Slice<BookSummary> findAvailableSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "OR LOWER(b.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    Slice<BookSummary> searchSummaries(@Param("keyword") String keyword, Pageable pageable);
+
+    // Cursors for the NDJSON listing: rows are fetched a window at a time and never collected into a list
+
+    String STREAM_FETCH_SIZE = "100";
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    Stream<Book> streamAll();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b WHERE LOWER(b.genre) = LOWER(:genre) ORDER BY b.id")
+    Stream<Book> streamByGenre(@Param("genre") String genre);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b JOIN b.authors a WHERE a.id = :authorId ORDER BY b.id")
+    Stream<Book> streamByAuthorId(@Param("authorId") Long authorId);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b WHERE b.availableCopies > 0 ORDER BY b.id")
+    Stream<Book> streamAvailable();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "OR LOWER(b.description) LIKE LOWER(CONCAT('%', :keyword, '%')) ORDER BY b.id")
+    Stream<Book> streamSearch(@Param("keyword") String keyword);
+
+    // Conditional inventory adjustments: the row is only changed while the guard holds, so concurrent
+    // borrowers can never push the count below zero. Returns the number of rows changed.
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies - 1, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.id = :id AND b.availableCopies > 0")
+    int decrementAvailableCopies(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies + 1, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.id = :id AND b.availableCopies < b.totalCopies")
+    int incrementAvailableCopies(@Param("id") Long id);
+
     @Query("SELECT DISTINCT b.genre FROM Book b WHERE b.genre IS NOT NULL ORDER BY b.genre")
     List<String> findAllGenres();
 }
@@ -0,0 +1,22 @@
+package com.bookstore.catalog.repository;
+
+import com.bookstore.catalog.entity.InventoryOperation;
+import com.bookstore.catalog.entity.InventoryReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    Optional<InventoryReservation> findByIdempotencyKeyAndOperation(String idempotencyKey, InventoryOperation operation);
+
+    @Modifying
+    @Query("DELETE FROM InventoryReservation r WHERE r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,58 @@
+package com.bookstore.catalog.repository;
+
+import com.bookstore.catalog.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest unsent events, locked for the caller's transaction. Rows another relay instance has
+     * already locked are skipped rather than waited for (SKIP LOCKED on PostgreSQL).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.sentAt IS NULL AND e.availableAt <= :now ORDER BY e.id")
+    List<OutboxEvent> findUnsentForRelay(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * The book's latest event with the given routing key that is still held and was never attempted,
+     * locked so that a later change can be merged into it. Events that were attempted or replayed
+     * are left alone: the broker may already have delivered them under their ID, and a replayed
+     * event has to go out as recorded. An event the relay has claimed counts as attempted, and one it
+     * is claiming right now is locked by the relay and skipped.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.bookId = :bookId AND e.routingKey = :routingKey "
+        + "AND e.sentAt IS NULL AND e.attempts = 0 AND e.availableAt > :now ORDER BY e.id DESC")
+    List<OutboxEvent> findUnsentForCoalescing(@Param("bookId") Long bookId, @Param("routingKey") String routingKey,
+                                              @Param("now") LocalDateTime now, Pageable pageable);
+
+    long countBySentAtIsNull();
+
+    /**
+     * Queue the events recorded since the given time for sending again, due at once. An event a relay
+     * has claimed is due again too, so it cannot be taken for a held event and merged into.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.sentAt = NULL, e.attempts = 0, e.lastError = NULL, e.availableAt = :now "
+        + "WHERE e.createdAt >= :since")
+    int markUnsentSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -23,9 +23,14 @@ public class AuthorService {
     private static final Logger logger = LoggerFactory.getLogger(AuthorService.class);
 
     private final AuthorRepository authorRepository;
+    private final BookCacheInvalidator cacheInvalidator;
+    private final BookEventPublisher eventPublisher;
 
-    public AuthorService(AuthorRepository authorRepository) {
+    public AuthorService(AuthorRepository authorRepository, BookCacheInvalidator cacheInvalidator,
+                         BookEventPublisher eventPublisher) {
         this.authorRepository = authorRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -79,6 +84,8 @@ public class AuthorService {
         author.setNationality(request.getNationality());
 
         Author updatedAuthor = authorRepository.save(author);
+        cacheInvalidator.authorChanged();
+        eventPublisher.publishAuthorUpdated(updatedAuthor.getId());
         logger.info("Author updated successfully with ID: {}", updatedAuthor.getId());
 
         return mapToResponse(updatedAuthor);
@@ -94,6 +101,8 @@ public class AuthorService {
             .orElseThrow(() -> new AuthorNotFoundException(id));
 
         authorRepository.delete(author);
+        cacheInvalidator.authorChanged();
+        eventPublisher.publishAuthorDeleted(id);
         logger.info("Author deleted successfully with ID: {}", id);
     }
 
@@ -152,7 +161,7 @@ public class AuthorService {
         response.setNationality(author.getNationality());
         response.setCreatedAt(author.getCreatedAt());
         response.setUpdatedAt(author.getUpdatedAt());
-        response.setBookCount(author.getBooks() != null ? author.getBooks().size() : 0);
+        response.setBookCount(author.getBookCount());
         return response;
     }
 }
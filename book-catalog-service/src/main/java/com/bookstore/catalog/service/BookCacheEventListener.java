@@ -0,0 +1,61 @@
+package com.bookstore.catalog.service;
+
+import com.bookstore.catalog.event.EventEnvelope;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keeps this instance's book caches in step with changes made on other instances.
+ *
+ * Every instance listens on its own temporary queue bound to all book and author events, so each
+ * change reaches every cache. An instance also receives its own events; evicting again is harmless. Changes become
+ * visible on peers once the outbox relay has sent their event.
+ */
+@Service
+public class BookCacheEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookCacheEventListener.class);
+
+    private final BookCacheInvalidator cacheInvalidator;
+
+    public BookCacheEventListener(BookCacheInvalidator cacheInvalidator) {
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
+    @RabbitListener(queues = "#{bookCacheInvalidationQueue.name}")
+    public void handleBookEvent(EventEnvelope envelope) {
+        JsonNode data = envelope.getData();
+        Long bookId = data.hasNonNull("bookId") ? data.get("bookId").asLong() : null;
+        String isbn = data.path("isbn").textValue();
+
+        switch (envelope.getEventType()) {
+            case "BOOK_CREATED" -> cacheInvalidator.booksCreated(authorIds(data.path("authorIds")));
+            case "BOOKS_CREATED" -> {
+                Set<Long> authorIds = new HashSet<>();
+                data.path("books").forEach(book -> authorIds.addAll(authorIds(book.path("authorIds"))));
+                cacheInvalidator.booksCreated(authorIds);
+            }
+            case "BOOK_UPDATED" -> {
+                Set<Long> authorIds = authorIds(data.path("authorIds"));
+                authorIds.addAll(authorIds(data.path("previousAuthorIds")));
+                cacheInvalidator.bookChanged(bookId, authorIds, isbn, data.path("previousIsbn").textValue());
+            }
+            case "BOOK_DELETED" -> cacheInvalidator.bookChanged(bookId, authorIds(data.path("authorIds")), isbn);
+            case "BOOK_AVAILABILITY_CHANGED" -> cacheInvalidator.availabilityChanged(bookId, isbn);
+            case "AUTHOR_UPDATED", "AUTHOR_DELETED" -> cacheInvalidator.authorChanged();
+            default -> logger.debug("Ignoring {} for cache invalidation", envelope.getEventType());
+        }
+    }
+
+    private static Set<Long> authorIds(JsonNode ids) {
+        Set<Long> authorIds = new HashSet<>();
+        ids.forEach(id -> authorIds.add(id.asLong()));
+        return authorIds;
+    }
+}
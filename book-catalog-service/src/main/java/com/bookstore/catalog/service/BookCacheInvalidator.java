@@ -0,0 +1,122 @@
+package com.bookstore.catalog.service;
+
+import com.bookstore.catalog.config.CacheConfig;
+import com.bookstore.catalog.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * Evicts cached book lookups when a book changes.
+ *
+ * Inside a transaction the eviction waits until the transaction commits: evicting earlier would let
+ * a concurrent lookup cache the old row again before the change is visible, and a rolled-back change
+ * needs no eviction at all. Peer instances evict on the change's event, see BookCacheEventListener.
+ *
+ * Cached books embed their authors, including each author's book count, so adding a book to an author
+ * or taking one away also evicts that author's other books.
+ */
+@Component
+public class BookCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookCacheInvalidator.class);
+
+    private final CacheManager cacheManager;
+    private final BookRepository bookRepository;
+
+    public BookCacheInvalidator(CacheManager cacheManager, BookRepository bookRepository) {
+        this.cacheManager = cacheManager;
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * A book's details changed: evict it by ID and by each ISBN it was cached under, and the books of
+     * the authors it had before or has now
+     */
+    public void bookChanged(Long bookId, Collection<Long> authorIds, String... isbns) {
+        afterCommit(() -> {
+            evict(CacheConfig.BOOKS, bookId);
+            evict(CacheConfig.BOOK_AVAILABILITY, bookId);
+            for (String isbn : isbns) {
+                evict(CacheConfig.BOOKS_BY_ISBN, isbn);
+            }
+            evictBooksOf(authorIds);
+            clear(CacheConfig.GENRES);
+            logger.debug("Evicted cached book ID: {}", bookId);
+        });
+    }
+
+    /**
+     * Only a book's copy counts changed, so the genre list is still valid
+     */
+    public void availabilityChanged(Long bookId, String isbn) {
+        afterCommit(() -> {
+            evict(CacheConfig.BOOKS, bookId);
+            evict(CacheConfig.BOOK_AVAILABILITY, bookId);
+            evict(CacheConfig.BOOKS_BY_ISBN, isbn);
+        });
+    }
+
+    /**
+     * New books are not cached yet; the genre list and their authors' other books can be out of date
+     */
+    public void booksCreated(Collection<Long> authorIds) {
+        afterCommit(() -> {
+            evictBooksOf(authorIds);
+            clear(CacheConfig.GENRES);
+        });
+    }
+
+    /**
+     * Author details are embedded in every cached book of that author, and books are not cached by author
+     */
+    public void authorChanged() {
+        afterCommit(() -> {
+            clear(CacheConfig.BOOKS);
+            clear(CacheConfig.BOOKS_BY_ISBN);
+        });
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    private void evictBooksOf(Collection<Long> authorIds) {
+        if (authorIds == null || authorIds.isEmpty()) {
+            return;
+        }
+        for (Object[] keys : bookRepository.findIdsAndIsbnsByAuthorIdIn(authorIds)) {
+            evict(CacheConfig.BOOKS, keys[0]);
+            evict(CacheConfig.BOOKS_BY_ISBN, keys[1]);
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -1,32 +1,64 @@
 package com.bookstore.catalog.service;
 
+import com.bookstore.catalog.entity.OutboxEvent;
 import com.bookstore.catalog.event.*;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.bookstore.catalog.repository.OutboxEventRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.MDC;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
 
 /**
- * Service for publishing book-related events to RabbitMQ
+ * Service for publishing book-related events.
+ *
+ * Events are recorded in the outbox within the caller's transaction, which is therefore required:
+ * they commit or roll back with the change they describe, and writes never wait on the broker.
+ * OutboxRelay sends them to RabbitMQ afterwards.
+ *
+ * With coalescing enabled, an availability change for a book whose availability event is still held
+ * back, and was never attempted, is merged into that event, which then carries the first previous and the latest current
+ * counts. The event is held back until no further change has arrived for the window, but never longer
+ * than the max delay after its first change, so a burst of borrows reaches consumers as one event.
  */
 @Service
+@Transactional(propagation = Propagation.MANDATORY)
 public class BookEventPublisher {
 
     private static final Logger logger = LoggerFactory.getLogger(BookEventPublisher.class);
-    private static final String EXCHANGE_NAME = "bookstore.events";
     private static final String CORRELATION_ID_KEY = "correlationId";
+    private static final String AVAILABILITY_ROUTING_KEY = "book.availability.changed";
+    private static final String MIXED_CHANGE_REASON = "Multiple changes";
+
+    private final OutboxEventRepository outboxRepository;
+    private final EventCodec eventCodec;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${catalog.outbox.coalescing.enabled:false}")
+    private boolean coalescingEnabled = false;
 
-    private final RabbitTemplate rabbitTemplate;
-    private final ObjectMapper objectMapper;
+    @Value("${catalog.outbox.coalescing.window-ms:500}")
+    private long coalescingWindowMs = 500;
 
-    public BookEventPublisher(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+    @Value("${catalog.outbox.coalescing.max-delay-ms:2000}")
+    private long coalescingMaxDelayMs = 2000;
+
+    public BookEventPublisher(OutboxEventRepository outboxRepository, EventCodec eventCodec,
+                              MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.eventCodec = eventCodec;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -37,10 +69,24 @@ public class BookEventPublisher {
         event.setCorrelationId(correlationId);
         
         publishEvent("book.created", event);
-        logger.info("Published BookCreatedEvent for book ID: {} with correlation ID: {}", 
+        logger.info("Recorded BookCreatedEvent for book ID: {} with correlation ID: {}", 
                    event.getBookId(), correlationId);
     }
 
+    /**
+     * Publish one event for a batch of created books. Routed next to single creations so that
+     * book.created consumers receive both.
+     */
+    public void publishBooksCreated(BooksCreatedEvent event) {
+        String correlationId = getOrCreateCorrelationId();
+        event.setCorrelationId(correlationId);
+        event.getBooks().forEach(book -> book.setCorrelationId(correlationId));
+        
+        publishEvent("book.created.batch", event);
+        logger.info("Recorded BooksCreatedEvent for {} books with correlation ID: {}", 
+                   event.getBooks().size(), correlationId);
+    }
+
     /**
      * Publish book updated event
      */
@@ -49,7 +95,7 @@ public class BookEventPublisher {
         event.setCorrelationId(correlationId);
         
         publishEvent("book.updated", event);
-        logger.info("Published BookUpdatedEvent for book ID: {} with correlation ID: {}", 
+        logger.info("Recorded BookUpdatedEvent for book ID: {} with correlation ID: {}", 
                    event.getBookId(), correlationId);
     }
 
@@ -61,10 +107,33 @@ public class BookEventPublisher {
         event.setCorrelationId(correlationId);
         
         publishEvent("book.deleted", event);
-        logger.info("Published BookDeletedEvent for book ID: {} with correlation ID: {}", 
+        logger.info("Recorded BookDeletedEvent for book ID: {} with correlation ID: {}", 
                    event.getBookId(), correlationId);
     }
 
+    /**
+     * Publish author updated event, so every instance evicts the books embedding the author
+     */
+    public void publishAuthorUpdated(Long authorId) {
+        publishAuthorChanged("author.updated", new AuthorChangedEvent(AuthorChangedEvent.AUTHOR_UPDATED, authorId, null));
+    }
+
+    /**
+     * Publish author deleted event
+     */
+    public void publishAuthorDeleted(Long authorId) {
+        publishAuthorChanged("author.deleted", new AuthorChangedEvent(AuthorChangedEvent.AUTHOR_DELETED, authorId, null));
+    }
+
+    private void publishAuthorChanged(String routingKey, AuthorChangedEvent event) {
+        String correlationId = getOrCreateCorrelationId();
+        event.setCorrelationId(correlationId);
+        
+        publishEvent(routingKey, event);
+        logger.info("Recorded {} for author ID: {} with correlation ID: {}", 
+                   event.getEventType(), event.getAuthorId(), correlationId);
+    }
+
     /**
      * Publish book availability changed event
      */
@@ -72,38 +141,77 @@ public class BookEventPublisher {
         String correlationId = getOrCreateCorrelationId();
         event.setCorrelationId(correlationId);
         
-        publishEvent("book.availability.changed", event);
-        logger.info("Published BookAvailabilityChangedEvent for book ID: {} with correlation ID: {}", 
+        if (coalescingEnabled && coalesceAvailabilityChange(event)) {
+            logger.info("Merged availability change for book ID: {} with correlation ID: {} into its unsent event",
+                       event.getBookId(), correlationId);
+            return;
+        }
+        LocalDateTime holdUntil = coalescingEnabled
+            ? LocalDateTime.now().plus(Math.min(coalescingWindowMs, coalescingMaxDelayMs), ChronoUnit.MILLIS)
+            : null;
+        publishEvent(AVAILABILITY_ROUTING_KEY, event, holdUntil);
+        logger.info("Recorded BookAvailabilityChangedEvent for book ID: {} with correlation ID: {}", 
                    event.getBookId(), correlationId);
     }
 
     /**
-     * Generic method to publish events to RabbitMQ
+     * Merge the change into the book's held availability event, unless the relay has already picked it up
+     *
+     * @return whether the change was merged
      */
+    private boolean coalesceAvailabilityChange(BookAvailabilityChangedEvent event) {
+        List<OutboxEvent> unsent = outboxRepository.findUnsentForCoalescing(
+            event.getBookId(), AVAILABILITY_ROUTING_KEY, LocalDateTime.now(), PageRequest.of(0, 1));
+        if (unsent.isEmpty()) {
+            return false;
+        }
+        OutboxEvent outboxEvent = unsent.get(0);
+        BookAvailabilityChangedEvent first = eventCodec.decode(
+            outboxEvent.getPayload().getBytes(StandardCharsets.UTF_8), BookAvailabilityChangedEvent.class);
+        event.setPreviousAvailableCopies(first.getPreviousAvailableCopies());
+        if (!Objects.equals(first.getChangeReason(), event.getChangeReason())) {
+            event.setChangeReason(MIXED_CHANGE_REASON);
+        }
+
+        LocalDateTime windowEnd = LocalDateTime.now().plus(coalescingWindowMs, ChronoUnit.MILLIS);
+        LocalDateTime latest = outboxEvent.getCreatedAt().plus(coalescingMaxDelayMs, ChronoUnit.MILLIS);
+        outboxEvent.coalesce(event.getCorrelationId(), eventCodec.encodeToString(event),
+            windowEnd.isBefore(latest) ? windowEnd : latest);
+        countEvent(event, "coalesced");
+        return true;
+    }
+
     private void publishEvent(String routingKey, BookEvent event) {
-        try {
-            String eventJson = objectMapper.writeValueAsString(event);
-            
-            rabbitTemplate.convertAndSend(
-                EXCHANGE_NAME,
-                routingKey,
-                eventJson,
-                message -> {
-                    message.getMessageProperties().setCorrelationId(event.getCorrelationId());
-                    message.getMessageProperties().setContentType("application/json");
-                    return message;
-                }
-            );
-            
-            logger.debug("Event published to exchange: {}, routing key: {}, event: {}", 
-                        EXCHANGE_NAME, routingKey, event.getEventType());
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to serialize event: {}", event.getEventType(), e);
-            throw new RuntimeException("Failed to publish event", e);
-        } catch (Exception e) {
-            logger.error("Failed to publish event to RabbitMQ: {}", event.getEventType(), e);
-            throw new RuntimeException("Failed to publish event", e);
+        publishEvent(routingKey, event, null);
+    }
+
+    /**
+     * Generic method to record events in the outbox
+     *
+     * @param holdUntil time before which the relay must not send the event, or null to send it right away
+     */
+    private void publishEvent(String routingKey, BookEvent event, LocalDateTime holdUntil) {
+        String eventJson = eventCodec.encodeToString(event);
+        OutboxEvent outboxEvent = new OutboxEvent(
+            event.getEventType(), routingKey, event.getBookId(), event.getCorrelationId(), eventJson);
+        if (holdUntil != null) {
+            outboxEvent.setAvailableAt(holdUntil);
         }
+        outboxRepository.save(outboxEvent);
+        countEvent(event, "saved");
+        logger.debug("Event recorded in outbox, routing key: {}, event: {}", routingKey, event.getEventType());
+    }
+
+    /**
+     * Events saved as new outbox rows, and changes merged into an existing row instead
+     */
+    private void countEvent(BookEvent event, String outcome) {
+        Counter.builder("catalog.outbox.events")
+            .description("Book events recorded in the outbox")
+            .tag("type", event.getEventType())
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.bookstore.catalog.service;
 
+import com.bookstore.catalog.config.CacheConfig;
 import com.bookstore.catalog.dto.*;
 import com.bookstore.catalog.entity.Author;
 import com.bookstore.catalog.entity.Book;
@@ -10,13 +11,24 @@ import com.bookstore.catalog.exception.DuplicateIsbnException;
 import com.bookstore.catalog.exception.InvalidBookOperationException;
 import com.bookstore.catalog.repository.AuthorRepository;
 import com.bookstore.catalog.repository.BookRepository;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for managing books in the catalog
@@ -27,15 +39,38 @@ public class BookService {
 
     private static final Logger logger = LoggerFactory.getLogger(BookService.class);
 
+    public static final int MAX_PAGE_SIZE = 100;
+    /**
+     * Most IDs accepted by one batch lookup, which is answered with a single IN query
+     */
+    public static final int MAX_BATCH_SIZE = 500;
+    /**
+     * Books mapped per round trip when streaming; matches the cursor fetch size and the batch fetch size
+     */
+    private static final int STREAM_WINDOW_SIZE = 100;
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(
+        "id", "title", "isbn", "genre", "publicationYear", "availableCopies", "totalCopies", "createdAt", "updatedAt");
+
+    /**
+     * Row cap for the unpaged list methods, which only remain for existing callers
+     */
+    @Value("${catalog.listing.legacy-max-results:1000}")
+    private int legacyMaxResults = 1000;
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
     private final BookEventPublisher eventPublisher;
+    private final BookCacheInvalidator cacheInvalidator;
+    private final EntityManager entityManager;
 
     public BookService(BookRepository bookRepository, AuthorRepository authorRepository, 
-                      BookEventPublisher eventPublisher) {
+                      BookEventPublisher eventPublisher, BookCacheInvalidator cacheInvalidator,
+                      EntityManager entityManager) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
         this.eventPublisher = eventPublisher;
+        this.cacheInvalidator = cacheInvalidator;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -74,6 +109,7 @@ public class BookService {
 
         // Publish book created event
         publishBookCreatedEvent(savedBook);
+        cacheInvalidator.booksCreated(authorIdsOf(savedBook));
 
         return mapToResponse(savedBook);
     }
@@ -82,9 +118,10 @@ public class BookService {
      * Get book by ID
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#id", sync = true)
     public BookResponse getBookById(Long id) {
         logger.debug("Fetching book with ID: {}", id);
-        Book book = bookRepository.findById(id)
+        Book book = bookRepository.findWithAuthorsById(id)
             .orElseThrow(() -> new BookNotFoundException(id));
         return mapToResponse(book);
     }
@@ -93,6 +130,7 @@ public class BookService {
      * Get book by ISBN
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.BOOKS_BY_ISBN, key = "#isbn", sync = true)
     public BookResponse getBookByIsbn(String isbn) {
         logger.debug("Fetching book with ISBN: {}", isbn);
         Book book = bookRepository.findByIsbn(isbn)
@@ -101,14 +139,132 @@ public class BookService {
     }
 
     /**
-     * Get all books
+     * Get several books with their authors in one query. Books come back in the order of the
+     * requested IDs; unknown IDs are left out, so callers can tell which ones are missing.
+     */
+    @Transactional(readOnly = true)
+    public List<BookResponse> getBooksByIds(Collection<Long> ids) {
+        Set<Long> bookIds = toBatch(ids);
+        logger.debug("Fetching {} books by ID", bookIds.size());
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+        return inRequestOrder(bookIds, bookRepository.findWithAuthorsByIdIn(bookIds), this::mapToResponse);
+    }
+
+    /**
+     * Get all books, capped at the legacy result limit; prefer {@link #getBooksPage}
      */
     @Transactional(readOnly = true)
     public List<BookResponse> getAllBooks() {
         logger.debug("Fetching all books");
-        return bookRepository.findAll().stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapCapped(bookRepository.findAll(legacyPageRequest()));
+    }
+
+    /**
+     * Get one page of books. Filters are applied in the same precedence as the unpaged listing:
+     * search, then genre, then author, then availability.
+     */
+    @Transactional(readOnly = true)
+    public Page<BookResponse> getBooksPage(String genre, Long authorId, String search, Boolean available,
+                                           Pageable pageable) {
+        Pageable request = toPageRequest(pageable);
+        logger.debug("Fetching books page {} (size {})", request.getPageNumber(), request.getPageSize());
+
+        Page<Book> books;
+        if (search != null && !search.trim().isEmpty()) {
+            books = bookRepository.searchBooks(search, request);
+        } else if (genre != null && !genre.trim().isEmpty()) {
+            books = bookRepository.findByGenreIgnoreCase(genre, request);
+        } else if (authorId != null) {
+            if (!authorRepository.existsById(authorId)) {
+                throw new AuthorNotFoundException(authorId);
+            }
+            books = bookRepository.findByAuthorId(authorId, request);
+        } else if (Boolean.TRUE.equals(available)) {
+            books = bookRepository.findAvailableBooks(request);
+        } else {
+            books = bookRepository.findAll(request);
+        }
+        return books.map(this::mapToResponse);
+    }
+
+    /**
+     * Hand every book the unpaged listing selects to {@code action}, in id order and without its
+     * row cap. Filters take the same precedence as the listing. Books are read from a cursor a
+     * window at a time: the authors of a window are loaded in one batch and the persistence
+     * context is cleared after it, so memory stays flat however many books match.
+     *
+     * @return the number of books handed over
+     */
+    @Transactional(readOnly = true)
+    public long forEachBook(String genre, Long authorId, String search, Boolean available,
+                            Consumer<BookResponse> action) {
+        checkListingFilters(genre, authorId, search);
+        long count = 0;
+        try (Stream<Book> books = streamListing(genre, authorId, search, available)) {
+            List<Book> window = new ArrayList<>(STREAM_WINDOW_SIZE);
+            Iterator<Book> cursor = books.iterator();
+            while (cursor.hasNext()) {
+                window.add(cursor.next());
+                if (window.size() == STREAM_WINDOW_SIZE || !cursor.hasNext()) {
+                    // Mapping the first book batch-loads the authors of the whole window
+                    window.forEach(book -> action.accept(mapToResponse(book)));
+                    count += window.size();
+                    window.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        logger.debug("Streamed {} books", count);
+        return count;
+    }
+
+    /**
+     * Check the listing filters without reading any books, so that a missing author can be
+     * reported before a streamed response has started
+     */
+    @Transactional(readOnly = true)
+    public void checkListingFilters(String genre, Long authorId, String search) {
+        if (!hasText(search) && !hasText(genre) && authorId != null && !authorRepository.existsById(authorId)) {
+            throw new AuthorNotFoundException(authorId);
+        }
+    }
+
+    private Stream<Book> streamListing(String genre, Long authorId, String search, Boolean available) {
+        if (hasText(search)) {
+            return bookRepository.streamSearch(search);
+        } else if (hasText(genre)) {
+            return bookRepository.streamByGenre(genre);
+        } else if (authorId != null) {
+            return bookRepository.streamByAuthorId(authorId);
+        } else if (Boolean.TRUE.equals(available)) {
+            return bookRepository.streamAvailable();
+        }
+        return bookRepository.streamAll();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    /**
+     * Get a slice of book summaries. Only scalar columns are selected and no total is counted,
+     * which makes this the cheap way to walk the catalogue.
+     */
+    @Transactional(readOnly = true)
+    public Slice<BookSummary> getBookSummaries(String genre, String search, Boolean available, Pageable pageable) {
+        Pageable request = toPageRequest(pageable);
+        logger.debug("Fetching book summaries page {} (size {})", request.getPageNumber(), request.getPageSize());
+
+        if (search != null && !search.trim().isEmpty()) {
+            return bookRepository.searchSummaries(search, request);
+        } else if (genre != null && !genre.trim().isEmpty()) {
+            return bookRepository.findSummariesByGenre(genre, request);
+        } else if (Boolean.TRUE.equals(available)) {
+            return bookRepository.findAvailableSummaries(request);
+        }
+        return bookRepository.findSummaries(request);
     }
 
     /**
@@ -134,8 +290,10 @@ public class BookService {
             }
         }
 
-        // Store previous available copies for event
+        // Store previous values for event
         Integer previousAvailableCopies = book.getAvailableCopies();
+        String previousIsbn = book.getIsbn();
+        Set<Long> previousAuthorIds = authorIdsOf(book);
 
         // Update fields
         book.setTitle(request.getTitle());
@@ -161,7 +319,10 @@ public class BookService {
         logger.info("Book updated successfully with ID: {}", updatedBook.getId());
 
         // Publish book updated event
-        publishBookUpdatedEvent(updatedBook, previousAvailableCopies);
+        publishBookUpdatedEvent(updatedBook, previousAvailableCopies, previousIsbn, previousAuthorIds);
+        Set<Long> affectedAuthorIds = new HashSet<>(previousAuthorIds);
+        affectedAuthorIds.addAll(authorIdsOf(updatedBook));
+        cacheInvalidator.bookChanged(id, affectedAuthorIds, previousIsbn, updatedBook.getIsbn());
 
         return mapToResponse(updatedBook);
     }
@@ -178,7 +339,9 @@ public class BookService {
         // Publish book deleted event before deletion
         publishBookDeletedEvent(book);
 
+        Set<Long> authorIds = authorIdsOf(book);
         bookRepository.delete(book);
+        cacheInvalidator.bookChanged(id, authorIds, book.getIsbn());
         logger.info("Book deleted successfully with ID: {}", id);
     }
 
@@ -188,9 +351,7 @@ public class BookService {
     @Transactional(readOnly = true)
     public List<BookResponse> searchBooks(String keyword) {
         logger.debug("Searching books with keyword: {}", keyword);
-        return bookRepository.searchBooks(keyword).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapCapped(bookRepository.searchBooks(keyword, legacyPageRequest()));
     }
 
     /**
@@ -199,9 +360,7 @@ public class BookService {
     @Transactional(readOnly = true)
     public List<BookResponse> findBooksByGenre(String genre) {
         logger.debug("Finding books by genre: {}", genre);
-        return bookRepository.findByGenreIgnoreCase(genre).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapCapped(bookRepository.findByGenreIgnoreCase(genre, legacyPageRequest()));
     }
 
     /**
@@ -216,9 +375,7 @@ public class BookService {
             throw new AuthorNotFoundException(authorId);
         }
 
-        return bookRepository.findByAuthorId(authorId).stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapCapped(bookRepository.findByAuthorId(authorId, legacyPageRequest()));
     }
 
     /**
@@ -227,64 +384,129 @@ public class BookService {
     @Transactional(readOnly = true)
     public List<BookResponse> findAvailableBooks() {
         logger.debug("Finding available books");
-        return bookRepository.findAvailableBooks().stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return mapCapped(bookRepository.findAvailableBooks(legacyPageRequest()));
     }
 
     /**
      * Check book availability
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.BOOK_AVAILABILITY, key = "#id", sync = true)
     public BookAvailabilityResponse checkAvailability(Long id) {
         logger.debug("Checking availability for book ID: {}", id);
 
         Book book = bookRepository.findById(id)
             .orElseThrow(() -> new BookNotFoundException(id));
 
-        return new BookAvailabilityResponse(
-            book.getId(),
-            book.getTitle(),
-            book.getIsbn(),
-            book.isAvailable(),
-            book.getAvailableCopies(),
-            book.getTotalCopies()
-        );
+        return mapToAvailabilityResponse(book);
+    }
+
+    /**
+     * Check the availability of several books in one query, in the order of the requested IDs.
+     * Unknown IDs are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<BookAvailabilityResponse> checkBatchAvailability(Collection<Long> ids) {
+        Set<Long> bookIds = toBatch(ids);
+        logger.debug("Checking availability for {} books", bookIds.size());
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+        return inRequestOrder(bookIds, bookRepository.findByIdIn(bookIds), this::mapToAvailabilityResponse);
     }
 
     /**
      * Get all genres
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GENRES, key = "'all'", sync = true)
     public List<String> getAllGenres() {
         logger.debug("Fetching all genres");
         return bookRepository.findAllGenres();
     }
 
     /**
-     * Bulk create books
+     * Bulk create books.
+     *
+     * Every item is validated up front against one ISBN lookup and one author lookup for the whole
+     * request; the valid books are then inserted together (JDBC-batched, see Book.id) and announced
+     * with a single event. Invalid items are reported per ISBN and
+     * do not stop the others.
      */
     public BulkOperationResult bulkCreateBooks(BulkBookRequest request) {
-        logger.info("Bulk creating {} books", request.getBooks().size());
-
-        BulkOperationResult result = new BulkOperationResult(request.getBooks().size());
-
-        for (BookRequest bookRequest : request.getBooks()) {
+        List<BookRequest> requests = request.getBooks();
+        logger.info("Bulk creating {} books", requests.size());
+
+        BulkOperationResult result = new BulkOperationResult(requests.size());
+
+        Set<String> isbns = requests.stream()
+            .map(BookRequest::getIsbn)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<String> takenIsbns = isbns.isEmpty()
+            ? new HashSet<>()
+            : new HashSet<>(bookRepository.findExistingIsbns(isbns));
+
+        Set<Long> authorIds = requests.stream()
+            .filter(bookRequest -> bookRequest.getAuthorIds() != null)
+            .flatMap(bookRequest -> bookRequest.getAuthorIds().stream())
+            .collect(Collectors.toSet());
+        Map<Long, Author> authorsById = authorIds.isEmpty()
+            ? Map.of()
+            : authorRepository.findAllById(authorIds).stream()
+                .collect(Collectors.toMap(Author::getId, author -> author));
+
+        List<Book> books = new ArrayList<>();
+        for (BookRequest bookRequest : requests) {
             try {
-                BookResponse created = createBook(bookRequest);
-                result.addSuccess(created.getId());
+                books.add(prepareBulkBook(bookRequest, takenIsbns, authorsById));
+                // Later items with the same ISBN are duplicates of this one
+                takenIsbns.add(bookRequest.getIsbn());
             } catch (Exception e) {
                 logger.error("Failed to create book with ISBN: {}", bookRequest.getIsbn(), e);
                 result.addError("ISBN " + bookRequest.getIsbn() + ": " + e.getMessage());
             }
         }
 
+        List<Book> savedBooks = bookRepository.saveAll(books);
+        bookRepository.flush();
+        savedBooks.forEach(book -> result.addSuccess(book.getId()));
+
+        publishBooksCreatedEvent(savedBooks);
+        cacheInvalidator.booksCreated(savedBooks.stream()
+            .flatMap(book -> authorIdsOf(book).stream())
+            .collect(Collectors.toSet()));
+
         logger.info("Bulk create completed: {} successful, {} failed", 
                    result.getSuccessCount(), result.getFailureCount());
 
         return result;
     }
 
+    private Book prepareBulkBook(BookRequest request, Set<String> takenIsbns, Map<Long, Author> authorsById) {
+        if (takenIsbns.contains(request.getIsbn())) {
+            throw new DuplicateIsbnException(request.getIsbn());
+        }
+        if (request.getAvailableCopies() != null && request.getTotalCopies() != null
+                && request.getAvailableCopies() > request.getTotalCopies()) {
+            throw new InvalidBookOperationException("Available copies cannot exceed total copies");
+        }
+
+        Book book = mapToEntity(request);
+        if (request.getAuthorIds() != null && !request.getAuthorIds().isEmpty()) {
+            Set<Author> authors = new HashSet<>();
+            for (Long authorId : request.getAuthorIds()) {
+                Author author = authorsById.get(authorId);
+                if (author == null) {
+                    throw new AuthorNotFoundException(authorId);
+                }
+                authors.add(author);
+            }
+            book.setAuthors(authors);
+        }
+        return book;
+    }
+
     /**
      * Bulk delete books
      */
@@ -309,6 +531,64 @@ public class BookService {
         return result;
     }
 
+    // Paging helpers
+
+    /**
+     * Clamp the page size and only allow sorting on book columns, defaulting to id order so that
+     * consecutive pages are stable
+     */
+    private Pageable toPageRequest(Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidBookOperationException("Cannot sort books by '" + order.getProperty() + "'");
+            }
+        }
+        int size = Math.min(Math.max(pageable.getPageSize(), 1), MAX_PAGE_SIZE);
+        return PageRequest.of(pageable.getPageNumber(), size, sort);
+    }
+
+    private Pageable legacyPageRequest() {
+        return PageRequest.of(0, legacyMaxResults, Sort.by("id"));
+    }
+
+    private List<BookResponse> mapCapped(Page<Book> books) {
+        if (books.hasNext()) {
+            logger.warn("Unpaged book listing truncated to {} of {} rows; use /api/books/page instead",
+                       legacyMaxResults, books.getTotalElements());
+        }
+        return books.stream()
+            .map(this::mapToResponse)
+            .collect(Collectors.toList());
+    }
+
+    // Batch helpers
+
+    /**
+     * Distinct, non-null IDs in request order, refusing batches too large for one IN query
+     */
+    private Set<Long> toBatch(Collection<Long> ids) {
+        Set<Long> bookIds = new LinkedHashSet<>();
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(bookIds::add);
+        }
+        if (bookIds.size() > MAX_BATCH_SIZE) {
+            throw new InvalidBookOperationException(
+                "Cannot look up more than " + MAX_BATCH_SIZE + " books at once, got " + bookIds.size());
+        }
+        return bookIds;
+    }
+
+    private <T> List<T> inRequestOrder(Set<Long> bookIds, List<Book> books, Function<Book, T> mapper) {
+        Map<Long, Book> byId = books.stream()
+            .collect(Collectors.toMap(Book::getId, book -> book, (first, duplicate) -> first));
+        return bookIds.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .map(mapper)
+            .collect(Collectors.toList());
+    }
+
     // Mapping methods
 
     private Book mapToEntity(BookRequest request) {
@@ -349,6 +629,17 @@ public class BookService {
         return response;
     }
 
+    private BookAvailabilityResponse mapToAvailabilityResponse(Book book) {
+        return new BookAvailabilityResponse(
+            book.getId(),
+            book.getTitle(),
+            book.getIsbn(),
+            book.isAvailable(),
+            book.getAvailableCopies(),
+            book.getTotalCopies()
+        );
+    }
+
     private AuthorResponse mapAuthorToResponse(Author author) {
         AuthorResponse response = new AuthorResponse();
         response.setId(author.getId());
@@ -359,110 +650,116 @@ public class BookService {
         response.setNationality(author.getNationality());
         response.setCreatedAt(author.getCreatedAt());
         response.setUpdatedAt(author.getUpdatedAt());
-        response.setBookCount(author.getBooks() != null ? author.getBooks().size() : 0);
+        response.setBookCount(author.getBookCount());
         return response;
     }
 
     // Event publishing methods
+    // Events are recorded in the outbox within the current transaction; a failure fails the operation
+    // so that a committed change always has its event.
 
     private void publishBookCreatedEvent(Book book) {
-        try {
-            Set<Long> authorIds = book.getAuthors() != null 
-                ? book.getAuthors().stream().map(Author::getId).collect(Collectors.toSet())
-                : new HashSet<>();
-
-            BookCreatedEvent event = new BookCreatedEvent(
-                book.getId(),
-                book.getIsbn(),
-                book.getTitle(),
-                book.getDescription(),
-                book.getPublicationYear(),
-                book.getGenre(),
-                book.getTotalCopies(),
-                book.getAvailableCopies(),
-                authorIds,
-                null // correlationId will be set by publisher
-            );
+        eventPublisher.publishBookCreated(toCreatedEvent(book));
+    }
 
-            eventPublisher.publishBookCreated(event);
-        } catch (Exception e) {
-            logger.error("Failed to publish book created event for book ID: {}", book.getId(), e);
-            // Don't fail the operation if event publishing fails
+    /**
+     * Announce a bulk creation with one event
+     */
+    private void publishBooksCreatedEvent(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
         }
+        eventPublisher.publishBooksCreated(new BooksCreatedEvent(
+            books.stream().map(this::toCreatedEvent).collect(Collectors.toList()),
+            null // correlationId will be set by publisher
+        ));
     }
 
-    private void publishBookUpdatedEvent(Book book, Integer previousAvailableCopies) {
-        try {
-            Set<Long> authorIds = book.getAuthors() != null 
-                ? book.getAuthors().stream().map(Author::getId).collect(Collectors.toSet())
-                : new HashSet<>();
-
-            BookUpdatedEvent event = new BookUpdatedEvent(
-                book.getId(),
-                book.getIsbn(),
-                book.getTitle(),
-                book.getDescription(),
-                book.getPublicationYear(),
-                book.getGenre(),
-                book.getTotalCopies(),
-                book.getAvailableCopies(),
-                authorIds,
-                previousAvailableCopies,
-                null // correlationId will be set by publisher
-            );
+    private static Set<Long> authorIdsOf(Book book) {
+        return book.getAuthors() != null
+            ? book.getAuthors().stream().map(Author::getId).collect(Collectors.toSet())
+            : new HashSet<>();
+    }
 
-            eventPublisher.publishBookUpdated(event);
+    private BookCreatedEvent toCreatedEvent(Book book) {
+        Set<Long> authorIds = authorIdsOf(book);
 
-            // Check if availability changed and publish separate event
-            if (previousAvailableCopies != null && 
-                !previousAvailableCopies.equals(book.getAvailableCopies())) {
-                publishBookAvailabilityChangedEvent(
-                    book, 
-                    previousAvailableCopies, 
-                    "Book updated"
-                );
-            }
-        } catch (Exception e) {
-            logger.error("Failed to publish book updated event for book ID: {}", book.getId(), e);
-            // Don't fail the operation if event publishing fails
+        return new BookCreatedEvent(
+            book.getId(),
+            book.getIsbn(),
+            book.getTitle(),
+            book.getDescription(),
+            book.getPublicationYear(),
+            book.getGenre(),
+            book.getTotalCopies(),
+            book.getAvailableCopies(),
+            authorIds,
+            null // correlationId will be set by publisher
+        );
+    }
+
+    private void publishBookUpdatedEvent(Book book, Integer previousAvailableCopies, String previousIsbn,
+                                         Set<Long> previousAuthorIds) {
+        Set<Long> authorIds = authorIdsOf(book);
+
+        BookUpdatedEvent event = new BookUpdatedEvent(
+            book.getId(),
+            book.getIsbn(),
+            book.getTitle(),
+            book.getDescription(),
+            book.getPublicationYear(),
+            book.getGenre(),
+            book.getTotalCopies(),
+            book.getAvailableCopies(),
+            authorIds,
+            previousAvailableCopies,
+            null // correlationId will be set by publisher
+        );
+        if (!book.getIsbn().equals(previousIsbn)) {
+            event.setPreviousIsbn(previousIsbn);
+        }
+        if (!authorIds.equals(previousAuthorIds)) {
+            event.setPreviousAuthorIds(previousAuthorIds);
+        }
+
+        eventPublisher.publishBookUpdated(event);
+
+        // Check if availability changed and publish separate event
+        if (previousAvailableCopies != null && 
+            !previousAvailableCopies.equals(book.getAvailableCopies())) {
+            publishBookAvailabilityChangedEvent(
+                book, 
+                previousAvailableCopies, 
+                "Book updated"
+            );
         }
     }
 
     private void publishBookDeletedEvent(Book book) {
-        try {
-            BookDeletedEvent event = new BookDeletedEvent(
-                book.getId(),
-                book.getIsbn(),
-                book.getTitle(),
-                null // correlationId will be set by publisher
-            );
+        BookDeletedEvent event = new BookDeletedEvent(
+            book.getId(),
+            book.getIsbn(),
+            book.getTitle(),
+            null // correlationId will be set by publisher
+        );
+        event.setAuthorIds(authorIdsOf(book));
 
-            eventPublisher.publishBookDeleted(event);
-        } catch (Exception e) {
-            logger.error("Failed to publish book deleted event for book ID: {}", book.getId(), e);
-            // Don't fail the operation if event publishing fails
-        }
+        eventPublisher.publishBookDeleted(event);
     }
 
     private void publishBookAvailabilityChangedEvent(Book book, Integer previousAvailableCopies, 
                                                      String changeReason) {
-        try {
-            BookAvailabilityChangedEvent event = new BookAvailabilityChangedEvent(
-                book.getId(),
-                book.getIsbn(),
-                book.getTitle(),
-                previousAvailableCopies,
-                book.getAvailableCopies(),
-                book.getTotalCopies(),
-                changeReason,
-                null // correlationId will be set by publisher
-            );
+        BookAvailabilityChangedEvent event = new BookAvailabilityChangedEvent(
+            book.getId(),
+            book.getIsbn(),
+            book.getTitle(),
+            previousAvailableCopies,
+            book.getAvailableCopies(),
+            book.getTotalCopies(),
+            changeReason,
+            null // correlationId will be set by publisher
+        );
 
-            eventPublisher.publishBookAvailabilityChanged(event);
-        } catch (Exception e) {
-            logger.error("Failed to publish book availability changed event for book ID: {}", 
-                        book.getId(), e);
-            // Don't fail the operation if event publishing fails
-        }
+        eventPublisher.publishBookAvailabilityChanged(event);
     }
 }
@@ -0,0 +1,89 @@
+package com.bookstore.catalog.service;
+
+import com.bookstore.catalog.config.RabbitMQConfig;
+import com.bookstore.catalog.dto.BookAvailabilityResponse;
+import com.bookstore.catalog.event.InventoryCommand;
+import com.bookstore.catalog.event.InventoryReply;
+import com.bookstore.catalog.exception.BookNotAvailableException;
+import com.bookstore.catalog.exception.BookNotFoundException;
+import com.bookstore.catalog.exception.InvalidBookOperationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Carries out inventory commands from the loan service's asynchronous saga and replies with the outcome.
+ *
+ * A command that cannot succeed (unknown book, no copy left) gets a failure reply. Any other error
+ * is thrown so the command is redelivered; that is safe because the saga ID is the idempotency key,
+ * and a reply lost after the adjustment committed is sent again on redelivery.
+ */
+@Service
+public class InventoryCommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryCommandListener.class);
+
+    private final InventoryService inventoryService;
+    private final RabbitTemplate rabbitTemplate;
+
+    public InventoryCommandListener(InventoryService inventoryService, RabbitTemplate rabbitTemplate) {
+        this.inventoryService = inventoryService;
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.INVENTORY_COMMAND_QUEUE)
+    public void handleCommand(InventoryCommand command) {
+        logger.info("Received {} for book ID: {}, saga ID: {}", command.getEventType(), command.getBookId(), command.getSagaId());
+        InventoryReply reply = execute(command);
+        if (command.getReplyTo() != null) {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, command.getReplyTo(), reply);
+        }
+    }
+
+    private InventoryReply execute(InventoryCommand command) {
+        try {
+            return switch (command.getEventType()) {
+                case InventoryCommand.BORROW_BOOK -> borrow(command);
+                case InventoryCommand.RELEASE_BOOK -> release(command);
+                default -> new InventoryReply(command, false, "Unknown command " + command.getEventType());
+            };
+        } catch (BookNotFoundException | BookNotAvailableException | InvalidBookOperationException e) {
+            logger.info("{} for book ID: {} refused: {}", command.getEventType(), command.getBookId(), e.getMessage());
+            return new InventoryReply(command, false, e.getMessage());
+        }
+    }
+
+    private InventoryReply borrow(InventoryCommand command) {
+        // A redelivered borrow that already committed is replayed whatever the deadline, so the saga
+        // learns about the copy it holds instead of being told the borrow failed
+        Optional<BookAvailabilityResponse> previous = inventoryService.findBorrow(command.getBookId(), command.getSagaId());
+        if (previous.isPresent()) {
+            return withAvailability(new InventoryReply(command, true, null), previous.get());
+        }
+        // Checked before borrowing: past the deadline the saga may already be releasing, and a
+        // release that ran first would leave a late borrow in place
+        if (command.getDeadline() != null && LocalDateTime.now().isAfter(command.getDeadline())) {
+            return new InventoryReply(command, false, "Borrow arrived after its deadline " + command.getDeadline());
+        }
+        return withAvailability(new InventoryReply(command, true, null),
+            inventoryService.borrowBook(command.getBookId(), command.getSagaId()));
+    }
+
+    private InventoryReply release(InventoryCommand command) {
+        Optional<BookAvailabilityResponse> released = inventoryService.releaseBook(command.getBookId(), command.getSagaId());
+        return released
+            .map(availability -> withAvailability(new InventoryReply(command, true, null), availability))
+            .orElseGet(() -> new InventoryReply(command, true, "Nothing to release"));
+    }
+
+    private InventoryReply withAvailability(InventoryReply reply, BookAvailabilityResponse availability) {
+        reply.setAvailableCopies(availability.getAvailableCopies());
+        reply.setTotalCopies(availability.getTotalCopies());
+        return reply;
+    }
+}
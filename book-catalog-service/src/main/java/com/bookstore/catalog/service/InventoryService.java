@@ -0,0 +1,205 @@
+package com.bookstore.catalog.service;
+
+import com.bookstore.catalog.dto.BookAvailabilityResponse;
+import com.bookstore.catalog.entity.Book;
+import com.bookstore.catalog.entity.InventoryOperation;
+import com.bookstore.catalog.entity.InventoryReservation;
+import com.bookstore.catalog.event.BookAvailabilityChangedEvent;
+import com.bookstore.catalog.exception.BookNotAvailableException;
+import com.bookstore.catalog.exception.BookNotFoundException;
+import com.bookstore.catalog.exception.InvalidBookOperationException;
+import com.bookstore.catalog.repository.BookRepository;
+import com.bookstore.catalog.repository.InventoryReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Service for borrowing and returning book copies.
+ *
+ * Each adjustment is a single conditional UPDATE, so concurrent requests can never oversell a book.
+ * Callers pass an idempotency key (the saga ID); the first request with a key records its result
+ * in the same transaction as the adjustment, and retries with that key are answered from the record
+ * without touching the copies again.
+ */
+@Service
+public class InventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final BookRepository bookRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final BookEventPublisher eventPublisher;
+    private final BookCacheInvalidator cacheInvalidator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${catalog.inventory.reservation-retention-days:7}")
+    private int reservationRetentionDays = 7;
+
+    public InventoryService(BookRepository bookRepository, InventoryReservationRepository reservationRepository,
+                            BookEventPublisher eventPublisher, BookCacheInvalidator cacheInvalidator,
+                            PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.reservationRepository = reservationRepository;
+        this.eventPublisher = eventPublisher;
+        this.cacheInvalidator = cacheInvalidator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Take one copy of a book
+     *
+     * @throws BookNotAvailableException if no copy is available
+     */
+    public BookAvailabilityResponse borrowBook(Long bookId, String idempotencyKey) {
+        return adjust(bookId, InventoryOperation.BORROW, idempotencyKey);
+    }
+
+    /**
+     * Put one copy of a book back
+     *
+     * @throws InvalidBookOperationException if every copy is already in stock
+     */
+    public BookAvailabilityResponse returnBook(Long bookId, String idempotencyKey) {
+        return adjust(bookId, InventoryOperation.RETURN, idempotencyKey);
+    }
+
+    /**
+     * Undo the borrow made with the key, for a borrower that gave up waiting for it. Unlike returnBook
+     * this puts nothing back if no borrow was made with the key, so it is safe to call without knowing
+     * whether the borrow arrived.
+     *
+     * @return the availability after the return, or empty if there was nothing to undo
+     */
+    public Optional<BookAvailabilityResponse> releaseBook(Long bookId, String idempotencyKey) {
+        if (reservationRepository.findByIdempotencyKeyAndOperation(idempotencyKey, InventoryOperation.BORROW).isEmpty()) {
+            logger.info("No borrow with idempotency key {} for book ID: {}, nothing to release", idempotencyKey, bookId);
+            return Optional.empty();
+        }
+        return Optional.of(returnBook(bookId, idempotencyKey));
+    }
+
+    /**
+     * The result of the borrow already made with the key, without borrowing again
+     *
+     * @return the availability recorded by that borrow, or empty if no borrow was made with the key
+     */
+    public Optional<BookAvailabilityResponse> findBorrow(Long bookId, String idempotencyKey) {
+        String key = normalizeKey(idempotencyKey);
+        return transactionTemplate.execute(status -> findPrevious(bookId, InventoryOperation.BORROW, key));
+    }
+
+    private BookAvailabilityResponse adjust(Long bookId, InventoryOperation operation, String idempotencyKey) {
+        String key = normalizeKey(idempotencyKey);
+        try {
+            return transactionTemplate.execute(status -> applyOnce(bookId, operation, key));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first; ours was rolled back, so answer with its result
+            logger.info("Concurrent {} with idempotency key {} for book ID: {}, replaying", operation, key, bookId);
+            return transactionTemplate.execute(status -> findPrevious(bookId, operation, key)
+                .orElseThrow(() -> e));
+        }
+    }
+
+    private BookAvailabilityResponse applyOnce(Long bookId, InventoryOperation operation, String key) {
+        Optional<BookAvailabilityResponse> previous = findPrevious(bookId, operation, key);
+        if (previous.isPresent()) {
+            logger.info("Replaying {} for book ID: {} with idempotency key: {}", operation, bookId, key);
+            return previous.get();
+        }
+
+        int updated = operation == InventoryOperation.BORROW
+            ? bookRepository.decrementAvailableCopies(bookId)
+            : bookRepository.incrementAvailableCopies(bookId);
+        Book book = bookRepository.findById(bookId)
+            .orElseThrow(() -> new BookNotFoundException(bookId));
+        if (updated == 0) {
+            if (operation == InventoryOperation.BORROW) {
+                throw new BookNotAvailableException(bookId);
+            }
+            throw new InvalidBookOperationException("All copies of book " + bookId + " are already in stock");
+        }
+
+        if (key != null) {
+            reservationRepository.saveAndFlush(new InventoryReservation(
+                key, operation, bookId, book.getAvailableCopies(), book.getTotalCopies()));
+        }
+        logger.info("{} applied to book ID: {}, {} of {} copies now available",
+                   operation, bookId, book.getAvailableCopies(), book.getTotalCopies());
+
+        int previousAvailableCopies = book.getAvailableCopies() + (operation == InventoryOperation.BORROW ? 1 : -1);
+        publishAvailabilityChanged(book, previousAvailableCopies, operation);
+        cacheInvalidator.availabilityChanged(bookId, book.getIsbn());
+        return toResponse(book, book.getAvailableCopies(), book.getTotalCopies());
+    }
+
+    /**
+     * Delete idempotency records once they are past the retention period. The period must outlast every
+     * retry of a key, so a late retry is still replayed rather than applied a second time.
+     */
+    @Scheduled(fixedDelayString = "${catalog.inventory.reservation-purge-interval-ms:3600000}")
+    public void purgeExpiredReservations() {
+        LocalDateTime before = LocalDateTime.now().minusDays(reservationRetentionDays);
+        Integer purged = transactionTemplate.execute(status -> reservationRepository.deleteCreatedBefore(before));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} inventory reservations recorded before {}", purged, before);
+        }
+    }
+
+    private String normalizeKey(String idempotencyKey) {
+        return idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey.trim() : null;
+    }
+
+    private Optional<BookAvailabilityResponse> findPrevious(Long bookId, InventoryOperation operation, String key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        return reservationRepository.findByIdempotencyKeyAndOperation(key, operation).map(reservation -> {
+            if (!reservation.getBookId().equals(bookId)) {
+                throw new InvalidBookOperationException(
+                    "Idempotency key " + key + " was already used for book " + reservation.getBookId());
+            }
+            Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new BookNotFoundException(bookId));
+            return toResponse(book, reservation.getAvailableCopies(), reservation.getTotalCopies());
+        });
+    }
+
+    /**
+     * The event is recorded in the adjustment's transaction, so it is relayed only if the adjustment commits
+     */
+    private void publishAvailabilityChanged(Book book, int previousAvailableCopies, InventoryOperation operation) {
+        BookAvailabilityChangedEvent event = new BookAvailabilityChangedEvent(
+            book.getId(),
+            book.getIsbn(),
+            book.getTitle(),
+            previousAvailableCopies,
+            book.getAvailableCopies(),
+            book.getTotalCopies(),
+            operation == InventoryOperation.BORROW ? "Book borrowed" : "Book returned",
+            null // correlationId will be set by publisher
+        );
+        eventPublisher.publishBookAvailabilityChanged(event);
+    }
+
+    private BookAvailabilityResponse toResponse(Book book, Integer availableCopies, Integer totalCopies) {
+        return new BookAvailabilityResponse(
+            book.getId(),
+            book.getTitle(),
+            book.getIsbn(),
+            availableCopies != null && availableCopies > 0,
+            availableCopies,
+            totalCopies
+        );
+    }
+}
@@ -0,0 +1,229 @@
+package com.bookstore.catalog.service;
+
+import com.bookstore.catalog.config.RabbitMQConfig;
+import com.bookstore.catalog.entity.OutboxEvent;
+import com.bookstore.catalog.event.EventCodec;
+import com.bookstore.catalog.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Relays outbox events to RabbitMQ.
+ *
+ * Each batch of unsent events is claimed in a short transaction: the rows are locked, leased to this
+ * relay for catalog.outbox.claim-lease-ms and committed, so neither the locks nor the connection are
+ * held while the events are sent in id order and their publisher confirms are awaited. A second short
+ * transaction then marks the confirmed events as sent. An event whose send fails or is not confirmed
+ * stays unsent and goes out with a later batch, as does a claimed event whose relay died before
+ * finishing, once its lease ends. Delivery is therefore at-least-once: consumers can deduplicate on
+ * the message ID, which is the outbox ID. Payloads are already EventCodec envelopes and are sent as
+ * they are, without another conversion. Events that BookEventPublisher is still coalescing are left
+ * for a later batch.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${catalog.outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${catalog.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs = 5000;
+
+    @Value("${catalog.outbox.claim-lease-ms:30000}")
+    private long claimLeaseMs = 30000;
+
+    @Value("${catalog.outbox.retention-days:7}")
+    private int retentionDays = 7;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository, RabbitTemplate rabbitTemplate,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Drain the outbox, one batch at a time, until a batch comes back short
+     */
+    @Scheduled(fixedDelayString = "${catalog.outbox.poll-interval-ms:1000}")
+    public void relayPending() {
+        try {
+            int sent;
+            do {
+                sent = relayBatch();
+            } while (sent == batchSize);
+        } catch (Exception e) {
+            logger.error("Outbox relay failed, unsent events will be retried", e);
+        }
+    }
+
+    /**
+     * Send the next batch of unsent events and mark the confirmed ones as sent
+     *
+     * @return the number of events confirmed by the broker
+     */
+    public int relayBatch() {
+        List<OutboxEvent> events = claimBatch();
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, CorrelationData> pending = new LinkedHashMap<>();
+        Map<Long, String> failures = new HashMap<>();
+        for (OutboxEvent event : events) {
+            CorrelationData correlationData = new CorrelationData(String.valueOf(event.getId()));
+            try {
+                send(event, correlationData);
+                pending.put(event.getId(), correlationData);
+            } catch (AmqpException e) {
+                // The broker is unreachable; later events would fail the same way
+                logger.warn("Failed to send outbox event {}: {}", event.getId(), e.getMessage());
+                failures.put(event.getId(), e.getMessage());
+                break;
+            }
+        }
+        Set<Long> confirmed = awaitConfirms(pending, failures);
+        recordOutcomes(events, confirmed, failures);
+        return confirmed.size();
+    }
+
+    /**
+     * Lock the oldest due events, skipping rows another relay holds, and lease them to this relay
+     */
+    private List<OutboxEvent> claimBatch() {
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events = outboxRepository.findUnsentForRelay(now, PageRequest.of(0, batchSize));
+            LocalDateTime leaseUntil = now.plus(claimLeaseMs, ChronoUnit.MILLIS);
+            events.forEach(event -> event.claim(leaseUntil));
+            return events;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    private void send(OutboxEvent event, CorrelationData correlationData) {
+        Message message = MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+            .setContentType(EventCodec.CONTENT_TYPE)
+            .setContentEncoding(StandardCharsets.UTF_8.name())
+            .setMessageId(String.valueOf(event.getId()))
+            .setCorrelationId(event.getCorrelationId())
+            .build();
+        rabbitTemplate.send(RabbitMQConfig.EXCHANGE_NAME, event.getRoutingKey(), message, correlationData);
+    }
+
+    /**
+     * Wait for the confirms of the sent events, recording why each unconfirmed one failed
+     *
+     * @return the ids of the events the broker acknowledged
+     */
+    private Set<Long> awaitConfirms(Map<Long, CorrelationData> pending, Map<Long, String> failures) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        Set<Long> confirmed = new HashSet<>();
+        for (Map.Entry<Long, CorrelationData> entry : pending.entrySet()) {
+            Long id = entry.getKey();
+            try {
+                CorrelationData.Confirm confirm = entry.getValue().getFuture()
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    confirmed.add(id);
+                } else {
+                    logger.warn("Outbox event {} was rejected by the broker: {}", id, confirm.getReason());
+                    failures.put(id, "Nacked: " + confirm.getReason());
+                }
+            } catch (TimeoutException e) {
+                failures.put(id, "No publisher confirm within " + confirmTimeoutMs + " ms");
+            } catch (ExecutionException e) {
+                failures.put(id, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // The rest were sent and may have been delivered, so they count as attempted
+                pending.keySet().stream()
+                    .filter(unconfirmed -> !confirmed.contains(unconfirmed) && !failures.containsKey(unconfirmed))
+                    .forEach(unconfirmed -> failures.put(unconfirmed, "Interrupted while awaiting publisher confirm"));
+                break;
+            }
+        }
+        if (!confirmed.isEmpty()) {
+            logger.debug("Relayed {} of {} outbox events", confirmed.size(), pending.size());
+        }
+        return confirmed;
+    }
+
+    /**
+     * Mark the confirmed events as sent, make the failed ones due again and give back the ones that
+     * were claimed but never sent
+     */
+    private void recordOutcomes(List<OutboxEvent> claimed, Set<Long> confirmed, Map<Long, String> failures) {
+        List<Long> ids = claimed.stream().map(OutboxEvent::getId).toList();
+        LocalDateTime sentAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (OutboxEvent event : outboxRepository.findAllById(ids)) {
+                if (confirmed.contains(event.getId())) {
+                    event.markSent(sentAt);
+                } else if (failures.containsKey(event.getId())) {
+                    event.recordFailure(failures.get(event.getId()));
+                } else {
+                    event.release();
+                }
+            }
+        });
+    }
+
+    /**
+     * Mark every event recorded since the given time as unsent, so the relay publishes it again.
+     * Only events still within the retention period can be replayed.
+     *
+     * @return the number of events queued for replay
+     */
+    public int replaySince(LocalDateTime since) {
+        Integer replayed = transactionTemplate.execute(status -> outboxRepository.markUnsentSince(since, LocalDateTime.now()));
+        logger.info("Queued {} outbox events recorded since {} for replay", replayed, since);
+        return replayed != null ? replayed : 0;
+    }
+
+    public long countPending() {
+        return outboxRepository.countBySentAtIsNull();
+    }
+
+    /**
+     * Delete sent events once they are past the retention period
+     */
+    @Scheduled(fixedDelayString = "${catalog.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        Integer purged = transactionTemplate.execute(status -> outboxRepository.deleteSentBefore(before));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} outbox events sent before {}", purged, before);
+        }
+    }
+}
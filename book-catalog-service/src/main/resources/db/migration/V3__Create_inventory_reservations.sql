@@ -0,0 +1,14 @@
+-- Applied borrow/return adjustments, keyed by the caller's idempotency key (the saga ID)
+CREATE TABLE inventory_reservations (
+    id BIGSERIAL PRIMARY KEY,
+    idempotency_key VARCHAR(100) NOT NULL,
+    operation VARCHAR(20) NOT NULL,
+    book_id BIGINT NOT NULL,
+    available_copies INTEGER NOT NULL,
+    total_copies INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_inventory_reservation_key UNIQUE (idempotency_key, operation),
+    FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_inventory_reservation_created_at ON inventory_reservations(created_at);
@@ -0,0 +1,3 @@
+-- Book ids are allocated by Hibernate's pooled optimizer in blocks of 50 (see Book.id),
+-- so the sequence must advance by the same amount
+ALTER SEQUENCE books_id_seq INCREMENT BY 50;
@@ -0,0 +1,18 @@
+-- Book events recorded with the change that produced them, relayed to RabbitMQ by OutboxRelay
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    routing_key VARCHAR(100) NOT NULL,
+    book_id BIGINT,
+    correlation_id VARCHAR(100),
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500)
+);
+
+-- The relay only ever scans unsent rows
+CREATE INDEX idx_outbox_event_unsent ON outbox_events(id) WHERE sent_at IS NULL;
+CREATE INDEX idx_outbox_event_sent_at ON outbox_events(sent_at);
+CREATE INDEX idx_outbox_event_created_at ON outbox_events(created_at);
@@ -0,0 +1,6 @@
+-- Availability changes to the same book are merged into one unsent event, which is held back until then
+ALTER TABLE outbox_events ADD COLUMN available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Finds the unsent availability event a new change is merged into
+CREATE INDEX idx_outbox_event_unsent_availability ON outbox_events(book_id)
+    WHERE sent_at IS NULL AND routing_key = 'book.availability.changed';
@@ -0,0 +1,26 @@
+package com.bookstore.catalog;
+
+/**
+ * Test data for books: valid ISBN-13s, so the @ISBN constraint accepts them
+ */
+public final class TestIsbns {
+
+    private TestIsbns() {}
+
+    /**
+     * {@code count} distinct ISBN-13s with the payloads 978 followed by {@code first}, {@code first + 1}, ...
+     * Tests sharing a database should pass ranges that do not overlap.
+     */
+    public static String[] isbn13s(int first, int count) {
+        String[] isbns = new String[count];
+        for (int i = 0; i < count; i++) {
+            String payload = String.format("978%09d", first + i);
+            int sum = 0;
+            for (int d = 0; d < 12; d++) {
+                sum += (payload.charAt(d) - '0') * (d % 2 == 0 ? 1 : 3);
+            }
+            isbns[i] = payload + ((10 - sum % 10) % 10);
+        }
+        return isbns;
+    }
+}
@@ -0,0 +1,129 @@
+package com.bookstore.catalog.controller;
+
+import com.bookstore.catalog.dto.BookResponse;
+import com.bookstore.catalog.exception.AuthorNotFoundException;
+import com.bookstore.catalog.exception.GlobalExceptionHandler;
+import com.bookstore.catalog.service.BookService;
+import com.bookstore.catalog.service.InventoryService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Content negotiation on GET /api/books between the JSON list and the NDJSON stream
+ */
+@ExtendWith(MockitoExtension.class)
+class BookControllerNdjsonTest {
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+            .standaloneSetup(new BookController(bookService, inventoryService, objectMapper))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+            .build();
+    }
+
+    @Test
+    void getBooks_WithNdjsonAccept_ShouldStreamOneBookPerLine() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<BookResponse> action = invocation.getArgument(4);
+            for (int i = 1; i <= 3; i++) {
+                action.accept(book((long) i, "Book " + i));
+            }
+            return 3L;
+        }).when(bookService).forEachBook(eq("Fiction"), isNull(), isNull(), isNull(), any());
+
+        // When
+        MvcResult started = mockMvc.perform(get("/api/books").param("genre", "Fiction")
+                .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        // Then
+        String[] lines = body.split("\n");
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize(3);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode row = objectMapper.readTree(lines[i]);
+            assertThat(row.get("id").asLong()).isEqualTo(i + 1L);
+            assertThat(row.get("title").asText()).isEqualTo("Book " + (i + 1));
+        }
+        verify(bookService, never()).findBooksByGenre(any());
+    }
+
+    @Test
+    void getBooks_WithJsonAccept_ShouldStillReturnTheList() throws Exception {
+        // Given
+        when(bookService.findBooksByGenre("Fiction")).thenReturn(List.of(book(1L, "Book 1")));
+
+        // When & Then
+        mockMvc.perform(get("/api/books").param("genre", "Fiction").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].title").value("Book 1"));
+        verify(bookService, never()).forEachBook(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getBooks_WithNdjsonAcceptAndUnknownAuthor_ShouldBeNotFoundBeforeStreaming() throws Exception {
+        // Given
+        doThrow(new AuthorNotFoundException(7L)).when(bookService).checkListingFilters(null, 7L, null);
+
+        // When & Then
+        mockMvc.perform(get("/api/books").param("authorId", "7").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.status").value(404));
+        verify(bookService, never()).forEachBook(any(), any(), any(), any(), any());
+    }
+
+    private static BookResponse book(Long id, String title) {
+        BookResponse response = new BookResponse();
+        response.setId(id);
+        response.setTitle(title);
+        return response;
+    }
+}
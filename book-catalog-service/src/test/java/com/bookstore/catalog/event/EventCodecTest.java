@@ -0,0 +1,171 @@
+package com.bookstore.catalog.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventCodecTest.class);
+
+    private final EventCodec codec = new EventCodec();
+
+    private BookAvailabilityChangedEvent availabilityEvent() {
+        return new BookAvailabilityChangedEvent(
+            1L, "978-0-123456-78-9", "Test Book", 3, 2, 3, "Book borrowed", "corr-123");
+    }
+
+    @Test
+    void encode_shouldMoveMetadataIntoHeaderAndOmitNulls() throws Exception {
+        // Given
+        BookDeletedEvent event = new BookDeletedEvent(1L, "978-0-123456-78-9", null, "corr-123");
+
+        // When
+        JsonNode envelope = codec.getObjectMapper().readTree(codec.encode(event));
+
+        // Then
+        assertThat(envelope.get("v").asInt()).isEqualTo(EventCodec.VERSION);
+        assertThat(envelope.get("type").asText()).isEqualTo("BOOK_DELETED");
+        assertThat(envelope.get("cid").asText()).isEqualTo("corr-123");
+        assertThat(envelope.get("id").asText()).isEqualTo(event.getEventId());
+        assertThat(envelope.has("ts")).isTrue();
+        JsonNode data = envelope.get("data");
+        assertThat(data.get("bookId").asLong()).isEqualTo(1L);
+        assertThat(data.has("eventType")).isFalse();
+        assertThat(data.has("correlationId")).isFalse();
+        assertThat(data.has("title")).isFalse();
+    }
+
+    @Test
+    void decode_shouldRestoreTheOriginalEvent() {
+        // Given
+        BookAvailabilityChangedEvent event = availabilityEvent();
+
+        // When
+        BookAvailabilityChangedEvent decoded = codec.decode(codec.encode(event), BookAvailabilityChangedEvent.class);
+
+        // Then
+        assertThat(decoded).isEqualTo(event);
+    }
+
+    @Test
+    void decode_shouldRejectNewerEnvelopeVersion() {
+        // Given
+        byte[] body = "{\"v\":2,\"type\":\"BOOK_DELETED\",\"data\":{}}".getBytes(StandardCharsets.UTF_8);
+
+        // When & Then
+        assertThatThrownBy(() -> codec.decode(body, BookDeletedEvent.class))
+            .isInstanceOf(MessageConversionException.class)
+            .hasMessageContaining("version");
+    }
+
+    @Test
+    void messageConverter_shouldWriteEnvelopeAndReadItIntoListenerType() {
+        // Given
+        MessageConverter converter = codec.messageConverter();
+        BookCreatedEvent event = new BookCreatedEvent(
+            1L, "978-0-123456-78-9", "Test Book", "Description", 2024, "Fiction", 10, 10, Set.of(1L), "corr-123");
+
+        // When
+        Message message = converter.toMessage(event, new MessageProperties());
+        message.getMessageProperties().setInferredArgumentType(BookCreatedEvent.class);
+        Object decoded = converter.fromMessage(message);
+
+        // Then
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(EventCodec.CONTENT_TYPE);
+        assertThat(decoded).isEqualTo(event);
+    }
+
+    @Test
+    void messageConverter_shouldReadEnvelopeHeaderWithoutListenerType() {
+        // Given
+        MessageConverter converter = codec.messageConverter();
+        Message message = converter.toMessage(availabilityEvent(), new MessageProperties());
+
+        // When
+        Object decoded = converter.fromMessage(message);
+
+        // Then
+        assertThat(decoded).isInstanceOf(EventEnvelope.class);
+        EventEnvelope envelope = (EventEnvelope) decoded;
+        assertThat(envelope.getEventType()).isEqualTo("BOOK_AVAILABILITY_CHANGED");
+        assertThat(envelope.getData().get("currentAvailableCopies").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    void messageConverter_shouldFallBackToPlainJsonForMessagesWithoutEnvelope() {
+        // Given
+        ObjectMapper legacyMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        Message legacy = new Jackson2JsonMessageConverter(legacyMapper).toMessage(availabilityEvent(), new MessageProperties());
+        legacy.getMessageProperties().setInferredArgumentType(BookAvailabilityChangedEvent.class);
+
+        // When
+        Object decoded = codec.messageConverter().fromMessage(legacy);
+
+        // Then
+        assertThat(decoded).isInstanceOf(BookAvailabilityChangedEvent.class);
+        assertThat(((BookAvailabilityChangedEvent) decoded).getCurrentAvailableCopies()).isEqualTo(2);
+    }
+
+    /**
+     * Compares the envelope with the previous wire format, where the publisher's JSON string was
+     * serialized again by the template's JSON converter and consumers parsed it twice. Only the size
+     * is asserted; the timings are logged for comparison.
+     */
+    @Test
+    void encode_shouldBeSmallerThanDoubleEncodedJson() throws Exception {
+        // Given
+        ObjectMapper legacyMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        Jackson2JsonMessageConverter legacyConverter = new Jackson2JsonMessageConverter();
+        BookAvailabilityChangedEvent event = availabilityEvent();
+        byte[] legacyBody = legacyConverter.toMessage(legacyMapper.writeValueAsString(event), new MessageProperties()).getBody();
+        byte[] envelopeBody = codec.encode(event);
+
+        // When
+        long legacyEncode = nanosPerOp(() -> legacyConverter.toMessage(legacyMapper.writeValueAsString(event), new MessageProperties()));
+        long legacyDecode = nanosPerOp(() -> legacyMapper.readValue(
+            legacyMapper.readValue(legacyBody, String.class), BookAvailabilityChangedEvent.class));
+        long envelopeEncode = nanosPerOp(() -> codec.encode(event));
+        long envelopeDecode = nanosPerOp(() -> codec.decode(envelopeBody, BookAvailabilityChangedEvent.class));
+
+        // Then
+        logger.info("BookAvailabilityChangedEvent: double-encoded JSON {} bytes, encode {} ns, decode {} ns; "
+            + "envelope {} bytes, encode {} ns, decode {} ns",
+            legacyBody.length, legacyEncode, legacyDecode, envelopeBody.length, envelopeEncode, envelopeDecode);
+        assertThat(envelopeBody.length).isLessThan(legacyBody.length);
+    }
+
+    private interface Operation {
+        void run() throws Exception;
+    }
+
+    /**
+     * Best of a few rounds after a warm-up, so JIT compilation does not dominate the figure
+     */
+    private static long nanosPerOp(Operation operation) throws Exception {
+        int iterations = 20_000;
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 4; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                operation.run();
+            }
+            best = Math.min(best, (System.nanoTime() - start) / iterations);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,102 @@
+package com.bookstore.catalog.repository;
+
+import com.bookstore.catalog.dto.BookSummary;
+import com.bookstore.catalog.entity.Author;
+import com.bookstore.catalog.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class BookRepositoryPagingTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        author = entityManager.persist(new Author("Robert", "Martin"));
+        persistBook("Clean Code", "9780132350884", "Programming", 3, author);
+        persistBook("Design Patterns", "9780201633610", "Programming", 0, null);
+        persistBook("Effective Java", "9780134685991", "Programming", 2, author);
+        persistBook("Dune", "9780441172719", "Fiction", 1, null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void persistBook(String title, String isbn, String genre, int available, Author bookAuthor) {
+        Book book = new Book(title, isbn);
+        book.setGenre(genre);
+        book.setTotalCopies(3);
+        book.setAvailableCopies(available);
+        if (bookAuthor != null) {
+            book.addAuthor(bookAuthor);
+        }
+        entityManager.persist(book);
+    }
+
+    @Test
+    void findByGenreIgnoreCase_shouldReturnPageWithTotals() {
+        // When
+        Page<Book> page = bookRepository.findByGenreIgnoreCase("programming", PageRequest.of(0, 2, Sort.by("title")));
+
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(Book::getTitle).containsExactly("Clean Code", "Design Patterns");
+    }
+
+    @Test
+    void findByAuthorId_shouldCountBooksOfAuthor() {
+        // When
+        Page<Book> page = bookRepository.findByAuthorId(author.getId(), PageRequest.of(0, 1, Sort.by("id")));
+
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).hasSize(1);
+    }
+
+    @Test
+    void findSummaries_shouldProjectScalarColumnsIntoSlices() {
+        // When
+        Slice<BookSummary> first = bookRepository.findSummaries(PageRequest.of(0, 3, Sort.by("title")));
+        Slice<BookSummary> last = bookRepository.findSummaries(first.nextPageable());
+
+        // Then
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.getContent()).extracting(BookSummary::title)
+            .containsExactly("Clean Code", "Design Patterns", "Dune");
+        assertThat(first.getContent().get(0).isbn()).isEqualTo("9780132350884");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.getContent()).extracting(BookSummary::title).containsExactly("Effective Java");
+    }
+
+    @Test
+    void filteredSummaries_shouldApplyGenreAvailabilityAndSearch() {
+        // Given
+        PageRequest request = PageRequest.of(0, 10, Sort.by("id"));
+
+        // When & Then
+        assertThat(bookRepository.findSummariesByGenre("FICTION", request).getContent())
+            .extracting(BookSummary::title).containsExactly("Dune");
+        assertThat(bookRepository.findAvailableSummaries(request).getContent())
+            .extracting(BookSummary::title).containsExactly("Clean Code", "Effective Java", "Dune");
+        assertThat(bookRepository.searchSummaries("java", request).getContent())
+            .extracting(BookSummary::availableCopies).containsExactly(2);
+    }
+}
@@ -1,13 +1,15 @@
 package com.bookstore.catalog.service;
 
+import com.bookstore.catalog.entity.OutboxEvent;
 import com.bookstore.catalog.event.*;
+import com.bookstore.catalog.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
 import java.util.Set;
 
@@ -19,17 +21,17 @@ import static org.mockito.Mockito.*;
 class BookEventPublisherTest {
 
     @Mock
-    private RabbitTemplate rabbitTemplate;
+    private OutboxEventRepository outboxRepository;
 
     private BookEventPublisher eventPublisher;
 
     @BeforeEach
     void setUp() {
-        eventPublisher = new BookEventPublisher(rabbitTemplate);
+        eventPublisher = new BookEventPublisher(outboxRepository, new EventCodec(), new SimpleMeterRegistry());
     }
 
     @Test
-    void publishBookCreated_shouldPublishEventWithCorrectRoutingKey() {
+    void publishBookCreated_shouldRecordEventWithCorrectRoutingKey() {
         // Given
         BookCreatedEvent event = new BookCreatedEvent(
             1L, "978-0-123456-78-9", "Test Book", "Description",
@@ -40,25 +42,19 @@ class BookEventPublisherTest {
         eventPublisher.publishBookCreated(event);
 
         // Then
-        ArgumentCaptor<String> exchangeCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> routingKeyCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
-
-        verify(rabbitTemplate).convertAndSend(
-            exchangeCaptor.capture(),
-            routingKeyCaptor.capture(),
-            messageCaptor.capture(),
-            any(org.springframework.amqp.core.MessagePostProcessor.class)
-        );
-
-        assertThat(exchangeCaptor.getValue()).isEqualTo("bookstore.events");
-        assertThat(routingKeyCaptor.getValue()).isEqualTo("book.created");
-        assertThat(messageCaptor.getValue()).contains("Test Book");
-        assertThat(messageCaptor.getValue()).contains("978-0-123456-78-9");
+        ArgumentCaptor<OutboxEvent> outboxCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(outboxCaptor.capture());
+
+        OutboxEvent recorded = outboxCaptor.getValue();
+        assertThat(recorded.getRoutingKey()).isEqualTo("book.created");
+        assertThat(recorded.getEventType()).isEqualTo("BOOK_CREATED");
+        assertThat(recorded.getBookId()).isEqualTo(1L);
+        assertThat(recorded.getPayload()).contains("Test Book");
+        assertThat(recorded.getPayload()).contains("978-0-123456-78-9");
     }
 
     @Test
-    void publishBookUpdated_shouldPublishEventWithCorrectRoutingKey() {
+    void publishBookUpdated_shouldRecordEventWithCorrectRoutingKey() {
         // Given
         BookUpdatedEvent event = new BookUpdatedEvent(
             1L, "978-0-123456-78-9", "Updated Book", "New Description",
@@ -69,20 +65,14 @@ class BookEventPublisherTest {
         eventPublisher.publishBookUpdated(event);
 
         // Then
-        ArgumentCaptor<String> routingKeyCaptor = ArgumentCaptor.forClass(String.class);
-
-        verify(rabbitTemplate).convertAndSend(
-            eq("bookstore.events"),
-            routingKeyCaptor.capture(),
-            anyString(),
-            any(org.springframework.amqp.core.MessagePostProcessor.class)
-        );
+        ArgumentCaptor<OutboxEvent> outboxCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(outboxCaptor.capture());
 
-        assertThat(routingKeyCaptor.getValue()).isEqualTo("book.updated");
+        assertThat(outboxCaptor.getValue().getRoutingKey()).isEqualTo("book.updated");
     }
 
     @Test
-    void publishBookDeleted_shouldPublishEventWithCorrectRoutingKey() {
+    void publishBookDeleted_shouldRecordEventWithCorrectRoutingKey() {
         // Given
         BookDeletedEvent event = new BookDeletedEvent(
             1L, "978-0-123456-78-9", "Deleted Book", "corr-123"
@@ -92,20 +82,14 @@ class BookEventPublisherTest {
         eventPublisher.publishBookDeleted(event);
 
         // Then
-        ArgumentCaptor<String> routingKeyCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<OutboxEvent> outboxCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(outboxCaptor.capture());
 
-        verify(rabbitTemplate).convertAndSend(
-            eq("bookstore.events"),
-            routingKeyCaptor.capture(),
-            anyString(),
-            any(org.springframework.amqp.core.MessagePostProcessor.class)
-        );
-
-        assertThat(routingKeyCaptor.getValue()).isEqualTo("book.deleted");
+        assertThat(outboxCaptor.getValue().getRoutingKey()).isEqualTo("book.deleted");
     }
 
     @Test
-    void publishBookAvailabilityChanged_shouldPublishEventWithCorrectRoutingKey() {
+    void publishBookAvailabilityChanged_shouldRecordEventWithCorrectRoutingKey() {
         // Given
         BookAvailabilityChangedEvent event = new BookAvailabilityChangedEvent(
             1L, "978-0-123456-78-9", "Test Book",
@@ -116,20 +100,30 @@ class BookEventPublisherTest {
         eventPublisher.publishBookAvailabilityChanged(event);
 
         // Then
-        ArgumentCaptor<String> routingKeyCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<OutboxEvent> outboxCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(outboxCaptor.capture());
 
-        verify(rabbitTemplate).convertAndSend(
-            eq("bookstore.events"),
-            routingKeyCaptor.capture(),
-            anyString(),
-            any(org.springframework.amqp.core.MessagePostProcessor.class)
-        );
+        assertThat(outboxCaptor.getValue().getRoutingKey()).isEqualTo("book.availability.changed");
+    }
+
+    @Test
+    void publishAuthorUpdated_shouldRecordEventWithAuthorRoutingKey() {
+        // When
+        eventPublisher.publishAuthorUpdated(7L);
 
-        assertThat(routingKeyCaptor.getValue()).isEqualTo("book.availability.changed");
+        // Then
+        ArgumentCaptor<OutboxEvent> outboxCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(outboxCaptor.capture());
+
+        OutboxEvent recorded = outboxCaptor.getValue();
+        assertThat(recorded.getRoutingKey()).isEqualTo("author.updated");
+        assertThat(recorded.getEventType()).isEqualTo(AuthorChangedEvent.AUTHOR_UPDATED);
+        assertThat(recorded.getBookId()).isNull();
+        assertThat(recorded.getPayload()).contains("\"authorId\":7");
     }
 
     @Test
-    void publishEvent_shouldSetCorrelationIdInMessageProperties() {
+    void publishEvent_shouldRecordCorrelationIdForMessageProperties() {
         // Given
         BookCreatedEvent event = new BookCreatedEvent(
             1L, "978-0-123456-78-9", "Test Book", "Description",
@@ -142,5 +136,9 @@ class BookEventPublisherTest {
         // Then
         assertThat(event.getCorrelationId()).isNotNull();
         assertThat(event.getCorrelationId()).isNotEmpty();
+
+        ArgumentCaptor<OutboxEvent> outboxCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(outboxCaptor.capture());
+        assertThat(outboxCaptor.getValue().getCorrelationId()).isEqualTo(event.getCorrelationId());
     }
 }
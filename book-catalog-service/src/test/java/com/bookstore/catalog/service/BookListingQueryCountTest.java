@@ -0,0 +1,166 @@
+package com.bookstore.catalog.service;
+
+import com.bookstore.catalog.TestIsbns;
+import com.bookstore.catalog.dto.AuthorResponse;
+import com.bookstore.catalog.dto.BookAvailabilityResponse;
+import com.bookstore.catalog.dto.BookResponse;
+import com.bookstore.catalog.entity.Author;
+import com.bookstore.catalog.entity.Book;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the listing endpoints against N+1 loading: statement counts must not grow with the
+ * number of books or authors returned.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({BookService.class, AuthorService.class})
+class BookListingQueryCountTest {
+
+    private static final int BOOKS = 40;
+    private static final String[] ISBNS = TestIsbns.isbn13s(100000, BOOKS);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @MockBean
+    private BookEventPublisher eventPublisher;
+
+    @MockBean
+    private BookCacheInvalidator cacheInvalidator;
+
+    private Statistics statistics;
+    private Long firstAuthorId;
+    private Long firstBookId;
+
+    @BeforeEach
+    void setUp() {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            authors.add(entityManager.persist(new Author("Author", "Number" + i)));
+        }
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book("Book " + i, ISBNS[i]);
+            book.setGenre(i % 2 == 0 ? "Fiction" : "History");
+            book.setDescription("Volume " + i);
+            book.setTotalCopies(2);
+            book.setAvailableCopies(i % 4 == 0 ? 0 : 1);
+            book.addAuthor(authors.get(i % authors.size()));
+            book.addAuthor(authors.get((i + 1) % authors.size()));
+            entityManager.persist(book);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        firstAuthorId = authors.get(0).getId();
+        firstBookId = entityManager.getEntityManager()
+            .createQuery("SELECT MIN(b.id) FROM Book b", Long.class).getSingleResult();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private <T> T countStatements(long maxStatements, Supplier<T> listing) {
+        entityManager.clear();
+        statistics.clear();
+        T result = listing.get();
+        assertThat(statistics.getPrepareStatementCount())
+            .as("statements executed")
+            .isLessThanOrEqualTo(maxStatements);
+        return result;
+    }
+
+    private static void assertAuthorsMapped(List<BookResponse> books) {
+        assertThat(books).isNotEmpty();
+        assertThat(books).allSatisfy(book -> {
+            assertThat(book.getAuthors()).hasSize(2);
+            assertThat(book.getAuthors()).allSatisfy(author -> assertThat(author.getBookCount()).isEqualTo(10));
+        });
+    }
+
+    @Test
+    void getAllBooks_shouldLoadAuthorsAndCountsInBatches() {
+        // page + count + one batch of authors
+        assertAuthorsMapped(countStatements(3, () -> bookService.getAllBooks()));
+    }
+
+    @Test
+    void filteredLegacyListings_shouldNotLoadAuthorsPerBook() {
+        assertAuthorsMapped(countStatements(3, () -> bookService.searchBooks("volume")));
+        assertAuthorsMapped(countStatements(3, () -> bookService.findBooksByGenre("fiction")));
+        assertAuthorsMapped(countStatements(3, () -> bookService.findAvailableBooks()));
+        // plus the author existence check
+        assertAuthorsMapped(countStatements(4, () -> bookService.findBooksByAuthor(firstAuthorId)));
+    }
+
+    @Test
+    void getBooksPage_shouldLoadAuthorsInBatches() {
+        assertAuthorsMapped(countStatements(3, () ->
+            bookService.getBooksPage(null, null, null, null, PageRequest.of(0, 25)).getContent()));
+        assertAuthorsMapped(countStatements(3, () ->
+            bookService.getBooksPage("history", null, null, null, PageRequest.of(1, 10)).getContent()));
+    }
+
+    @Test
+    void getBookSummaries_shouldRunSingleStatement() {
+        assertThat(countStatements(1, () ->
+            bookService.getBookSummaries(null, null, null, PageRequest.of(0, 30)).getContent())).hasSize(30);
+    }
+
+    @Test
+    void getBookById_shouldFetchAuthorsWithBook() {
+        BookResponse book = countStatements(1, () -> bookService.getBookById(firstBookId));
+        assertAuthorsMapped(List.of(book));
+    }
+
+    @Test
+    void getBooksByIds_shouldFetchBooksAndAuthorsInOneStatementInRequestOrder() {
+        List<Long> ids = List.of(firstBookId + 5, firstBookId, -1L, firstBookId + 12);
+        List<BookResponse> books = countStatements(1, () -> bookService.getBooksByIds(ids));
+        assertThat(books).extracting(BookResponse::getId).containsExactly(firstBookId + 5, firstBookId, firstBookId + 12);
+        assertAuthorsMapped(books);
+    }
+
+    @Test
+    void checkBatchAvailability_shouldRunSingleStatement() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = BOOKS - 1; i >= 0; i--) {
+            ids.add(firstBookId + i);
+        }
+        List<BookAvailabilityResponse> availability = countStatements(1, () -> bookService.checkBatchAvailability(ids));
+        assertThat(availability).extracting(BookAvailabilityResponse::getBookId).containsExactlyElementsOf(ids);
+        assertThat(availability.get(BOOKS - 1).isAvailable()).isFalse();
+        assertThat(availability.get(BOOKS - 2).isAvailable()).isTrue();
+    }
+
+    @Test
+    void getAllAuthors_shouldCountBooksWithoutLoadingThem() {
+        List<AuthorResponse> authors = countStatements(1, () -> authorService.getAllAuthors());
+        assertThat(authors).hasSize(8).allSatisfy(author -> assertThat(author.getBookCount()).isEqualTo(10));
+    }
+}
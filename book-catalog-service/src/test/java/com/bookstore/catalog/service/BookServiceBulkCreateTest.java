@@ -0,0 +1,181 @@
+package com.bookstore.catalog.service;
+
+import com.bookstore.catalog.TestIsbns;
+import com.bookstore.catalog.dto.BookRequest;
+import com.bookstore.catalog.dto.BulkBookRequest;
+import com.bookstore.catalog.dto.BulkOperationResult;
+import com.bookstore.catalog.entity.Author;
+import com.bookstore.catalog.entity.Book;
+import com.bookstore.catalog.event.BookCreatedEvent;
+import com.bookstore.catalog.event.BooksCreatedEvent;
+import com.bookstore.catalog.repository.AuthorRepository;
+import com.bookstore.catalog.repository.BookRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs without a test transaction, so the bulk insert commits and its event is sent like in production
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(BookService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookServiceBulkCreateTest {
+
+    private static final int BOOKS = 30;
+    private static final String[] ISBNS = TestIsbns.isbn13s(200000, BOOKS);
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private BookEventPublisher eventPublisher;
+
+    @MockBean
+    private BookCacheInvalidator cacheInvalidator;
+
+    private Long authorId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        authorId = authorRepository.save(new Author("Robert", "Martin")).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    private BookRequest bookRequest(String isbn, Long... authorIds) {
+        BookRequest request = new BookRequest();
+        request.setTitle("Book " + isbn);
+        request.setIsbn(isbn);
+        request.setTotalCopies(2);
+        request.setAvailableCopies(2);
+        request.setAuthorIds(Set.of(authorIds));
+        return request;
+    }
+
+    @Test
+    void bulkCreateBooks_shouldInsertValidBooksWithBoundedStatements() {
+        // Given
+        List<BookRequest> requests = new ArrayList<>();
+        for (String isbn : ISBNS) {
+            requests.add(bookRequest(isbn, authorId));
+        }
+        statistics.clear();
+
+        // When
+        BulkOperationResult result = bookService.bulkCreateBooks(new BulkBookRequest(requests));
+
+        // Then
+        assertThat(result.getSuccessCount()).isEqualTo(BOOKS);
+        assertThat(result.getFailureCount()).isZero();
+        assertThat(result.getSuccessfulIds()).hasSize(BOOKS).doesNotContainNull();
+        assertThat(bookRepository.count()).isEqualTo(BOOKS);
+        // ISBN lookup + author lookup + sequence + one batch each for books and book_authors, not one per book
+        assertThat(statistics.getPrepareStatementCount())
+            .as("statements executed")
+            .isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void bulkCreateBooks_shouldReportInvalidItemsAndCreateTheRest() {
+        // Given
+        Book existing = new Book("Existing", ISBNS[0]);
+        existing.setTotalCopies(1);
+        existing.setAvailableCopies(1);
+        bookRepository.save(existing);
+
+        BookRequest tooManyAvailable = bookRequest(ISBNS[4], authorId);
+        tooManyAvailable.setAvailableCopies(5);
+        List<BookRequest> requests = List.of(
+            bookRequest(ISBNS[0], authorId),
+            bookRequest(ISBNS[1], authorId),
+            bookRequest(ISBNS[1], authorId),
+            bookRequest(ISBNS[2], 999L),
+            bookRequest(ISBNS[3], authorId),
+            tooManyAvailable
+        );
+
+        // When
+        BulkOperationResult result = bookService.bulkCreateBooks(new BulkBookRequest(requests));
+
+        // Then
+        assertThat(result.getSuccessCount()).isEqualTo(2);
+        assertThat(result.getFailureCount()).isEqualTo(4);
+        assertThat(result.getErrors()).containsExactly(
+            "ISBN " + ISBNS[0] + ": Book with ISBN " + ISBNS[0] + " already exists",
+            "ISBN " + ISBNS[1] + ": Book with ISBN " + ISBNS[1] + " already exists",
+            "ISBN " + ISBNS[2] + ": Author not found with id: 999",
+            "ISBN " + ISBNS[4] + ": Available copies cannot exceed total copies"
+        );
+        assertThat(bookRepository.findByIsbn(ISBNS[1])).isPresent();
+        assertThat(bookRepository.findByIsbn(ISBNS[3])).isPresent();
+        assertThat(bookRepository.findByIsbn(ISBNS[2])).isEmpty();
+    }
+
+    @Test
+    void bulkCreateBooks_shouldPublishOneEventForTheBatch() {
+        // Given
+        List<BookRequest> requests = List.of(bookRequest(ISBNS[0], authorId), bookRequest(ISBNS[1], authorId));
+
+        // When
+        BulkOperationResult result = bookService.bulkCreateBooks(new BulkBookRequest(requests));
+
+        // Then
+        ArgumentCaptor<BooksCreatedEvent> event = ArgumentCaptor.forClass(BooksCreatedEvent.class);
+        verify(eventPublisher).publishBooksCreated(event.capture());
+        verify(eventPublisher, never()).publishBookCreated(any());
+        assertThat(event.getValue().getBooks())
+            .extracting(BookCreatedEvent::getBookId)
+            .containsExactlyElementsOf(result.getSuccessfulIds());
+        assertThat(event.getValue().getBooks())
+            .allSatisfy(book -> assertThat(book.getAuthorIds()).containsExactly(authorId));
+    }
+
+    @Test
+    void bulkCreateBooks_shouldNotPublishWhenNothingWasCreated() {
+        // Given
+        List<BookRequest> requests = List.of(bookRequest(ISBNS[0], 999L));
+
+        // When
+        BulkOperationResult result = bookService.bulkCreateBooks(new BulkBookRequest(requests));
+
+        // Then
+        assertThat(result.getFailureCount()).isEqualTo(1);
+        verifyNoInteractions(eventPublisher);
+    }
+}
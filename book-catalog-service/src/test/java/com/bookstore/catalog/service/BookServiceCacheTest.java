@@ -0,0 +1,298 @@
+package com.bookstore.catalog.service;
+
+import com.bookstore.catalog.config.CacheConfig;
+import com.bookstore.catalog.dto.AuthorResponse;
+import com.bookstore.catalog.dto.BookRequest;
+import com.bookstore.catalog.dto.BookResponse;
+import com.bookstore.catalog.entity.Author;
+import com.bookstore.catalog.entity.Book;
+import com.bookstore.catalog.event.AuthorChangedEvent;
+import com.bookstore.catalog.event.BookAvailabilityChangedEvent;
+import com.bookstore.catalog.event.BookCreatedEvent;
+import com.bookstore.catalog.event.EventCodec;
+import com.bookstore.catalog.exception.BookNotFoundException;
+import com.bookstore.catalog.exception.DuplicateIsbnException;
+import com.bookstore.catalog.repository.AuthorRepository;
+import com.bookstore.catalog.repository.BookRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs with the Caffeine caches and without a test transaction, so evictions happen on commit like
+ * they would in production
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@ActiveProfiles("test")
+@Import({BookService.class, InventoryService.class, BookCacheInvalidator.class, BookCacheEventListener.class,
+    CacheConfig.class, EventCodec.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookServiceCacheTest {
+
+    private static final String ISBN = "9780132350884";
+    private static final String OTHER_ISBN = "9780201633610";
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private BookCacheEventListener cacheEventListener;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheConfig cacheConfig;
+
+    @Autowired
+    private EventCodec eventCodec;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private BookEventPublisher eventPublisher;
+
+    private Statistics statistics;
+    private Long bookId;
+
+    @BeforeEach
+    void setUp() {
+        Book book = new Book("Clean Code", ISBN);
+        book.setGenre("Software");
+        book.setTotalCopies(3);
+        book.setAvailableCopies(3);
+        bookId = bookRepository.save(book).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private long statementsFor(Supplier<?> lookup) {
+        statistics.clear();
+        lookup.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private BookRequest updateRequest(String title, String isbn, String genre) {
+        BookRequest request = new BookRequest();
+        request.setTitle(title);
+        request.setIsbn(isbn);
+        request.setGenre(genre);
+        request.setTotalCopies(3);
+        request.setAvailableCopies(3);
+        return request;
+    }
+
+    @Test
+    void lookups_shouldBeServedFromCacheAfterFirstRead() {
+        // Given
+        bookService.getBookById(bookId);
+        bookService.getBookByIsbn(ISBN);
+        bookService.checkAvailability(bookId);
+        bookService.getAllGenres();
+
+        // When & Then
+        assertThat(statementsFor(() -> bookService.getBookById(bookId))).isZero();
+        assertThat(statementsFor(() -> bookService.getBookByIsbn(ISBN))).isZero();
+        assertThat(statementsFor(() -> bookService.checkAvailability(bookId))).isZero();
+        assertThat(statementsFor(() -> bookService.getAllGenres())).isZero();
+    }
+
+    @Test
+    void updateBook_shouldEvictBookUnderOldAndNewIsbn() {
+        // Given
+        bookService.getBookById(bookId);
+        bookService.getBookByIsbn(ISBN);
+        bookService.getAllGenres();
+
+        // When
+        bookService.updateBook(bookId, updateRequest("Design Patterns", OTHER_ISBN, "Architecture"));
+
+        // Then
+        assertThat(bookService.getBookById(bookId).getTitle()).isEqualTo("Design Patterns");
+        assertThat(bookService.getBookByIsbn(OTHER_ISBN).getId()).isEqualTo(bookId);
+        assertThatThrownBy(() -> bookService.getBookByIsbn(ISBN)).isInstanceOf(BookNotFoundException.class);
+        assertThat(bookService.getAllGenres()).containsExactly("Architecture");
+    }
+
+    @Test
+    void updateBook_shouldKeepCacheWhenTransactionRollsBack() {
+        // Given
+        Book other = new Book("Design Patterns", OTHER_ISBN);
+        other.setTotalCopies(1);
+        other.setAvailableCopies(1);
+        bookRepository.save(other);
+        bookService.getBookById(bookId);
+
+        // When
+        assertThatThrownBy(() -> bookService.updateBook(bookId, updateRequest("Renamed", OTHER_ISBN, "Software")))
+            .isInstanceOf(DuplicateIsbnException.class);
+
+        // Then
+        assertThat(statementsFor(() -> bookService.getBookById(bookId))).isZero();
+    }
+
+    @Test
+    void borrowBook_shouldEvictCachedAvailability() {
+        // Given
+        assertThat(bookService.checkAvailability(bookId).getAvailableCopies()).isEqualTo(3);
+        bookService.getBookById(bookId);
+
+        // When
+        inventoryService.borrowBook(bookId, "saga-1");
+
+        // Then
+        assertThat(bookService.checkAvailability(bookId).getAvailableCopies()).isEqualTo(2);
+        assertThat(bookService.getBookById(bookId).getAvailableCopies()).isEqualTo(2);
+    }
+
+    @Test
+    void peerEvent_shouldEvictBookChangedByAnotherInstance() {
+        // Given - another instance lends a copy
+        bookService.checkAvailability(bookId);
+        bookService.getBookByIsbn(ISBN);
+        Book book = bookRepository.findById(bookId).orElseThrow();
+        book.setAvailableCopies(2);
+        bookRepository.save(book);
+        BookAvailabilityChangedEvent event = new BookAvailabilityChangedEvent(
+            bookId, ISBN, "Clean Code", 3, 2, 3, "Book borrowed", "corr-123");
+
+        // When
+        cacheEventListener.handleBookEvent(eventCodec.readEnvelope(eventCodec.encode(event)));
+
+        // Then
+        assertThat(bookService.checkAvailability(bookId).getAvailableCopies()).isEqualTo(2);
+        assertThat(bookService.getBookByIsbn(ISBN).getAvailableCopies()).isEqualTo(2);
+    }
+
+    @Test
+    void peerEvent_shouldEvictBooksOfAuthorChangedByAnotherInstance() {
+        // Given - cached books embed their authors, which another instance changes
+        bookService.getBookById(bookId);
+        bookService.getBookByIsbn(ISBN);
+        Book book = bookRepository.findById(bookId).orElseThrow();
+        book.setTitle("Clean Code, 2nd Edition");
+        bookRepository.save(book);
+        AuthorChangedEvent event = new AuthorChangedEvent(AuthorChangedEvent.AUTHOR_UPDATED, 7L, "corr-123");
+
+        // When
+        cacheEventListener.handleBookEvent(eventCodec.readEnvelope(eventCodec.encode(event)));
+
+        // Then
+        assertThat(bookService.getBookById(bookId).getTitle()).isEqualTo("Clean Code, 2nd Edition");
+        assertThat(bookService.getBookByIsbn(ISBN).getTitle()).isEqualTo("Clean Code, 2nd Edition");
+    }
+
+    private Long bookByAuthor() {
+        Author author = authorRepository.save(new Author("Robert", "Martin"));
+        Book book = bookRepository.findWithAuthorsById(bookId).orElseThrow();
+        book.addAuthor(author);
+        bookRepository.save(book);
+        return author.getId();
+    }
+
+    private int cachedBookCount(Supplier<BookResponse> lookup) {
+        return lookup.get().getAuthors().stream().findFirst().map(AuthorResponse::getBookCount).orElseThrow();
+    }
+
+    @Test
+    void createBook_shouldEvictOtherBooksOfItsAuthors() {
+        // Given - the cached book embeds its author's book count
+        Long authorId = bookByAuthor();
+        assertThat(cachedBookCount(() -> bookService.getBookById(bookId))).isEqualTo(1);
+        assertThat(cachedBookCount(() -> bookService.getBookByIsbn(ISBN))).isEqualTo(1);
+        BookRequest request = updateRequest("The Clean Coder", OTHER_ISBN, "Software");
+        request.setAuthorIds(Set.of(authorId));
+
+        // When
+        Long otherId = bookService.createBook(request).getId();
+
+        // Then
+        assertThat(cachedBookCount(() -> bookService.getBookById(bookId))).isEqualTo(2);
+        assertThat(cachedBookCount(() -> bookService.getBookByIsbn(ISBN))).isEqualTo(2);
+
+        // And taking the new book away again counts it out of the cached one
+        bookService.deleteBook(otherId);
+        assertThat(cachedBookCount(() -> bookService.getBookById(bookId))).isEqualTo(1);
+    }
+
+    @Test
+    void peerEvent_shouldEvictOtherBooksOfAuthorGivenANewBook() {
+        // Given - another instance adds a book by the cached book's author
+        Long authorId = bookByAuthor();
+        assertThat(cachedBookCount(() -> bookService.getBookById(bookId))).isEqualTo(1);
+        Book other = new Book("The Clean Coder", OTHER_ISBN);
+        other.setTotalCopies(1);
+        other.setAvailableCopies(1);
+        other.getAuthors().add(authorRepository.findById(authorId).orElseThrow());
+        Long otherId = bookRepository.save(other).getId();
+        BookCreatedEvent event = new BookCreatedEvent(otherId, OTHER_ISBN, "The Clean Coder", null, null,
+            null, 1, 1, Set.of(authorId), "corr-123");
+
+        // When
+        cacheEventListener.handleBookEvent(eventCodec.readEnvelope(eventCodec.encode(event)));
+
+        // Then
+        assertThat(cachedBookCount(() -> bookService.getBookById(bookId))).isEqualTo(2);
+    }
+
+    @Test
+    void hitRatioMetric_shouldReportShareOfCachedLookups() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cacheConfig.cacheHitRatioMetrics(cacheManager).bindTo(registry);
+        Cache<Object, Object> books = ((CaffeineCache) cacheManager.getCache(CacheConfig.BOOKS)).getNativeCache();
+        CacheStats before = books.stats();
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            bookService.getBookById(bookId);
+        }
+
+        // Then
+        CacheStats lookups = books.stats().minus(before);
+        assertThat(lookups.hitCount()).isEqualTo(3);
+        assertThat(lookups.missCount()).isEqualTo(1);
+        assertThat(registry.get("cache.hit.ratio").tag("cache", CacheConfig.BOOKS).gauge().value())
+            .isEqualTo(books.stats().hitRate());
+    }
+}
@@ -36,6 +36,9 @@ class BookServiceEventIntegrationTest {
     @Mock
     private BookEventPublisher eventPublisher;
 
+    @Mock
+    private BookCacheInvalidator cacheInvalidator;
+
     @InjectMocks
     private BookService bookService;
 
@@ -0,0 +1,167 @@
+package com.bookstore.catalog.service;
+
+import com.bookstore.catalog.entity.Book;
+import com.bookstore.catalog.exception.AuthorNotFoundException;
+import com.bookstore.catalog.exception.InvalidBookOperationException;
+import com.bookstore.catalog.repository.AuthorRepository;
+import com.bookstore.catalog.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookServiceListingTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private BookEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private BookService bookService;
+
+    @Test
+    void getBooksPage_shouldClampPageSizeAndDefaultToIdOrder() {
+        // Given
+        when(bookRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+
+        // When
+        bookService.getBooksPage(null, null, null, null, PageRequest.of(2, 5000));
+
+        // Then
+        verify(bookRepository).findAll(pageable.capture());
+        assertThat(pageable.getValue().getPageNumber()).isEqualTo(2);
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(BookService.MAX_PAGE_SIZE);
+        assertThat(pageable.getValue().getSort()).isEqualTo(Sort.by("id"));
+    }
+
+    @Test
+    void getBooksPage_shouldRejectSortOnUnknownProperty() {
+        // When & Then
+        assertThatThrownBy(() -> bookService.getBooksPage(null, null, null, null,
+                PageRequest.of(0, 20, Sort.by("authors.lastName"))))
+            .isInstanceOf(InvalidBookOperationException.class);
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getBookSummaries_shouldPreferSearchOverOtherFilters() {
+        // Given
+        when(bookRepository.searchSummaries(eq("dune"), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+
+        // When
+        bookService.getBookSummaries("Fiction", "dune", true, PageRequest.of(0, 20));
+
+        // Then
+        verify(bookRepository).searchSummaries(eq("dune"), any(Pageable.class));
+        verify(bookRepository, never()).findSummariesByGenre(any(), any());
+    }
+
+    @Test
+    void getAllBooks_shouldOnlyLoadUpToLegacyCap() {
+        // Given
+        Book book = new Book("Dune", "9780441172719");
+        when(bookRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(book)));
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+
+        // When
+        assertThat(bookService.getAllBooks()).hasSize(1);
+
+        // Then
+        verify(bookRepository).findAll(pageable.capture());
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(1000);
+    }
+
+    @Test
+    void forEachBook_shouldWalkTheCursorUncappedAndClearAfterEachWindow() {
+        // Given
+        List<Book> books = IntStream.range(0, 250)
+            .mapToObj(i -> new Book("Book " + i, String.valueOf(i)))
+            .toList();
+        when(bookRepository.streamByGenre("Fiction")).thenReturn(books.stream());
+        List<String> titles = new ArrayList<>();
+
+        // When
+        long count = bookService.forEachBook("Fiction", 7L, null, true, book -> titles.add(book.getTitle()));
+
+        // Then - genre wins over author and availability, as in the listing
+        assertThat(count).isEqualTo(250);
+        assertThat(titles).hasSize(250).startsWith("Book 0").endsWith("Book 249");
+        verify(entityManager, times(3)).clear();
+        verifyNoInteractions(authorRepository);
+    }
+
+    @Test
+    void forEachBook_shouldRejectUnknownAuthorBeforeOpeningCursor() {
+        // Given
+        when(authorRepository.existsById(7L)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> bookService.forEachBook(null, 7L, " ", null, book -> {}))
+            .isInstanceOf(AuthorNotFoundException.class);
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void checkBatchAvailability_shouldQueryDistinctIdsOnce() {
+        // Given
+        when(bookRepository.findByIdIn(any())).thenReturn(List.of());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+
+        // When
+        bookService.checkBatchAvailability(Arrays.asList(3L, 1L, 3L, null, 2L));
+
+        // Then
+        verify(bookRepository).findByIdIn(ids.capture());
+        assertThat(ids.getValue()).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void getBooksByIds_shouldRejectBatchOverLimit() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, BookService.MAX_BATCH_SIZE + 1).boxed().toList();
+
+        // When & Then
+        assertThatThrownBy(() -> bookService.getBooksByIds(ids))
+            .isInstanceOf(InvalidBookOperationException.class);
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getBooksByIds_shouldSkipQueryForEmptyBatch() {
+        // When & Then
+        assertThat(bookService.getBooksByIds(List.of())).isEmpty();
+        verifyNoInteractions(bookRepository);
+    }
+}
@@ -0,0 +1,139 @@
+package com.bookstore.catalog.service;
+
+import com.bookstore.catalog.config.RabbitMQConfig;
+import com.bookstore.catalog.dto.BookAvailabilityResponse;
+import com.bookstore.catalog.event.InventoryCommand;
+import com.bookstore.catalog.event.InventoryReply;
+import com.bookstore.catalog.exception.BookNotAvailableException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryCommandListenerTest {
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @InjectMocks
+    private InventoryCommandListener listener;
+
+    private InventoryCommand command(String type, LocalDateTime deadline) {
+        InventoryCommand command = new InventoryCommand();
+        command.setEventType(type);
+        command.setSagaId("saga-1");
+        command.setCorrelationId("corr-123");
+        command.setBookId(1L);
+        command.setReplyTo("loan.saga.reply");
+        command.setDeadline(deadline);
+        return command;
+    }
+
+    private InventoryReply sentReply() {
+        ArgumentCaptor<InventoryReply> reply = ArgumentCaptor.forClass(InventoryReply.class);
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.EXCHANGE_NAME), eq("loan.saga.reply"), reply.capture());
+        return reply.getValue();
+    }
+
+    @Test
+    void borrowCommand_shouldBorrowWithSagaIdAndReplySuccess() {
+        // Given
+        when(inventoryService.borrowBook(1L, "saga-1"))
+            .thenReturn(new BookAvailabilityResponse(1L, "Clean Code", "9780132350884", true, 2, 3));
+
+        // When
+        listener.handleCommand(command(InventoryCommand.BORROW_BOOK, LocalDateTime.now().plusSeconds(30)));
+
+        // Then
+        InventoryReply reply = sentReply();
+        assertThat(reply.isSuccess()).isTrue();
+        assertThat(reply.getSagaId()).isEqualTo("saga-1");
+        assertThat(reply.getCorrelationId()).isEqualTo("corr-123");
+        assertThat(reply.getCommandType()).isEqualTo(InventoryCommand.BORROW_BOOK);
+        assertThat(reply.getAvailableCopies()).isEqualTo(2);
+    }
+
+    @Test
+    void borrowCommand_shouldReplyFailureWhenNoCopyLeft() {
+        // Given
+        when(inventoryService.borrowBook(1L, "saga-1")).thenThrow(new BookNotAvailableException(1L));
+
+        // When
+        listener.handleCommand(command(InventoryCommand.BORROW_BOOK, null));
+
+        // Then
+        InventoryReply reply = sentReply();
+        assertThat(reply.isSuccess()).isFalse();
+        assertThat(reply.getReason()).isNotBlank();
+    }
+
+    @Test
+    void borrowCommand_shouldBeRefusedAfterDeadline() {
+        // Given
+        when(inventoryService.findBorrow(1L, "saga-1")).thenReturn(Optional.empty());
+
+        // When
+        listener.handleCommand(command(InventoryCommand.BORROW_BOOK, LocalDateTime.now().minusSeconds(1)));
+
+        // Then
+        assertThat(sentReply().isSuccess()).isFalse();
+        verify(inventoryService, never()).borrowBook(anyLong(), anyString());
+    }
+
+    @Test
+    void borrowCommand_shouldReplayCommittedBorrowRedeliveredAfterDeadline() {
+        // Given - the borrow committed but its reply was lost, and the command comes back late
+        when(inventoryService.findBorrow(1L, "saga-1"))
+            .thenReturn(Optional.of(new BookAvailabilityResponse(1L, "Clean Code", "9780132350884", true, 2, 3)));
+
+        // When
+        listener.handleCommand(command(InventoryCommand.BORROW_BOOK, LocalDateTime.now().minusSeconds(1)));
+
+        // Then
+        InventoryReply reply = sentReply();
+        assertThat(reply.isSuccess()).isTrue();
+        assertThat(reply.getAvailableCopies()).isEqualTo(2);
+        verify(inventoryService, never()).borrowBook(anyLong(), anyString());
+    }
+
+    @Test
+    void releaseCommand_shouldReplySuccessEvenIfNothingWasBorrowed() {
+        // Given
+        when(inventoryService.releaseBook(1L, "saga-1")).thenReturn(Optional.empty());
+
+        // When
+        listener.handleCommand(command(InventoryCommand.RELEASE_BOOK, null));
+
+        // Then
+        InventoryReply reply = sentReply();
+        assertThat(reply.isSuccess()).isTrue();
+        assertThat(reply.getCommandType()).isEqualTo(InventoryCommand.RELEASE_BOOK);
+    }
+
+    @Test
+    void unexpectedError_shouldBeThrownForRedeliveryWithoutReply() {
+        // Given
+        when(inventoryService.borrowBook(1L, "saga-1")).thenThrow(new QueryTimeoutException("timeout"));
+
+        // When & Then
+        assertThatThrownBy(() -> listener.handleCommand(command(InventoryCommand.BORROW_BOOK, null)))
+            .isInstanceOf(QueryTimeoutException.class);
+        verifyNoInteractions(rabbitTemplate);
+    }
+}
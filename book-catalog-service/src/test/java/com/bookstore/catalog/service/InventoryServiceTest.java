@@ -0,0 +1,228 @@
+package com.bookstore.catalog.service;
+
+import com.bookstore.catalog.dto.BookAvailabilityResponse;
+import com.bookstore.catalog.entity.Book;
+import com.bookstore.catalog.entity.InventoryReservation;
+import com.bookstore.catalog.event.BookAvailabilityChangedEvent;
+import com.bookstore.catalog.exception.BookNotAvailableException;
+import com.bookstore.catalog.exception.BookNotFoundException;
+import com.bookstore.catalog.exception.InvalidBookOperationException;
+import com.bookstore.catalog.repository.BookRepository;
+import com.bookstore.catalog.repository.InventoryReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs against the database without a test transaction, so every call commits like it would in production
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(InventoryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryServiceTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private BookEventPublisher eventPublisher;
+
+    @MockBean
+    private BookCacheInvalidator cacheInvalidator;
+
+    private Long bookId;
+
+    @BeforeEach
+    void setUp() {
+        Book book = new Book("Clean Code", "9780132350884");
+        book.setTotalCopies(3);
+        book.setAvailableCopies(3);
+        bookId = bookRepository.save(book).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    private int availableCopies() {
+        return bookRepository.findById(bookId).orElseThrow().getAvailableCopies();
+    }
+
+    @Test
+    void borrowBook_shouldDecrementAndPublishAvailabilityChange() {
+        // When
+        BookAvailabilityResponse response = inventoryService.borrowBook(bookId, "saga-1");
+
+        // Then
+        assertThat(response.getAvailableCopies()).isEqualTo(2);
+        assertThat(availableCopies()).isEqualTo(2);
+        ArgumentCaptor<BookAvailabilityChangedEvent> event = ArgumentCaptor.forClass(BookAvailabilityChangedEvent.class);
+        verify(eventPublisher).publishBookAvailabilityChanged(event.capture());
+        assertThat(event.getValue().getPreviousAvailableCopies()).isEqualTo(3);
+        assertThat(event.getValue().getCurrentAvailableCopies()).isEqualTo(2);
+    }
+
+    @Test
+    void borrowBook_shouldApplyRetriedKeyOnlyOnce() {
+        // When
+        BookAvailabilityResponse first = inventoryService.borrowBook(bookId, "saga-1");
+        BookAvailabilityResponse retry = inventoryService.borrowBook(bookId, "saga-1");
+
+        // Then
+        assertThat(retry.getAvailableCopies()).isEqualTo(first.getAvailableCopies()).isEqualTo(2);
+        assertThat(availableCopies()).isEqualTo(2);
+        verify(eventPublisher, times(1)).publishBookAvailabilityChanged(any());
+    }
+
+    @Test
+    void returnBook_shouldBeKeyedSeparatelyFromBorrow() {
+        // When
+        inventoryService.borrowBook(bookId, "saga-1");
+        BookAvailabilityResponse compensated = inventoryService.returnBook(bookId, "saga-1");
+        inventoryService.returnBook(bookId, "saga-1");
+
+        // Then
+        assertThat(compensated.getAvailableCopies()).isEqualTo(3);
+        assertThat(availableCopies()).isEqualTo(3);
+    }
+
+    @Test
+    void releaseBook_shouldReturnCopyOnlyIfBorrowedWithKey() {
+        // Given
+        inventoryService.borrowBook(bookId, "saga-1");
+        inventoryService.borrowBook(bookId, "saga-2");
+
+        // When
+        Optional<BookAvailabilityResponse> released = inventoryService.releaseBook(bookId, "saga-1");
+        Optional<BookAvailabilityResponse> releasedAgain = inventoryService.releaseBook(bookId, "saga-1");
+        Optional<BookAvailabilityResponse> neverBorrowed = inventoryService.releaseBook(bookId, "saga-3");
+
+        // Then
+        assertThat(released).get().extracting(BookAvailabilityResponse::getAvailableCopies).isEqualTo(2);
+        assertThat(releasedAgain).isPresent();
+        assertThat(neverBorrowed).isEmpty();
+        assertThat(availableCopies()).isEqualTo(2);
+    }
+
+    @Test
+    void purgeExpiredReservations_shouldDeleteOnlyRecordsPastRetention() {
+        // Given
+        inventoryService.borrowBook(bookId, "saga-1");
+        inventoryService.borrowBook(bookId, "saga-2");
+        jdbcTemplate.update("UPDATE inventory_reservations SET created_at = ? WHERE idempotency_key = ?",
+            LocalDateTime.now().minusDays(30), "saga-1");
+
+        // When
+        inventoryService.purgeExpiredReservations();
+
+        // Then
+        assertThat(reservationRepository.findAll()).extracting(InventoryReservation::getIdempotencyKey)
+            .containsExactly("saga-2");
+        assertThat(availableCopies()).isEqualTo(1);
+    }
+
+    @Test
+    void findBorrow_shouldReplayBorrowMadeWithKeyWithoutBorrowingAgain() {
+        // Given
+        inventoryService.borrowBook(bookId, "saga-1");
+
+        // When
+        Optional<BookAvailabilityResponse> borrowed = inventoryService.findBorrow(bookId, "saga-1");
+        Optional<BookAvailabilityResponse> neverBorrowed = inventoryService.findBorrow(bookId, "saga-2");
+
+        // Then
+        assertThat(borrowed).get().extracting(BookAvailabilityResponse::getAvailableCopies).isEqualTo(2);
+        assertThat(neverBorrowed).isEmpty();
+        assertThat(availableCopies()).isEqualTo(2);
+    }
+
+    @Test
+    void borrowBook_shouldRejectWhenNoCopiesLeftWithoutRecordingKey() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            inventoryService.borrowBook(bookId, "saga-" + i);
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> inventoryService.borrowBook(bookId, "saga-late"))
+            .isInstanceOf(BookNotAvailableException.class);
+        assertThat(availableCopies()).isZero();
+        assertThat(reservationRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void returnBook_shouldRejectWhenAllCopiesInStock() {
+        // When & Then
+        assertThatThrownBy(() -> inventoryService.returnBook(bookId, "saga-1"))
+            .isInstanceOf(InvalidBookOperationException.class);
+        assertThatThrownBy(() -> inventoryService.borrowBook(-1L, "saga-2"))
+            .isInstanceOf(BookNotFoundException.class);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void borrowBook_shouldNeverOversellUnderConcurrency() throws Exception {
+        // Given
+        int borrowers = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(borrowers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < borrowers; i++) {
+            String key = "saga-" + i;
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    inventoryService.borrowBook(bookId, key);
+                } catch (BookNotAvailableException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(availableCopies()).isZero();
+        assertThat(rejected).hasValue(borrowers - 3);
+        assertThat(reservationRepository.count()).isEqualTo(3);
+    }
+}
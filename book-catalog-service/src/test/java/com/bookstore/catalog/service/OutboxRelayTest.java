@@ -0,0 +1,399 @@
+package com.bookstore.catalog.service;
+
+import com.bookstore.catalog.entity.OutboxEvent;
+import com.bookstore.catalog.event.BookAvailabilityChangedEvent;
+import com.bookstore.catalog.event.BookDeletedEvent;
+import com.bookstore.catalog.event.EventCodec;
+import com.bookstore.catalog.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs without a test transaction, so outbox writes commit or roll back like they would in production
+ */
+@DataJpaTest(properties = {"catalog.outbox.batch-size=2", "catalog.outbox.confirm-timeout-ms=200",
+    "catalog.outbox.coalescing.enabled=true", "catalog.outbox.coalescing.window-ms=60000",
+    "catalog.outbox.coalescing.max-delay-ms=120000"})
+@ActiveProfiles("test")
+@Import({OutboxRelay.class, BookEventPublisher.class, EventCodec.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private BookEventPublisher eventPublisher;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EventCodec eventCodec;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+    }
+
+    private void publishDeleted(long bookId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            eventPublisher.publishBookDeleted(new BookDeletedEvent(bookId, "9780132350884", "Clean Code", null)));
+    }
+
+    private void publishAvailability(long bookId, int previous, int current, String reason) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            eventPublisher.publishBookAvailabilityChanged(new BookAvailabilityChangedEvent(
+                bookId, "9780132350884", "Clean Code", previous, current, 3, reason, null)));
+    }
+
+    private BookAvailabilityChangedEvent payloadOf(OutboxEvent event) {
+        return eventCodec.decode(event.getPayload().getBytes(StandardCharsets.UTF_8), BookAvailabilityChangedEvent.class);
+    }
+
+    private double countedEvents(String outcome) {
+        return meterRegistry.counter("catalog.outbox.events", "type", "BOOK_AVAILABILITY_CHANGED", "outcome", outcome)
+            .count();
+    }
+
+    private void answerConfirms(boolean ack) {
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "queue full"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void publish_shouldRecordEventOnlyWhenTransactionCommits() {
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishBookDeleted(new BookDeletedEvent(1L, "9780132350884", "Clean Code", null));
+            status.setRollbackOnly();
+        });
+        publishDeleted(2L);
+
+        // Then
+        assertThat(outboxRepository.findAll()).extracting(OutboxEvent::getBookId).containsExactly(2L);
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void publish_shouldRequireTransaction() {
+        assertThatThrownBy(() -> eventPublisher.publishBookDeleted(
+                new BookDeletedEvent(1L, "9780132350884", "Clean Code", null)))
+            .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @Test
+    void relayPending_shouldSendInBatchesAndMarkConfirmedEventsSent() {
+        // Given
+        for (long bookId = 1; bookId <= 5; bookId++) {
+            publishDeleted(bookId);
+        }
+        answerConfirms(true);
+
+        // When
+        outboxRelay.relayPending();
+
+        // Then
+        ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(5)).send(eq("bookstore.events"), eq("book.deleted"),
+            messages.capture(), any(CorrelationData.class));
+        assertThat(messages.getAllValues()).allSatisfy(message -> {
+            assertThat(message.getMessageProperties().getContentType()).isEqualTo(EventCodec.CONTENT_TYPE);
+            assertThat(message.getMessageProperties().getMessageId()).isNotNull();
+        });
+        assertThat(outboxRelay.countPending()).isZero();
+        assertThat(outboxRepository.findAll()).allSatisfy(event -> assertThat(event.getSentAt()).isNotNull());
+    }
+
+    @Test
+    void relayBatch_shouldLeaveNackedEventsUnsent() {
+        // Given
+        publishDeleted(1L);
+        answerConfirms(false);
+
+        // When
+        int sent = outboxRelay.relayBatch();
+
+        // Then
+        assertThat(sent).isZero();
+        OutboxEvent event = outboxRepository.findAll().get(0);
+        assertThat(event.getSentAt()).isNull();
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getLastError()).contains("queue full");
+    }
+
+    @Test
+    void relayBatch_shouldLeaveUnconfirmedEventsUnsent() {
+        // Given
+        publishDeleted(1L);
+
+        // When
+        int sent = outboxRelay.relayBatch();
+
+        // Then
+        assertThat(sent).isZero();
+        assertThat(outboxRelay.countPending()).isEqualTo(1);
+        assertThat(outboxRepository.findAll().get(0).getLastError()).contains("No publisher confirm");
+    }
+
+    @Test
+    void relayBatch_shouldStopAtFirstSendFailure() {
+        // Given
+        publishDeleted(1L);
+        publishDeleted(2L);
+        doThrow(new AmqpConnectException(new ConnectException("Connection refused")))
+            .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        // When
+        int sent = outboxRelay.relayBatch();
+
+        // Then
+        assertThat(sent).isZero();
+        verify(rabbitTemplate, times(1)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        assertThat(outboxRelay.countPending()).isEqualTo(2);
+    }
+
+    @Test
+    void relayBatch_shouldCommitTheClaimBeforeSending() {
+        // Given
+        publishDeleted(1L);
+        AtomicBoolean transactionActive = new AtomicBoolean(true);
+        AtomicReference<Map<String, Object>> rowWhileSending = new AtomicReference<>();
+        doAnswer(invocation -> {
+            transactionActive.set(TransactionSynchronizationManager.isActualTransactionActive());
+            rowWhileSending.set(jdbcTemplate.queryForMap("SELECT attempts, available_at, sent_at FROM outbox_events"));
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        // When
+        int sent = outboxRelay.relayBatch();
+
+        // Then
+        assertThat(sent).isEqualTo(1);
+        assertThat(transactionActive).isFalse();
+        assertThat(((Number) rowWhileSending.get().get("attempts")).intValue()).isEqualTo(1);
+        assertThat(((Timestamp) rowWhileSending.get().get("available_at")).toLocalDateTime())
+            .isAfter(LocalDateTime.now().plusSeconds(10));
+        assertThat(rowWhileSending.get().get("sent_at")).isNull();
+        assertThat(outboxRelay.countPending()).isZero();
+    }
+
+    @Test
+    void relayBatch_shouldGiveBackClaimedEventsThatWereNeverSent() {
+        // Given
+        publishDeleted(1L);
+        publishDeleted(2L);
+        doThrow(new AmqpConnectException(new ConnectException("Connection refused")))
+            .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        // When
+        outboxRelay.relayBatch();
+
+        // Then
+        List<OutboxEvent> events = outboxRepository.findAll(Sort.by("id"));
+        assertThat(events).extracting(OutboxEvent::getAttempts).containsExactly(1, 0);
+        assertThat(events.get(0).getLastError()).contains("Connection refused");
+        assertThat(events).allSatisfy(event ->
+            assertThat(event.getAvailableAt()).isBeforeOrEqualTo(LocalDateTime.now()));
+    }
+
+    @Test
+    void replaySince_shouldSendRecordedEventsAgain() {
+        // Given
+        publishDeleted(1L);
+        answerConfirms(true);
+        outboxRelay.relayPending();
+        assertThat(outboxRelay.countPending()).isZero();
+
+        // When
+        int replayed = outboxRelay.replaySince(LocalDateTime.now().minusHours(1));
+        outboxRelay.relayPending();
+
+        // Then
+        assertThat(replayed).isEqualTo(1);
+        verify(rabbitTemplate, times(2)).send(anyString(), eq("book.deleted"), any(Message.class), any(CorrelationData.class));
+        assertThat(outboxRelay.countPending()).isZero();
+    }
+
+    @Test
+    void purgeSent_shouldDeleteOnlyEventsSentBeforeRetention() {
+        // Given
+        publishDeleted(1L);
+        publishDeleted(2L);
+        List<OutboxEvent> events = outboxRepository.findAll();
+        events.get(0).markSent(LocalDateTime.now().minusDays(30));
+        outboxRepository.saveAll(events);
+
+        // When
+        outboxRelay.purgeSent();
+
+        // Then
+        assertThat(outboxRepository.findAll()).extracting(OutboxEvent::getBookId).containsExactly(2L);
+    }
+
+    @Test
+    void publishAvailability_shouldMergeChangesToTheSameBookIntoOneHeldEvent() {
+        // Given
+        double savedBefore = countedEvents("saved");
+        double coalescedBefore = countedEvents("coalesced");
+
+        // When
+        publishAvailability(1L, 3, 2, "Book borrowed");
+        publishAvailability(1L, 2, 1, "Book borrowed");
+        publishAvailability(1L, 1, 0, "Book borrowed");
+        publishAvailability(2L, 5, 4, "Book borrowed");
+
+        // Then
+        List<OutboxEvent> events = outboxRepository.findAll();
+        assertThat(events).extracting(OutboxEvent::getBookId).containsExactlyInAnyOrder(1L, 2L);
+        OutboxEvent merged = events.stream().filter(event -> event.getBookId() == 1L).findFirst().orElseThrow();
+        BookAvailabilityChangedEvent payload = payloadOf(merged);
+        assertThat(payload.getPreviousAvailableCopies()).isEqualTo(3);
+        assertThat(payload.getCurrentAvailableCopies()).isZero();
+        assertThat(payload.getChangeReason()).isEqualTo("Book borrowed");
+        assertThat(merged.getAvailableAt()).isAfter(LocalDateTime.now().plusSeconds(30));
+        assertThat(countedEvents("saved") - savedBefore).isEqualTo(2);
+        assertThat(countedEvents("coalesced") - coalescedBefore).isEqualTo(2);
+    }
+
+    @Test
+    void relayBatch_shouldHoldCoalescingEventsUntilTheirWindowEnds() {
+        // Given
+        publishAvailability(1L, 3, 2, "Book borrowed");
+        publishAvailability(1L, 2, 3, "Book returned");
+        answerConfirms(true);
+
+        // When
+        int sentWhileHeld = outboxRelay.relayBatch();
+        jdbcTemplate.update("UPDATE outbox_events SET available_at = ?", LocalDateTime.now().minusSeconds(1));
+        int sentAfterWindow = outboxRelay.relayBatch();
+
+        // Then
+        assertThat(sentWhileHeld).isZero();
+        assertThat(sentAfterWindow).isEqualTo(1);
+        assertThat(payloadOf(outboxRepository.findAll().get(0)).getChangeReason()).isEqualTo("Multiple changes");
+    }
+
+    @Test
+    void publishAvailability_shouldNotHoldEventBeyondMaxDelay() {
+        // Given - the first change was recorded almost max-delay ago
+        publishAvailability(1L, 3, 2, "Book borrowed");
+        // Stored with microsecond precision
+        LocalDateTime firstChange = LocalDateTime.now().minusSeconds(119).truncatedTo(ChronoUnit.MICROS);
+        jdbcTemplate.update("UPDATE outbox_events SET created_at = ?", firstChange);
+
+        // When
+        publishAvailability(1L, 2, 1, "Book borrowed");
+
+        // Then
+        OutboxEvent event = outboxRepository.findAll().get(0);
+        assertThat(event.getAvailableAt()).isBeforeOrEqualTo(firstChange.plusSeconds(120));
+        assertThat(payloadOf(event).getPreviousAvailableCopies()).isEqualTo(3);
+    }
+
+    @Test
+    void publishAvailability_shouldStartNewEventOnceThePreviousOneWasSent() {
+        // Given
+        publishAvailability(1L, 3, 2, "Book borrowed");
+        jdbcTemplate.update("UPDATE outbox_events SET available_at = ?", LocalDateTime.now().minusSeconds(1));
+        answerConfirms(true);
+        outboxRelay.relayPending();
+
+        // When
+        publishAvailability(1L, 2, 1, "Book borrowed");
+
+        // Then
+        assertThat(outboxRepository.findAll()).hasSize(2);
+        assertThat(outboxRelay.countPending()).isEqualTo(1);
+    }
+
+    @Test
+    void publishAvailability_shouldNotMergeIntoReplayedEvent() {
+        // Given - an availability event that was sent and is replayed
+        publishAvailability(1L, 3, 2, "Book borrowed");
+        jdbcTemplate.update("UPDATE outbox_events SET available_at = ?", LocalDateTime.now().minusSeconds(1));
+        answerConfirms(true);
+        outboxRelay.relayPending();
+        outboxRelay.replaySince(LocalDateTime.now().minusHours(1));
+
+        // When
+        publishAvailability(1L, 2, 1, "Book borrowed");
+
+        // Then
+        List<OutboxEvent> events = outboxRepository.findAll(Sort.by("id"));
+        assertThat(events).hasSize(2);
+        assertThat(payloadOf(events.get(0)).getCurrentAvailableCopies()).isEqualTo(2);
+        assertThat(payloadOf(events.get(1)).getPreviousAvailableCopies()).isEqualTo(2);
+        assertThat(outboxRelay.countPending()).isEqualTo(2);
+    }
+
+    @Test
+    void publishAvailability_shouldNotMergeIntoEventWhoseConfirmTimedOut() {
+        // Given - the broker may have delivered the event, only its confirm is missing
+        publishAvailability(1L, 3, 2, "Book borrowed");
+        jdbcTemplate.update("UPDATE outbox_events SET available_at = ?", LocalDateTime.now().minusSeconds(1));
+        outboxRelay.relayBatch();
+        jdbcTemplate.update("UPDATE outbox_events SET available_at = ?", LocalDateTime.now().plusSeconds(30));
+
+        // When
+        publishAvailability(1L, 2, 1, "Book borrowed");
+
+        // Then
+        List<OutboxEvent> events = outboxRepository.findAll(Sort.by("id"));
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getAttempts()).isEqualTo(1);
+        assertThat(payloadOf(events.get(0)).getCurrentAvailableCopies()).isEqualTo(2);
+    }
+}
@@ -1,10 +1,18 @@
 package com.bookstore.loanmanagement.client;
 
+import com.bookstore.loanmanagement.dto.BookAvailabilityResponse;
 import com.bookstore.loanmanagement.dto.BookResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(
     name = "book-catalog-service",
@@ -12,15 +20,32 @@ import org.springframework.web.bind.annotation.PutMapping;
 )
 public interface BookCatalogClient {
 
+    /**
+     * Header carrying the de-duplication key for borrow/return; the catalog applies each key once per operation
+     */
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     @GetMapping("/api/books/{id}")
     BookResponse getBookById(@PathVariable("id") Long id);
 
     @GetMapping("/api/books/{id}/availability")
     BookResponse checkAvailability(@PathVariable("id") Long id);
 
+    /**
+     * Several books in one call, in the order requested; unknown IDs are left out
+     */
+    @GetMapping("/api/books")
+    List<BookResponse> getBooksByIds(@RequestParam("ids") Collection<Long> ids);
+
+    /**
+     * Availability of several books in one call, in the order requested; unknown IDs are left out
+     */
+    @PostMapping("/api/books/availability:batch")
+    List<BookAvailabilityResponse> checkBatchAvailability(@RequestBody Collection<Long> ids);
+
     @PutMapping("/api/books/{id}/borrow")
-    void borrowBook(@PathVariable("id") Long id);
+    void borrowBook(@PathVariable("id") Long id, @RequestHeader(IDEMPOTENCY_KEY_HEADER) String idempotencyKey);
 
     @PutMapping("/api/books/{id}/return")
-    void returnBook(@PathVariable("id") Long id);
+    void returnBook(@PathVariable("id") Long id, @RequestHeader(IDEMPOTENCY_KEY_HEADER) String idempotencyKey);
 }
@@ -1,5 +1,6 @@
 package com.bookstore.loanmanagement.client;
 
+import com.bookstore.loanmanagement.dto.BookAvailabilityResponse;
 import com.bookstore.loanmanagement.dto.BookResponse;
 import com.bookstore.loanmanagement.exception.ServiceUnavailableException;
 import io.micrometer.core.instrument.Counter;
@@ -8,6 +9,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Fallback implementation for Book Catalog Service with graceful degradation
  * Provides monitoring and detailed error handling when the service is unavailable
@@ -49,7 +53,29 @@ public class BookCatalogClientFallback implements BookCatalogClient {
     }
 
     @Override
-    public void borrowBook(Long id) {
+    public List<BookResponse> getBooksByIds(Collection<Long> ids) {
+        log.error("Book Catalog Service is unavailable. Fallback triggered for getBooksByIds: {}", ids);
+        fallbackCounter.increment();
+        
+        // Graceful degradation: throw exception with detailed message
+        throw new ServiceUnavailableException(
+            "Book Catalog Service is currently unavailable. Please try again later. Book IDs: " + ids
+        );
+    }
+
+    @Override
+    public List<BookAvailabilityResponse> checkBatchAvailability(Collection<Long> ids) {
+        log.error("Book Catalog Service is unavailable. Fallback triggered for checkBatchAvailability: {}", ids);
+        fallbackCounter.increment();
+        
+        // Graceful degradation: throw exception with detailed message
+        throw new ServiceUnavailableException(
+            "Book Catalog Service is currently unavailable. Cannot check availability for book IDs: " + ids
+        );
+    }
+
+    @Override
+    public void borrowBook(Long id, String idempotencyKey) {
         log.error("Book Catalog Service is unavailable. Fallback triggered for borrowBook: {}", id);
         fallbackCounter.increment();
         
@@ -60,7 +86,7 @@ public class BookCatalogClientFallback implements BookCatalogClient {
     }
 
     @Override
-    public void returnBook(Long id) {
+    public void returnBook(Long id, String idempotencyKey) {
         log.error("Book Catalog Service is unavailable. Fallback triggered for returnBook: {}", id);
         fallbackCounter.increment();
         
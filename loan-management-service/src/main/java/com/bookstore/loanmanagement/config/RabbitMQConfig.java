@@ -1,9 +1,9 @@
 package com.bookstore.loanmanagement.config;
 
+import com.bookstore.loanmanagement.event.EventCodec;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,22 +19,24 @@ public class RabbitMQConfig {
     public static final String LOAN_RETURNED_QUEUE = "loan.returned";
     public static final String BOOK_AVAILABILITY_QUEUE = "loan.book.availability";
     public static final String SAGA_COMPENSATION_QUEUE = "loan.saga.compensation";
+    public static final String SAGA_REPLY_QUEUE = "loan.saga.replies";
+    public static final String SAGA_REPLY_ROUTING_KEY = "loan.saga.reply";
 
     /**
-     * Configure message converter to use Jackson for JSON serialization
+     * Configure message converter to read and write the versioned event envelope
      */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter jsonMessageConverter(EventCodec eventCodec) {
+        return eventCodec.messageConverter();
     }
 
     /**
-     * Configure RabbitTemplate with JSON message converter
+     * Configure RabbitTemplate with the event envelope message converter
      */
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter jsonMessageConverter) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(jsonMessageConverter);
         return rabbitTemplate;
     }
 
@@ -90,6 +92,18 @@ public class RabbitMQConfig {
             .build();
     }
 
+    /**
+     * Declare the queue for the book catalog's replies to saga commands; shared by all instances,
+     * since any instance can advance a stored saga
+     */
+    @Bean
+    public Queue sagaReplyQueue() {
+        return QueueBuilder.durable(SAGA_REPLY_QUEUE)
+            .withArgument("x-message-ttl", 86400000)
+            .withArgument("x-max-length", 10000)
+            .build();
+    }
+
     /**
      * Bind loan.created queue to exchange
      */
@@ -129,4 +143,14 @@ public class RabbitMQConfig {
             .to(bookstoreExchange)
             .with("loan.saga.compensation");
     }
+
+    /**
+     * Bind saga reply queue to exchange
+     */
+    @Bean
+    public Binding sagaReplyBinding(Queue sagaReplyQueue, TopicExchange bookstoreExchange) {
+        return BindingBuilder.bind(sagaReplyQueue)
+            .to(bookstoreExchange)
+            .with(SAGA_REPLY_ROUTING_KEY);
+    }
 }
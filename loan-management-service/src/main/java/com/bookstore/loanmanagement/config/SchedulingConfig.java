@@ -0,0 +1,12 @@
+package com.bookstore.loanmanagement.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled jobs, such as purging finished sagas
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
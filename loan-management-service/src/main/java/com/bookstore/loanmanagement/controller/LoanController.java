@@ -1,15 +1,18 @@
 package com.bookstore.loanmanagement.controller;
 
 import com.bookstore.loanmanagement.dto.LoanRequest;
+import com.bookstore.loanmanagement.dto.LoanRequestAcceptedResponse;
 import com.bookstore.loanmanagement.dto.LoanResponse;
 import com.bookstore.loanmanagement.dto.LoanStatistics;
 import com.bookstore.loanmanagement.dto.ReturnLoanRequest;
 import com.bookstore.loanmanagement.entity.LoanStatus;
 import com.bookstore.loanmanagement.entity.LoanTracking;
+import com.bookstore.loanmanagement.saga.LoanSagaData;
 import com.bookstore.loanmanagement.service.LoanService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -18,6 +21,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -33,13 +37,27 @@ public class LoanController {
 
     private final LoanService loanService;
 
+    /**
+     * Create loans asynchronously: POST /api/loans answers 202 with the saga to follow
+     */
+    @Value("${loan.saga.async.enabled:false}")
+    private boolean asyncLoanCreation;
+
     /**
      * Create a new loan
      * POST /api/loans
+     * Answers 201 with the loan, or in asynchronous mode 202 with the saga creating it
      */
     @PostMapping
-    public ResponseEntity<LoanResponse> createLoan(@Valid @RequestBody LoanRequest request) {
+    public ResponseEntity<?> createLoan(@Valid @RequestBody LoanRequest request) {
         log.info("Creating loan for userId={}, bookId={}", request.getUserId(), request.getBookId());
+        if (asyncLoanCreation) {
+            LoanSagaData saga = loanService.startLoanCreation(request);
+            String statusUrl = "/api/sagas/loan-creation/" + saga.getSagaId();
+            return ResponseEntity.accepted()
+                .location(URI.create(statusUrl))
+                .body(new LoanRequestAcceptedResponse(saga.getSagaId(), saga.getLoanId(), saga.getState(), statusUrl));
+        }
         LoanResponse response = loanService.createLoan(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
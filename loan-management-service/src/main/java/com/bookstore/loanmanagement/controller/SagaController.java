@@ -1,9 +1,8 @@
 package com.bookstore.loanmanagement.controller;
 
 import com.bookstore.loanmanagement.saga.LoanReturnSagaData;
-import com.bookstore.loanmanagement.saga.LoanReturnSagaOrchestrator;
 import com.bookstore.loanmanagement.saga.LoanSagaData;
-import com.bookstore.loanmanagement.saga.LoanSagaOrchestrator;
+import com.bookstore.loanmanagement.saga.SagaRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -18,8 +17,7 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class SagaController {
     
-    private final LoanSagaOrchestrator loanSagaOrchestrator;
-    private final LoanReturnSagaOrchestrator loanReturnSagaOrchestrator;
+    private final SagaRepository sagaRepository;
     
     /**
      * Get loan creation saga status
@@ -29,13 +27,9 @@ public class SagaController {
     public ResponseEntity<LoanSagaData> getLoanCreationSagaStatus(@PathVariable String sagaId) {
         log.info("Retrieving loan creation saga status: sagaId={}", sagaId);
         
-        LoanSagaData sagaData = loanSagaOrchestrator.getSagaState(sagaId);
-        
-        if (sagaData == null) {
-            return ResponseEntity.notFound().build();
-        }
-        
-        return ResponseEntity.ok(sagaData);
+        return sagaRepository.findById(sagaId, LoanSagaData.class)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
     }
     
     /**
@@ -46,12 +40,8 @@ public class SagaController {
     public ResponseEntity<LoanReturnSagaData> getLoanReturnSagaStatus(@PathVariable String sagaId) {
         log.info("Retrieving loan return saga status: sagaId={}", sagaId);
         
-        LoanReturnSagaData sagaData = loanReturnSagaOrchestrator.getSagaState(sagaId);
-        
-        if (sagaData == null) {
-            return ResponseEntity.notFound().build();
-        }
-        
-        return ResponseEntity.ok(sagaData);
+        return sagaRepository.findById(sagaId, LoanReturnSagaData.class)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
     }
 }
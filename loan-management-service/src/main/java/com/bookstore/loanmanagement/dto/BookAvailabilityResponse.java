@@ -0,0 +1,17 @@
+package com.bookstore.loanmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookAvailabilityResponse {
+    private Long bookId;
+    private String title;
+    private String isbn;
+    private boolean available;
+    private Integer availableCopies;
+    private Integer totalCopies;
+}
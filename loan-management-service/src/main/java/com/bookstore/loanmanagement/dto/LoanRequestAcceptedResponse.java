@@ -0,0 +1,19 @@
+package com.bookstore.loanmanagement.dto;
+
+import com.bookstore.loanmanagement.saga.SagaState;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Answer to a loan request that is completed asynchronously
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanRequestAcceptedResponse {
+    private String sagaId;
+    private Long loanId;
+    private SagaState state;
+    private String statusUrl;
+}
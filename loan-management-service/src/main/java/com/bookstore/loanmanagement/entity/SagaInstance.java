@@ -0,0 +1,50 @@
+package com.bookstore.loanmanagement.entity;
+
+import com.bookstore.loanmanagement.saga.SagaState;
+import com.bookstore.loanmanagement.saga.SagaType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored state of one saga. The saga's data is kept as JSON in payload; state and the IDs are
+ * copied into columns so sagas can be found without reading it.
+ */
+@Entity
+@Table(name = "saga_instances")
+@Data
+@NoArgsConstructor
+public class SagaInstance {
+
+    @Id
+    @Column(name = "saga_id", length = 36)
+    private String sagaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "saga_type", nullable = false, length = 20)
+    private SagaType sagaType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SagaState state;
+
+    @Column(name = "loan_id")
+    private Long loanId;
+
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+}
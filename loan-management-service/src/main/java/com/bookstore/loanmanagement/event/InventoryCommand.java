@@ -0,0 +1,45 @@
+package com.bookstore.loanmanagement.event;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Command to the book catalog to take or put back a copy of a book for an asynchronous loan saga.
+ * The catalog uses the saga ID as idempotency key and answers with an {@link InventoryReply}.
+ */
+@Data
+@NoArgsConstructor
+public class InventoryCommand {
+    public static final String BORROW_BOOK = "BORROW_BOOK";
+    public static final String RELEASE_BOOK = "RELEASE_BOOK";
+
+    private String eventId;
+    private String correlationId;
+    private LocalDateTime timestamp;
+    private String eventType;
+    private String sagaId;
+    private Long bookId;
+    /**
+     * Routing key the reply is sent with
+     */
+    private String replyTo;
+    /**
+     * The catalog refuses a borrow arriving after this, since the saga has stopped waiting for it
+     */
+    private LocalDateTime deadline;
+
+    public InventoryCommand(String eventType, String sagaId, Long bookId, String replyTo,
+                            LocalDateTime deadline, String correlationId) {
+        this.eventId = UUID.randomUUID().toString();
+        this.correlationId = correlationId;
+        this.timestamp = LocalDateTime.now();
+        this.eventType = eventType;
+        this.sagaId = sagaId;
+        this.bookId = bookId;
+        this.replyTo = replyTo;
+        this.deadline = deadline;
+    }
+}
@@ -0,0 +1,25 @@
+package com.bookstore.loanmanagement.event;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The book catalog's answer to an {@link InventoryCommand}
+ */
+@Data
+@NoArgsConstructor
+public class InventoryReply {
+    private String eventId;
+    private String correlationId;
+    private LocalDateTime timestamp;
+    private String eventType;
+    private String sagaId;
+    private String commandType;
+    private Long bookId;
+    private boolean success;
+    private String reason;
+    private Integer availableCopies;
+    private Integer totalCopies;
+}
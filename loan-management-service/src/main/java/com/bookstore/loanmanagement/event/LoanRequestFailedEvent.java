@@ -0,0 +1,23 @@
+package com.bookstore.loanmanagement.event;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event published when an asynchronously accepted loan request could not be completed
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class LoanRequestFailedEvent extends LoanEvent {
+    private String sagaId;
+    private String reason;
+    
+    public LoanRequestFailedEvent(String sagaId, Long loanId, Long userId, Long bookId,
+                                  String reason, String correlationId) {
+        super("LOAN_REQUEST_FAILED", loanId, userId, bookId, correlationId);
+        this.sagaId = sagaId;
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,36 @@
+package com.bookstore.loanmanagement.repository;
+
+import com.bookstore.loanmanagement.entity.SagaInstance;
+import com.bookstore.loanmanagement.saga.SagaState;
+import com.bookstore.loanmanagement.saga.SagaType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SagaInstanceRepository extends JpaRepository<SagaInstance, String> {
+
+    Optional<SagaInstance> findBySagaIdAndSagaType(String sagaId, SagaType sagaType);
+
+    List<SagaInstance> findBySagaTypeAndStateInAndUpdatedAtBeforeOrderByUpdatedAt(
+        SagaType sagaType, Collection<SagaState> states, LocalDateTime updatedBefore);
+
+    // Cleared afterwards, so a saga read later in the same transaction sees the new state
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaInstance s SET s.state = :next, s.updatedAt = :now, s.version = s.version + 1 " +
+           "WHERE s.sagaId = :sagaId AND s.state = :expected")
+    int updateStateIfCurrent(@Param("sagaId") String sagaId, @Param("expected") SagaState expected,
+                             @Param("next") SagaState next, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM SagaInstance s WHERE s.state IN :states AND s.updatedAt < :cutoff")
+    int deleteByStateInAndUpdatedAtBefore(@Param("states") Collection<SagaState> states,
+                                          @Param("cutoff") LocalDateTime cutoff);
+}
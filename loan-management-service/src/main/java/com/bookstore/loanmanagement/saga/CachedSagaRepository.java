@@ -0,0 +1,112 @@
+package com.bookstore.loanmanagement.saga;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bounded read cache in front of {@link JpaSagaRepository}, which stays the source of truth.
+ *
+ * Writes go straight to the table and evict the saga, once now and again when the surrounding
+ * transaction completes, so a rolled back write or a read racing the commit is never left behind.
+ * A miss loads the saga while holding the cache entry, so the eviction waits for that load instead
+ * of being overtaken by it. Callers get copies, so changing a saga without saving it cannot change
+ * the cached one. Sagas changed by another instance may be served for up to loan.saga.cache-ttl-ms.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "loan.saga.repository", havingValue = "jpa", matchIfMissing = true)
+public class CachedSagaRepository implements SagaRepository {
+
+    private final JpaSagaRepository delegate;
+    private final Cache<String, SagaData> sagas;
+
+    @Autowired
+    public CachedSagaRepository(JpaSagaRepository delegate,
+                                @Value("${loan.saga.cache-max-entries:10000}") long maxEntries,
+                                @Value("${loan.saga.cache-ttl-ms:10000}") long ttlMs) {
+        this(delegate, Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(Duration.ofMillis(ttlMs)));
+    }
+
+    CachedSagaRepository(JpaSagaRepository delegate, Caffeine<Object, Object> cacheBuilder) {
+        this.delegate = delegate;
+        this.sagas = cacheBuilder.build();
+    }
+
+    @Override
+    public void save(SagaData saga) {
+        try {
+            delegate.save(saga);
+        } finally {
+            evictNowAndOnCompletion(saga.getSagaId());
+        }
+    }
+
+    @Override
+    public <T extends SagaData> Optional<T> findById(String sagaId, Class<T> type) {
+        SagaData cached = sagas.get(sagaId, id -> delegate.findById(id, type).orElse(null));
+        return Optional.ofNullable(cached)
+            .filter(type::isInstance)
+            .map(type::cast)
+            .map(delegate::copy);
+    }
+
+    /**
+     * Decided by the conditional update on the table. The saga is evicted whatever the outcome:
+     * a lost race means the cached copy was already out of date.
+     */
+    @Override
+    public boolean compareAndSetState(String sagaId, SagaState expected, SagaState next) {
+        try {
+            return delegate.compareAndSetState(sagaId, expected, next);
+        } finally {
+            evictNowAndOnCompletion(sagaId);
+        }
+    }
+
+    @Override
+    public <T extends SagaData> List<T> findStalled(Class<T> type, Collection<SagaState> states,
+                                                    LocalDateTime updatedBefore) {
+        return delegate.findStalled(type, states, updatedBefore);
+    }
+
+    @Override
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        int deleted = delegate.deleteFinishedBefore(cutoff);
+        if (deleted > 0) {
+            sagas.invalidateAll();
+        }
+        return deleted;
+    }
+
+    long cachedSagas() {
+        sagas.cleanUp();
+        return sagas.estimatedSize();
+    }
+
+    private void evictNowAndOnCompletion(String sagaId) {
+        sagas.invalidate(sagaId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    sagas.invalidate(sagaId);
+                }
+            });
+        }
+    }
+}
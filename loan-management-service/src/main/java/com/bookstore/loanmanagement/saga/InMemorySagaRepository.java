@@ -0,0 +1,86 @@
+package com.bookstore.loanmanagement.saga;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps sagas in this instance only, for development and tests. Holds at most
+ * loan.saga.memory-max-entries sagas, dropping the least recently used one beyond that; sagas are
+ * lost on restart, so nothing is left to recover.
+ */
+@Component
+@ConditionalOnProperty(name = "loan.saga.repository", havingValue = "memory")
+public class InMemorySagaRepository implements SagaRepository {
+
+    private final Map<String, StoredSaga> sagas;
+
+    public InMemorySagaRepository(@Value("${loan.saga.memory-max-entries:10000}") int maxEntries) {
+        this.sagas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredSaga> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized void save(SagaData saga) {
+        sagas.put(saga.getSagaId(), new StoredSaga(saga, LocalDateTime.now()));
+    }
+
+    @Override
+    public synchronized <T extends SagaData> Optional<T> findById(String sagaId, Class<T> type) {
+        return Optional.ofNullable(sagas.get(sagaId))
+            .map(StoredSaga::saga)
+            .filter(type::isInstance)
+            .map(type::cast);
+    }
+
+    @Override
+    public synchronized boolean compareAndSetState(String sagaId, SagaState expected, SagaState next) {
+        StoredSaga stored = sagas.get(sagaId);
+        if (stored == null || stored.saga().getState() != expected) {
+            return false;
+        }
+        stored.saga().setState(next);
+        sagas.put(sagaId, new StoredSaga(stored.saga(), LocalDateTime.now()));
+        return true;
+    }
+
+    @Override
+    public synchronized <T extends SagaData> List<T> findStalled(Class<T> type, Collection<SagaState> states,
+                                                                 LocalDateTime updatedBefore) {
+        return sagas.values().stream()
+            .filter(stored -> stored.updatedAt().isBefore(updatedBefore))
+            .map(StoredSaga::saga)
+            .filter(type::isInstance)
+            .filter(saga -> states.contains(saga.getState()))
+            .map(type::cast)
+            .toList();
+    }
+
+    @Override
+    public synchronized int deleteFinishedBefore(LocalDateTime cutoff) {
+        int deleted = 0;
+        for (Iterator<StoredSaga> it = sagas.values().iterator(); it.hasNext(); ) {
+            StoredSaga stored = it.next();
+            if (stored.saga().getState().isTerminal() && stored.updatedAt().isBefore(cutoff)) {
+                it.remove();
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private record StoredSaga(SagaData saga, LocalDateTime updatedAt) {
+    }
+}
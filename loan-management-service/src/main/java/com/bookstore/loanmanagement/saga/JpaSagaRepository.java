@@ -0,0 +1,109 @@
+package com.bookstore.loanmanagement.saga;
+
+import com.bookstore.loanmanagement.entity.SagaInstance;
+import com.bookstore.loanmanagement.repository.SagaInstanceRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps sagas in the saga_instances table, so in-flight sagas survive a restart and can be
+ * recovered by {@link SagaRecoveryService}
+ */
+@Component
+@ConditionalOnProperty(name = "loan.saga.repository", havingValue = "jpa", matchIfMissing = true)
+public class JpaSagaRepository implements SagaRepository {
+
+    private final SagaInstanceRepository sagaInstanceRepository;
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+
+    public JpaSagaRepository(SagaInstanceRepository sagaInstanceRepository) {
+        this.sagaInstanceRepository = sagaInstanceRepository;
+    }
+
+    @Override
+    @Transactional
+    public void save(SagaData saga) {
+        SagaInstance instance = sagaInstanceRepository.findById(saga.getSagaId())
+            .orElseGet(SagaInstance::new);
+        instance.setSagaId(saga.getSagaId());
+        instance.setSagaType(SagaType.of(saga.getClass()));
+        instance.setState(saga.getState());
+        instance.setLoanId(saga.getLoanId());
+        instance.setBookId(saga.getBookId());
+        instance.setStartedAt(saga.getStartedAt() != null ? saga.getStartedAt() : LocalDateTime.now());
+        instance.setUpdatedAt(LocalDateTime.now());
+        instance.setPayload(write(saga));
+        sagaInstanceRepository.save(instance);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T extends SagaData> Optional<T> findById(String sagaId, Class<T> type) {
+        return sagaInstanceRepository.findBySagaIdAndSagaType(sagaId, SagaType.of(type))
+            .map(instance -> read(instance, type));
+    }
+
+    @Override
+    @Transactional
+    public boolean compareAndSetState(String sagaId, SagaState expected, SagaState next) {
+        return sagaInstanceRepository.updateStateIfCurrent(sagaId, expected, next, LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T extends SagaData> List<T> findStalled(Class<T> type, Collection<SagaState> states,
+                                                    LocalDateTime updatedBefore) {
+        return sagaInstanceRepository
+            .findBySagaTypeAndStateInAndUpdatedAtBeforeOrderByUpdatedAt(SagaType.of(type), states, updatedBefore)
+            .stream()
+            .map(instance -> read(instance, type))
+            .toList();
+    }
+
+    @Override
+    @Transactional
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        return sagaInstanceRepository.deleteByStateInAndUpdatedAtBefore(SagaState.TERMINAL, cutoff);
+    }
+
+    /**
+     * Detached copy of the saga, as a later read would return it
+     */
+    @SuppressWarnings("unchecked")
+    <T extends SagaData> T copy(T saga) {
+        return objectMapper.convertValue(saga, (Class<T>) saga.getClass());
+    }
+
+    private String write(SagaData saga) {
+        try {
+            return objectMapper.writeValueAsString(saga);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize saga " + saga.getSagaId(), e);
+        }
+    }
+
+    private <T extends SagaData> T read(SagaInstance instance, Class<T> type) {
+        try {
+            T saga = objectMapper.readValue(instance.getPayload(), type);
+            // compareAndSetState only updates the column
+            saga.setState(instance.getState());
+            return saga;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read saga " + instance.getSagaId(), e);
+        }
+    }
+}
@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class LoanReturnSagaData {
+public class LoanReturnSagaData implements SagaData {
     private String sagaId;
     private String correlationId;
     private Long loanId;
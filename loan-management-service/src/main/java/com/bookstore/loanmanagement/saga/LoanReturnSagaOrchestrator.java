@@ -19,7 +19,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Orchestrates the loan return saga with compensation logic
@@ -33,9 +32,7 @@ public class LoanReturnSagaOrchestrator {
     private final BookCatalogClient bookCatalogClient;
     private final LoanTrackingService loanTrackingService;
     private final LoanEventPublisher loanEventPublisher;
-    
-    // In-memory saga state tracking
-    private final ConcurrentHashMap<String, LoanReturnSagaData> sagaStates = new ConcurrentHashMap<>();
+    private final SagaRepository sagaRepository;
     
     /**
      * Execute loan return saga
@@ -60,23 +57,23 @@ public class LoanReturnSagaOrchestrator {
             .retryCount(0)
             .build();
         
-        sagaStates.put(sagaId, sagaData);
+        sagaRepository.save(sagaData);
         
         try {
             log.info("Starting loan return saga: sagaId={}, loanId={}", sagaId, loanId);
             
             // Step 1: Update loan status to returned
             updateLoanToReturned(sagaData, loan);
-            sagaData.setState(SagaState.LOAN_CREATED); // Reusing state enum
+            transition(sagaData, SagaState.LOAN_CREATED); // Reusing state enum
             
             // Step 2: Return book to catalog
             returnBookToCatalog(sagaData);
-            sagaData.setState(SagaState.BOOK_RESERVED); // Reusing state enum
+            transition(sagaData, SagaState.BOOK_RESERVED); // Reusing state enum
             
             // Step 3: Complete saga - record tracking and publish event
             completeReturnSaga(sagaData, loan);
-            sagaData.setState(SagaState.COMPLETED);
             sagaData.setCompletedAt(LocalDateTime.now());
+            transition(sagaData, SagaState.COMPLETED);
             
             log.info("Loan return saga completed successfully: sagaId={}, loanId={}", sagaId, loanId);
             
@@ -84,15 +81,59 @@ public class LoanReturnSagaOrchestrator {
             
         } catch (Exception e) {
             log.error("Loan return saga failed: sagaId={}, error={}", sagaId, e.getMessage());
-            sagaData.setState(SagaState.FAILED);
             sagaData.setFailureReason(e.getMessage());
             
             // Attempt compensation
             compensateReturn(sagaData, loan);
             
             throw e;
-        } finally {
-            scheduleCleanup(sagaId);
+        }
+    }
+    
+    /**
+     * Finish a return saga that was interrupted after a completed step, e.g. by a restart. Step 2 can
+     * be repeated because the catalog applies a return once per saga ID; step 3 may publish its event
+     * a second time. Compensates if a remaining step fails or the saga was already resumed too often.
+     */
+    public void resumeSaga(LoanReturnSagaData sagaData) {
+        log.warn("Resuming interrupted loan return saga: sagaId={}, state={}, attempt={}", 
+                sagaData.getSagaId(), sagaData.getState(), sagaData.getRetryCount() + 1);
+        
+        Loan loan = loanRepository.findById(sagaData.getLoanId()).orElse(null);
+        if (loan == null) {
+            log.error("Cannot resume return saga, loan is gone: sagaId={}, loanId={}", 
+                    sagaData.getSagaId(), sagaData.getLoanId());
+            sagaData.setFailureReason("Loan not found with ID: " + sagaData.getLoanId());
+            sagaData.setCompletedAt(LocalDateTime.now());
+            transition(sagaData, SagaState.FAILED);
+            return;
+        }
+        
+        if (!sagaData.canRetry()) {
+            sagaData.setFailureReason("Gave up after " + sagaData.getRetryCount() + " recovery attempts");
+            compensateReturn(sagaData, loan);
+            return;
+        }
+        sagaData.incrementRetryCount();
+        sagaRepository.save(sagaData);
+        
+        try {
+            if (sagaData.getState() == SagaState.LOAN_CREATED) {
+                returnBookToCatalog(sagaData);
+                transition(sagaData, SagaState.BOOK_RESERVED);
+            }
+            
+            completeReturnSaga(sagaData, loan);
+            sagaData.setCompletedAt(LocalDateTime.now());
+            transition(sagaData, SagaState.COMPLETED);
+            
+            log.info("Resumed loan return saga completed: sagaId={}, loanId={}", 
+                    sagaData.getSagaId(), loan.getId());
+            
+        } catch (Exception e) {
+            log.error("Resumed loan return saga failed: sagaId={}, error={}", sagaData.getSagaId(), e.getMessage());
+            sagaData.setFailureReason(e.getMessage());
+            compensateReturn(sagaData, loan);
         }
     }
     
@@ -119,7 +160,7 @@ public class LoanReturnSagaOrchestrator {
                 sagaData.getSagaId(), sagaData.getBookId());
         
         try {
-            bookCatalogClient.returnBook(sagaData.getBookId());
+            bookCatalogClient.returnBook(sagaData.getBookId(), sagaData.getSagaId());
         } catch (FeignException e) {
             log.error("Error returning book to catalog: {}", e.getMessage());
             throw new BookNotAvailableException("Failed to return book to catalog");
@@ -153,14 +194,15 @@ public class LoanReturnSagaOrchestrator {
      * Compensate for failed return saga
      */
     protected void compensateReturn(LoanReturnSagaData sagaData, Loan loan) {
+        SagaState reached = sagaData.getState();
         log.warn("Starting compensation for failed return saga: sagaId={}, state={}", 
-                sagaData.getSagaId(), sagaData.getState());
+                sagaData.getSagaId(), reached);
         
-        sagaData.setState(SagaState.COMPENSATING);
+        transition(sagaData, SagaState.COMPENSATING);
         
         try {
             // Compensate based on how far the saga progressed
-            switch (sagaData.getState()) {
+            switch (reached) {
                 case BOOK_RESERVED:
                     // Book was returned to catalog, need to borrow it again
                     compensateBookReturn(sagaData);
@@ -170,14 +212,17 @@ public class LoanReturnSagaOrchestrator {
                     compensateLoanReturn(sagaData, loan);
                     break;
                 default:
-                    log.info("No compensation needed for state: {}", sagaData.getState());
+                    log.info("No compensation needed for state: {}", reached);
             }
             
-            sagaData.setState(SagaState.COMPENSATED);
+            sagaData.setCompletedAt(LocalDateTime.now());
+            transition(sagaData, SagaState.COMPENSATED);
             log.info("Compensation completed successfully: sagaId={}", sagaData.getSagaId());
             
         } catch (Exception e) {
             log.error("Compensation failed: sagaId={}, error={}", sagaData.getSagaId(), e.getMessage());
+            sagaData.setCompletedAt(LocalDateTime.now());
+            transition(sagaData, SagaState.FAILED);
             throw new SagaCompensationException("Failed to compensate return saga: " + e.getMessage());
         }
     }
@@ -190,7 +235,7 @@ public class LoanReturnSagaOrchestrator {
                 sagaData.getSagaId(), sagaData.getBookId());
         
         try {
-            bookCatalogClient.borrowBook(sagaData.getBookId());
+            bookCatalogClient.borrowBook(sagaData.getBookId(), sagaData.getSagaId());
         } catch (Exception e) {
             log.error("Failed to compensate book return: {}", e.getMessage());
             // Log but don't fail compensation - manual intervention may be needed
@@ -214,16 +259,10 @@ public class LoanReturnSagaOrchestrator {
     }
     
     /**
-     * Get saga state
-     */
-    public LoanReturnSagaData getSagaState(String sagaId) {
-        return sagaStates.get(sagaId);
-    }
-    
-    /**
-     * Schedule cleanup of saga state
+     * Record the saga's new state, so it can be queried and recovered from there
      */
-    private void scheduleCleanup(String sagaId) {
-        log.debug("Saga state cleanup scheduled: sagaId={}", sagaId);
+    private void transition(LoanReturnSagaData sagaData, SagaState state) {
+        sagaData.setState(state);
+        sagaRepository.save(sagaData);
     }
 }
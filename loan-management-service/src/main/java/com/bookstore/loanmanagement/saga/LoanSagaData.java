@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class LoanSagaData {
+public class LoanSagaData implements SagaData {
     private String sagaId;
     private String correlationId;
     private Long userId;
@@ -25,6 +25,10 @@ public class LoanSagaData {
     private LocalDateTime completedAt;
     private String failureReason;
     private int retryCount;
+    /**
+     * Started by startLoanCreationSaga: the reservation is a message exchange and no caller waits for the outcome
+     */
+    private boolean async;
     
     public void incrementRetryCount() {
         this.retryCount++;
@@ -4,23 +4,30 @@ import com.bookstore.loanmanagement.client.BookCatalogClient;
 import com.bookstore.loanmanagement.dto.LoanRequest;
 import com.bookstore.loanmanagement.entity.Loan;
 import com.bookstore.loanmanagement.entity.LoanStatus;
+import com.bookstore.loanmanagement.event.InventoryCommand;
+import com.bookstore.loanmanagement.event.InventoryReply;
 import com.bookstore.loanmanagement.event.LoanCreatedEvent;
+import com.bookstore.loanmanagement.event.LoanRequestFailedEvent;
 import com.bookstore.loanmanagement.exception.BookNotAvailableException;
 import com.bookstore.loanmanagement.exception.BookNotFoundException;
+import com.bookstore.loanmanagement.exception.LoanNotFoundException;
 import com.bookstore.loanmanagement.exception.SagaCompensationException;
 import com.bookstore.loanmanagement.repository.LoanRepository;
+import com.bookstore.loanmanagement.service.InventoryCommandPublisher;
 import com.bookstore.loanmanagement.service.LoanEventPublisher;
 import com.bookstore.loanmanagement.service.LoanTrackingService;
 import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Orchestrates the loan creation saga with compensation logic
@@ -34,30 +41,25 @@ public class LoanSagaOrchestrator {
     private final BookCatalogClient bookCatalogClient;
     private final LoanTrackingService loanTrackingService;
     private final LoanEventPublisher loanEventPublisher;
-    
-    // In-memory saga state tracking (in production, use Redis or database)
-    private final ConcurrentHashMap<String, LoanSagaData> sagaStates = new ConcurrentHashMap<>();
+    private final SagaRepository sagaRepository;
+    private final InventoryCommandPublisher inventoryCommandPublisher;
     
     private static final int DEFAULT_LOAN_PERIOD_DAYS = 14;
     
+    /**
+     * How long an asynchronous saga waits for the book catalog's reply before compensating
+     */
+    @Value("${loan.saga.async.reply-timeout-ms:30000}")
+    private long replyTimeoutMs = 30000;
+    
     /**
      * Execute loan creation saga
      */
     public Loan executeLoanCreationSaga(LoanRequest request) {
-        String sagaId = UUID.randomUUID().toString();
-        String correlationId = UUID.randomUUID().toString();
-        
-        LoanSagaData sagaData = LoanSagaData.builder()
-            .sagaId(sagaId)
-            .correlationId(correlationId)
-            .userId(request.getUserId())
-            .bookId(request.getBookId())
-            .state(SagaState.STARTED)
-            .startedAt(LocalDateTime.now())
-            .retryCount(0)
-            .build();
+        LoanSagaData sagaData = newSaga(request);
+        String sagaId = sagaData.getSagaId();
         
-        sagaStates.put(sagaId, sagaData);
+        sagaRepository.save(sagaData);
         
         try {
             log.info("Starting loan creation saga: sagaId={}, userId={}, bookId={}", 
@@ -66,16 +68,16 @@ public class LoanSagaOrchestrator {
             // Step 1: Create loan record
             Loan loan = createLoanRecord(sagaData, request);
             sagaData.setLoanId(loan.getId());
-            sagaData.setState(SagaState.LOAN_CREATED);
+            transition(sagaData, SagaState.LOAN_CREATED);
             
             // Step 2: Reserve book in catalog service
             reserveBook(sagaData);
-            sagaData.setState(SagaState.BOOK_RESERVED);
+            transition(sagaData, SagaState.BOOK_RESERVED);
             
             // Step 3: Record tracking and publish event
             completeSaga(sagaData, loan);
-            sagaData.setState(SagaState.COMPLETED);
             sagaData.setCompletedAt(LocalDateTime.now());
+            transition(sagaData, SagaState.COMPLETED);
             
             log.info("Loan creation saga completed successfully: sagaId={}, loanId={}", 
                     sagaId, loan.getId());
@@ -84,16 +86,160 @@ public class LoanSagaOrchestrator {
             
         } catch (Exception e) {
             log.error("Loan creation saga failed: sagaId={}, error={}", sagaId, e.getMessage());
-            sagaData.setState(SagaState.FAILED);
             sagaData.setFailureReason(e.getMessage());
             
             // Attempt compensation
             compensate(sagaData);
             
             throw e;
-        } finally {
-            // Clean up saga state after some time (in production, use TTL)
-            scheduleCleanup(sagaId);
+        }
+    }
+    
+    /**
+     * Start a loan creation saga that finishes without the caller: the loan is recorded as pending
+     * and the book catalog is sent a command to reserve the copy. The catalog's reply completes or
+     * compensates the saga (handleReservationReply); without a reply in time, timeOutSaga compensates it.
+     * The borrower follows the saga through its status endpoint and is notified of the outcome.
+     */
+    public LoanSagaData startLoanCreationSaga(LoanRequest request) {
+        LoanSagaData sagaData = newSaga(request);
+        sagaData.setAsync(true);
+        sagaRepository.save(sagaData);
+        
+        try {
+            log.info("Starting asynchronous loan creation saga: sagaId={}, userId={}, bookId={}", 
+                    sagaData.getSagaId(), request.getUserId(), request.getBookId());
+            
+            // Step 1: Create loan record
+            Loan loan = createLoanRecord(sagaData, request);
+            sagaData.setLoanId(loan.getId());
+            // Taken before the step is stored: the timeout counts from the stored step, so the catalog
+            // stops accepting the borrow before the saga can time out and release it
+            LocalDateTime deadline = LocalDateTime.now().plus(Duration.ofMillis(replyTimeoutMs));
+            transition(sagaData, SagaState.LOAN_CREATED);
+            
+            // Step 2: Ask the catalog to reserve the book; its reply continues the saga
+            inventoryCommandPublisher.sendBorrowBook(
+                    sagaData.getSagaId(), sagaData.getBookId(), deadline, sagaData.getCorrelationId());
+            
+            return sagaData;
+            
+        } catch (Exception e) {
+            log.error("Asynchronous loan creation saga failed to start: sagaId={}, error={}", 
+                    sagaData.getSagaId(), e.getMessage());
+            sagaData.setFailureReason(e.getMessage());
+            compensate(sagaData);
+            throw e;
+        }
+    }
+    
+    /**
+     * Continue an asynchronous saga with the catalog's reply to its reservation command. Replies for
+     * sagas that already moved on, because they timed out or the reply was redelivered, are ignored.
+     */
+    public void handleReservationReply(InventoryReply reply) {
+        if (!InventoryCommand.BORROW_BOOK.equals(reply.getCommandType())) {
+            log.info("Book catalog answered {} for saga {}: success={}, reason={}", 
+                    reply.getCommandType(), reply.getSagaId(), reply.isSuccess(), reply.getReason());
+            return;
+        }
+        
+        Optional<LoanSagaData> found = sagaRepository.findById(reply.getSagaId(), LoanSagaData.class);
+        if (found.isEmpty()) {
+            log.warn("Received reservation reply for unknown saga: sagaId={}", reply.getSagaId());
+            return;
+        }
+        LoanSagaData sagaData = found.get();
+        
+        SagaState next = reply.isSuccess() ? SagaState.BOOK_RESERVED : SagaState.COMPENSATING;
+        if (!sagaRepository.compareAndSetState(sagaData.getSagaId(), SagaState.LOAN_CREATED, next)) {
+            log.info("Ignoring reservation reply for saga no longer waiting for it: sagaId={}, state={}", 
+                    sagaData.getSagaId(), sagaData.getState());
+            return;
+        }
+        
+        if (!reply.isSuccess()) {
+            log.warn("Book reservation refused: sagaId={}, reason={}", sagaData.getSagaId(), reply.getReason());
+            // Compensated as reserved, like a timeout: the release is a no-op unless a borrow committed
+            compensateAndNotify(sagaData, SagaState.BOOK_RESERVED, reply.getReason());
+            return;
+        }
+        sagaData.setState(SagaState.BOOK_RESERVED);
+        
+        try {
+            Loan loan = loanRepository.findById(sagaData.getLoanId())
+                .orElseThrow(() -> new LoanNotFoundException("Loan not found with ID: " + sagaData.getLoanId()));
+            
+            // Step 3: Record tracking and publish event, which also notifies the borrower
+            completeSaga(sagaData, loan);
+            sagaData.setCompletedAt(LocalDateTime.now());
+            transition(sagaData, SagaState.COMPLETED);
+            
+            log.info("Asynchronous loan creation saga completed: sagaId={}, loanId={}", 
+                    sagaData.getSagaId(), loan.getId());
+            
+        } catch (Exception e) {
+            log.error("Asynchronous loan creation saga failed: sagaId={}, error={}", 
+                    sagaData.getSagaId(), e.getMessage());
+            compensateAndNotify(sagaData, SagaState.BOOK_RESERVED, e.getMessage());
+        }
+    }
+    
+    /**
+     * Compensate an asynchronous saga whose reservation got no reply in time. The catalog may still
+     * have reserved the copy before the command's deadline, so the reservation is released as well;
+     * the catalog ignores the release if it never reserved one.
+     */
+    public void timeOutSaga(LoanSagaData sagaData) {
+        if (!sagaRepository.compareAndSetState(sagaData.getSagaId(), SagaState.LOAN_CREATED, SagaState.COMPENSATING)) {
+            log.info("Saga no longer waiting for its reservation: sagaId={}", sagaData.getSagaId());
+            return;
+        }
+        log.warn("Book reservation timed out: sagaId={}", sagaData.getSagaId());
+        compensateAndNotify(sagaData, SagaState.BOOK_RESERVED,
+                "No reply from the book catalog within " + replyTimeoutMs + " ms");
+    }
+    
+    /**
+     * Finish a saga that was interrupted after a completed step, e.g. by a restart. Step 2 can be
+     * repeated because the catalog applies a borrow once per saga ID; step 3 may publish its event a
+     * second time. Compensates if a remaining step fails or the saga was already resumed too often.
+     */
+    public void resumeSaga(LoanSagaData sagaData) {
+        if (sagaData.isAsync() && sagaData.getState() == SagaState.LOAN_CREATED) {
+            // Still waiting for the catalog's reply, which the reply timeout looks after
+            return;
+        }
+        log.warn("Resuming interrupted loan creation saga: sagaId={}, state={}, attempt={}", 
+                sagaData.getSagaId(), sagaData.getState(), sagaData.getRetryCount() + 1);
+        
+        if (!sagaData.canRetry()) {
+            compensateAndNotify(sagaData, sagaData.getState(),
+                    "Gave up after " + sagaData.getRetryCount() + " recovery attempts");
+            return;
+        }
+        sagaData.incrementRetryCount();
+        sagaRepository.save(sagaData);
+        
+        try {
+            Loan loan = loanRepository.findById(sagaData.getLoanId())
+                .orElseThrow(() -> new LoanNotFoundException("Loan not found with ID: " + sagaData.getLoanId()));
+            
+            if (sagaData.getState() == SagaState.LOAN_CREATED) {
+                reserveBook(sagaData);
+                transition(sagaData, SagaState.BOOK_RESERVED);
+            }
+            
+            completeSaga(sagaData, loan);
+            sagaData.setCompletedAt(LocalDateTime.now());
+            transition(sagaData, SagaState.COMPLETED);
+            
+            log.info("Resumed loan creation saga completed: sagaId={}, loanId={}", 
+                    sagaData.getSagaId(), loan.getId());
+            
+        } catch (Exception e) {
+            log.error("Resumed loan creation saga failed: sagaId={}, error={}", sagaData.getSagaId(), e.getMessage());
+            compensateAndNotify(sagaData, sagaData.getState(), e.getMessage());
         }
     }
     
@@ -122,7 +268,8 @@ public class LoanSagaOrchestrator {
                 sagaData.getSagaId(), sagaData.getBookId());
         
         try {
-            bookCatalogClient.borrowBook(sagaData.getBookId());
+            // The saga ID makes Feign retries of this step safe
+            bookCatalogClient.borrowBook(sagaData.getBookId(), sagaData.getSagaId());
         } catch (FeignException.NotFound e) {
             throw new BookNotFoundException("Book not found with ID: " + sagaData.getBookId());
         } catch (FeignException e) {
@@ -163,14 +310,27 @@ public class LoanSagaOrchestrator {
      * Compensate for failed saga
      */
     protected void compensate(LoanSagaData sagaData) {
+        compensate(sagaData, sagaData.getState());
+    }
+    
+    /**
+     * Compensate the steps up to and including the reached state
+     */
+    private void compensate(LoanSagaData sagaData, SagaState reached) {
+        if (reached == SagaState.LOAN_CREATED && sagaData.isAsync()) {
+            // Once its borrow command is out, an asynchronous saga cannot know the borrow was not applied:
+            // a refusal may answer a redelivery of a borrow that committed. The catalog ignores a release
+            // for a saga it never lent a copy to, so release whenever the command may have been sent.
+            reached = SagaState.BOOK_RESERVED;
+        }
         log.warn("Starting compensation for failed saga: sagaId={}, state={}", 
-                sagaData.getSagaId(), sagaData.getState());
+                sagaData.getSagaId(), reached);
         
-        sagaData.setState(SagaState.COMPENSATING);
+        transition(sagaData, SagaState.COMPENSATING);
         
         try {
             // Compensate based on how far the saga progressed
-            switch (sagaData.getState()) {
+            switch (reached) {
                 case BOOK_RESERVED:
                     // Book was reserved, need to unreserve it
                     compensateBookReservation(sagaData);
@@ -180,14 +340,17 @@ public class LoanSagaOrchestrator {
                     compensateLoanCreation(sagaData);
                     break;
                 default:
-                    log.info("No compensation needed for state: {}", sagaData.getState());
+                    log.info("No compensation needed for state: {}", reached);
             }
             
-            sagaData.setState(SagaState.COMPENSATED);
+            sagaData.setCompletedAt(LocalDateTime.now());
+            transition(sagaData, SagaState.COMPENSATED);
             log.info("Compensation completed successfully: sagaId={}", sagaData.getSagaId());
             
         } catch (Exception e) {
             log.error("Compensation failed: sagaId={}, error={}", sagaData.getSagaId(), e.getMessage());
+            sagaData.setCompletedAt(LocalDateTime.now());
+            transition(sagaData, SagaState.FAILED);
             throw new SagaCompensationException("Failed to compensate saga: " + e.getMessage());
         }
     }
@@ -200,7 +363,12 @@ public class LoanSagaOrchestrator {
                 sagaData.getSagaId(), sagaData.getBookId());
         
         try {
-            bookCatalogClient.returnBook(sagaData.getBookId());
+            if (sagaData.isAsync()) {
+                inventoryCommandPublisher.sendReleaseBook(
+                        sagaData.getSagaId(), sagaData.getBookId(), sagaData.getCorrelationId());
+            } else {
+                bookCatalogClient.returnBook(sagaData.getBookId(), sagaData.getSagaId());
+            }
         } catch (Exception e) {
             log.error("Failed to compensate book reservation: {}", e.getMessage());
             // Log but don't fail compensation - manual intervention may be needed
@@ -225,18 +393,44 @@ public class LoanSagaOrchestrator {
     }
     
     /**
-     * Get saga state
+     * Compensate a saga that has no caller waiting for its outcome. An asynchronous saga's borrower
+     * is told the request failed, whether or not compensation succeeds.
      */
-    public LoanSagaData getSagaState(String sagaId) {
-        return sagaStates.get(sagaId);
+    private void compensateAndNotify(LoanSagaData sagaData, SagaState reached, String reason) {
+        sagaData.setFailureReason(reason);
+        try {
+            compensate(sagaData, reached);
+        } finally {
+            if (sagaData.isAsync()) {
+                loanEventPublisher.publishLoanRequestFailed(new LoanRequestFailedEvent(
+                    sagaData.getSagaId(),
+                    sagaData.getLoanId(),
+                    sagaData.getUserId(),
+                    sagaData.getBookId(),
+                    reason,
+                    sagaData.getCorrelationId()
+                ));
+            }
+        }
+    }
+    
+    private LoanSagaData newSaga(LoanRequest request) {
+        return LoanSagaData.builder()
+            .sagaId(UUID.randomUUID().toString())
+            .correlationId(UUID.randomUUID().toString())
+            .userId(request.getUserId())
+            .bookId(request.getBookId())
+            .state(SagaState.STARTED)
+            .startedAt(LocalDateTime.now())
+            .retryCount(0)
+            .build();
     }
     
     /**
-     * Schedule cleanup of saga state
+     * Record the saga's new state, so it can be queried and recovered from there
      */
-    private void scheduleCleanup(String sagaId) {
-        // In production, use a scheduled task or TTL mechanism
-        // For now, just log
-        log.debug("Saga state cleanup scheduled: sagaId={}", sagaId);
+    private void transition(LoanSagaData sagaData, SagaState state) {
+        sagaData.setState(state);
+        sagaRepository.save(sagaData);
     }
 }
@@ -0,0 +1,21 @@
+package com.bookstore.loanmanagement.saga;
+
+import java.time.LocalDateTime;
+
+/**
+ * State common to all sagas, as stored by a {@link SagaRepository}
+ */
+public interface SagaData {
+
+    String getSagaId();
+
+    SagaState getState();
+
+    void setState(SagaState state);
+
+    Long getLoanId();
+
+    Long getBookId();
+
+    LocalDateTime getStartedAt();
+}
@@ -0,0 +1,112 @@
+package com.bookstore.loanmanagement.saga;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Looks after stored sagas: finishes sagas interrupted by a restart, times out asynchronous sagas
+ * whose reply never came, and purges finished ones once they are no longer needed for status queries
+ */
+@Service
+@Slf4j
+public class SagaRecoveryService {
+
+    private final SagaRepository sagaRepository;
+    private final LoanSagaOrchestrator loanSagaOrchestrator;
+    private final LoanReturnSagaOrchestrator loanReturnSagaOrchestrator;
+
+    /**
+     * How long finished sagas are kept
+     */
+    @Value("${loan.saga.retention-hours:24}")
+    private long retentionHours = 24;
+
+    /**
+     * Sagas unchanged for this long are taken to be interrupted; a saga still running on another
+     * instance advances well within it
+     */
+    @Value("${loan.saga.stalled-after-ms:60000}")
+    private long stalledAfterMs = 60000;
+
+    /**
+     * How long an asynchronous saga waits for the book catalog's reply
+     */
+    @Value("${loan.saga.async.reply-timeout-ms:30000}")
+    private long replyTimeoutMs = 30000;
+
+    public SagaRecoveryService(SagaRepository sagaRepository,
+                               LoanSagaOrchestrator loanSagaOrchestrator,
+                               LoanReturnSagaOrchestrator loanReturnSagaOrchestrator) {
+        this.sagaRepository = sagaRepository;
+        this.loanSagaOrchestrator = loanSagaOrchestrator;
+        this.loanReturnSagaOrchestrator = loanReturnSagaOrchestrator;
+    }
+
+    /**
+     * Resume, or compensate, sagas left after a completed step when the application stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverStalledSagas() {
+        LocalDateTime updatedBefore = LocalDateTime.now().minus(Duration.ofMillis(stalledAfterMs));
+        int recovered = recover(LoanSagaData.class, updatedBefore, loanSagaOrchestrator::resumeSaga)
+            + recover(LoanReturnSagaData.class, updatedBefore, loanReturnSagaOrchestrator::resumeSaga);
+        if (recovered > 0) {
+            log.warn("Recovered {} interrupted sagas", recovered);
+        }
+    }
+
+    /**
+     * Compensate asynchronous sagas whose reservation got no reply within the timeout
+     */
+    @Scheduled(fixedDelayString = "${loan.saga.async.timeout-check-interval-ms:5000}")
+    public void timeOutAsyncSagas() {
+        LocalDateTime updatedBefore = LocalDateTime.now().minus(Duration.ofMillis(replyTimeoutMs));
+        List<LoanSagaData> waiting = sagaRepository.findStalled(
+            LoanSagaData.class, EnumSet.of(SagaState.LOAN_CREATED), updatedBefore);
+        for (LoanSagaData saga : waiting) {
+            if (!saga.isAsync()) {
+                continue;
+            }
+            try {
+                loanSagaOrchestrator.timeOutSaga(saga);
+            } catch (Exception e) {
+                log.error("Could not time out saga: sagaId={}, error={}", saga.getSagaId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Delete sagas that finished longer ago than the retention period
+     */
+    @Scheduled(fixedDelayString = "${loan.saga.purge-interval-ms:600000}")
+    public void purgeFinishedSagas() {
+        int deleted = sagaRepository.deleteFinishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            log.info("Purged {} finished sagas older than {} hours", deleted, retentionHours);
+        }
+    }
+
+    private <T extends SagaData> int recover(Class<T> type, LocalDateTime updatedBefore, Consumer<T> resume) {
+        List<T> stalled = sagaRepository.findStalled(type, SagaState.RESUMABLE, updatedBefore);
+        for (T saga : stalled) {
+            try {
+                resume.accept(saga);
+            } catch (Exception e) {
+                // Left in its current state for manual intervention; the others are still recovered
+                log.error("Could not recover saga: sagaId={}, state={}, error={}", 
+                        saga.getSagaId(), saga.getState(), e.getMessage());
+            }
+        }
+        return stalled.size();
+    }
+}
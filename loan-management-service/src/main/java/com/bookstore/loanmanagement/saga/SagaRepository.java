@@ -0,0 +1,40 @@
+package com.bookstore.loanmanagement.saga;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stores saga state between steps, so sagas can be queried while they run and recovered after a
+ * restart. Selected with loan.saga.repository: jpa (default, survives restarts) or memory.
+ */
+public interface SagaRepository {
+
+    /**
+     * Insert or replace the saga; called after every state change
+     */
+    void save(SagaData saga);
+
+    <T extends SagaData> Optional<T> findById(String sagaId, Class<T> type);
+
+    /**
+     * Move the saga to the next state only if it is still in the expected one. When several parties
+     * may advance a saga (a reply and a timeout), only the one that wins this proceeds.
+     *
+     * @return false if the saga is missing or already left the expected state
+     */
+    boolean compareAndSetState(String sagaId, SagaState expected, SagaState next);
+
+    /**
+     * Sagas of the given type that are in one of the states and have not changed since the cutoff
+     */
+    <T extends SagaData> List<T> findStalled(Class<T> type, Collection<SagaState> states, LocalDateTime updatedBefore);
+
+    /**
+     * Delete sagas that reached a terminal state before the cutoff
+     *
+     * @return the number of sagas deleted
+     */
+    int deleteFinishedBefore(LocalDateTime cutoff);
+}
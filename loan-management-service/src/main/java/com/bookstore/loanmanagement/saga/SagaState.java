@@ -1,5 +1,8 @@
 package com.bookstore.loanmanagement.saga;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Represents the state of a Saga transaction
  */
@@ -10,5 +13,19 @@ public enum SagaState {
     COMPLETED,
     COMPENSATING,
     COMPENSATED,
-    FAILED
+    FAILED;
+
+    /**
+     * States a saga never leaves; sagas in them are purged once the retention period has passed
+     */
+    public static final Set<SagaState> TERMINAL = EnumSet.of(COMPLETED, COMPENSATED, FAILED);
+
+    /**
+     * States after a completed step from which an interrupted saga can be resumed
+     */
+    public static final Set<SagaState> RESUMABLE = EnumSet.of(LOAN_CREATED, BOOK_RESERVED);
+
+    public boolean isTerminal() {
+        return TERMINAL.contains(this);
+    }
 }
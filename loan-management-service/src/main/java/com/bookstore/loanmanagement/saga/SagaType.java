@@ -0,0 +1,28 @@
+package com.bookstore.loanmanagement.saga;
+
+import java.util.Arrays;
+
+/**
+ * The kinds of saga this service runs, with the data class each one is stored as
+ */
+public enum SagaType {
+    LOAN_CREATION(LoanSagaData.class),
+    LOAN_RETURN(LoanReturnSagaData.class);
+
+    private final Class<? extends SagaData> dataType;
+
+    SagaType(Class<? extends SagaData> dataType) {
+        this.dataType = dataType;
+    }
+
+    public Class<? extends SagaData> getDataType() {
+        return dataType;
+    }
+
+    public static SagaType of(Class<? extends SagaData> dataType) {
+        return Arrays.stream(values())
+            .filter(type -> type.dataType.equals(dataType))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Not a saga data type: " + dataType.getName()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.bookstore.loanmanagement.service;
+
+import com.bookstore.loanmanagement.config.RabbitMQConfig;
+import com.bookstore.loanmanagement.event.InventoryCommand;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sends inventory commands to the book catalog for asynchronous sagas.
+ *
+ * Inside a transaction a command is sent once the transaction commits, so the catalog's reply cannot
+ * arrive before the saga state it continues is visible. Outside a transaction sending failures are
+ * thrown; after a commit they are only logged, and the saga's reply timeout compensates it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryCommandPublisher {
+    
+    private final RabbitTemplate rabbitTemplate;
+    
+    private static final String BORROW_ROUTING_KEY = "inventory.command.borrow";
+    private static final String RELEASE_ROUTING_KEY = "inventory.command.release";
+    
+    /**
+     * Ask the catalog to take a copy of the book, unless the command arrives after the deadline
+     */
+    public void sendBorrowBook(String sagaId, Long bookId, LocalDateTime deadline, String correlationId) {
+        send(BORROW_ROUTING_KEY, new InventoryCommand(InventoryCommand.BORROW_BOOK, sagaId, bookId,
+                RabbitMQConfig.SAGA_REPLY_ROUTING_KEY, deadline, correlationId));
+    }
+    
+    /**
+     * Ask the catalog to put back the copy taken for the saga, if one was taken
+     */
+    public void sendReleaseBook(String sagaId, Long bookId, String correlationId) {
+        send(RELEASE_ROUTING_KEY, new InventoryCommand(InventoryCommand.RELEASE_BOOK, sagaId, bookId,
+                RabbitMQConfig.SAGA_REPLY_ROUTING_KEY, null, correlationId));
+    }
+    
+    private void send(String routingKey, InventoryCommand command) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            doSend(routingKey, command);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    doSend(routingKey, command);
+                } catch (Exception e) {
+                    log.error("Failed to send {} command: sagaId={}, error={}", 
+                            command.getEventType(), command.getSagaId(), e.getMessage(), e);
+                }
+            }
+        });
+    }
+    
+    private void doSend(String routingKey, InventoryCommand command) {
+        log.info("Sending {} command: sagaId={}, bookId={}", 
+                command.getEventType(), command.getSagaId(), command.getBookId());
+        rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, routingKey, command);
+    }
+}
@@ -1,6 +1,7 @@
 package com.bookstore.loanmanagement.service;
 
 import com.bookstore.loanmanagement.event.LoanCreatedEvent;
+import com.bookstore.loanmanagement.event.LoanRequestFailedEvent;
 import com.bookstore.loanmanagement.event.LoanReturnedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +21,7 @@ public class LoanEventPublisher {
     private static final String EXCHANGE_NAME = "bookstore.events";
     private static final String LOAN_CREATED_ROUTING_KEY = "loan.created";
     private static final String LOAN_RETURNED_ROUTING_KEY = "loan.returned";
+    private static final String LOAN_REQUEST_FAILED_ROUTING_KEY = "loan.request.failed";
     
     /**
      * Publish loan created event
@@ -56,4 +58,22 @@ public class LoanEventPublisher {
             // Don't throw exception - event publishing failure shouldn't break the flow
         }
     }
+    
+    /**
+     * Publish loan request failed event, telling the borrower that an accepted request was not completed
+     */
+    public void publishLoanRequestFailed(LoanRequestFailedEvent event) {
+        try {
+            log.info("Publishing loan request failed event: sagaId={}, correlationId={}", 
+                    event.getSagaId(), event.getCorrelationId());
+            
+            rabbitTemplate.convertAndSend(EXCHANGE_NAME, LOAN_REQUEST_FAILED_ROUTING_KEY, event);
+            
+            log.debug("Loan request failed event published successfully: eventId={}", event.getEventId());
+        } catch (Exception e) {
+            log.error("Failed to publish loan request failed event: sagaId={}, error={}", 
+                    event.getSagaId(), e.getMessage(), e);
+            // Don't throw exception - the saga's outcome is stored and can still be queried
+        }
+    }
 }
@@ -12,6 +12,7 @@ import com.bookstore.loanmanagement.exception.BookNotFoundException;
 import com.bookstore.loanmanagement.exception.InvalidLoanOperationException;
 import com.bookstore.loanmanagement.exception.LoanNotFoundException;
 import com.bookstore.loanmanagement.repository.LoanRepository;
+import com.bookstore.loanmanagement.saga.LoanSagaData;
 import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -44,7 +45,33 @@ public class LoanService {
      */
     public LoanResponse createLoan(LoanRequest request) {
         log.info("Creating loan for userId={}, bookId={}", request.getUserId(), request.getBookId());
+        validateLoanRequest(request);
         
+        // Execute loan creation saga with distributed transaction handling
+        Loan loan = sagaOrchestrator.executeLoanCreationSaga(request);
+        
+        log.info("Loan created successfully via saga: loanId={}", loan.getId());
+        return mapToResponse(loan);
+    }
+    
+    /**
+     * Accept a loan request and create the loan asynchronously. The returned saga is completed once
+     * the book catalog has reserved the copy; the borrower is notified either way.
+     */
+    public LoanSagaData startLoanCreation(LoanRequest request) {
+        log.info("Accepting loan request for userId={}, bookId={}", request.getUserId(), request.getBookId());
+        validateLoanRequest(request);
+        
+        LoanSagaData saga = sagaOrchestrator.startLoanCreationSaga(request);
+        
+        log.info("Loan request accepted: sagaId={}, loanId={}", saga.getSagaId(), saga.getLoanId());
+        return saga;
+    }
+    
+    /**
+     * Reject requests that cannot succeed before any saga is started
+     */
+    private void validateLoanRequest(LoanRequest request) {
         // Check book availability via Book Catalog Service
         BookResponse book;
         try {
@@ -70,12 +97,6 @@ public class LoanService {
         if (activeLoansForBook > 0) {
             throw new InvalidLoanOperationException("User already has an active loan for this book");
         }
-        
-        // Execute loan creation saga with distributed transaction handling
-        Loan loan = sagaOrchestrator.executeLoanCreationSaga(request);
-        
-        log.info("Loan created successfully via saga: loanId={}", loan.getId());
-        return mapToResponse(loan);
     }
     
     /**
@@ -103,7 +124,8 @@ public class LoanService {
             
             // Step 2: Update book availability in Book Catalog Service
             try {
-                bookCatalogClient.returnBook(loan.getBookId());
+                // Keyed by loan, so a loan can only ever put its copy back once
+                bookCatalogClient.returnBook(loan.getBookId(), "loan-" + loan.getId() + "-return");
             } catch (FeignException e) {
                 log.error("Error updating book availability on return: {}", e.getMessage());
                 // Compensate: revert loan status
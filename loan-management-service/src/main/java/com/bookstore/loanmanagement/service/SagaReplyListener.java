@@ -0,0 +1,38 @@
+package com.bookstore.loanmanagement.service;
+
+import com.bookstore.loanmanagement.config.RabbitMQConfig;
+import com.bookstore.loanmanagement.event.InventoryReply;
+import com.bookstore.loanmanagement.exception.SagaCompensationException;
+import com.bookstore.loanmanagement.saga.LoanSagaOrchestrator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Listener for the book catalog's replies to asynchronous saga commands
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SagaReplyListener {
+    
+    private final LoanSagaOrchestrator loanSagaOrchestrator;
+    
+    /**
+     * Continue the saga the reply belongs to. Other errors are thrown so the reply is redelivered;
+     * the orchestrator ignores a reply for a saga that already moved on.
+     */
+    @RabbitListener(queues = RabbitMQConfig.SAGA_REPLY_QUEUE)
+    public void handleInventoryReply(InventoryReply reply) {
+        log.info("Received inventory reply: sagaId={}, command={}, success={}, correlationId={}", 
+                reply.getSagaId(), reply.getCommandType(), reply.isSuccess(), reply.getCorrelationId());
+        
+        try {
+            loanSagaOrchestrator.handleReservationReply(reply);
+        } catch (SagaCompensationException e) {
+            // The saga is stored as FAILED for manual intervention; redelivering the reply would not change that
+            log.error("Saga could not be compensated: sagaId={}, error={}", reply.getSagaId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+-- Saga state, written after every step so sagas can be queried and recovered after a restart
+CREATE TABLE saga_instances (
+    saga_id VARCHAR(36) PRIMARY KEY,
+    saga_type VARCHAR(20) NOT NULL,
+    state VARCHAR(20) NOT NULL,
+    loan_id BIGINT,
+    book_id BIGINT,
+    payload TEXT NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    version BIGINT,
+    CONSTRAINT chk_saga_type CHECK (saga_type IN ('LOAN_CREATION', 'LOAN_RETURN')),
+    CONSTRAINT chk_saga_state CHECK (state IN ('STARTED', 'LOAN_CREATED', 'BOOK_RESERVED', 'COMPLETED',
+                                               'COMPENSATING', 'COMPENSATED', 'FAILED'))
+);
+
+-- Recovery scan (type, state, age) and purge of finished sagas (state, age)
+CREATE INDEX idx_saga_instances_type_state_updated ON saga_instances(saga_type, state, updated_at);
+CREATE INDEX idx_saga_instances_state_updated ON saga_instances(state, updated_at);
+
+COMMENT ON TABLE saga_instances IS 'Loan creation and return sagas, purged after loan.saga.retention-hours once finished';
+COMMENT ON COLUMN saga_instances.payload IS 'Saga data as JSON';
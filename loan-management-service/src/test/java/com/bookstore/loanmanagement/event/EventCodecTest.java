@@ -0,0 +1,61 @@
+package com.bookstore.loanmanagement.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventCodecTest {
+
+    private final EventCodec codec = new EventCodec();
+
+    @Test
+    void messageConverter_shouldReadCatalogEnvelopeIntoListenerType() {
+        // Given - an availability envelope as the book catalog service writes it
+        String body = "{\"v\":1,\"type\":\"BOOK_AVAILABILITY_CHANGED\",\"id\":\"event-123\",\"cid\":\"corr-456\","
+            + "\"ts\":[2024,1,15,10,30],\"data\":{\"bookId\":100,\"isbn\":\"978-0-123456-78-9\","
+            + "\"previousAvailableCopies\":3,\"currentAvailableCopies\":2,\"totalCopies\":5,"
+            + "\"changeReason\":\"BORROWED\",\"addedLater\":true}}";
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(EventCodec.CONTENT_TYPE);
+        properties.setInferredArgumentType(BookAvailabilityChangedEvent.class);
+
+        // When
+        Object decoded = codec.messageConverter().fromMessage(new Message(body.getBytes(StandardCharsets.UTF_8), properties));
+
+        // Then
+        assertThat(decoded).isInstanceOf(BookAvailabilityChangedEvent.class);
+        BookAvailabilityChangedEvent event = (BookAvailabilityChangedEvent) decoded;
+        assertThat(event.getEventType()).isEqualTo("BOOK_AVAILABILITY_CHANGED");
+        assertThat(event.getEventId()).isEqualTo("event-123");
+        assertThat(event.getCorrelationId()).isEqualTo("corr-456");
+        assertThat(event.getTimestamp()).isNotNull();
+        assertThat(event.getCurrentAvailableCopies()).isEqualTo(2);
+        assertThat(event.getChangeReason()).isEqualTo("BORROWED");
+    }
+
+    @Test
+    void messageConverter_shouldWriteLoanEventsAsEnvelopes() throws Exception {
+        // Given
+        MessageConverter converter = codec.messageConverter();
+        LoanCreatedEvent event = new LoanCreatedEvent(
+            1L, 2L, 3L, LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 29), "ACTIVE", "corr-456");
+
+        // When
+        Message message = converter.toMessage(event, new MessageProperties());
+
+        // Then
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(EventCodec.CONTENT_TYPE);
+        JsonNode envelope = codec.getObjectMapper().readTree(message.getBody());
+        assertThat(envelope.get("type").asText()).isEqualTo("LOAN_CREATED");
+        assertThat(envelope.get("cid").asText()).isEqualTo("corr-456");
+        assertThat(envelope.get("data").get("loanId").asLong()).isEqualTo(1L);
+        assertThat(envelope.get("data").has("eventType")).isFalse();
+    }
+}
@@ -0,0 +1,149 @@
+package com.bookstore.loanmanagement.saga;
+
+import com.bookstore.loanmanagement.entity.SagaInstance;
+import com.bookstore.loanmanagement.repository.SagaInstanceRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The cache in front of a {@link JpaSagaRepository} whose table is a map held by the mocked
+ * {@link SagaInstanceRepository}
+ */
+@ExtendWith(MockitoExtension.class)
+class CachedSagaRepositoryTest {
+
+    @Mock
+    private SagaInstanceRepository sagaInstanceRepository;
+
+    private final Map<String, SagaInstance> table = new HashMap<>();
+    private CachedSagaRepository sagaRepository;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(sagaInstanceRepository.findById(anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<String>getArgument(0))));
+        lenient().when(sagaInstanceRepository.save(any(SagaInstance.class))).thenAnswer(invocation -> {
+            SagaInstance instance = invocation.getArgument(0);
+            table.put(instance.getSagaId(), instance);
+            return instance;
+        });
+        lenient().when(sagaInstanceRepository.findBySagaIdAndSagaType(anyString(), any()))
+            .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<String>getArgument(0)))
+                .filter(instance -> instance.getSagaType() == invocation.getArgument(1)));
+        lenient().when(sagaInstanceRepository.updateStateIfCurrent(anyString(), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                SagaInstance instance = table.get(invocation.<String>getArgument(0));
+                if (instance == null || instance.getState() != invocation.getArgument(1)) {
+                    return 0;
+                }
+                instance.setState(invocation.getArgument(2));
+                return 1;
+            });
+        sagaRepository = new CachedSagaRepository(new JpaSagaRepository(sagaInstanceRepository),
+            Caffeine.newBuilder().maximumSize(2).executor(Runnable::run));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static LoanSagaData saga(String sagaId, SagaState state) {
+        return LoanSagaData.builder().sagaId(sagaId).bookId(100L).state(state).startedAt(LocalDateTime.now()).build();
+    }
+
+    @Test
+    void findById_shouldReadTheTableOnceAndHandOutCopies() {
+        // Given
+        sagaRepository.save(saga("saga-1", SagaState.STARTED));
+
+        // When
+        LoanSagaData first = sagaRepository.findById("saga-1", LoanSagaData.class).orElseThrow();
+        first.setState(SagaState.FAILED);
+        LoanSagaData second = sagaRepository.findById("saga-1", LoanSagaData.class).orElseThrow();
+
+        // Then
+        assertThat(second.getState()).isEqualTo(SagaState.STARTED);
+        assertThat(sagaRepository.findById("saga-1", LoanReturnSagaData.class)).isEmpty();
+        verify(sagaInstanceRepository, times(1)).findBySagaIdAndSagaType(eq("saga-1"), any());
+    }
+
+    @Test
+    void compareAndSetState_shouldAgreeWithTheTableWhetherItWinsOrLoses() {
+        // Given
+        sagaRepository.save(saga("saga-1", SagaState.LOAN_CREATED));
+        sagaRepository.findById("saga-1", LoanSagaData.class);
+        // Another instance moves the saga on behind the cache's back
+        table.get("saga-1").setState(SagaState.COMPENSATING);
+
+        // When - the stale cached state is not trusted
+        boolean won = sagaRepository.compareAndSetState("saga-1", SagaState.LOAN_CREATED, SagaState.COMPLETED);
+
+        // Then
+        assertThat(won).isFalse();
+        assertThat(sagaRepository.findById("saga-1", LoanSagaData.class).orElseThrow().getState())
+            .isEqualTo(SagaState.COMPENSATING);
+
+        // And a winning update is what the next read sees
+        assertThat(sagaRepository.compareAndSetState("saga-1", SagaState.COMPENSATING, SagaState.COMPENSATED)).isTrue();
+        assertThat(sagaRepository.findById("saga-1", LoanSagaData.class).orElseThrow().getState())
+            .isEqualTo(SagaState.COMPENSATED);
+    }
+
+    @Test
+    void save_shouldEvictAgainWhenTheTransactionCompletes() {
+        // Given
+        sagaRepository.save(saga("saga-1", SagaState.STARTED));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When - the saga is read back inside the transaction that later rolls back
+        sagaRepository.save(saga("saga-1", SagaState.BOOK_RESERVED));
+        sagaRepository.findById("saga-1", LoanSagaData.class);
+        table.get("saga-1").setState(SagaState.STARTED);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertThat(sagaRepository.findById("saga-1", LoanSagaData.class).orElseThrow().getState())
+            .isEqualTo(SagaState.STARTED);
+    }
+
+    @Test
+    void findById_shouldKeepAtMostTheConfiguredNumberOfSagas() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            sagaRepository.save(saga("saga-" + i, SagaState.COMPLETED));
+        }
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertThat(sagaRepository.findById("saga-" + i, LoanSagaData.class)).isPresent();
+        }
+
+        // Then
+        assertThat(sagaRepository.cachedSagas()).isLessThanOrEqualTo(2);
+    }
+}
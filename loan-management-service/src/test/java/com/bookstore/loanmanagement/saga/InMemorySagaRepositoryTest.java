@@ -0,0 +1,60 @@
+package com.bookstore.loanmanagement.saga;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemorySagaRepositoryTest {
+
+    private static LoanSagaData saga(String sagaId, SagaState state) {
+        return LoanSagaData.builder().sagaId(sagaId).state(state).startedAt(LocalDateTime.now()).build();
+    }
+
+    @Test
+    void save_shouldDropLeastRecentlyUsedSagaBeyondCapacity() {
+        // Given
+        InMemorySagaRepository sagaRepository = new InMemorySagaRepository(2);
+        sagaRepository.save(saga("first", SagaState.COMPLETED));
+        sagaRepository.save(saga("second", SagaState.COMPLETED));
+        sagaRepository.findById("first", LoanSagaData.class);
+
+        // When
+        sagaRepository.save(saga("third", SagaState.STARTED));
+
+        // Then
+        assertThat(sagaRepository.findById("first", LoanSagaData.class)).isPresent();
+        assertThat(sagaRepository.findById("second", LoanSagaData.class)).isEmpty();
+        assertThat(sagaRepository.findById("third", LoanSagaData.class)).isPresent();
+        assertThat(sagaRepository.findById("third", LoanReturnSagaData.class)).isEmpty();
+    }
+
+    @Test
+    void deleteFinishedBefore_shouldKeepRunningSagas() {
+        // Given
+        InMemorySagaRepository sagaRepository = new InMemorySagaRepository(10);
+        sagaRepository.save(saga("done", SagaState.COMPENSATED));
+        sagaRepository.save(saga("running", SagaState.LOAN_CREATED));
+
+        // When
+        int purged = sagaRepository.deleteFinishedBefore(LocalDateTime.now().plusMinutes(1));
+
+        // Then
+        assertThat(purged).isEqualTo(1);
+        assertThat(sagaRepository.findById("running", LoanSagaData.class)).isPresent();
+    }
+
+    @Test
+    void compareAndSetState_shouldOnlySucceedOnce() {
+        // Given
+        InMemorySagaRepository sagaRepository = new InMemorySagaRepository(10);
+        sagaRepository.save(saga("waiting", SagaState.LOAN_CREATED));
+
+        // When & Then
+        assertThat(sagaRepository.compareAndSetState("waiting", SagaState.LOAN_CREATED, SagaState.COMPENSATING)).isTrue();
+        assertThat(sagaRepository.compareAndSetState("waiting", SagaState.LOAN_CREATED, SagaState.BOOK_RESERVED)).isFalse();
+        assertThat(sagaRepository.findById("waiting", LoanSagaData.class).orElseThrow().getState())
+            .isEqualTo(SagaState.COMPENSATING);
+    }
+}
@@ -0,0 +1,133 @@
+package com.bookstore.loanmanagement.saga;
+
+import com.bookstore.loanmanagement.entity.LoanStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(JpaSagaRepository.class)
+class JpaSagaRepositoryTest {
+
+    @Autowired
+    private JpaSagaRepository sagaRepository;
+
+    private static LoanSagaData creationSaga(String sagaId, SagaState state) {
+        return LoanSagaData.builder()
+            .sagaId(sagaId)
+            .correlationId("corr-" + sagaId)
+            .userId(1L)
+            .bookId(100L)
+            .loanId(10L)
+            .state(state)
+            .startedAt(LocalDateTime.now())
+            .build();
+    }
+
+    private static LoanReturnSagaData returnSaga(String sagaId, SagaState state) {
+        return LoanReturnSagaData.builder()
+            .sagaId(sagaId)
+            .loanId(10L)
+            .bookId(100L)
+            .originalStatus(LoanStatus.OVERDUE)
+            .wasOverdue(true)
+            .state(state)
+            .startedAt(LocalDateTime.now())
+            .build();
+    }
+
+    @Test
+    void save_shouldStoreEachStateOfTheSaga() {
+        // Given
+        LoanSagaData saga = creationSaga("saga-1", SagaState.STARTED);
+        sagaRepository.save(saga);
+
+        // When
+        saga.setState(SagaState.BOOK_RESERVED);
+        saga.incrementRetryCount();
+        sagaRepository.save(saga);
+
+        // Then
+        LoanSagaData stored = sagaRepository.findById("saga-1", LoanSagaData.class).orElseThrow();
+        assertThat(stored.getState()).isEqualTo(SagaState.BOOK_RESERVED);
+        assertThat(stored.getRetryCount()).isEqualTo(1);
+        assertThat(stored.getCorrelationId()).isEqualTo("corr-saga-1");
+        assertThat(stored.getStartedAt()).isEqualTo(saga.getStartedAt());
+    }
+
+    @Test
+    void compareAndSetState_shouldOnlyMoveSagaFromExpectedState() {
+        // Given
+        LoanSagaData saga = creationSaga("saga-1", SagaState.LOAN_CREATED);
+        sagaRepository.save(saga);
+
+        // When
+        boolean first = sagaRepository.compareAndSetState("saga-1", SagaState.LOAN_CREATED, SagaState.BOOK_RESERVED);
+        boolean second = sagaRepository.compareAndSetState("saga-1", SagaState.LOAN_CREATED, SagaState.COMPENSATING);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(sagaRepository.compareAndSetState("missing", SagaState.LOAN_CREATED, SagaState.BOOK_RESERVED)).isFalse();
+        assertThat(sagaRepository.findById("saga-1", LoanSagaData.class).orElseThrow().getState())
+            .isEqualTo(SagaState.BOOK_RESERVED);
+    }
+
+    @Test
+    void findById_shouldOnlyReturnSagasOfTheRequestedType() {
+        // Given
+        sagaRepository.save(returnSaga("saga-2", SagaState.COMPLETED));
+
+        // When & Then
+        assertThat(sagaRepository.findById("saga-2", LoanSagaData.class)).isEmpty();
+        LoanReturnSagaData stored = sagaRepository.findById("saga-2", LoanReturnSagaData.class).orElseThrow();
+        assertThat(stored.getOriginalStatus()).isEqualTo(LoanStatus.OVERDUE);
+        assertThat(stored.isWasOverdue()).isTrue();
+    }
+
+    @Test
+    void findStalled_shouldFilterByTypeStateAndAge() {
+        // Given
+        sagaRepository.save(creationSaga("loan-created", SagaState.LOAN_CREATED));
+        sagaRepository.save(creationSaga("book-reserved", SagaState.BOOK_RESERVED));
+        sagaRepository.save(creationSaga("completed", SagaState.COMPLETED));
+        sagaRepository.save(returnSaga("return", SagaState.LOAN_CREATED));
+
+        // When
+        List<LoanSagaData> stalled = sagaRepository.findStalled(
+            LoanSagaData.class, SagaState.RESUMABLE, LocalDateTime.now().plusMinutes(1));
+        List<LoanSagaData> recent = sagaRepository.findStalled(
+            LoanSagaData.class, SagaState.RESUMABLE, LocalDateTime.now().minusMinutes(1));
+
+        // Then
+        assertThat(stalled).extracting(LoanSagaData::getSagaId).containsExactlyInAnyOrder("loan-created", "book-reserved");
+        assertThat(recent).isEmpty();
+    }
+
+    @Test
+    void deleteFinishedBefore_shouldOnlyPurgeTerminalSagas() {
+        // Given
+        sagaRepository.save(creationSaga("completed", SagaState.COMPLETED));
+        sagaRepository.save(creationSaga("compensated", SagaState.COMPENSATED));
+        sagaRepository.save(returnSaga("failed", SagaState.FAILED));
+        sagaRepository.save(creationSaga("in-flight", SagaState.BOOK_RESERVED));
+
+        // When
+        int keptWithinRetention = sagaRepository.deleteFinishedBefore(LocalDateTime.now().minusHours(1));
+        int purged = sagaRepository.deleteFinishedBefore(LocalDateTime.now().plusMinutes(1));
+
+        // Then
+        assertThat(keptWithinRetention).isZero();
+        assertThat(purged).isEqualTo(3);
+        assertThat(sagaRepository.findById("in-flight", LoanSagaData.class)).isPresent();
+        assertThat(sagaRepository.findById("completed", LoanSagaData.class)).isEmpty();
+    }
+}
@@ -41,6 +41,9 @@ class LoanReturnSagaOrchestratorTest {
     @Mock
     private LoanEventPublisher loanEventPublisher;
     
+    @Mock
+    private SagaRepository sagaRepository;
+    
     @InjectMocks
     private LoanReturnSagaOrchestrator sagaOrchestrator;
     
@@ -62,7 +65,7 @@ class LoanReturnSagaOrchestratorTest {
         // Arrange
         when(loanRepository.findById(1L)).thenReturn(Optional.of(loan));
         when(loanRepository.save(any(Loan.class))).thenReturn(loan);
-        doNothing().when(bookCatalogClient).returnBook(anyLong());
+        doNothing().when(bookCatalogClient).returnBook(anyLong(), anyString());
         doNothing().when(loanTrackingService).recordLoanReturned(anyLong(), anyBoolean());
         doNothing().when(loanEventPublisher).publishLoanReturned(any());
         
@@ -75,7 +78,7 @@ class LoanReturnSagaOrchestratorTest {
         assertThat(result.getReturnDate()).isNotNull();
         
         verify(loanRepository).save(any(Loan.class));
-        verify(bookCatalogClient).returnBook(100L);
+        verify(bookCatalogClient).returnBook(eq(100L), anyString());
         verify(loanTrackingService).recordLoanReturned(eq(1L), anyBoolean());
         verify(loanEventPublisher).publishLoanReturned(any());
     }
@@ -91,7 +94,7 @@ class LoanReturnSagaOrchestratorTest {
                 .hasMessageContaining("Loan not found");
         
         verify(loanRepository, never()).save(any());
-        verify(bookCatalogClient, never()).returnBook(anyLong());
+        verify(bookCatalogClient, never()).returnBook(anyLong(), anyString());
     }
     
     @Test
@@ -103,7 +106,7 @@ class LoanReturnSagaOrchestratorTest {
         Request request = Request.create(Request.HttpMethod.POST, "/api/books/100/return",
                 new HashMap<>(), null, new RequestTemplate());
         doThrow(new FeignException.InternalServerError("Server error", request, null, null))
-                .when(bookCatalogClient).returnBook(anyLong());
+                .when(bookCatalogClient).returnBook(anyLong(), anyString());
         
         // Act & Assert
         assertThatThrownBy(() -> sagaOrchestrator.executeLoanReturnSaga(1L, "Notes"))
@@ -121,7 +124,7 @@ class LoanReturnSagaOrchestratorTest {
         
         when(loanRepository.findById(1L)).thenReturn(Optional.of(loan));
         when(loanRepository.save(any(Loan.class))).thenReturn(loan);
-        doNothing().when(bookCatalogClient).returnBook(anyLong());
+        doNothing().when(bookCatalogClient).returnBook(anyLong(), anyString());
         doNothing().when(loanTrackingService).recordLoanReturned(anyLong(), anyBoolean());
         doNothing().when(loanEventPublisher).publishLoanReturned(any());
         
@@ -141,13 +144,13 @@ class LoanReturnSagaOrchestratorTest {
         
         // First call succeeds (marks as returned), second call fails (return to catalog)
         doNothing().doThrow(new RuntimeException("Catalog error"))
-                .when(bookCatalogClient).returnBook(anyLong());
+                .when(bookCatalogClient).returnBook(anyLong(), anyString());
         
         // Act & Assert
         assertThatThrownBy(() -> sagaOrchestrator.executeLoanReturnSaga(1L, "Notes"))
                 .isInstanceOf(BookNotAvailableException.class);
         
         // Verify compensation attempted to borrow the book again
-        verify(bookCatalogClient).borrowBook(100L);
+        verify(bookCatalogClient).borrowBook(eq(100L), anyString());
     }
 }
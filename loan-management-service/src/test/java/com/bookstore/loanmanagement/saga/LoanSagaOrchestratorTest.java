@@ -4,9 +4,13 @@ import com.bookstore.loanmanagement.client.BookCatalogClient;
 import com.bookstore.loanmanagement.dto.LoanRequest;
 import com.bookstore.loanmanagement.entity.Loan;
 import com.bookstore.loanmanagement.entity.LoanStatus;
+import com.bookstore.loanmanagement.event.InventoryCommand;
+import com.bookstore.loanmanagement.event.InventoryReply;
+import com.bookstore.loanmanagement.event.LoanRequestFailedEvent;
 import com.bookstore.loanmanagement.exception.BookNotAvailableException;
 import com.bookstore.loanmanagement.exception.BookNotFoundException;
 import com.bookstore.loanmanagement.repository.LoanRepository;
+import com.bookstore.loanmanagement.service.InventoryCommandPublisher;
 import com.bookstore.loanmanagement.service.LoanEventPublisher;
 import com.bookstore.loanmanagement.service.LoanTrackingService;
 import feign.FeignException;
@@ -15,11 +19,16 @@ import feign.RequestTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -41,6 +50,12 @@ class LoanSagaOrchestratorTest {
     @Mock
     private LoanEventPublisher loanEventPublisher;
     
+    @Mock
+    private SagaRepository sagaRepository;
+    
+    @Mock
+    private InventoryCommandPublisher inventoryCommandPublisher;
+    
     @InjectMocks
     private LoanSagaOrchestrator sagaOrchestrator;
     
@@ -64,7 +79,7 @@ class LoanSagaOrchestratorTest {
     void executeLoanCreationSaga_Success() {
         // Arrange
         when(loanRepository.save(any(Loan.class))).thenReturn(loan);
-        doNothing().when(bookCatalogClient).borrowBook(anyLong());
+        doNothing().when(bookCatalogClient).borrowBook(anyLong(), anyString());
         doNothing().when(loanTrackingService).recordLoanCreated(anyLong(), anyLong(), anyLong());
         doNothing().when(loanEventPublisher).publishLoanCreated(any());
         
@@ -76,7 +91,7 @@ class LoanSagaOrchestratorTest {
         assertThat(result.getStatus()).isEqualTo(LoanStatus.ACTIVE);
         
         verify(loanRepository, times(2)).save(any(Loan.class)); // Once for PENDING, once for ACTIVE
-        verify(bookCatalogClient).borrowBook(100L);
+        verify(bookCatalogClient).borrowBook(eq(100L), anyString());
         verify(loanTrackingService).recordLoanCreated(anyLong(), eq(1L), eq(100L));
         verify(loanEventPublisher).publishLoanCreated(any());
     }
@@ -89,7 +104,7 @@ class LoanSagaOrchestratorTest {
         Request request = Request.create(Request.HttpMethod.POST, "/api/books/100/borrow",
                 new HashMap<>(), null, new RequestTemplate());
         doThrow(new FeignException.NotFound("Not found", request, null, null))
-                .when(bookCatalogClient).borrowBook(anyLong());
+                .when(bookCatalogClient).borrowBook(anyLong(), anyString());
         
         // Act & Assert
         assertThatThrownBy(() -> sagaOrchestrator.executeLoanCreationSaga(loanRequest))
@@ -110,7 +125,7 @@ class LoanSagaOrchestratorTest {
         Request request = Request.create(Request.HttpMethod.POST, "/api/books/100/borrow",
                 new HashMap<>(), null, new RequestTemplate());
         doThrow(new FeignException.InternalServerError("Server error", request, null, null))
-                .when(bookCatalogClient).borrowBook(anyLong());
+                .when(bookCatalogClient).borrowBook(anyLong(), anyString());
         
         // Act & Assert
         assertThatThrownBy(() -> sagaOrchestrator.executeLoanCreationSaga(loanRequest))
@@ -125,7 +140,7 @@ class LoanSagaOrchestratorTest {
     void getSagaState_ReturnsCorrectState() {
         // Arrange
         when(loanRepository.save(any(Loan.class))).thenReturn(loan);
-        doNothing().when(bookCatalogClient).borrowBook(anyLong());
+        doNothing().when(bookCatalogClient).borrowBook(anyLong(), anyString());
         doNothing().when(loanTrackingService).recordLoanCreated(anyLong(), anyLong(), anyLong());
         doNothing().when(loanEventPublisher).publishLoanCreated(any());
         
@@ -149,7 +164,7 @@ class LoanSagaOrchestratorTest {
         Request request = Request.create(Request.HttpMethod.POST, "/api/books/100/borrow",
                 new HashMap<>(), null, new RequestTemplate());
         doThrow(new FeignException.BadRequest("Bad request", request, null, null))
-                .when(bookCatalogClient).borrowBook(anyLong());
+                .when(bookCatalogClient).borrowBook(anyLong(), anyString());
         
         // Act & Assert
         assertThatThrownBy(() -> sagaOrchestrator.executeLoanCreationSaga(loanRequest))
@@ -158,4 +173,239 @@ class LoanSagaOrchestratorTest {
         // Verify loan was cancelled
         verify(loanTrackingService).recordLoanCancelled(eq(1L), anyString());
     }
+    
+    @Test
+    void executeLoanCreationSaga_StoresEveryStep() {
+        // Arrange
+        when(loanRepository.save(any(Loan.class))).thenReturn(loan);
+        List<SagaState> stored = new ArrayList<>();
+        doAnswer(invocation -> stored.add(invocation.<LoanSagaData>getArgument(0).getState()))
+                .when(sagaRepository).save(any());
+        
+        // Act
+        sagaOrchestrator.executeLoanCreationSaga(loanRequest);
+        
+        // Assert
+        assertThat(stored).containsExactly(
+                SagaState.STARTED, SagaState.LOAN_CREATED, SagaState.BOOK_RESERVED, SagaState.COMPLETED);
+    }
+    
+    @Test
+    void executeLoanCreationSaga_ReservationFails_CompensatesFromLastCompletedStep() {
+        // Arrange
+        when(loanRepository.save(any(Loan.class))).thenReturn(loan);
+        when(loanRepository.findById(1L)).thenReturn(Optional.of(loan));
+        doThrow(new BookNotAvailableException("Failed to reserve book"))
+                .when(bookCatalogClient).borrowBook(anyLong(), anyString());
+        ArgumentCaptor<LoanSagaData> saga = ArgumentCaptor.forClass(LoanSagaData.class);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> sagaOrchestrator.executeLoanCreationSaga(loanRequest))
+                .isInstanceOf(BookNotAvailableException.class);
+        
+        assertThat(loan.getStatus()).isEqualTo(LoanStatus.CANCELLED);
+        verify(bookCatalogClient, never()).returnBook(anyLong(), anyString());
+        verify(sagaRepository, atLeastOnce()).save(saga.capture());
+        assertThat(saga.getValue().getState()).isEqualTo(SagaState.COMPENSATED);
+    }
+    
+    @Test
+    void resumeSaga_FromBookReserved_CompletesWithoutBorrowingAgain() {
+        // Arrange
+        LoanSagaData sagaData = interruptedSaga(SagaState.BOOK_RESERVED, 0);
+        when(loanRepository.findById(1L)).thenReturn(Optional.of(loan));
+        
+        // Act
+        sagaOrchestrator.resumeSaga(sagaData);
+        
+        // Assert
+        assertThat(sagaData.getState()).isEqualTo(SagaState.COMPLETED);
+        assertThat(sagaData.getRetryCount()).isEqualTo(1);
+        assertThat(loan.getStatus()).isEqualTo(LoanStatus.ACTIVE);
+        verify(bookCatalogClient, never()).borrowBook(anyLong(), anyString());
+        verify(loanEventPublisher).publishLoanCreated(any());
+    }
+    
+    @Test
+    void resumeSaga_FromLoanCreated_RepeatsReservationWithSagaId() {
+        // Arrange
+        LoanSagaData sagaData = interruptedSaga(SagaState.LOAN_CREATED, 0);
+        when(loanRepository.findById(1L)).thenReturn(Optional.of(loan));
+        
+        // Act
+        sagaOrchestrator.resumeSaga(sagaData);
+        
+        // Assert
+        assertThat(sagaData.getState()).isEqualTo(SagaState.COMPLETED);
+        verify(bookCatalogClient).borrowBook(100L, "saga-1");
+    }
+    
+    @Test
+    void resumeSaga_AfterTooManyAttempts_Compensates() {
+        // Arrange
+        LoanSagaData sagaData = interruptedSaga(SagaState.BOOK_RESERVED, 3);
+        when(loanRepository.findById(1L)).thenReturn(Optional.of(loan));
+        
+        // Act
+        sagaOrchestrator.resumeSaga(sagaData);
+        
+        // Assert
+        assertThat(sagaData.getState()).isEqualTo(SagaState.COMPENSATED);
+        assertThat(loan.getStatus()).isEqualTo(LoanStatus.CANCELLED);
+        verify(bookCatalogClient).returnBook(100L, "saga-1");
+        verify(loanEventPublisher, never()).publishLoanCreated(any());
+    }
+    
+    @Test
+    void startLoanCreationSaga_CreatesPendingLoanAndSendsBorrowCommand() {
+        // Arrange
+        when(loanRepository.save(any(Loan.class))).thenReturn(loan);
+        
+        // Act
+        LoanSagaData sagaData = sagaOrchestrator.startLoanCreationSaga(loanRequest);
+        
+        // Assert
+        assertThat(sagaData.isAsync()).isTrue();
+        assertThat(sagaData.getState()).isEqualTo(SagaState.LOAN_CREATED);
+        assertThat(sagaData.getLoanId()).isEqualTo(1L);
+        assertThat(loan.getStatus()).isEqualTo(LoanStatus.PENDING);
+        ArgumentCaptor<LocalDateTime> deadline = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(inventoryCommandPublisher).sendBorrowBook(
+            eq(sagaData.getSagaId()), eq(100L), deadline.capture(), eq(sagaData.getCorrelationId()));
+        assertThat(deadline.getValue()).isAfter(LocalDateTime.now());
+        verifyNoInteractions(bookCatalogClient);
+    }
+    
+    @Test
+    void startLoanCreationSaga_CommandNotSent_ReleasesBookAndCancelsLoan() {
+        // Arrange
+        when(loanRepository.save(any(Loan.class))).thenReturn(loan);
+        when(loanRepository.findById(1L)).thenReturn(Optional.of(loan));
+        doThrow(new AmqpException("Broker unavailable")).when(inventoryCommandPublisher)
+            .sendBorrowBook(any(), any(), any(), any());
+        
+        // Act & Assert
+        assertThatThrownBy(() -> sagaOrchestrator.startLoanCreationSaga(loanRequest))
+            .isInstanceOf(AmqpException.class);
+        assertThat(loan.getStatus()).isEqualTo(LoanStatus.CANCELLED);
+        verify(inventoryCommandPublisher).sendReleaseBook(any(), eq(100L), any());
+        verifyNoInteractions(bookCatalogClient);
+    }
+    
+    @Test
+    void handleReservationReply_Success_CompletesSaga() {
+        // Arrange
+        LoanSagaData sagaData = waitingSaga();
+        when(sagaRepository.findById("saga-1", LoanSagaData.class)).thenReturn(Optional.of(sagaData));
+        when(sagaRepository.compareAndSetState("saga-1", SagaState.LOAN_CREATED, SagaState.BOOK_RESERVED))
+            .thenReturn(true);
+        when(loanRepository.findById(1L)).thenReturn(Optional.of(loan));
+        
+        // Act
+        sagaOrchestrator.handleReservationReply(reply(InventoryCommand.BORROW_BOOK, true));
+        
+        // Assert
+        assertThat(sagaData.getState()).isEqualTo(SagaState.COMPLETED);
+        assertThat(loan.getStatus()).isEqualTo(LoanStatus.ACTIVE);
+        verify(loanEventPublisher).publishLoanCreated(any());
+        verify(loanEventPublisher, never()).publishLoanRequestFailed(any());
+    }
+    
+    @Test
+    void handleReservationReply_Refused_ReleasesBookCancelsLoanAndNotifies() {
+        // Arrange
+        LoanSagaData sagaData = waitingSaga();
+        when(sagaRepository.findById("saga-1", LoanSagaData.class)).thenReturn(Optional.of(sagaData));
+        when(sagaRepository.compareAndSetState("saga-1", SagaState.LOAN_CREATED, SagaState.COMPENSATING))
+            .thenReturn(true);
+        when(loanRepository.findById(1L)).thenReturn(Optional.of(loan));
+        
+        // Act
+        sagaOrchestrator.handleReservationReply(reply(InventoryCommand.BORROW_BOOK, false));
+        
+        // Assert
+        assertThat(sagaData.getState()).isEqualTo(SagaState.COMPENSATED);
+        assertThat(loan.getStatus()).isEqualTo(LoanStatus.CANCELLED);
+        verify(inventoryCommandPublisher).sendReleaseBook("saga-1", 100L, "corr-1");
+        ArgumentCaptor<LoanRequestFailedEvent> event = ArgumentCaptor.forClass(LoanRequestFailedEvent.class);
+        verify(loanEventPublisher).publishLoanRequestFailed(event.capture());
+        assertThat(event.getValue().getSagaId()).isEqualTo("saga-1");
+        assertThat(event.getValue().getReason()).isEqualTo("No copies available");
+    }
+    
+    @Test
+    void handleReservationReply_AfterTimeout_IsIgnored() {
+        // Arrange
+        LoanSagaData sagaData = waitingSaga();
+        when(sagaRepository.findById("saga-1", LoanSagaData.class)).thenReturn(Optional.of(sagaData));
+        when(sagaRepository.compareAndSetState("saga-1", SagaState.LOAN_CREATED, SagaState.BOOK_RESERVED))
+            .thenReturn(false);
+        
+        // Act
+        sagaOrchestrator.handleReservationReply(reply(InventoryCommand.BORROW_BOOK, true));
+        
+        // Assert
+        verify(sagaRepository, never()).save(any());
+        verifyNoInteractions(loanRepository, loanEventPublisher);
+    }
+    
+    @Test
+    void timeOutSaga_ReleasesBookCancelsLoanAndNotifies() {
+        // Arrange
+        LoanSagaData sagaData = waitingSaga();
+        when(sagaRepository.compareAndSetState("saga-1", SagaState.LOAN_CREATED, SagaState.COMPENSATING))
+            .thenReturn(true);
+        when(loanRepository.findById(1L)).thenReturn(Optional.of(loan));
+        
+        // Act
+        sagaOrchestrator.timeOutSaga(sagaData);
+        
+        // Assert
+        assertThat(sagaData.getState()).isEqualTo(SagaState.COMPENSATED);
+        assertThat(loan.getStatus()).isEqualTo(LoanStatus.CANCELLED);
+        verify(inventoryCommandPublisher).sendReleaseBook("saga-1", 100L, "corr-1");
+        verify(loanEventPublisher).publishLoanRequestFailed(any());
+        verifyNoInteractions(bookCatalogClient);
+    }
+    
+    @Test
+    void resumeSaga_AsyncSagaWaitingForReply_IsLeftToTimeout() {
+        // Arrange
+        LoanSagaData sagaData = waitingSaga();
+        
+        // Act
+        sagaOrchestrator.resumeSaga(sagaData);
+        
+        // Assert
+        assertThat(sagaData.getState()).isEqualTo(SagaState.LOAN_CREATED);
+        verifyNoInteractions(sagaRepository, inventoryCommandPublisher, bookCatalogClient);
+    }
+    
+    private LoanSagaData waitingSaga() {
+        LoanSagaData sagaData = interruptedSaga(SagaState.LOAN_CREATED, 0);
+        sagaData.setAsync(true);
+        return sagaData;
+    }
+    
+    private InventoryReply reply(String commandType, boolean success) {
+        InventoryReply reply = new InventoryReply();
+        reply.setSagaId("saga-1");
+        reply.setCommandType(commandType);
+        reply.setSuccess(success);
+        reply.setReason(success ? null : "No copies available");
+        return reply;
+    }
+    
+    private LoanSagaData interruptedSaga(SagaState state, int retryCount) {
+        return LoanSagaData.builder()
+            .sagaId("saga-1")
+            .correlationId("corr-1")
+            .userId(1L)
+            .bookId(100L)
+            .loanId(1L)
+            .state(state)
+            .startedAt(LocalDateTime.now().minusMinutes(10))
+            .retryCount(retryCount)
+            .build();
+    }
 }
@@ -0,0 +1,84 @@
+package com.bookstore.loanmanagement.saga;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SagaRecoveryServiceTest {
+
+    @Mock
+    private SagaRepository sagaRepository;
+
+    @Mock
+    private LoanSagaOrchestrator loanSagaOrchestrator;
+
+    @Mock
+    private LoanReturnSagaOrchestrator loanReturnSagaOrchestrator;
+
+    @InjectMocks
+    private SagaRecoveryService recoveryService;
+
+    @Test
+    void recoverStalledSagas_ShouldResumeEachSagaEvenIfOneFails() {
+        // Arrange
+        LoanSagaData first = LoanSagaData.builder().sagaId("first").state(SagaState.LOAN_CREATED).build();
+        LoanSagaData second = LoanSagaData.builder().sagaId("second").state(SagaState.BOOK_RESERVED).build();
+        LoanReturnSagaData returning = LoanReturnSagaData.builder().sagaId("return").state(SagaState.LOAN_CREATED).build();
+        when(sagaRepository.findStalled(eq(LoanSagaData.class), eq(SagaState.RESUMABLE), any()))
+                .thenReturn(List.of(first, second));
+        when(sagaRepository.findStalled(eq(LoanReturnSagaData.class), eq(SagaState.RESUMABLE), any()))
+                .thenReturn(List.of(returning));
+        doThrow(new IllegalStateException("Database unavailable")).when(loanSagaOrchestrator).resumeSaga(first);
+
+        // Act
+        recoveryService.recoverStalledSagas();
+
+        // Assert
+        verify(loanSagaOrchestrator).resumeSaga(second);
+        verify(loanReturnSagaOrchestrator).resumeSaga(returning);
+    }
+
+    @Test
+    void timeOutAsyncSagas_ShouldOnlyTimeOutAsyncSagasWaitingForReply() {
+        // Arrange
+        LoanSagaData waiting = LoanSagaData.builder().sagaId("async").state(SagaState.LOAN_CREATED).async(true).build();
+        LoanSagaData sync = LoanSagaData.builder().sagaId("sync").state(SagaState.LOAN_CREATED).build();
+        when(sagaRepository.findStalled(eq(LoanSagaData.class), eq(EnumSet.of(SagaState.LOAN_CREATED)), any()))
+                .thenReturn(List.of(waiting, sync));
+
+        // Act
+        recoveryService.timeOutAsyncSagas();
+
+        // Assert
+        verify(loanSagaOrchestrator).timeOutSaga(waiting);
+        verify(loanSagaOrchestrator, never()).timeOutSaga(sync);
+    }
+
+    @Test
+    void purgeFinishedSagas_ShouldDeleteSagasOlderThanRetention() {
+        // Arrange
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        // Act
+        recoveryService.purgeFinishedSagas();
+
+        // Assert
+        verify(sagaRepository).deleteFinishedBefore(cutoff.capture());
+        assertThat(cutoff.getValue()).isCloseTo(LocalDateTime.now().minusHours(24), within(1, ChronoUnit.MINUTES));
+    }
+}
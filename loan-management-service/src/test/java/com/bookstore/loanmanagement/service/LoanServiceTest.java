@@ -29,6 +29,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -76,7 +78,7 @@ class LoanServiceTest {
         when(bookCatalogClient.checkAvailability(anyLong())).thenReturn(bookResponse);
         when(loanRepository.findByUserIdAndStatus(anyLong(), any())).thenReturn(List.of());
         when(loanRepository.save(any(Loan.class))).thenReturn(loan);
-        doNothing().when(bookCatalogClient).borrowBook(anyLong());
+        doNothing().when(bookCatalogClient).borrowBook(anyLong(), anyString());
         doNothing().when(loanTrackingService).recordLoanCreated(anyLong(), anyLong(), anyLong());
 
         // Act
@@ -89,7 +91,7 @@ class LoanServiceTest {
         assertThat(response.getStatus()).isEqualTo(LoanStatus.ACTIVE);
         
         verify(bookCatalogClient).checkAvailability(1L);
-        verify(bookCatalogClient).borrowBook(1L);
+        verify(bookCatalogClient).borrowBook(eq(1L), anyString());
         verify(loanRepository).save(any(Loan.class));
         verify(loanTrackingService).recordLoanCreated(anyLong(), eq(1L), eq(1L));
     }
@@ -147,7 +149,7 @@ class LoanServiceTest {
         // Arrange
         when(loanRepository.findById(anyLong())).thenReturn(Optional.of(loan));
         when(loanRepository.save(any(Loan.class))).thenReturn(loan);
-        doNothing().when(bookCatalogClient).returnBook(anyLong());
+        doNothing().when(bookCatalogClient).returnBook(anyLong(), anyString());
         doNothing().when(loanTrackingService).recordLoanReturned(anyLong(), anyBoolean());
 
         // Act
@@ -158,7 +160,7 @@ class LoanServiceTest {
         assertThat(response.getStatus()).isEqualTo(LoanStatus.RETURNED);
         
         verify(loanRepository).findById(1L);
-        verify(bookCatalogClient).returnBook(1L);
+        verify(bookCatalogClient).returnBook(eq(1L), anyString());
         verify(loanTrackingService).recordLoanReturned(anyLong(), anyBoolean());
     }
 
@@ -1,9 +1,9 @@
 package com.bookstore.notification.config;
 
+import com.bookstore.notification.event.EventCodec;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,22 +19,23 @@ public class RabbitMQConfig {
     public static final String LOAN_RETURNED_QUEUE = "notification.loan.returned";
     public static final String LOAN_OVERDUE_QUEUE = "notification.loan.overdue";
     public static final String LOAN_DUE_SOON_QUEUE = "notification.loan.due-soon";
+    public static final String LOAN_REQUEST_FAILED_QUEUE = "notification.loan.request-failed";
 
     /**
-     * Configure message converter to use Jackson for JSON serialization
+     * Configure message converter to read and write the versioned event envelope
      */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter jsonMessageConverter(EventCodec eventCodec) {
+        return eventCodec.messageConverter();
     }
 
     /**
-     * Configure RabbitTemplate with JSON message converter
+     * Configure RabbitTemplate with the event envelope message converter
      */
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter jsonMessageConverter) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(jsonMessageConverter);
         return rabbitTemplate;
     }
 
@@ -90,6 +91,17 @@ public class RabbitMQConfig {
                 .build();
     }
 
+    /**
+     * Declare loan.request-failed queue for notifications
+     */
+    @Bean
+    public Queue loanRequestFailedQueue() {
+        return QueueBuilder.durable(LOAN_REQUEST_FAILED_QUEUE)
+                .withArgument("x-message-ttl", 86400000)
+                .withArgument("x-max-length", 10000)
+                .build();
+    }
+
     /**
      * Bind loan.created queue to exchange
      */
@@ -129,4 +141,14 @@ public class RabbitMQConfig {
                 .to(bookstoreExchange)
                 .with("loan.due-soon");
     }
+
+    /**
+     * Bind loan.request-failed queue to exchange
+     */
+    @Bean
+    public Binding loanRequestFailedBinding(Queue loanRequestFailedQueue, TopicExchange bookstoreExchange) {
+        return BindingBuilder.bind(loanRequestFailedQueue)
+                .to(bookstoreExchange)
+                .with("loan.request.failed");
+    }
 }
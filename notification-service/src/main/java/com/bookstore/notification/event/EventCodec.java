@@ -0,0 +1,216 @@
+package com.bookstore.notification.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes and decodes the versioned event envelope used on bookstore.events.
+ *
+ * The envelope is compact JSON: {"v":1,"type":"BOOK_CREATED","id":"...","cid":"...","ts":"...","data":{...}}.
+ * An event's metadata (eventType, eventId, correlationId, timestamp) is moved into the header rather than
+ * repeated in data, null fields are omitted and dates stay in Jackson's numeric form, which is both shorter
+ * and cheaper to parse than ISO strings. Both directions stream: encoding writes the event's
+ * properties straight into the envelope, and decoding replays the header and data tokens into a single
+ * bind, so a consumer's own event class is populated exactly as it would be from the plain event JSON.
+ *
+ * Every service on bookstore.events carries a copy of this codec; the wire format is described in
+ * book-catalog-service/EVENT_PUBLISHING.md and changes to it need a new version number.
+ */
+@Component
+public class EventCodec {
+
+    public static final String CONTENT_TYPE = "application/vnd.bookstore.event+json";
+    public static final int VERSION = 1;
+
+    // Event property -> envelope header field, in the order they are written
+    private static final Map<String, String> HEADER_FIELDS = new LinkedHashMap<>();
+    private static final Map<String, String> HEADER_PROPERTIES = new HashMap<>();
+
+    static {
+        HEADER_FIELDS.put("eventType", "type");
+        HEADER_FIELDS.put("eventId", "id");
+        HEADER_FIELDS.put("correlationId", "cid");
+        HEADER_FIELDS.put("timestamp", "ts");
+        HEADER_FIELDS.forEach((property, field) -> HEADER_PROPERTIES.put(field, property));
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, EventLayout> layouts = new ConcurrentHashMap<>();
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public EventCodec() {
+        this.objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .build();
+    }
+
+    /**
+     * Mapper the envelope is written with, for callers that need to read or write event JSON themselves
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * AMQP converter that writes events as envelopes and reads envelopes into the listener's parameter type
+     */
+    public MessageConverter messageConverter() {
+        return new EventMessageConverter(this);
+    }
+
+    public byte[] encode(Object event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            EventLayout layout = layoutOf(event.getClass());
+            generator.writeStartObject();
+            generator.writeNumberField("v", VERSION);
+            for (Map.Entry<String, AnnotatedMember> field : layout.header().entrySet()) {
+                writeField(generator, field.getKey(), field.getValue().getValue(event));
+            }
+            generator.writeObjectFieldStart("data");
+            for (Map.Entry<String, AnnotatedMember> field : layout.data().entrySet()) {
+                writeField(generator, field.getKey(), field.getValue().getValue(event));
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new MessageConversionException("Failed to encode event " + event.getClass().getSimpleName(), e);
+        }
+        return out.toByteArray();
+    }
+
+    public String encodeToString(Object event) {
+        return new String(encode(event), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the envelope without binding its data to an event class
+     */
+    public EventEnvelope readEnvelope(byte[] body) {
+        try {
+            return objectMapper.treeToValue(readSupportedTree(body), EventEnvelope.class);
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to read event envelope", e);
+        }
+    }
+
+    public <T> T decode(byte[] body, Class<T> type) {
+        return decode(body, objectMapper.constructType(type));
+    }
+
+    /**
+     * Stream the header fields and the data's fields into one token buffer and bind that once
+     */
+    public <T> T decode(byte[] body, JavaType type) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new MessageConversionException("Event envelope is not a JSON object");
+            }
+            int version = 0;
+            TokenBuffer event = new TokenBuffer(parser);
+            event.writeStartObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                String property = HEADER_PROPERTIES.get(name);
+                if ("v".equals(name)) {
+                    version = parser.getValueAsInt(0);
+                } else if ("data".equals(name) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        event.copyCurrentStructure(parser);
+                    }
+                } else if (property != null) {
+                    event.writeFieldName(property);
+                    event.copyCurrentStructure(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            event.writeEndObject();
+            if (version < 1 || version > VERSION) {
+                throw new MessageConversionException("Unsupported event envelope version: " + version);
+            }
+            try (JsonParser eventParser = event.asParser(objectMapper)) {
+                return readers.computeIfAbsent(type, objectMapper::readerFor).readValue(eventParser);
+            }
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to decode event envelope into " + type, e);
+        }
+    }
+
+    private void writeField(JsonGenerator generator, String name, Object value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            objectMapper.writeValue(generator, value);
+        }
+    }
+
+    /**
+     * Split an event class's JSON properties into header and data, once per class
+     */
+    private EventLayout layoutOf(Class<?> type) {
+        return layouts.computeIfAbsent(type, key -> {
+            BeanDescription description = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(key));
+            Map<String, AnnotatedMember> header = new LinkedHashMap<>();
+            Map<String, AnnotatedMember> data = new LinkedHashMap<>();
+            for (BeanPropertyDefinition property : description.findProperties()) {
+                AnnotatedMember accessor = property.getAccessor();
+                if (!property.couldSerialize() || accessor == null) {
+                    continue;
+                }
+                accessor.fixAccess(true);
+                String headerName = HEADER_FIELDS.get(property.getName());
+                if (headerName != null) {
+                    header.put(headerName, accessor);
+                } else {
+                    data.put(property.getName(), accessor);
+                }
+            }
+            if (data.isEmpty() && header.isEmpty()) {
+                throw new IllegalArgumentException("Events must serialize to a JSON object: " + key);
+            }
+            return new EventLayout(header, data);
+        });
+    }
+
+    private record EventLayout(Map<String, AnnotatedMember> header, Map<String, AnnotatedMember> data) {
+    }
+
+    private ObjectNode readSupportedTree(byte[] body) throws IOException {
+        if (!(objectMapper.readTree(body) instanceof ObjectNode envelope)) {
+            throw new MessageConversionException("Event envelope is not a JSON object");
+        }
+        int version = envelope.path("v").asInt(0);
+        if (version < 1 || version > VERSION) {
+            throw new MessageConversionException("Unsupported event envelope version: " + version);
+        }
+        return envelope;
+    }
+}
@@ -25,5 +25,6 @@ public class LoanEvent {
     private LocalDate loanDate;
     private LocalDate dueDate;
     private LocalDate returnDate;
-    private String eventType; // CREATED, RETURNED, OVERDUE, DUE_SOON
+    private String eventType; // CREATED, RETURNED, OVERDUE, DUE_SOON, LOAN_REQUEST_FAILED
+    private String reason; // Why a loan request failed
 }
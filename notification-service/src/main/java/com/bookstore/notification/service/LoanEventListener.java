@@ -166,4 +166,40 @@ public class LoanEventListener {
             log.error("Failed to send loan due soon notification for loan: {}", event.getLoanId(), e);
         }
     }
+
+    /**
+     * Handle loan request failed events, for loan requests accepted without waiting for the outcome
+     */
+    @RabbitListener(queues = "notification.loan.request-failed")
+    public void handleLoanRequestFailed(LoanEvent event) {
+        log.info("Received loan request failed event for book: {}", event.getBookId());
+
+        try {
+            String subject = "Loan Request Could Not Be Completed";
+            String content = String.format(
+                    "Dear %s,\n\n" +
+                    "We could not complete your loan request.\n\n" +
+                    "Book: %s\n" +
+                    "Reason: %s\n\n" +
+                    "No loan was created. Please try again later.\n\n" +
+                    "Thank you for using our library service!",
+                    event.getUserName(),
+                    event.getBookTitle() != null ? event.getBookTitle() : event.getBookId(),
+                    event.getReason()
+            );
+
+            NotificationRequest request = NotificationRequest.builder()
+                    .userId(event.getUserId())
+                    .type(NotificationType.EMAIL)
+                    .recipient(event.getUserEmail())
+                    .subject(subject)
+                    .content(content)
+                    .build();
+
+            notificationService.sendNotification(request);
+            log.info("Loan request failed notification sent for user: {}", event.getUserId());
+        } catch (Exception e) {
+            log.error("Failed to send loan request failed notification for user: {}", event.getUserId(), e);
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package com.bookstore.notification.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventMessageConverterTest {
+
+    private final EventCodec codec = new EventCodec();
+    private final MessageConverter converter = codec.messageConverter();
+    private final ObjectMapper legacyMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final Jackson2JsonMessageConverter legacyConverter = new Jackson2JsonMessageConverter(legacyMapper);
+
+    private LoanEvent loanEvent() {
+        return LoanEvent.builder()
+                .loanId(1L)
+                .userId(2L)
+                .bookId(3L)
+                .bookTitle("Test Book")
+                .userEmail("reader@example.com")
+                .dueDate(LocalDate.of(2024, 3, 15))
+                .eventType("CREATED")
+                .build();
+    }
+
+    @Test
+    void fromMessage_ShouldReadEnvelopeIntoListenerType() {
+        // Given
+        Message message = converter.toMessage(loanEvent(), new MessageProperties());
+        message.getMessageProperties().setInferredArgumentType(LoanEvent.class);
+
+        // When
+        Object decoded = converter.fromMessage(message);
+
+        // Then
+        assertEquals(EventCodec.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertEquals(loanEvent(), decoded);
+    }
+
+    @Test
+    void fromMessage_ShouldReadPlainJsonWithoutEnvelope() {
+        // Given
+        Message message = legacyConverter.toMessage(loanEvent(), new MessageProperties());
+        message.getMessageProperties().setInferredArgumentType(LoanEvent.class);
+
+        // When
+        Object decoded = converter.fromMessage(message);
+
+        // Then
+        assertEquals(loanEvent(), decoded);
+    }
+
+    @Test
+    void fromMessage_ShouldUnwrapDoubleEncodedEventJson() throws Exception {
+        // Given
+        Message message = legacyConverter.toMessage(legacyMapper.writeValueAsString(loanEvent()), new MessageProperties());
+        message.getMessageProperties().setInferredArgumentType(LoanEvent.class);
+
+        // When
+        Object decoded = converter.fromMessage(message);
+
+        // Then
+        assertEquals(loanEvent(), decoded);
+    }
+
+    @Test
+    void fromMessage_ShouldUnwrapDoubleEncodedEnvelope() {
+        // Given
+        Message message = legacyConverter.toMessage(codec.encodeToString(loanEvent()), new MessageProperties());
+        message.getMessageProperties().setInferredArgumentType(LoanEvent.class);
+
+        // When
+        Object decoded = converter.fromMessage(message);
+
+        // Then
+        assertEquals(loanEvent(), decoded);
+    }
+
+    @Test
+    void fromMessage_ShouldKeepDoubleEncodedJsonForStringListeners() throws Exception {
+        // Given
+        String json = legacyMapper.writeValueAsString(loanEvent());
+        Message message = legacyConverter.toMessage(json, new MessageProperties());
+        message.getMessageProperties().setInferredArgumentType(String.class);
+
+        // When
+        Object decoded = converter.fromMessage(message);
+
+        // Then
+        assertEquals(json, decoded);
+    }
+}
@@ -1,10 +1,13 @@
 package com.bookstore.recommendation.client;
 
+import com.bookstore.recommendation.dto.BookPage;
 import com.bookstore.recommendation.dto.BookResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
 import java.util.List;
 
 @FeignClient(
@@ -16,6 +19,25 @@ public interface BookCatalogClient {
     @GetMapping("/api/books/{id}")
     BookResponse getBookById(@PathVariable("id") Long id);
     
+    /**
+     * Several books in one call, in the order requested; unknown IDs are left out
+     */
+    @GetMapping("/api/books")
+    List<BookResponse> getBooksByIds(@RequestParam("ids") Collection<Long> ids);
+    
+    /**
+     * Unpaged listing, capped by the catalog; prefer {@link #getBooksPage}
+     */
     @GetMapping("/api/books")
     List<BookResponse> getAllBooks();
+    
+    @GetMapping("/api/books/page")
+    BookPage getBooksPage(@RequestParam("page") int page, @RequestParam("size") int size);
+    
+    /**
+     * A page of one author's books, filtered by the catalog
+     */
+    @GetMapping("/api/books/page")
+    BookPage getBooksPageByAuthor(@RequestParam("authorId") Long authorId,
+                                  @RequestParam("page") int page, @RequestParam("size") int size);
 }
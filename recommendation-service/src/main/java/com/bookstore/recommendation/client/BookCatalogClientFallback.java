@@ -1,5 +1,6 @@
 package com.bookstore.recommendation.client;
 
+import com.bookstore.recommendation.dto.BookPage;
 import com.bookstore.recommendation.dto.BookResponse;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -7,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -38,6 +40,15 @@ public class BookCatalogClientFallback implements BookCatalogClient {
         return null;
     }
     
+    @Override
+    public List<BookResponse> getBooksByIds(Collection<Long> ids) {
+        log.warn("Fallback: Unable to fetch {} books by id. Returning empty list for graceful degradation.", ids.size());
+        fallbackCounter.increment();
+        
+        // Graceful degradation: recommendations are returned without book info
+        return Collections.emptyList();
+    }
+    
     @Override
     public List<BookResponse> getAllBooks() {
         log.warn("Fallback: Unable to fetch books. Returning empty list for graceful degradation.");
@@ -47,4 +58,21 @@ public class BookCatalogClientFallback implements BookCatalogClient {
         // with cached or alternative data
         return Collections.emptyList();
     }
+    
+    @Override
+    public BookPage getBooksPage(int page, int size) {
+        log.warn("Fallback: Unable to fetch books page {}. Returning empty page for graceful degradation.", page);
+        fallbackCounter.increment();
+        
+        return BookPage.builder().page(page).size(size).hasNext(false).build();
+    }
+    
+    @Override
+    public BookPage getBooksPageByAuthor(Long authorId, int page, int size) {
+        log.warn("Fallback: Unable to fetch page {} of books by author {}. Returning empty page for graceful degradation.",
+                page, authorId);
+        fallbackCounter.increment();
+        
+        return BookPage.builder().page(page).size(size).hasNext(false).build();
+    }
 }
@@ -0,0 +1,26 @@
+package com.bookstore.recommendation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of the catalog's paged book listing
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookPage {
+    
+    @Builder.Default
+    private List<BookResponse> content = new ArrayList<>();
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private Long totalElements;
+}
@@ -16,6 +16,6 @@ public class LoanEvent {
     private Long loanId;
     private Long userId;
     private Long bookId;
-    private String eventType; // BORROWED, RETURNED
+    private String eventType; // BORROWED/LOAN_CREATED, RETURNED/LOAN_RETURNED
     private LocalDateTime timestamp;
 }
@@ -1,7 +1,6 @@
 package com.bookstore.recommendation.service;
 
 import com.bookstore.recommendation.event.LoanEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -14,18 +13,15 @@ public class LoanEventListener {
     
     private final AnalyticsService analyticsService;
     private final UserPreferenceService userPreferenceService;
-    private final ObjectMapper objectMapper;
     
     @RabbitListener(queues = "${rabbitmq.queue.loan-events}")
-    public void handleLoanEvent(String message) {
+    public void handleLoanEvent(LoanEvent event) {
         try {
-            log.info("Received loan event: {}", message);
-            
-            LoanEvent event = objectMapper.readValue(message, LoanEvent.class);
+            log.info("Received loan event: {}", event);
             
             switch (event.getEventType()) {
-                case "BORROWED" -> handleBorrowEvent(event);
-                case "RETURNED" -> handleReturnEvent(event);
+                case "BORROWED", "LOAN_CREATED" -> handleBorrowEvent(event);
+                case "RETURNED", "LOAN_RETURNED" -> handleReturnEvent(event);
                 default -> log.warn("Unknown event type: {}", event.getEventType());
             }
         } catch (Exception e) {
@@ -1,6 +1,7 @@
 package com.bookstore.recommendation.service;
 
 import com.bookstore.recommendation.client.BookCatalogClient;
+import com.bookstore.recommendation.dto.BookPage;
 import com.bookstore.recommendation.dto.BookResponse;
 import com.bookstore.recommendation.dto.RecommendationResponse;
 import com.bookstore.recommendation.entity.BookAnalytics;
@@ -18,8 +19,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -34,6 +41,7 @@ public class RecommendationService {
     
     private static final int MAX_RECOMMENDATIONS = 10;
     private static final int RECOMMENDATION_EXPIRY_DAYS = 7;
+    private static final int CATALOG_PAGE_SIZE = 100;
     
     @Transactional
     public List<RecommendationResponse> getRecommendationsForUser(Long userId) {
@@ -171,18 +179,28 @@ public class RecommendationService {
         List<Recommendation> recommendations = new ArrayList<>();
         LocalDateTime now = LocalDateTime.now();
         
-        // Get all books
-        List<BookResponse> allBooks = bookCatalogClient.getAllBooks();
-        
-        // Filter books based on user preferences
-        List<BookResponse> matchingBooks = allBooks.stream()
-            .filter(book -> !userPref.getBorrowedBooks().contains(book.getId()))
-            .filter(book -> book.getAuthors() != null && book.getAuthors().stream()
-                .anyMatch(author -> userPref.getFavoriteAuthors().contains(author.getId())))
-            .limit(limit)
-            .toList();
+        // Ask the catalog for each favourite author's books instead of scanning the whole catalog,
+        // stopping as soon as enough unread books are found
+        Set<Long> borrowed = new HashSet<>(userPref.getBorrowedBooks());
+        Map<Long, BookResponse> matchingBooks = new LinkedHashMap<>();
+        for (Long authorId : userPref.getFavoriteAuthors()) {
+            for (int page = 0; matchingBooks.size() < limit; page++) {
+                BookPage books = bookCatalogClient.getBooksPageByAuthor(authorId, page, CATALOG_PAGE_SIZE);
+                if (books == null || books.getContent() == null) {
+                    break;
+                }
+                for (BookResponse book : books.getContent()) {
+                    if (matchingBooks.size() < limit && !borrowed.contains(book.getId())) {
+                        matchingBooks.putIfAbsent(book.getId(), book);
+                    }
+                }
+                if (!books.isHasNext()) {
+                    break;
+                }
+            }
+        }
         
-        for (BookResponse book : matchingBooks) {
+        for (BookResponse book : matchingBooks.values()) {
             recommendations.add(Recommendation.builder()
                 .userId(userId)
                 .bookId(book.getId())
@@ -199,12 +217,39 @@ public class RecommendationService {
     }
     
     private List<RecommendationResponse> mapToResponseList(List<Recommendation> recommendations) {
+        Map<Long, BookResponse> books = fetchBooks(recommendations);
         return recommendations.stream()
-            .map(this::mapToResponse)
+            .map(recommendation -> mapToResponse(recommendation, books.get(recommendation.getBookId())))
             .collect(Collectors.toList());
     }
     
-    private RecommendationResponse mapToResponse(Recommendation recommendation) {
+    /**
+     * Book info for all recommended books in one catalog call; recommendations without a match are
+     * returned without book info
+     */
+    private Map<Long, BookResponse> fetchBooks(List<Recommendation> recommendations) {
+        Set<Long> bookIds = recommendations.stream()
+            .map(Recommendation::getBookId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (bookIds.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            List<BookResponse> books = bookCatalogClient.getBooksByIds(bookIds);
+            if (books == null) {
+                return Map.of();
+            }
+            return books.stream()
+                .filter(book -> book != null && book.getId() != null)
+                .collect(Collectors.toMap(BookResponse::getId, book -> book, (first, duplicate) -> first));
+        } catch (Exception e) {
+            log.warn("Failed to fetch book info for books: {}", bookIds, e);
+            return Map.of();
+        }
+    }
+    
+    private RecommendationResponse mapToResponse(Recommendation recommendation, BookResponse book) {
         RecommendationResponse response = RecommendationResponse.builder()
             .id(recommendation.getId())
             .userId(recommendation.getUserId())
@@ -215,20 +260,14 @@ public class RecommendationService {
             .createdAt(recommendation.getCreatedAt())
             .build();
         
-        // Fetch book info
-        try {
-            BookResponse book = bookCatalogClient.getBookById(recommendation.getBookId());
-            if (book != null) {
-                response.setBookInfo(RecommendationResponse.BookInfo.builder()
-                    .id(book.getId())
-                    .title(book.getTitle())
-                    .isbn(book.getIsbn())
-                    .publicationYear(book.getPublicationYear())
-                    .availableCopies(book.getAvailableCopies())
-                    .build());
-            }
-        } catch (Exception e) {
-            log.warn("Failed to fetch book info for book: {}", recommendation.getBookId(), e);
+        if (book != null) {
+            response.setBookInfo(RecommendationResponse.BookInfo.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .isbn(book.getIsbn())
+                .publicationYear(book.getPublicationYear())
+                .availableCopies(book.getAvailableCopies())
+                .build());
         }
         
         return response;
@@ -1,6 +1,7 @@
 package com.bookstore.recommendation.service;
 
 import com.bookstore.recommendation.client.BookCatalogClient;
+import com.bookstore.recommendation.dto.BookPage;
 import com.bookstore.recommendation.dto.BookResponse;
 import com.bookstore.recommendation.dto.RecommendationResponse;
 import com.bookstore.recommendation.entity.BookAnalytics;
@@ -22,9 +23,11 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -80,8 +83,8 @@ class RecommendationServiceTest {
         List<Recommendation> existingRecs = List.of(recommendation);
         when(recommendationRepository.findByUserIdAndActiveTrueOrderByScoreDesc(userId))
             .thenReturn(existingRecs);
-        when(bookCatalogClient.getBookById(1L))
-            .thenReturn(createBookResponse(1L, "Test Book"));
+        when(bookCatalogClient.getBooksByIds(Set.of(1L)))
+            .thenReturn(List.of(createBookResponse(1L, "Test Book")));
         
         // When
         List<RecommendationResponse> result = recommendationService.getRecommendationsForUser(userId);
@@ -104,8 +107,8 @@ class RecommendationServiceTest {
             .thenReturn(List.of(bookAnalytics));
         when(recommendationRepository.saveAll(any()))
             .thenAnswer(invocation -> invocation.getArgument(0));
-        when(bookCatalogClient.getBookById(1L))
-            .thenReturn(createBookResponse(1L, "Test Book"));
+        when(bookCatalogClient.getBooksByIds(Set.of(1L)))
+            .thenReturn(List.of(createBookResponse(1L, "Test Book")));
         
         // When
         List<RecommendationResponse> result = recommendationService.getRecommendationsForUser(userId);
@@ -124,8 +127,8 @@ class RecommendationServiceTest {
             .thenReturn(List.of(bookAnalytics));
         when(recommendationRepository.saveAll(any()))
             .thenAnswer(invocation -> invocation.getArgument(0));
-        when(bookCatalogClient.getBookById(1L))
-            .thenReturn(createBookResponse(1L, "Test Book"));
+        when(bookCatalogClient.getBooksByIds(Set.of(1L)))
+            .thenReturn(List.of(createBookResponse(1L, "Test Book")));
         
         // When
         List<RecommendationResponse> result = 
@@ -156,6 +159,76 @@ class RecommendationServiceTest {
         verify(recommendationRepository, times(2)).saveAll(any());
     }
     
+    @Test
+    void testGetRecommendationsByType_ContentBasedQueriesFavoriteAuthorsUntilLimitIsMet() {
+        // Given
+        UserPreference preference = UserPreference.builder()
+            .userId(userId)
+            .favoriteAuthors(List.of(7L, 8L, 9L))
+            .borrowedBooks(List.of(2L))
+            .build();
+        List<BookResponse> byFirstAuthor = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            byFirstAuthor.add(createBookResponse(id, "Book " + id));
+        }
+        List<BookResponse> bySecondAuthor = new ArrayList<>();
+        for (long id = 4; id <= 12; id++) {
+            bySecondAuthor.add(createBookResponse(id, "Book " + id));
+        }
+        when(recommendationRepository.findByUserIdAndTypeAndActiveTrue(userId, RecommendationType.CONTENT_BASED))
+            .thenReturn(new ArrayList<>());
+        when(userPreferenceRepository.findByUserId(userId)).thenReturn(Optional.of(preference));
+        when(bookCatalogClient.getBooksPageByAuthor(eq(7L), eq(0), anyInt()))
+            .thenReturn(BookPage.builder().content(byFirstAuthor).hasNext(false).build());
+        when(bookCatalogClient.getBooksPageByAuthor(eq(8L), eq(0), anyInt()))
+            .thenReturn(BookPage.builder().content(bySecondAuthor).hasNext(true).build());
+        when(recommendationRepository.saveAll(any()))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        List<RecommendationResponse> result = 
+            recommendationService.getRecommendationsByType(userId, RecommendationType.CONTENT_BASED);
+        
+        // Then - borrowed book 2 is skipped, book 4 of both authors is recommended once
+        assertThat(result).extracting(RecommendationResponse::getBookId)
+            .containsExactly(1L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+        verify(bookCatalogClient, never()).getBooksPageByAuthor(eq(8L), eq(1), anyInt());
+        verify(bookCatalogClient, never()).getBooksPageByAuthor(eq(9L), anyInt(), anyInt());
+        verify(bookCatalogClient, never()).getBooksPage(anyInt(), anyInt());
+        verify(bookCatalogClient, never()).getAllBooks();
+    }
+    
+    @Test
+    void testGetRecommendationsForUser_FetchesAllBooksInOneCall() {
+        // Given
+        List<Recommendation> existingRecs = new ArrayList<>();
+        for (long bookId = 1; bookId <= 3; bookId++) {
+            existingRecs.add(Recommendation.builder()
+                .id("rec" + bookId)
+                .userId(userId)
+                .bookId(bookId)
+                .score(0.9)
+                .type(RecommendationType.POPULAR)
+                .active(true)
+                .build());
+        }
+        when(recommendationRepository.findByUserIdAndActiveTrueOrderByScoreDesc(userId))
+            .thenReturn(existingRecs);
+        when(bookCatalogClient.getBooksByIds(Set.of(1L, 2L, 3L)))
+            .thenReturn(List.of(createBookResponse(3L, "Third"), createBookResponse(1L, "First")));
+        
+        // When
+        List<RecommendationResponse> result = recommendationService.getRecommendationsForUser(userId);
+        
+        // Then - book 2 is no longer in the catalog
+        assertThat(result).hasSize(3);
+        assertThat(result.get(0).getBookInfo().getTitle()).isEqualTo("First");
+        assertThat(result.get(1).getBookInfo()).isNull();
+        assertThat(result.get(2).getBookInfo().getTitle()).isEqualTo("Third");
+        verify(bookCatalogClient, times(1)).getBooksByIds(any());
+        verify(bookCatalogClient, never()).getBookById(any());
+    }
+    
     private BookResponse createBookResponse(Long id, String title) {
         return BookResponse.builder()
             .id(id)